@@ -0,0 +1,83 @@
+-- Benchmark da busca textual de produtos (V007) sobre 1 milhão de produtos gerados.
+-- Uso, contra um banco descartável já migrado pelo Liquibase:
+--   psql -h localhost -U root -d erpdb -f scripts/benchmark_busca_produtos.sql
+-- Tudo roda em uma transação desfeita no final; nada fica gravado.
+
+\timing on
+BEGIN;
+
+INSERT INTO fornecedores (nome, documento, ativo)
+VALUES ('Fornecedor Benchmark', '99999999000199', TRUE);
+
+-- Nomes combinando categoria, marca e modelo para termos com seletividade variada
+INSERT INTO produtos (nome, descricao, codigo_barras, preco, fornecedor_id)
+SELECT (ARRAY['Notebook', 'Monitor', 'Teclado', 'Mouse', 'Cadeira', 'Impressora', 'Roteador', 'Headset'])[1 + i % 8]
+           || ' ' || (ARRAY['Dell', 'Lenovo', 'Samsung', 'LG', 'Logitech', 'HP', 'Multilaser', 'Positivo'])[1 + (i / 8) % 8]
+           || ' ' || 'Modelo ' || i,
+       'Produto gerado para benchmark com garantia de ' || (1 + i % 24) || ' meses e entrega '
+           || (ARRAY['expressa', 'econômica', 'agendada'])[1 + i % 3],
+       'BENCH' || lpad(i::text, 10, '0'),
+       round((10 + random() * 5000)::numeric, 2),
+       currval('fornecedores_id_seq')
+FROM generate_series(1, 1000000) AS i;
+
+ANALYZE produtos;
+
+-- Primeira página: termo frequente, termo raro, prefixo e erro de digitação
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT r.id, r.relevancia FROM (
+  SELECT CAST(p.id AS BIGINT) AS id,
+         ROUND(CAST(ts_rank(p.busca, consulta) + similarity(p.nome, 'notebook dell') AS NUMERIC), 6) AS relevancia
+  FROM produtos p, websearch_to_tsquery('portuguese', 'notebook dell') consulta
+  WHERE p.busca @@ consulta OR p.nome ILIKE 'notebook dell%' OR p.nome % 'notebook dell'
+) r
+ORDER BY r.relevancia DESC, r.id
+LIMIT 21;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT r.id, r.relevancia FROM (
+  SELECT CAST(p.id AS BIGINT) AS id,
+         ROUND(CAST(ts_rank(p.busca, consulta) + similarity(p.nome, 'Modelo 424242') AS NUMERIC), 6) AS relevancia
+  FROM produtos p, websearch_to_tsquery('portuguese', 'Modelo 424242') consulta
+  WHERE p.busca @@ consulta OR p.nome ILIKE 'Modelo 424242%' OR p.nome % 'Modelo 424242'
+) r
+ORDER BY r.relevancia DESC, r.id
+LIMIT 21;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT r.id, r.relevancia FROM (
+  SELECT CAST(p.id AS BIGINT) AS id,
+         ROUND(CAST(ts_rank(p.busca, consulta) + similarity(p.nome, 'Impres') AS NUMERIC), 6) AS relevancia
+  FROM produtos p, websearch_to_tsquery('portuguese', 'Impres') consulta
+  WHERE p.busca @@ consulta OR p.nome ILIKE 'Impres%' OR p.nome % 'Impres'
+) r
+ORDER BY r.relevancia DESC, r.id
+LIMIT 21;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT r.id, r.relevancia FROM (
+  SELECT CAST(p.id AS BIGINT) AS id,
+         ROUND(CAST(ts_rank(p.busca, consulta) + similarity(p.nome, 'Logitek') AS NUMERIC), 6) AS relevancia
+  FROM produtos p, websearch_to_tsquery('portuguese', 'Logitek') consulta
+  WHERE p.busca @@ consulta OR p.nome ILIKE 'Logitek%' OR p.nome % 'Logitek'
+) r
+ORDER BY r.relevancia DESC, r.id
+LIMIT 21;
+
+-- Página seguinte: filtro do cursor (relevância + ID) sobre a relevância já calculada
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT r.id, r.relevancia FROM (
+  SELECT CAST(p.id AS BIGINT) AS id,
+         ROUND(CAST(ts_rank(p.busca, consulta) + similarity(p.nome, 'notebook dell') AS NUMERIC), 6) AS relevancia
+  FROM produtos p, websearch_to_tsquery('portuguese', 'notebook dell') consulta
+  WHERE p.busca @@ consulta OR p.nome ILIKE 'notebook dell%' OR p.nome % 'notebook dell'
+) r
+WHERE r.relevancia < 0.5 OR (r.relevancia = 0.5 AND r.id > 1000)
+ORDER BY r.relevancia DESC, r.id
+LIMIT 21;
+
+-- Comparação: o que os clientes fazem hoje (varredura com ILIKE sem índice de trigramas)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id FROM produtos WHERE descricao ILIKE '%garantia de 12 meses%' ORDER BY id LIMIT 21;
+
+ROLLBACK;
@@ -0,0 +1,88 @@
+package com.projeto.erp.carga;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.SplittableRandom;
+
+/**
+ * Tamanho e semente de uma massa de carga. O gerador grava o arquivo dados.properties ao terminar e o driver
+ * o lê de volta, para sortear apenas IDs existentes com a mesma distribuição usada na geração.
+ *
+ * Os IDs são atribuídos em sequência a partir de 1 e os mais baixos são os mais acessados (ver DistribuicaoZipf).
+ */
+record DadosCarga(long clientes, long fornecedores, long produtos, long pedidos, long semente, double expoenteZipf) {
+
+    /**
+     * Tamanho informado nas propriedades carga.* (./gradlew cargaDados -Pcarga.clientes=...), com padrões
+     * na casa dos milhões de linhas.
+     */
+    static DadosCarga dePropriedades() {
+        long produtos = Long.getLong("carga.produtos", 100_000L);
+        return new DadosCarga(
+                Long.getLong("carga.clientes", 1_000_000L),
+                Math.max(1, produtos / 100),
+                produtos,
+                Long.getLong("carga.pedidos", 2_000_000L),
+                Long.getLong("carga.semente", 42L),
+                Double.parseDouble(System.getProperty("carga.zipf", "1.0")));
+    }
+
+    static DadosCarga ler(Path arquivo) throws IOException {
+        if (!Files.exists(arquivo)) {
+            throw new IllegalStateException("Massa de carga não encontrada em " + arquivo + "; rode ./gradlew cargaDados antes");
+        }
+        Properties propriedades = new Properties();
+        try (Reader leitor = Files.newBufferedReader(arquivo)) {
+            propriedades.load(leitor);
+        }
+        return new DadosCarga(
+                Long.parseLong(propriedades.getProperty("clientes")),
+                Long.parseLong(propriedades.getProperty("fornecedores")),
+                Long.parseLong(propriedades.getProperty("produtos")),
+                Long.parseLong(propriedades.getProperty("pedidos")),
+                Long.parseLong(propriedades.getProperty("semente")),
+                Double.parseDouble(propriedades.getProperty("zipf")));
+    }
+
+    void gravar(Path arquivo) throws IOException {
+        Properties propriedades = new Properties();
+        propriedades.setProperty("clientes", String.valueOf(clientes));
+        propriedades.setProperty("fornecedores", String.valueOf(fornecedores));
+        propriedades.setProperty("produtos", String.valueOf(produtos));
+        propriedades.setProperty("pedidos", String.valueOf(pedidos));
+        propriedades.setProperty("semente", String.valueOf(semente));
+        propriedades.setProperty("zipf", String.valueOf(expoenteZipf));
+        Files.createDirectories(arquivo.toAbsolutePath().getParent());
+        try (Writer escritor = Files.newBufferedWriter(arquivo)) {
+            propriedades.store(escritor, "Massa de carga gerada por GeradorDadosCarga");
+        }
+    }
+
+    /**
+     * Preço do produto de 1,00 a 500,00. Função só da semente e do ID, para o driver montar pedidos
+     * com o mesmo preço gravado pelo gerador sem consultar a aplicação.
+     */
+    BigDecimal preco(long produtoId) {
+        return BigDecimal.valueOf(100 + aleatorio(produtoId).nextLong(49_901), 2);
+    }
+
+    /**
+     * Estoque inicial: os SKUs quentes (IDs baixos) recebem estoque proporcional à procura,
+     * a cauda fica com pouco e esgota primeiro.
+     */
+    static int estoqueInicial(long produtoId) {
+        return (int) (100 + 1_000_000 / produtoId);
+    }
+
+    /**
+     * Gerador determinístico por entidade: a mesma semente e o mesmo ID produzem sempre os mesmos valores.
+     */
+    SplittableRandom aleatorio(long id) {
+        return new SplittableRandom(semente * 0x9E3779B97F4A7C15L + id);
+    }
+}
@@ -0,0 +1,35 @@
+package com.projeto.erp.carga;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Sorteio aproximado de Zipf em 1..n: o ID k é escolhido com probabilidade proporcional a 1/k^expoente.
+ * Usa a inversão da lei de potência contínua, O(1) por sorteio e sem tabela de probabilidades,
+ * o que permite milhões de elementos. Com expoente 1 e um milhão de IDs, o 1% mais baixo recebe
+ * cerca de dois terços dos sorteios (SKUs quentes, clientes que compram muito).
+ */
+final class DistribuicaoZipf {
+
+    private final long n;
+    private final double expoente;
+
+    DistribuicaoZipf(long n, double expoente) {
+        if (n < 1) {
+            throw new IllegalArgumentException("A distribuição precisa de ao menos um elemento");
+        }
+        this.n = n;
+        this.expoente = expoente;
+    }
+
+    long sortear(RandomGenerator aleatorio) {
+        double u = aleatorio.nextDouble();
+        double x;
+        if (Math.abs(expoente - 1.0) < 1e-9) {
+            x = Math.pow(n + 1.0, u);
+        } else {
+            double a = 1.0 - expoente;
+            x = Math.pow(u * (Math.pow(n + 1.0, a) - 1.0) + 1.0, 1.0 / a);
+        }
+        return Math.min(n, Math.max(1L, (long) x));
+    }
+}
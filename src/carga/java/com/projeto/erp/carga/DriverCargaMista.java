@@ -0,0 +1,287 @@
+package com.projeto.erp.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Carga mista contra a aplicação já no ar sobre a massa de GeradorDadosCarga (./gradlew cargaExecutar):
+ * cada usuário virtual sorteia operações pelo peso da tabela abaixo, sem pausa entre elas, escolhendo
+ * clientes e SKUs pela mesma distribuição da massa. Os pedidos criados seguem o ciclo de vida
+ * (aberto, processando, concluído) pelas filas compartilhadas entre os usuários.
+ *
+ * Depois do aquecimento, mede a latência de cada requisição por endpoint e imprime requisições,
+ * vazão, p50 e p99; o mesmo resumo vai para um CSV em carga.relatorios.
+ */
+public final class DriverCargaMista {
+
+    private static final int MAXIMO_ITENS_PEDIDO = 5;
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final String TOTAL = "TOTAL";
+
+    private enum Operacao {
+        CRIAR_PEDIDO("POST /pedidos/criar", 15),
+        PROCESSAR_PEDIDO("PUT /pedidos/{id}/processar", 12),
+        CONCLUIR_PEDIDO("PUT /pedidos/{id}/concluir", 10),
+        BUSCAR_PEDIDO("GET /pedidos/{id}", 10),
+        LISTAR_PEDIDOS("GET /pedidos/listar/cursor", 8),
+        BUSCAR_PRODUTO("GET /produtos/{id}", 15),
+        LISTAR_PRODUTOS("GET /produtos", 5),
+        ENTRADA_ESTOQUE("POST /estoque/entrada", 10),
+        SAIDA_ESTOQUE("POST /estoque/saida", 10),
+        SALDO_ESTOQUE("GET /estoque/saldo/{id}", 5);
+
+        private final String endpoint;
+        private final int peso;
+
+        Operacao(String endpoint, int peso) {
+            this.endpoint = endpoint;
+            this.peso = peso;
+        }
+    }
+
+    private final DadosCarga dados;
+    private final String alvo;
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(TIMEOUT)
+            .build();
+    private final ObjectMapper json = new ObjectMapper();
+    private final DistribuicaoZipf clientes;
+    private final DistribuicaoZipf produtos;
+    private final DistribuicaoZipf pedidosRecentes;
+    private final Operacao[] sorteio;
+    private final Map<Operacao, MedicaoEndpoint> medicoes = new EnumMap<>(Operacao.class);
+    private final MedicaoEndpoint medicaoTotal = new MedicaoEndpoint(TOTAL);
+    private final Queue<Long> abertos = new ConcurrentLinkedQueue<>();
+    private final Queue<Long> processando = new ConcurrentLinkedQueue<>();
+    private volatile boolean medindo;
+    private volatile boolean encerrado;
+
+    private DriverCargaMista(DadosCarga dados, String alvo) {
+        this.dados = dados;
+        this.alvo = alvo;
+        this.clientes = new DistribuicaoZipf(dados.clientes(), dados.expoenteZipf());
+        this.produtos = new DistribuicaoZipf(dados.produtos(), dados.expoenteZipf());
+        this.pedidosRecentes = new DistribuicaoZipf(Math.max(1, dados.pedidos()), dados.expoenteZipf());
+
+        List<Operacao> porPeso = new ArrayList<>();
+        for (Operacao operacao : Operacao.values()) {
+            medicoes.put(operacao, new MedicaoEndpoint(operacao.endpoint));
+            for (int i = 0; i < operacao.peso; i++) {
+                porPeso.add(operacao);
+            }
+        }
+        this.sorteio = porPeso.toArray(Operacao[]::new);
+    }
+
+    public static void main(String[] args) throws Exception {
+        DadosCarga dados = DadosCarga.ler(Path.of(System.getProperty("carga.dados", "build/carga/dados.properties")));
+        String alvo = System.getProperty("carga.alvo", "http://localhost:8080");
+        int usuarios = Integer.getInteger("carga.usuarios", 64);
+        Duration aquecimento = Duration.parse(System.getProperty("carga.aquecimento", "PT15S"));
+        Duration duracao = Duration.parse(System.getProperty("carga.duracao", "PT60S"));
+        Path relatorios = Path.of(System.getProperty("carga.relatorios", "build/carga/relatorios"));
+
+        System.out.printf("Carga mista contra %s: %d usuários, aquecimento %s, medição %s%n", alvo, usuarios,
+                aquecimento, duracao);
+        System.out.printf("Massa: %,d clientes, %,d produtos, %,d pedidos (zipf %.2f, semente %d)%n",
+                dados.clientes(), dados.produtos(), dados.pedidos(), dados.expoenteZipf(), dados.semente());
+
+        DriverCargaMista driver = new DriverCargaMista(dados, alvo);
+        driver.verificarAplicacao();
+        List<MedicaoEndpoint.Resumo> resumos = driver.executar(usuarios, aquecimento, duracao);
+
+        imprimir(resumos);
+        Path relatorio = gravar(resumos, relatorios);
+        System.out.printf("%nRelatório em %s%n", relatorio.toAbsolutePath());
+    }
+
+    private void verificarAplicacao() throws InterruptedException {
+        try {
+            http.send(get("/actuator/health"), HttpResponse.BodyHandlers.discarding());
+        } catch (IOException e) {
+            throw new IllegalStateException("Aplicação não responde em " + alvo + "; suba com ./gradlew cargaAplicacao", e);
+        }
+    }
+
+    private List<MedicaoEndpoint.Resumo> executar(int usuarios, Duration aquecimento, Duration duracao) throws Exception {
+        double segundos;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int usuario = 0; usuario < usuarios; usuario++) {
+                // Cada usuário tem a própria sequência de operações, repetível pela semente da massa
+                SplittableRandom aleatorio = new SplittableRandom(dados.semente() * 31 + usuario);
+                executor.submit(() -> simularUsuario(aleatorio));
+            }
+            Thread.sleep(aquecimento);
+            medindo = true;
+            long inicio = System.nanoTime();
+            Thread.sleep(duracao);
+            medindo = false;
+            segundos = (System.nanoTime() - inicio) / 1e9;
+            encerrado = true;
+        }
+
+        List<MedicaoEndpoint.Resumo> resumos = new ArrayList<>();
+        for (MedicaoEndpoint medicao : medicoes.values()) {
+            resumos.add(medicao.resumir(segundos));
+        }
+        resumos.add(medicaoTotal.resumir(segundos));
+        return resumos;
+    }
+
+    private void simularUsuario(SplittableRandom aleatorio) {
+        while (!encerrado && !Thread.currentThread().isInterrupted()) {
+            executarOperacao(sorteio[aleatorio.nextInt(sorteio.length)], aleatorio);
+        }
+    }
+
+    private void executarOperacao(Operacao operacao, SplittableRandom aleatorio) {
+        // Sem pedido no estágio anterior, a operação recua no ciclo de vida até criar um novo
+        Long pedidoId = switch (operacao) {
+            case CONCLUIR_PEDIDO -> processando.poll();
+            case PROCESSAR_PEDIDO -> abertos.poll();
+            default -> null;
+        };
+        if (operacao == Operacao.CONCLUIR_PEDIDO && pedidoId == null) {
+            operacao = Operacao.PROCESSAR_PEDIDO;
+            pedidoId = abertos.poll();
+        }
+        if (operacao == Operacao.PROCESSAR_PEDIDO && pedidoId == null) {
+            operacao = Operacao.CRIAR_PEDIDO;
+        }
+
+        HttpRequest requisicao = switch (operacao) {
+            case CRIAR_PEDIDO -> post("/pedidos/criar", novoPedido(aleatorio));
+            case PROCESSAR_PEDIDO -> put("/pedidos/" + pedidoId + "/processar");
+            case CONCLUIR_PEDIDO -> put("/pedidos/" + pedidoId + "/concluir");
+            // Pedidos recentes (IDs altos) são os mais consultados
+            case BUSCAR_PEDIDO -> get("/pedidos/" + (dados.pedidos() + 1 - pedidosRecentes.sortear(aleatorio)));
+            case LISTAR_PEDIDOS -> get("/pedidos/listar/cursor?size=20");
+            case BUSCAR_PRODUTO -> get("/produtos/" + produtos.sortear(aleatorio));
+            case LISTAR_PRODUTOS -> get("/produtos?total=false&size=20&page=" + aleatorio.nextInt(50));
+            case ENTRADA_ESTOQUE -> post("/estoque/entrada",
+                    Map.of("idProduto", produtos.sortear(aleatorio), "quantidade", 1 + aleatorio.nextInt(100)));
+            case SAIDA_ESTOQUE -> post("/estoque/saida",
+                    Map.of("idProduto", produtos.sortear(aleatorio), "quantidade", 1 + aleatorio.nextInt(5)));
+            case SALDO_ESTOQUE -> get("/estoque/saldo/" + produtos.sortear(aleatorio));
+        };
+
+        long antes = System.nanoTime();
+        int status = 0;
+        String corpo = null;
+        try {
+            HttpResponse<String> resposta = http.send(requisicao, HttpResponse.BodyHandlers.ofString());
+            status = resposta.statusCode();
+            corpo = resposta.body();
+        } catch (IOException e) {
+            // Sem resposta (conexão recusada, timeout): contada como erro com status 0
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long nanos = System.nanoTime() - antes;
+
+        if (medindo) {
+            medicoes.get(operacao).registrar(nanos, status);
+            medicaoTotal.registrar(nanos, status);
+        }
+        if (operacao == Operacao.CRIAR_PEDIDO && status == 201) {
+            abertos.add(idPedido(corpo));
+        } else if (operacao == Operacao.PROCESSAR_PEDIDO && status == 200) {
+            processando.add(pedidoId);
+        }
+    }
+
+    private Map<String, Object> novoPedido(SplittableRandom aleatorio) {
+        Set<Long> produtoIds = new LinkedHashSet<>();
+        int quantidadeItens = 1 + aleatorio.nextInt(MAXIMO_ITENS_PEDIDO);
+        for (int i = 0; i < quantidadeItens; i++) {
+            produtoIds.add(produtos.sortear(aleatorio));
+        }
+        List<Map<String, Object>> itens = new ArrayList<>();
+        for (Long produtoId : produtoIds) {
+            itens.add(Map.of("produtoId", produtoId, "quantidade", 1 + aleatorio.nextInt(3),
+                    "precoUnitario", dados.preco(produtoId)));
+        }
+        return Map.of("clienteId", clientes.sortear(aleatorio), "itens", itens);
+    }
+
+    private long idPedido(String corpo) {
+        try {
+            return json.readTree(corpo).get("id").asLong();
+        } catch (IOException e) {
+            throw new IllegalStateException("Resposta inesperada ao criar pedido: " + corpo, e);
+        }
+    }
+
+    private HttpRequest get(String caminho) {
+        return requisicao(caminho).GET().build();
+    }
+
+    private HttpRequest put(String caminho) {
+        return requisicao(caminho).PUT(HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private HttpRequest post(String caminho, Object corpo) {
+        try {
+            return requisicao(caminho)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(json.writeValueAsBytes(corpo)))
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalStateException("Falha ao serializar requisição para " + caminho, e);
+        }
+    }
+
+    private HttpRequest.Builder requisicao(String caminho) {
+        return HttpRequest.newBuilder(URI.create(alvo + caminho)).timeout(TIMEOUT);
+    }
+
+    private static void imprimir(List<MedicaoEndpoint.Resumo> resumos) {
+        System.out.printf("%n%-30s %12s %10s %10s %10s %10s %11s %8s%n", "endpoint", "requisições", "req/s",
+                "p50 (ms)", "p99 (ms)", "máx (ms)", "rejeitadas", "erros");
+        for (MedicaoEndpoint.Resumo resumo : resumos) {
+            System.out.printf("%-30s %12d %10.1f %10.2f %10.2f %10.1f %11d %8d%n", resumo.endpoint(),
+                    resumo.requisicoes(), resumo.vazao(), resumo.p50Ms(), resumo.p99Ms(), resumo.maximoMs(),
+                    resumo.rejeitadas(), resumo.erros());
+        }
+    }
+
+    private static Path gravar(List<MedicaoEndpoint.Resumo> resumos, Path diretorio) throws IOException {
+        Files.createDirectories(diretorio);
+        Path arquivo = diretorio.resolve("carga-" + DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")
+                .format(LocalDateTime.now()) + ".csv");
+        try (PrintWriter escritor = new PrintWriter(Files.newBufferedWriter(arquivo))) {
+            escritor.println("endpoint,requisicoes,req_s,p50_ms,p99_ms,max_ms,rejeitadas,erros");
+            for (MedicaoEndpoint.Resumo resumo : resumos) {
+                escritor.println(String.format(Locale.ROOT, "%s,%d,%.1f,%.2f,%.2f,%.1f,%d,%d", resumo.endpoint(),
+                        resumo.requisicoes(), resumo.vazao(), resumo.p50Ms(), resumo.p99Ms(), resumo.maximoMs(),
+                        resumo.rejeitadas(), resumo.erros()));
+            }
+        }
+        return arquivo;
+    }
+}
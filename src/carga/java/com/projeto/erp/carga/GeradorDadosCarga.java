@@ -0,0 +1,228 @@
+package com.projeto.erp.carga;
+
+import com.projeto.erp.ErpApplication;
+import org.postgresql.PGConnection;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Gera a massa de carga no banco de spring.datasource.* (./gradlew cargaDados): fornecedores, clientes,
+ * produtos com estoque e um ano de histórico de pedidos com itens.
+ *
+ * O esquema vem da própria aplicação, que sobe sem servidor web antes da geração (Liquibase no PostgreSQL,
+ * ddl-auto=create no H2). As linhas entram com IDs explícitos 1..N, por COPY no PostgreSQL e em lotes JDBC
+ * no H2, e as sequences são reposicionadas depois do último ID. Os pedidos concentram-se em poucos clientes
+ * e os itens em poucos SKUs (DistribuicaoZipf). A mesma semente gera sempre a mesma massa.
+ */
+public final class GeradorDadosCarga {
+
+    private static final String[] CATEGORIAS = {"Notebook", "Monitor", "Teclado", "Mouse", "Cadeira", "Impressora", "Roteador", "Headset"};
+    private static final String[] MARCAS = {"Dell", "Lenovo", "Samsung", "LG", "Logitech", "HP", "Multilaser", "Positivo"};
+    private static final String[] NOMES = {"Ana", "Bruno", "Carla", "Daniel", "Eduarda", "Felipe", "Gabriela", "Henrique", "Isabela", "João"};
+    private static final String[] SOBRENOMES = {"Silva", "Santos", "Oliveira", "Souza", "Lima", "Pereira", "Costa", "Almeida", "Ribeiro", "Carvalho"};
+
+    // Pedidos históricos já encerrados; os abertos e em processamento vêm do driver, com reservas de verdade
+    private static final double FRACAO_CANCELADOS = 0.15;
+    private static final int MAXIMO_ITENS_PEDIDO = 5;
+    private static final int DIAS_HISTORICO = 365;
+
+    private final DadosCarga dados;
+    private final Connection conexao;
+    private final DistribuicaoZipf clientesPorPedido;
+    private final DistribuicaoZipf produtosPorItem;
+    private final LocalDateTime inicioHistorico = LocalDateTime.now().withNano(0).minusDays(DIAS_HISTORICO);
+
+    private GeradorDadosCarga(DadosCarga dados, Connection conexao) {
+        this.dados = dados;
+        this.conexao = conexao;
+        this.clientesPorPedido = new DistribuicaoZipf(dados.clientes(), dados.expoenteZipf());
+        this.produtosPorItem = new DistribuicaoZipf(dados.produtos(), dados.expoenteZipf());
+    }
+
+    public static void main(String[] args) throws Exception {
+        DadosCarga dados = DadosCarga.dePropriedades();
+        Path arquivoDados = Path.of(System.getProperty("carga.dados", "build/carga/dados.properties"));
+
+        new SpringApplicationBuilder(ErpApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.main.banner-mode=off", "logging.level.root=WARN")
+                .run(args)
+                .close();
+
+        try (Connection conexao = DriverManager.getConnection(System.getProperty("spring.datasource.url"),
+                System.getProperty("spring.datasource.username"), System.getProperty("spring.datasource.password"))) {
+            new GeradorDadosCarga(dados, conexao).gerar();
+        }
+        dados.gravar(arquivoDados);
+        System.out.printf("Massa de carga descrita em %s%n", arquivoDados.toAbsolutePath());
+    }
+
+    private void gerar() throws SQLException {
+        boolean postgres = conexao.isWrapperFor(PGConnection.class);
+        // COPY já é uma transação por tabela; no H2 os lotes são confirmados um a um
+        conexao.setAutoCommit(postgres);
+        if (postgres) {
+            executar("TRUNCATE itens_pedido, reservas_estoque, movimentos_estoque, segmentos_wal_estoque, "
+                    + "pedidos, estoque, produtos, fornecedores, clientes");
+        }
+
+        long inicio = System.nanoTime();
+        gerarFornecedores();
+        gerarClientes();
+        gerarProdutos();
+        gerarEstoque();
+        gerarPedidos();
+        long itens = gerarItensPedido();
+
+        reiniciarSequencia("fornecedores_id_seq", dados.fornecedores());
+        reiniciarSequencia("clientes_id_seq", dados.clientes());
+        reiniciarSequencia("produtos_id_seq", dados.produtos());
+        reiniciarSequencia("estoque_id_seq", dados.produtos());
+        reiniciarSequencia("pedidos_id_seq", dados.pedidos());
+        reiniciarSequencia("itens_pedido_id_seq", itens);
+        executar("ANALYZE");
+        if (!postgres) {
+            conexao.commit();
+        }
+        System.out.printf("Massa gerada em %s%n", Duration.ofNanos(System.nanoTime() - inicio).withNanos(0));
+    }
+
+    private void gerarFornecedores() throws SQLException {
+        long inicio = System.nanoTime();
+        try (GravadorLinhas gravador = GravadorLinhas.abrir(conexao, "fornecedores",
+                "id", "nome", "documento", "telefone", "email", "ativo")) {
+            for (long id = 1; id <= dados.fornecedores(); id++) {
+                gravador.linha(id, "Fornecedor Carga " + id, String.format("%014d", id), "(11) 3000-0000",
+                        "fornecedor" + id + "@carga.local", true);
+            }
+            informar("fornecedores", gravador, inicio);
+        }
+    }
+
+    private void gerarClientes() throws SQLException {
+        long inicio = System.nanoTime();
+        try (GravadorLinhas gravador = GravadorLinhas.abrir(conexao, "clientes",
+                "id", "nome", "email", "documento", "telefone", "ativo")) {
+            for (long id = 1; id <= dados.clientes(); id++) {
+                String nome = NOMES[(int) (id % NOMES.length)] + " " + SOBRENOMES[(int) (id / NOMES.length % SOBRENOMES.length)]
+                        + " " + id;
+                gravador.linha(id, nome, "cliente" + id + "@carga.local", String.format("%011d", id), "(11) 90000-0000", true);
+            }
+            informar("clientes", gravador, inicio);
+        }
+    }
+
+    private void gerarProdutos() throws SQLException {
+        long inicio = System.nanoTime();
+        try (GravadorLinhas gravador = GravadorLinhas.abrir(conexao, "produtos",
+                "id", "nome", "descricao", "codigo_barras", "preco", "fornecedor_id")) {
+            for (long id = 1; id <= dados.produtos(); id++) {
+                String nome = CATEGORIAS[(int) (id % CATEGORIAS.length)] + " " + MARCAS[(int) (id / CATEGORIAS.length % MARCAS.length)]
+                        + " Modelo " + id;
+                gravador.linha(id, nome, "Produto gerado para teste de carga", String.valueOf(7_800_000_000_000L + id),
+                        dados.preco(id), 1 + (id - 1) % dados.fornecedores());
+            }
+            informar("produtos", gravador, inicio);
+        }
+    }
+
+    private void gerarEstoque() throws SQLException {
+        long inicio = System.nanoTime();
+        try (GravadorLinhas gravador = GravadorLinhas.abrir(conexao, "estoque",
+                "id", "produto_id", "quantidade", "quantidade_reservada", "ultimo_movimento_id")) {
+            for (long id = 1; id <= dados.produtos(); id++) {
+                gravador.linha(id, id, DadosCarga.estoqueInicial(id), 0, 0);
+            }
+            informar("estoque", gravador, inicio);
+        }
+    }
+
+    /**
+     * Pedidos e itens são gravados em duas passadas (um COPY por vez na conexão); cada pedido é
+     * regerado a partir da própria semente na segunda passada, sem guardar os itens em memória.
+     */
+    private void gerarPedidos() throws SQLException {
+        long inicio = System.nanoTime();
+        try (GravadorLinhas gravador = GravadorLinhas.abrir(conexao, "pedidos",
+                "id", "cliente_id", "data_pedido", "status", "total")) {
+            for (long id = 1; id <= dados.pedidos(); id++) {
+                PedidoGerado pedido = pedido(id);
+                gravador.linha(id, pedido.clienteId(), pedido.dataPedido(), pedido.status(), pedido.total());
+            }
+            informar("pedidos", gravador, inicio);
+        }
+    }
+
+    private long gerarItensPedido() throws SQLException {
+        long inicio = System.nanoTime();
+        try (GravadorLinhas gravador = GravadorLinhas.abrir(conexao, "itens_pedido",
+                "id", "pedido_id", "produto_id", "quantidade", "preco_unitario")) {
+            for (long id = 1; id <= dados.pedidos(); id++) {
+                for (ItemGerado item : pedido(id).itens()) {
+                    gravador.linha(gravador.total() + 1, id, item.produtoId(), item.quantidade(), item.precoUnitario());
+                }
+            }
+            informar("itens_pedido", gravador, inicio);
+            return gravador.total();
+        }
+    }
+
+    private PedidoGerado pedido(long id) {
+        SplittableRandom aleatorio = dados.aleatorio(-id);
+        long clienteId = clientesPorPedido.sortear(aleatorio);
+        // Datas crescem com o ID ao longo do ano, como na ordem de inserção em produção
+        long segundos = DIAS_HISTORICO * 86_400L * (id - 1) / dados.pedidos() + aleatorio.nextLong(60);
+        String status = aleatorio.nextDouble() < FRACAO_CANCELADOS ? "CANCELADO" : "CONCLUIDO";
+
+        int quantidadeItens = 1 + aleatorio.nextInt(MAXIMO_ITENS_PEDIDO);
+        List<ItemGerado> itens = new ArrayList<>(quantidadeItens);
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < quantidadeItens; i++) {
+            long produtoId = produtosPorItem.sortear(aleatorio);
+            int quantidade = 1 + aleatorio.nextInt(3);
+            BigDecimal preco = dados.preco(produtoId);
+            itens.add(new ItemGerado(produtoId, quantidade, preco));
+            total = total.add(preco.multiply(BigDecimal.valueOf(quantidade)));
+        }
+        return new PedidoGerado(clienteId, inicioHistorico.plusSeconds(segundos), status, total, itens);
+    }
+
+    /**
+     * Próximo valor logo após o último ID gerado. Com o otimizador pooled-lo o valor lido da sequence é o
+     * início do bloco, então os IDs criados pela aplicação continuam de onde a massa parou.
+     */
+    private void reiniciarSequencia(String sequence, long ultimoId) throws SQLException {
+        executar("ALTER SEQUENCE " + sequence + " RESTART WITH " + (ultimoId + 1));
+    }
+
+    private void executar(String sql) throws SQLException {
+        try (Statement statement = conexao.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static void informar(String tabela, GravadorLinhas gravador, long inicio) {
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        System.out.printf("%-14s %,14d linhas em %7.1fs (%,.0f linhas/s)%n", tabela, gravador.total(), segundos,
+                gravador.total() / Math.max(segundos, 1e-3));
+    }
+
+    private record PedidoGerado(long clienteId, LocalDateTime dataPedido, String status, BigDecimal total,
+                                List<ItemGerado> itens) {
+    }
+
+    private record ItemGerado(long produtoId, int quantidade, BigDecimal precoUnitario) {
+    }
+}
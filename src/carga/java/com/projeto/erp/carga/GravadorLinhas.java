@@ -0,0 +1,135 @@
+package com.projeto.erp.carga;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+
+/**
+ * Inserção em massa em uma tabela: COPY FROM STDIN no PostgreSQL e INSERT em lotes JDBC nos demais bancos (H2).
+ * Os valores gerados não contêm vírgulas, aspas nem quebras de linha, então o CSV do COPY dispensa escape.
+ */
+interface GravadorLinhas extends AutoCloseable {
+
+    static GravadorLinhas abrir(Connection conexao, String tabela, String... colunas) throws SQLException {
+        if (conexao.isWrapperFor(PGConnection.class)) {
+            return new Copy(conexao.unwrap(PGConnection.class), tabela, colunas);
+        }
+        return new Lotes(conexao, tabela, colunas);
+    }
+
+    void linha(Object... valores) throws SQLException;
+
+    long total();
+
+    @Override
+    void close() throws SQLException;
+
+    final class Copy implements GravadorLinhas {
+
+        private static final int TAMANHO_BUFFER = 1 << 20;
+        private static final DateTimeFormatter DATA_HORA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+        private final CopyIn copy;
+        private final StringBuilder buffer = new StringBuilder(TAMANHO_BUFFER + 1024);
+        private long total;
+
+        private Copy(PGConnection conexao, String tabela, String[] colunas) throws SQLException {
+            copy = conexao.getCopyAPI().copyIn(
+                    "COPY " + tabela + " (" + String.join(", ", colunas) + ") FROM STDIN WITH (FORMAT csv)");
+        }
+
+        @Override
+        public void linha(Object... valores) throws SQLException {
+            for (int i = 0; i < valores.length; i++) {
+                if (i > 0) {
+                    buffer.append(',');
+                }
+                Object valor = valores[i];
+                if (valor instanceof LocalDateTime dataHora) {
+                    buffer.append(DATA_HORA.format(dataHora));
+                } else if (valor != null) {
+                    buffer.append(valor);
+                }
+            }
+            buffer.append('\n');
+            total++;
+            if (buffer.length() >= TAMANHO_BUFFER) {
+                descarregar();
+            }
+        }
+
+        @Override
+        public long total() {
+            return total;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            descarregar();
+            copy.endCopy();
+        }
+
+        private void descarregar() throws SQLException {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copy.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+    }
+
+    final class Lotes implements GravadorLinhas {
+
+        private static final int TAMANHO_LOTE = 5_000;
+
+        private final Connection conexao;
+        private final PreparedStatement insert;
+        private int pendentes;
+        private long total;
+
+        private Lotes(Connection conexao, String tabela, String[] colunas) throws SQLException {
+            this.conexao = conexao;
+            this.insert = conexao.prepareStatement("INSERT INTO " + tabela + " (" + String.join(", ", colunas)
+                    + ") VALUES (" + String.join(", ", Collections.nCopies(colunas.length, "?")) + ")");
+        }
+
+        @Override
+        public void linha(Object... valores) throws SQLException {
+            for (int i = 0; i < valores.length; i++) {
+                insert.setObject(i + 1, valores[i]);
+            }
+            insert.addBatch();
+            total++;
+            if (++pendentes == TAMANHO_LOTE) {
+                executar();
+            }
+        }
+
+        @Override
+        public long total() {
+            return total;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try (insert) {
+                executar();
+            }
+        }
+
+        private void executar() throws SQLException {
+            if (pendentes > 0) {
+                insert.executeBatch();
+                pendentes = 0;
+            }
+            if (!conexao.getAutoCommit()) {
+                conexao.commit();
+            }
+        }
+    }
+}
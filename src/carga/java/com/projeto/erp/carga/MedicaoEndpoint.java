@@ -0,0 +1,70 @@
+package com.projeto.erp.carga;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Latências e desfechos de um endpoint durante a janela de medição. Guarda todas as amostras
+ * para percentis exatos; uma rodada de alguns minutos cabe folgada em memória.
+ */
+final class MedicaoEndpoint {
+
+    private final String endpoint;
+    private final ReentrantLock trava = new ReentrantLock();
+    private final LongAdder rejeitadas = new LongAdder();
+    private final LongAdder erros = new LongAdder();
+    private long[] latencias = new long[4096];
+    private int total;
+
+    MedicaoEndpoint(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * @param status código HTTP da resposta, ou 0 quando a requisição falhou sem resposta
+     */
+    void registrar(long nanos, int status) {
+        if (status == 0 || status >= 500) {
+            erros.increment();
+        } else if (status >= 400) {
+            // Regra de negócio (estoque insuficiente, pedido em outro status): resposta válida, contada à parte
+            rejeitadas.increment();
+        }
+        trava.lock();
+        try {
+            if (total == latencias.length) {
+                latencias = Arrays.copyOf(latencias, total * 2);
+            }
+            latencias[total++] = nanos;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    Resumo resumir(double segundos) {
+        long[] ordenadas;
+        trava.lock();
+        try {
+            ordenadas = Arrays.copyOf(latencias, total);
+        } finally {
+            trava.unlock();
+        }
+        Arrays.sort(ordenadas);
+        return new Resumo(endpoint, ordenadas.length, ordenadas.length / segundos, percentil(ordenadas, 0.50),
+                percentil(ordenadas, 0.99), ordenadas.length == 0 ? 0 : ordenadas[ordenadas.length - 1] / 1e6,
+                rejeitadas.sum(), erros.sum());
+    }
+
+    private static double percentil(long[] ordenadas, double percentil) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int indice = (int) Math.ceil(percentil * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, indice)] / 1e6;
+    }
+
+    record Resumo(String endpoint, long requisicoes, double vazao, double p50Ms, double p99Ms, double maximoMs,
+                  long rejeitadas, long erros) {
+    }
+}
@@ -0,0 +1,80 @@
+package com.projeto.erp;
+
+import com.projeto.erp.cliente.Cliente;
+import com.projeto.erp.cliente.ClienteRepository;
+import com.projeto.erp.estoque.Estoque;
+import com.projeto.erp.estoque.EstoqueRepository;
+import com.projeto.erp.fornecedor.Fornecedor;
+import com.projeto.erp.fornecedor.FornecedorRepository;
+import com.projeto.erp.produto.Produto;
+import com.projeto.erp.produto.ProdutoRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Sobe a aplicação sem servidor web sobre um H2 em memória exclusivo, para benchmarks de serviços.
+ * Propriedades extras (ex.: erp.estoque.contador.modo=memoria) sobrescrevem as padrão.
+ */
+public final class AplicacaoBenchmark {
+
+    private AplicacaoBenchmark() {
+    }
+
+    public static ConfigurableApplicationContext iniciar(String... propriedades) {
+        List<String> todas = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:jmh-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "spring.liquibase.enabled=false",
+                "spring.sql.init.mode=never",
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN"));
+        todas.addAll(List.of(propriedades));
+        return new SpringApplicationBuilder(ErpApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(todas.toArray(String[]::new))
+                .run();
+    }
+
+    public static Long cadastrarCliente(ConfigurableApplicationContext contexto, int indice) {
+        Cliente cliente = new Cliente();
+        cliente.setNome("Cliente " + indice);
+        cliente.setEmail("cliente" + indice + "@benchmark.com");
+        cliente.setDocumento(String.format("%011d", indice));
+        cliente.setTelefone("11999999999");
+        cliente.setAtivo(true);
+        return contexto.getBean(ClienteRepository.class).save(cliente).getId();
+    }
+
+    /**
+     * Produtos de um mesmo fornecedor, cada um com o estoque informado. Retorna os IDs na ordem de criação.
+     */
+    public static List<Long> cadastrarProdutos(ConfigurableApplicationContext contexto, int quantidade, int estoque) {
+        Fornecedor fornecedor = contexto.getBean(FornecedorRepository.class).save(Fornecedor.builder()
+                .nome("Fornecedor Benchmark").email("fornecedor@benchmark.com").documento("12345678000100").ativo(true).build());
+
+        List<Produto> produtos = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            Produto produto = new Produto();
+            produto.setNome("Produto " + i);
+            produto.setCodigoBarras(String.valueOf(7890000000000L + i));
+            produto.setPreco(BigDecimal.TEN);
+            produto.setFornecedor(fornecedor);
+            produtos.add(produto);
+        }
+        produtos = contexto.getBean(ProdutoRepository.class).saveAll(produtos);
+        contexto.getBean(EstoqueRepository.class).saveAll(produtos.stream()
+                .map(produto -> Estoque.builder().produto(produto).quantidade(estoque).build())
+                .toList());
+        return produtos.stream().map(Produto::getId).toList();
+    }
+}
@@ -0,0 +1,68 @@
+package com.projeto.erp.cliente;
+
+import com.projeto.erp.AplicacaoBenchmark;
+import com.projeto.erp.cliente.dto.ClienteResponseDTO;
+import com.projeto.erp.cliente.mapper.ClienteMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A mesma listagem de clientes (página de 100, sem count) em transação somente leitura e em transação comum.
+ * Somente leitura dispensa o snapshot de cada entidade para dirty checking e o flush no commit;
+ * a diferença aparece em gc.alloc.rate.norm (bytes por operação) do profiler gc.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ListagemTransacaoBenchmark {
+
+    private static final int CLIENTES = 100;
+
+    @Param({"true", "false"})
+    public boolean somenteLeitura;
+
+    private ConfigurableApplicationContext contexto;
+    private ClienteRepository clienteRepository;
+    private ClienteMapper mapper;
+    private TransactionTemplate transacao;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = AplicacaoBenchmark.iniciar();
+        clienteRepository = contexto.getBean(ClienteRepository.class);
+        mapper = contexto.getBean(ClienteMapper.class);
+        for (int i = 1; i <= CLIENTES; i++) {
+            AplicacaoBenchmark.cadastrarCliente(contexto, i);
+        }
+
+        transacao = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+        transacao.setReadOnly(somenteLeitura);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<ClienteResponseDTO> listarPagina() {
+        return transacao.execute(status -> clienteRepository.findAllBy(PageRequest.of(0, CLIENTES))
+                .map(mapper::toDTO)
+                .getContent());
+    }
+}
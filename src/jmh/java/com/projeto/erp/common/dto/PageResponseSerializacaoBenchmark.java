@@ -0,0 +1,58 @@
+package com.projeto.erp.common.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.projeto.erp.pedido.PedidosExemplo;
+import com.projeto.erp.pedido.dto.PedidoResponseDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização com Jackson de uma página de pedidos, como a resposta de GET /pedidos.
+ * O ObjectMapper segue a configuração do Spring Boot (módulos do classpath, datas em ISO-8601).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PageResponseSerializacaoBenchmark {
+
+    @Param({"10", "100"})
+    public int pedidosPorPagina;
+
+    @Param({"5", "50"})
+    public int itensPorPedido;
+
+    private ObjectMapper objectMapper;
+    private PageResponseDTO<PedidoResponseDTO> pagina;
+
+    @Setup
+    public void preparar() {
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        List<PedidoResponseDTO> pedidos = new ArrayList<>(pedidosPorPagina);
+        for (int i = 0; i < pedidosPorPagina; i++) {
+            pedidos.add(PedidosExemplo.respostaComItens(i + 1L, itensPorPedido));
+        }
+        pagina = new PageResponseDTO<>(pedidos, 0, pedidosPorPagina, 1_000L, 1_000 / pedidosPorPagina, true, false);
+    }
+
+    @Benchmark
+    public byte[] serializarPagina() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(pagina);
+    }
+}
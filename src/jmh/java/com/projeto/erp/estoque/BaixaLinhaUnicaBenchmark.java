@@ -0,0 +1,58 @@
+package com.projeto.erp.estoque;
+
+import com.projeto.erp.AplicacaoBenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Referência para o ContadorEstoqueBenchmark: a baixa de antes do diário, um único UPDATE condicional na linha
+ * de estoque por transação, no mesmo SKU e com as mesmas threads. Comparar com o modo jpa mostra o custo do
+ * lock + INSERT condicional no diário; os dois disputam a mesma linha.
+ * ./gradlew jmh -Pbenchmarks='BaixaLinhaUnica|ContadorEstoque'
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class BaixaLinhaUnicaBenchmark {
+
+    private static final String BAIXA = "UPDATE estoque SET quantidade = quantidade - ? " +
+            "WHERE produto_id = ? AND quantidade - quantidade_reservada >= ?";
+
+    private ConfigurableApplicationContext contexto;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private Long produtoId;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = AplicacaoBenchmark.iniciar();
+        jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        transactionTemplate = contexto.getBean(TransactionTemplate.class);
+        produtoId = AplicacaoBenchmark.cadastrarProdutos(contexto, 1, Integer.MAX_VALUE).get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public boolean baixar() {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                jdbcTemplate.update(BAIXA, 1, produtoId, 1) == 1));
+    }
+}
@@ -0,0 +1,61 @@
+package com.projeto.erp.estoque;
+
+import com.projeto.erp.AplicacaoBenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Baixas concorrentes no mesmo SKU (promoção relâmpago) nos dois modos do contador de estoque:
+ * jpa (lock da linha + saída no diário por baixa, disputando a linha) e memoria (CAS em memória + WAL com fsync).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class ContadorEstoqueBenchmark {
+
+    @Param({"jpa", "memoria"})
+    public String modo;
+
+    private ConfigurableApplicationContext contexto;
+    private ContadorEstoque contadorEstoque;
+    private Path diretorioWal;
+    private Long produtoId;
+
+    @Setup(Level.Trial)
+    public void iniciar() throws IOException {
+        diretorioWal = Files.createTempDirectory("jmh-wal-estoque");
+        contexto = AplicacaoBenchmark.iniciar(
+                "erp.estoque.contador.modo=" + modo,
+                "erp.estoque.contador.wal.diretorio=" + diretorioWal);
+        contadorEstoque = contexto.getBean(ContadorEstoque.class);
+        produtoId = AplicacaoBenchmark.cadastrarProdutos(contexto, 1, Integer.MAX_VALUE).get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() throws IOException {
+        contexto.close();
+        FileSystemUtils.deleteRecursively(diretorioWal);
+    }
+
+    @Benchmark
+    public boolean baixar() {
+        return contadorEstoque.baixar(produtoId, 1);
+    }
+}
@@ -0,0 +1,68 @@
+package com.projeto.erp.pedido;
+
+import com.projeto.erp.AplicacaoBenchmark;
+import com.projeto.erp.pedido.dto.ItemPedidoRequestDTO;
+import com.projeto.erp.pedido.dto.PedidoRequestDTO;
+import com.projeto.erp.pedido.dto.PedidoResponseDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PedidoService.criarPedido de ponta a ponta (validação, travas de estoque, inserts em lote, reserva e mapeamento)
+ * contra H2 em memória. Mede o custo da aplicação e do Hibernate; a latência de rede de um banco real fica de fora.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CriarPedidoBenchmark {
+
+    @Param({"1", "20"})
+    public int itens;
+
+    private ConfigurableApplicationContext contexto;
+    private PedidoService pedidoService;
+    private PedidoRequestDTO request;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = AplicacaoBenchmark.iniciar();
+        pedidoService = contexto.getBean(PedidoService.class);
+
+        Long clienteId = AplicacaoBenchmark.cadastrarCliente(contexto, 1);
+        // Estoque que não se esgota durante a medição (cada pedido reserva uma unidade de cada item)
+        List<Long> produtoIds = AplicacaoBenchmark.cadastrarProdutos(contexto, itens, 1_000_000_000);
+
+        request = new PedidoRequestDTO();
+        request.setClienteId(clienteId);
+        request.setItens(produtoIds.stream().map(produtoId -> {
+            ItemPedidoRequestDTO item = new ItemPedidoRequestDTO();
+            item.setProdutoId(produtoId);
+            item.setQuantidade(1);
+            item.setPrecoUnitario(BigDecimal.TEN);
+            return item;
+        }).toList());
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public PedidoResponseDTO criarPedido() {
+        return pedidoService.criarPedido(request);
+    }
+}
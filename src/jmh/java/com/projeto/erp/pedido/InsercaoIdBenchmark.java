@@ -0,0 +1,73 @@
+package com.projeto.erp.pedido;
+
+import com.projeto.erp.AplicacaoBenchmark;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserção das linhas de um pedido em uma transação, com o id gerado pelo banco (IDENTITY) e por sequence
+ * pooled-lo. Com IDENTITY o Hibernate precisa do id de cada linha no persist e não agrupa os INSERTs em lote
+ * JDBC; com pooled-lo uma ida à sequence cobre 50 ids e os INSERTs saem em lotes de hibernate.jdbc.batch_size.
+ * Contra H2 em memória a diferença é só de CPU; com a latência de rede de um banco real ela cresce com as linhas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class InsercaoIdBenchmark {
+
+    @Param({"IDENTITY", "POOLED_LO"})
+    public String gerador;
+
+    @Param({"100"})
+    public int linhas;
+
+    private ConfigurableApplicationContext contexto;
+    private EntityManager entityManager;
+    private TransactionTemplate transacao;
+    private long pedidoId;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = AplicacaoBenchmark.iniciar();
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(contexto.getBean(EntityManagerFactory.class));
+        transacao = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public long inserirLinhas() {
+        long pedido = ++pedidoId;
+        transacao.executeWithoutResult(status -> {
+            for (int i = 0; i < linhas; i++) {
+                entityManager.persist(novaLinha(pedido, i));
+            }
+        });
+        return pedido;
+    }
+
+    private Object novaLinha(long pedido, long produtoId) {
+        return "IDENTITY".equals(gerador)
+                ? new LinhaIdentity(pedido, produtoId)
+                : new LinhaPooledLo(pedido, produtoId);
+    }
+}
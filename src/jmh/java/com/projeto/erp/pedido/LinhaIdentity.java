@@ -0,0 +1,40 @@
+package com.projeto.erp.pedido;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Mesmas colunas de itens_pedido, com o id gerado pelo banco (IDENTITY), como era antes das sequences pooled.
+ * Só existe no source set do JMH, para o {@link InsercaoIdBenchmark}.
+ */
+@Entity
+@Table(name = "benchmark_linhas_identity")
+public class LinhaIdentity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "pedido_id", nullable = false)
+    private Long pedidoId;
+
+    @Column(name = "produto_id", nullable = false)
+    private Long produtoId;
+
+    @Column(nullable = false)
+    private Integer quantidade;
+
+    @Column(name = "preco_unitario", nullable = false, precision = 10, scale = 2)
+    private BigDecimal precoUnitario;
+
+    protected LinhaIdentity() {
+    }
+
+    LinhaIdentity(Long pedidoId, Long produtoId) {
+        this.pedidoId = pedidoId;
+        this.produtoId = produtoId;
+        this.quantidade = 1;
+        this.precoUnitario = BigDecimal.TEN;
+    }
+}
@@ -0,0 +1,42 @@
+package com.projeto.erp.pedido;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Mesmas colunas de itens_pedido e o mesmo gerador de id: sequence em blocos de 50 com o otimizador
+ * pooled-lo (hibernate.id.optimizer.pooled.preferred). Só existe no source set do JMH, para o {@link InsercaoIdBenchmark}.
+ */
+@Entity
+@Table(name = "benchmark_linhas_pooled_lo")
+public class LinhaPooledLo {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "benchmark_linhas_pooled_lo_id_seq")
+    @SequenceGenerator(name = "benchmark_linhas_pooled_lo_id_seq", sequenceName = "benchmark_linhas_pooled_lo_id_seq",
+            allocationSize = 50)
+    private Long id;
+
+    @Column(name = "pedido_id", nullable = false)
+    private Long pedidoId;
+
+    @Column(name = "produto_id", nullable = false)
+    private Long produtoId;
+
+    @Column(nullable = false)
+    private Integer quantidade;
+
+    @Column(name = "preco_unitario", nullable = false, precision = 10, scale = 2)
+    private BigDecimal precoUnitario;
+
+    protected LinhaPooledLo() {
+    }
+
+    LinhaPooledLo(Long pedidoId, Long produtoId) {
+        this.pedidoId = pedidoId;
+        this.produtoId = produtoId;
+        this.quantidade = 1;
+        this.precoUnitario = BigDecimal.TEN;
+    }
+}
@@ -0,0 +1,62 @@
+package com.projeto.erp.pedido;
+
+import com.projeto.erp.pedido.dto.ItemPedidoResponseDTO;
+import com.projeto.erp.pedido.dto.PedidoResponseDTO;
+import com.projeto.erp.pedido.mapper.ItemPedidoMapper;
+import com.projeto.erp.pedido.mapper.ItemPedidoMapperImpl;
+import com.projeto.erp.pedido.mapper.PedidoMapper;
+import com.projeto.erp.pedido.mapper.PedidoMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão de pedidos grandes para DTO (PedidoMapper com ItemPedidoMapper, código gerado pelo MapStruct).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PedidoMapperBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int itens;
+
+    private PedidoMapper pedidoMapper;
+    private ItemPedidoMapper itemPedidoMapper;
+    private Pedido pedido;
+
+    @Setup
+    public void preparar() throws ReflectiveOperationException {
+        itemPedidoMapper = new ItemPedidoMapperImpl();
+        pedidoMapper = new PedidoMapperImpl();
+        // Com componentModel = "spring" o mapper de itens é injetado pelo Spring
+        Field campo = PedidoMapperImpl.class.getDeclaredField("itemPedidoMapper");
+        campo.setAccessible(true);
+        campo.set(pedidoMapper, itemPedidoMapper);
+        pedido = PedidosExemplo.pedidoComItens(1L, itens);
+    }
+
+    @Benchmark
+    public PedidoResponseDTO pedidoToDTO() {
+        return pedidoMapper.toDTO(pedido);
+    }
+
+    @Benchmark
+    public List<ItemPedidoResponseDTO> itensToDTO() {
+        List<ItemPedidoResponseDTO> dtos = new ArrayList<>(pedido.getItens().size());
+        for (ItemPedido item : pedido.getItens()) {
+            dtos.add(itemPedidoMapper.toDTO(item));
+        }
+        return dtos;
+    }
+}
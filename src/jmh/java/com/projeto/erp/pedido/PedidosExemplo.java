@@ -0,0 +1,82 @@
+package com.projeto.erp.pedido;
+
+import com.projeto.erp.cliente.Cliente;
+import com.projeto.erp.fornecedor.Fornecedor;
+import com.projeto.erp.pedido.dto.ItemPedidoResponseDTO;
+import com.projeto.erp.pedido.dto.PedidoResponseDTO;
+import com.projeto.erp.produto.Produto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pedidos montados em memória para os benchmarks: entidades com cliente, itens e produtos preenchidos
+ * como o mapper os encontra, e as respostas correspondentes.
+ */
+public final class PedidosExemplo {
+
+    private PedidosExemplo() {
+    }
+
+    public static Pedido pedidoComItens(long id, int quantidadeItens) {
+        Cliente cliente = new Cliente();
+        cliente.setId(1L);
+        cliente.setNome("Cliente Benchmark");
+
+        Fornecedor fornecedor = Fornecedor.builder().id(1L).nome("Fornecedor Benchmark").build();
+
+        Pedido pedido = new Pedido();
+        pedido.setId(id);
+        pedido.setCliente(cliente);
+        pedido.setDataPedido(LocalDateTime.of(2025, 1, 15, 10, 30));
+
+        List<ItemPedido> itens = new ArrayList<>(quantidadeItens);
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < quantidadeItens; i++) {
+            Produto produto = new Produto();
+            produto.setId((long) i + 1);
+            produto.setNome("Produto " + i);
+            produto.setFornecedor(fornecedor);
+
+            ItemPedido item = new ItemPedido();
+            item.setId(id * 10_000 + i);
+            item.setPedido(pedido);
+            item.setProduto(produto);
+            item.setQuantidade(1 + i % 7);
+            item.setPrecoUnitario(new BigDecimal("19.90").add(BigDecimal.valueOf(i % 100, 2)));
+            itens.add(item);
+            total = total.add(item.getSubtotal());
+        }
+        pedido.setItens(itens);
+        pedido.setTotal(total);
+        return pedido;
+    }
+
+    public static PedidoResponseDTO respostaComItens(long id, int quantidadeItens) {
+        Pedido pedido = pedidoComItens(id, quantidadeItens);
+
+        PedidoResponseDTO resposta = new PedidoResponseDTO();
+        resposta.setId(pedido.getId());
+        resposta.setClienteId(pedido.getCliente().getId());
+        resposta.setClienteNome(pedido.getCliente().getNome());
+        resposta.setDataPedido(pedido.getDataPedido());
+        resposta.setStatus(pedido.getStatus());
+        resposta.setTotal(pedido.getTotal());
+
+        List<ItemPedidoResponseDTO> itens = new ArrayList<>(quantidadeItens);
+        for (ItemPedido item : pedido.getItens()) {
+            ItemPedidoResponseDTO itemResposta = new ItemPedidoResponseDTO();
+            itemResposta.setId(item.getId());
+            itemResposta.setProdutoId(item.getProduto().getId());
+            itemResposta.setProdutoNome(item.getProduto().getNome());
+            itemResposta.setQuantidade(item.getQuantidade());
+            itemResposta.setPrecoUnitario(item.getPrecoUnitario());
+            itemResposta.setSubtotal(item.getSubtotal());
+            itens.add(itemResposta);
+        }
+        resposta.setItens(itens);
+        return resposta;
+    }
+}
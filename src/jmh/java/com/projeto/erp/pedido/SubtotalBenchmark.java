@@ -0,0 +1,49 @@
+package com.projeto.erp.pedido;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aritmética de BigDecimal dos itens: subtotal de um item e total do pedido (soma dos subtotais).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SubtotalBenchmark {
+
+    @Param({"10", "1000"})
+    public int itens;
+
+    private List<ItemPedido> itensPedido;
+    private ItemPedido item;
+
+    @Setup
+    public void preparar() {
+        itensPedido = PedidosExemplo.pedidoComItens(1L, itens).getItens();
+        item = itensPedido.get(itensPedido.size() / 2);
+    }
+
+    @Benchmark
+    public BigDecimal subtotalItem() {
+        return item.getSubtotal();
+    }
+
+    @Benchmark
+    public BigDecimal totalPedido() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (ItemPedido itemPedido : itensPedido) {
+            total = total.add(itemPedido.getSubtotal());
+        }
+        return total;
+    }
+}
@@ -2,7 +2,10 @@ package com.projeto.erp.cliente;
 
 import com.projeto.erp.cliente.dto.ClienteRequestDTO;
 import com.projeto.erp.cliente.dto.ClienteResponseDTO;
+import com.projeto.erp.common.dto.CursorPageResponseDTO;
 import com.projeto.erp.common.dto.PageResponseDTO;
+import com.projeto.erp.common.dto.SugestaoDTO;
+import com.projeto.erp.common.pagination.ModoTotal;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -35,14 +38,41 @@ public class ClienteControle {
     }
 
     @GetMapping(value = "/listar")
-    @Operation(summary = "Lista todos os clientes", description = "Retorna uma lista paginada de todos os clientes cadastrados")
+    @Operation(summary = "Lista todos os clientes", description = "Retorna uma lista paginada de todos os clientes cadastrados. total=true (padrão) conta o total exato; total=false dispensa o count e informa apenas se há próxima página; total=aproximado usa um total mantido em cache")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lista de clientes retornada com sucesso")
+            @ApiResponse(responseCode = "200", description = "Lista de clientes retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Valor inválido para total", content = @Content)
     })
     public PageResponseDTO<ClienteResponseDTO> listCliente(
             @RequestParam(defaultValue = "0") Integer page,
-            @RequestParam(defaultValue = "10") Integer size) {
-        return clienteService.buscaTodosClientes(page, size);
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(defaultValue = "true") String total) {
+        return clienteService.buscaTodosClientes(page, size, ModoTotal.de(total));
+    }
+
+    @GetMapping(value = "/listar/cursor")
+    @Operation(summary = "Lista clientes por cursor", description = "Retorna clientes em ordem de ID a partir do cursor da página anterior. Sem OFFSET: o custo de cada página independe da profundidade. O total só é contado com total=true")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de clientes retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Cursor ou tamanho de página inválido", content = @Content)
+    })
+    public CursorPageResponseDTO<ClienteResponseDTO> listClientePorCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(defaultValue = "false") boolean total) {
+        return clienteService.buscaClientesPorCursor(cursor, size, total);
+    }
+
+    @GetMapping(value = "/sugestoes")
+    @Operation(summary = "Sugestões de clientes por nome", description = "Autocompletar: clientes com alguma palavra do nome iniciando pelo prefixo, sem diferenciar acentos e maiúsculas")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sugestões retornadas com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Limite inválido", content = @Content)
+    })
+    public List<SugestaoDTO> sugerirClientes(
+            @RequestParam String prefixo,
+            @RequestParam(defaultValue = "10") Integer limite) {
+        return clienteService.sugerirPorNome(prefixo, limite);
     }
 
     @PostMapping("/criar")
@@ -4,19 +4,29 @@ import com.projeto.erp.cliente.dto.ClienteRequestDTO;
 import com.projeto.erp.cliente.dto.ClienteResponseDTO;
 import com.projeto.erp.cliente.mapper.ClienteMapper;
 
+import com.projeto.erp.common.dto.CursorPageResponseDTO;
 import com.projeto.erp.common.dto.PageResponseDTO;
+import com.projeto.erp.common.dto.SugestaoDTO;
 import com.projeto.erp.common.exception.BusinessException;
+import com.projeto.erp.common.pagination.ContagemAproximada;
+import com.projeto.erp.common.pagination.Cursor;
+import com.projeto.erp.common.pagination.ModoTotal;
+import com.projeto.erp.common.pagination.PaginacaoCursor;
+import com.projeto.erp.common.pagination.PaginacaoOffset;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Service
+@Timed("erp.servico")
 public class ClienteService {
 
     @Autowired
@@ -25,39 +35,63 @@ public class ClienteService {
     @Autowired
     ClienteMapper mapper;
 
-    public PageResponseDTO<ClienteResponseDTO> buscaTodosClientes(Integer page, Integer size) {
+    @Autowired
+    IndiceNomesClientes indiceNomesClientes;
+
+    @Autowired
+    ContagemAproximada contagemAproximada;
+
+    @Transactional(readOnly = true)
+    public PageResponseDTO<ClienteResponseDTO> buscaTodosClientes(Integer page, Integer size, ModoTotal modoTotal) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<Cliente> clientesPage = clienteRepository.findAll(pageable);
+        Slice<Cliente> clientesPage = modoTotal == ModoTotal.EXATO
+                ? clienteRepository.findAll(pageable)
+                : clienteRepository.findAllBy(pageable);
 
         if (clientesPage.isEmpty()) {
             throw new RuntimeException("Nenhum cliente encontrado");
         }
 
-        List<ClienteResponseDTO> clientesDTO = clientesPage.getContent()
-                .stream()
-                .map(mapper::toDTO)
-                .toList();
-
-        return new PageResponseDTO<>(
-                clientesDTO,
-                clientesPage.getNumber(),
-                clientesPage.getSize(),
-                clientesPage.getTotalElements(),
-                clientesPage.getTotalPages(),
-                clientesPage.isFirst(),
-                clientesPage.isLast()
+        return PaginacaoOffset.montarPagina(
+                clientesPage,
+                mapper::toDTO,
+                modoTotal == ModoTotal.APROXIMADO ? contagemAproximada.contar("clientes", clienteRepository::count) : null
         );
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<ClienteResponseDTO> buscaClientesPorCursor(String cursor, Integer size, boolean total) {
+        Pageable limite = PaginacaoCursor.limite(size);
+        Long ultimoId = cursor == null ? 0L : Cursor.decodificar(cursor).id();
+        List<Cliente> registros = clienteRepository.findByIdGreaterThanOrderByIdAsc(ultimoId, limite);
+
+        return PaginacaoCursor.montarPagina(
+                registros,
+                size,
+                mapper::toDTO,
+                registro -> Cursor.porId(registro.getId()),
+                total ? clienteRepository.count() : null
+        );
+    }
+
+    @Transactional(readOnly = true)
     public ClienteResponseDTO getCliente( Long id ) {
         Cliente cliente = buscaClienteByIdOrThrow(id);
         return mapper.toDTO(cliente);
     }
 
+    /**
+     * Autocompletar por início de palavra do nome, sem acentos e sem diferenciar maiúsculas; servido do índice em memória.
+     */
+    public List<SugestaoDTO> sugerirPorNome(String prefixo, int limite) {
+        return indiceNomesClientes.sugerir(prefixo, limite);
+    }
+
     public ClienteResponseDTO criarCliente(ClienteRequestDTO cliente) {
         Cliente newCliente = mapper.toEntity(cliente);
         validarEmailUnico(newCliente.getEmail());
         Cliente savedCliente = clienteRepository.save(newCliente);
+        indiceNomesClientes.registrar(savedCliente.getId(), savedCliente.getNome());
         return mapper.toDTO(savedCliente);
     }
 
@@ -73,12 +107,14 @@ public class ClienteService {
         existingCliente.setAtivo(cliente.getAtivo());
 
         Cliente updatedCliente = clienteRepository.save(existingCliente);
+        indiceNomesClientes.registrar(updatedCliente.getId(), updatedCliente.getNome());
         return mapper.toDTO(updatedCliente);
     }
 
     public void deleteCliente(Long id) {
         Cliente cliente = buscaClienteByIdOrThrow(id);
         clienteRepository.delete(cliente);
+        indiceNomesClientes.remover(id);
     }
 
     private void validarEmailUnico(String email) {
@@ -0,0 +1,20 @@
+package com.projeto.erp.cliente;
+
+import com.projeto.erp.common.dto.SugestaoDTO;
+import com.projeto.erp.common.sugestao.IndiceNomes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Stream;
+
+@Component
+public class IndiceNomesClientes extends IndiceNomes {
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Override
+    protected Stream<SugestaoDTO> lerNomes() {
+        return clienteRepository.streamSugestoes();
+    }
+}
@@ -0,0 +1,45 @@
+package com.projeto.erp.common.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Caches locais (Caffeine) do catálogo, limitados por tamanho e por tempo.
+ * As estatísticas são registradas para o Actuator publicar acertos, falhas e remoções.
+ * Dentro de uma transação, gravações e invalidações só são aplicadas depois do commit: uma leitura concorrente
+ * não recoloca no cache o valor antigo antes de a alteração ser confirmada, e um rollback não invalida nada.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PRODUTOS = "produtos";
+    public static final String NOMES_FORNECEDOR = "fornecedores-nome";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${erp.cache.produtos.maximo:10000}") long maximoProdutos,
+                                     @Value("${erp.cache.produtos.ttl:PT10M}") Duration ttlProdutos,
+                                     @Value("${erp.cache.fornecedores-nome.maximo:2000}") long maximoFornecedores,
+                                     @Value("${erp.cache.fornecedores-nome.ttl:PT30M}") Duration ttlFornecedores) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(PRODUTOS, Caffeine.newBuilder()
+                .maximumSize(maximoProdutos)
+                .expireAfterWrite(ttlProdutos)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(NOMES_FORNECEDOR, Caffeine.newBuilder()
+                .maximumSize(maximoFornecedores)
+                .expireAfterWrite(ttlFornecedores)
+                .recordStats()
+                .build());
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
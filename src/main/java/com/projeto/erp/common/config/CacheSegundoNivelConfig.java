@@ -0,0 +1,88 @@
+package com.projeto.erp.common.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Cache de segundo nível do Hibernate (JCache sobre Caffeine) para cadastros de referência que mudam pouco
+ * e são lidos a cada pedido/produto: clientes e fornecedores, além das consultas marcadas como cacheáveis
+ * (verificação de e-mail já cadastrado).
+ *
+ * As entidades usam READ_WRITE: alterações e exclusões feitas pelo Hibernate atualizam ou removem a entrada
+ * na mesma transação. Resultados de consulta são descartados quando qualquer linha das tabelas envolvidas muda
+ * (região de timestamps, que não pode expirar nem ser limitada).
+ */
+@Configuration
+public class CacheSegundoNivelConfig {
+
+    public static final String REGIAO_CLIENTES = "clientes";
+    public static final String REGIAO_FORNECEDORES = "fornecedores";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheManagerSegundoNivel(@Value("${erp.cache.segundo-nivel.clientes.maximo:10000}") long maximoClientes,
+                                                 @Value("${erp.cache.segundo-nivel.clientes.ttl:PT30M}") Duration ttlClientes,
+                                                 @Value("${erp.cache.segundo-nivel.fornecedores.maximo:2000}") long maximoFornecedores,
+                                                 @Value("${erp.cache.segundo-nivel.fornecedores.ttl:PT30M}") Duration ttlFornecedores,
+                                                 @Value("${erp.cache.segundo-nivel.consultas.maximo:5000}") long maximoConsultas,
+                                                 @Value("${erp.cache.segundo-nivel.consultas.ttl:PT10M}") Duration ttlConsultas) {
+        // URI própria por contexto: cada contexto (e cada contexto de teste) tem seus caches e seus MBeans de estatística
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("erp-segundo-nivel-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        cacheManager.createCache(REGIAO_CLIENTES, regiao(maximoClientes, ttlClientes));
+        cacheManager.createCache(REGIAO_FORNECEDORES, regiao(maximoFornecedores, ttlFornecedores));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, regiao(maximoConsultas, ttlConsultas));
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, regiao(null, null));
+        return cacheManager;
+    }
+
+    /**
+     * Entrega ao Hibernate o CacheManager configurado acima; uma região sem cache declarado aqui impede a subida.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivel(CacheManager cacheManagerSegundoNivel) {
+        return propriedades -> {
+            propriedades.put(ConfigSettings.CACHE_MANAGER, cacheManagerSegundoNivel);
+            propriedades.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    /**
+     * Acertos, falhas, inclusões e remoções de cada região em /actuator/metrics/cache.gets etc.,
+     * com as mesmas tags dos caches do Spring.
+     */
+    @Bean
+    public MeterBinder metricasCacheSegundoNivel(CacheManager cacheManagerSegundoNivel) {
+        return registry -> cacheManagerSegundoNivel.getCacheNames().forEach(nome ->
+                JCacheMetrics.monitor(registry, cacheManagerSegundoNivel.getCache(nome), "cache.manager", "cacheManagerSegundoNivel"));
+    }
+
+    private static CaffeineConfiguration<Object, Object> regiao(Long maximo, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuracao = new CaffeineConfiguration<>();
+        // O Hibernate já guarda o estado desmontado da entidade; cópia por serialização seria trabalho dobrado
+        configuracao.setStoreByValue(false);
+        configuracao.setStatisticsEnabled(true);
+        if (maximo != null) {
+            configuracao.setMaximumSize(OptionalLong.of(maximo));
+        }
+        if (ttl != null) {
+            configuracao.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        return configuracao;
+    }
+}
@@ -0,0 +1,79 @@
+package com.projeto.erp.common.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Acusa virtual threads presas ao carrier (pinning) por mais que o limite: bloqueio dentro de synchronized
+ * ou de código nativo. Cada ocorrência vira um aviso no log com o trecho da aplicação responsável e
+ * incrementa erp.threads.virtuais.pinning; um synchronized no caminho quente aparece aqui antes de esgotar os carriers.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class DiagnosticoPinning {
+
+    private static final String EVENTO = "jdk.VirtualThreadPinned";
+    private static final String PACOTE_APLICACAO = "com.projeto.erp.";
+
+    private final Counter ocorrencias;
+    private final Duration limite;
+
+    private RecordingStream gravacao;
+
+    public DiagnosticoPinning(MeterRegistry meterRegistry,
+                              @Value("${erp.threads.virtuais.pinning.limite:PT0.02S}") Duration limite) {
+        this.ocorrencias = Counter.builder("erp.threads.virtuais.pinning")
+                .description("Virtual threads presas ao carrier por mais que o limite")
+                .register(meterRegistry);
+        this.limite = limite;
+    }
+
+    @PostConstruct
+    void iniciar() {
+        gravacao = new RecordingStream();
+        gravacao.enable(EVENTO).withThreshold(limite).withStackTrace();
+        gravacao.onEvent(EVENTO, this::registrar);
+        gravacao.startAsync();
+    }
+
+    @PreDestroy
+    void encerrar() {
+        gravacao.close();
+    }
+
+    private void registrar(RecordedEvent evento) {
+        ocorrencias.increment();
+        log.warn("Virtual thread presa ao carrier por {} ms em {}", evento.getDuration().toMillis(), origem(evento));
+    }
+
+    /**
+     * Primeiro quadro da aplicação na pilha (é ali que está o synchronized a trocar); sem ele, o topo da pilha.
+     */
+    private static String origem(RecordedEvent evento) {
+        if (evento.getStackTrace() == null) {
+            return "(pilha indisponível)";
+        }
+        List<RecordedFrame> quadros = evento.getStackTrace().getFrames();
+        return quadros.stream()
+                .filter(quadro -> quadro.getMethod().getType().getName().startsWith(PACOTE_APLICACAO))
+                .findFirst()
+                .or(() -> quadros.stream().findFirst())
+                .map(quadro -> quadro.getMethod().getType().getName() + "." + quadro.getMethod().getName()
+                        + ":" + quadro.getLineNumber())
+                .orElse("(pilha vazia)");
+    }
+}
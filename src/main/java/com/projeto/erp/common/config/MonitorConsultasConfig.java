@@ -0,0 +1,69 @@
+package com.projeto.erp.common.config;
+
+import com.projeto.erp.common.datasource.MonitorConsultasFilter;
+import com.projeto.erp.common.datasource.MonitorConsultasListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Contagem de consultas por requisição (erp.sql.monitoramento.*), no lugar de show-sql: o DataSource
+ * principal, já com o roteamento primário/réplica, passa pelo datasource-proxy, e o
+ * {@link MonitorConsultasFilter} abre e avalia a contagem de cada requisição.
+ */
+@Configuration
+@ConditionalOnProperty(name = "erp.sql.monitoramento.habilitado", havingValue = "true", matchIfMissing = true)
+public class MonitorConsultasConfig {
+
+    @Bean
+    public static BeanPostProcessor monitorConsultasDataSource() {
+        return new MonitorConsultasPostProcessor(new MonitorConsultasListener());
+    }
+
+    @Bean
+    public MonitorConsultasFilter monitorConsultasFilter(
+            @Value("${erp.sql.monitoramento.limite-consultas:30}") int limiteConsultas,
+            @Value("${erp.sql.monitoramento.limite-tempo:PT0.5S}") Duration limiteTempo,
+            @Value("${erp.sql.monitoramento.maximo-capturadas:50}") int maximoCapturadas) {
+        return new MonitorConsultasFilter(limiteConsultas, limiteTempo, maximoCapturadas);
+    }
+
+    /**
+     * Último a processar o DataSource, para que o proxy fique por fora dos demais embrulhos
+     * (ex.: o limite de conexões do {@link ThreadsVirtuaisConfig}, que precisa ver o HikariDataSource).
+     */
+    static class MonitorConsultasPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final MonitorConsultasListener listener;
+
+        MonitorConsultasPostProcessor(MonitorConsultasListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            // Só o DataSource usado pela aplicação; os pools por baixo dele ficam sem proxy
+            if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource) {
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name("erp")
+                        .listener(listener)
+                        .methodListener(listener)
+                        .proxyResultSet()
+                        .build();
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
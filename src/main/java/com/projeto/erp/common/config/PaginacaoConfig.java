@@ -0,0 +1,29 @@
+package com.projeto.erp.common.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executor das contagens de total=aproximado (ContagemAproximada). Poucas threads e fila limitada: um count(*)
+ * em tabela grande não ocupa o commonPool da JVM, e as recontagens simultâneas nunca passam do número de threads,
+ * cada uma com sua conexão.
+ */
+@Configuration
+public class PaginacaoConfig {
+
+    public static final String EXECUTOR_CONTAGEM_APROXIMADA = "contagemAproximadaExecutor";
+
+    @Bean(EXECUTOR_CONTAGEM_APROXIMADA)
+    public ThreadPoolTaskExecutor contagemAproximadaExecutor(
+            @Value("${erp.paginacao.contagem-aproximada.threads:2}") int threads,
+            @Value("${erp.paginacao.contagem-aproximada.fila:100}") int fila) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(fila);
+        executor.setThreadNamePrefix("contagem-aproximada-");
+        return executor;
+    }
+}
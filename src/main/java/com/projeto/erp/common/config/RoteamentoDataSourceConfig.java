@@ -0,0 +1,77 @@
+package com.projeto.erp.common.config;
+
+import com.projeto.erp.common.datasource.AderenciaPrimarioFilter;
+import com.projeto.erp.common.datasource.MonitorAtrasoReplica;
+import com.projeto.erp.common.datasource.RoteamentoDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Separação de leitura e escrita: transações readOnly vão para a réplica (erp.datasource.replica.pool),
+ * o restante para o primário (spring.datasource). Ativada com erp.datasource.replica.habilitada=true;
+ * sem ela a aplicação usa o DataSource único configurado pelo Spring Boot.
+ */
+@Configuration
+@ConditionalOnProperty(name = "erp.datasource.replica.habilitada", havingValue = "true")
+public class RoteamentoDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimario(DataSourceProperties propriedades) {
+        HikariDataSource dataSource = propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primario");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("erp.datasource.replica.pool")
+    public HikariDataSource dataSourceReplica() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public MonitorAtrasoReplica monitorAtrasoReplica(@Qualifier("dataSourceReplica") DataSource replica,
+                                                     @Value("${erp.datasource.replica.consulta-atraso}") String consulta,
+                                                     @Value("${erp.datasource.replica.atraso-maximo:PT5S}") Duration atrasoMaximo) {
+        return new MonitorAtrasoReplica(replica, consulta, atrasoMaximo);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("dataSourcePrimario") DataSource primario,
+                                 @Qualifier("dataSourceReplica") DataSource replica,
+                                 MonitorAtrasoReplica monitorAtrasoReplica) {
+        return RoteamentoDataSource.criar(primario, replica, monitorAtrasoReplica);
+    }
+
+    @Bean
+    public AderenciaPrimarioFilter aderenciaPrimarioFilter(@Value("${erp.datasource.replica.aderencia:PT5S}") Duration janela) {
+        return new AderenciaPrimarioFilter(janela);
+    }
+
+    /**
+     * Com open-in-view o EntityManager vive a requisição inteira; por padrão ele seguraria a primeira
+     * conexão obtida até o fim, e as transações seguintes da mesma requisição não seriam roteadas de novo.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer liberarConexaoAoFimDaTransacao() {
+        return propriedades -> propriedades.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
@@ -0,0 +1,56 @@
+package com.projeto.erp.common.config;
+
+import com.projeto.erp.common.datasource.LimiteConexoesDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * Modo virtual threads (spring.threads.virtual.enabled=true): o Spring Boot passa a atender as requisições
+ * do Tomcat, a execução assíncrona (applicationTaskExecutor, exportações em streaming) e os jobs @Scheduled
+ * em virtual threads. Aqui cada pool Hikari (primário e, se houver, réplica) ganha o limite de conexões
+ * em uso, para que as virtual threads não se amontoem no pool.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class ThreadsVirtuaisConfig {
+
+    @Bean
+    public static BeanPostProcessor limiteConexoesPool(Environment ambiente) {
+        Duration espera = ambiente.getProperty("erp.datasource.limite-conexoes.espera", Duration.class, Duration.ofSeconds(30));
+        return new LimiteConexoesPostProcessor(espera);
+    }
+
+    /**
+     * Precisa ver o pool antes de qualquer proxy: o {@link MonitorConsultasConfig} embrulha o bean "dataSource",
+     * que sem réplica é o próprio HikariDataSource, e depois disso o instanceof não o encontraria mais.
+     */
+    static class LimiteConexoesPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final Duration espera;
+
+        LimiteConexoesPostProcessor(Duration espera) {
+            this.espera = espera;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof HikariDataSource hikari) {
+                return new LimiteConexoesDataSource(hikari, hikari.getMaximumPoolSize(), espera);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.projeto.erp.common.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Read-your-writes: requisições que alteram dados (POST, PUT, PATCH, DELETE) leem só do primário,
+ * e quando escrevem o cliente recebe um cookie com o instante da escrita. Enquanto ele estiver dentro
+ * da janela, as leituras desse cliente também ficam no primário (ex.: GET /pedidos/{id} logo após criar o pedido).
+ *
+ * O cookie não depende de estado no servidor, então vale entre instâncias da aplicação.
+ */
+public class AderenciaPrimarioFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE_ESCRITA = "erp-escrita";
+
+    private final Duration janela;
+
+    public AderenciaPrimarioFilter(Duration janela) {
+        this.janela = janela;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean aderido = !metodoSomenteLeitura(request) || escreveuRecentemente(request);
+        ContextoRoteamento.iniciar(aderido, () -> marcarEscrita(response));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ContextoRoteamento.encerrar();
+        }
+    }
+
+    private static boolean metodoSomenteLeitura(HttpServletRequest request) {
+        String metodo = request.getMethod();
+        return "GET".equals(metodo) || "HEAD".equals(metodo) || "OPTIONS".equals(metodo);
+    }
+
+    private boolean escreveuRecentemente(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_ESCRITA.equals(cookie.getName())) {
+                try {
+                    return System.currentTimeMillis() - Long.parseLong(cookie.getValue()) < janela.toMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void marcarEscrita(HttpServletResponse response) {
+        if (response.isCommitted()) {
+            return;
+        }
+        Cookie cookie = new Cookie(COOKIE_ESCRITA, String.valueOf(System.currentTimeMillis()));
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge((int) Math.max(1, janela.toSeconds()));
+        response.addCookie(cookie);
+    }
+}
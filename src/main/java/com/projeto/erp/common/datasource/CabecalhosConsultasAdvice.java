@@ -0,0 +1,43 @@
+package com.projeto.erp.common.datasource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Locale;
+
+/**
+ * Em desenvolvimento (erp.sql.monitoramento.cabecalhos=true), devolve as consultas da requisição nos
+ * cabeçalhos X-Query-Count e Server-Timing, que o DevTools do navegador mostra na aba de rede.
+ * Os cabeçalhos entram antes da escrita do corpo, quando o serviço já terminou de consultar.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(name = "erp.sql.monitoramento.cabecalhos", havingValue = "true")
+public class CabecalhosConsultasAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String CABECALHO_CONSULTAS = "X-Query-Count";
+    public static final String CABECALHO_TEMPOS = "Server-Timing";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        EstatisticasConsultas estatisticas = ContextoConsultas.atual();
+        if (estatisticas != null) {
+            response.getHeaders().set(CABECALHO_CONSULTAS, String.valueOf(estatisticas.getConsultas()));
+            response.getHeaders().set(CABECALHO_TEMPOS, String.format(Locale.ROOT, "db;dur=%.1f;desc=\"%d consultas, %d linhas\"",
+                    estatisticas.getTempoJdbc().toNanos() / 1e6, estatisticas.getConsultas(), estatisticas.getLinhas()));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,34 @@
+package com.projeto.erp.common.datasource;
+
+/**
+ * Estatísticas de consultas da requisição em andamento (thread atual), alimentadas pelo
+ * {@link MonitorConsultasListener}. Fora de requisições (jobs, inicialização) não há estado e nada é contado.
+ */
+public final class ContextoConsultas {
+
+    private static final ThreadLocal<EstatisticasConsultas> ESTATISTICAS = new ThreadLocal<>();
+
+    private ContextoConsultas() {
+    }
+
+    /**
+     * Passa a contar as consultas da thread atual; público para que os testes meçam um trecho de código
+     * com a mesma contagem usada nas requisições.
+     */
+    public static EstatisticasConsultas iniciar(int maximoCapturadas) {
+        EstatisticasConsultas estatisticas = new EstatisticasConsultas(maximoCapturadas);
+        ESTATISTICAS.set(estatisticas);
+        return estatisticas;
+    }
+
+    public static void encerrar() {
+        ESTATISTICAS.remove();
+    }
+
+    /**
+     * @return as estatísticas da thread atual, ou null quando nada está sendo medido
+     */
+    public static EstatisticasConsultas atual() {
+        return ESTATISTICAS.get();
+    }
+}
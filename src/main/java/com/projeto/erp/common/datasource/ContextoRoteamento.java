@@ -0,0 +1,52 @@
+package com.projeto.erp.common.datasource;
+
+/**
+ * Estado de roteamento da requisição em andamento (thread atual): se as leituras devem ficar no primário
+ * e o que fazer quando a requisição escreve. Fora de requisições (jobs, inicialização) não há estado.
+ */
+public final class ContextoRoteamento {
+
+    private static final ThreadLocal<Estado> ESTADO = new ThreadLocal<>();
+
+    private ContextoRoteamento() {
+    }
+
+    static void iniciar(boolean aderidoAoPrimario, Runnable aoEscrever) {
+        ESTADO.set(new Estado(aderidoAoPrimario, aoEscrever));
+    }
+
+    static void encerrar() {
+        ESTADO.remove();
+    }
+
+    static boolean aderidoAoPrimario() {
+        Estado estado = ESTADO.get();
+        return estado != null && estado.aderidoAoPrimario;
+    }
+
+    /**
+     * Chamado ao abrir conexão para uma transação de escrita: o restante da requisição
+     * passa a ler do primário e o cliente é avisado uma única vez.
+     */
+    static void registrarEscrita() {
+        Estado estado = ESTADO.get();
+        if (estado == null || estado.escreveu) {
+            return;
+        }
+        estado.escreveu = true;
+        estado.aderidoAoPrimario = true;
+        estado.aoEscrever.run();
+    }
+
+    private static final class Estado {
+
+        private boolean aderidoAoPrimario;
+        private boolean escreveu;
+        private final Runnable aoEscrever;
+
+        private Estado(boolean aderidoAoPrimario, Runnable aoEscrever) {
+            this.aderidoAoPrimario = aderidoAoPrimario;
+            this.aoEscrever = aoEscrever;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.projeto.erp.common.datasource;
+
+enum DestinoDataSource {
+    PRIMARIO,
+    REPLICA
+}
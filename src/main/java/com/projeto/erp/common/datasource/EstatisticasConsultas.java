@@ -0,0 +1,92 @@
+package com.projeto.erp.common.datasource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Consultas de uma requisição (ou de um trecho medido em teste): quantas idas ao banco, linhas lidas
+ * ou alteradas e tempo total em JDBC. O SQL das primeiras consultas é guardado para o log de requisições
+ * lentas; as demais só entram na contagem.
+ *
+ * Um lote JDBC (executeBatch) conta como uma consulta, que é o que custa uma ida ao banco.
+ */
+public final class EstatisticasConsultas {
+
+    private final int maximoCapturadas;
+    private final List<ConsultaCapturada> capturadas = new ArrayList<>();
+    private int consultas;
+    private long linhas;
+    private long tempoJdbcNanos;
+    private long inicioConsulta;
+
+    EstatisticasConsultas(int maximoCapturadas) {
+        this.maximoCapturadas = maximoCapturadas;
+    }
+
+    void iniciarConsulta() {
+        inicioConsulta = System.nanoTime();
+    }
+
+    /**
+     * @param lote            quantidade de comandos no executeBatch, ou 0 fora de lote
+     * @param linhasAlteradas linhas afetadas por INSERT/UPDATE/DELETE; as lidas vêm de {@link #registrarLinhaLida()}
+     */
+    void registrarConsulta(String sql, int lote, long linhasAlteradas) {
+        long nanos = System.nanoTime() - inicioConsulta;
+        consultas++;
+        linhas += linhasAlteradas;
+        tempoJdbcNanos += nanos;
+        if (capturadas.size() < maximoCapturadas) {
+            capturadas.add(new ConsultaCapturada(sql, lote, Duration.ofNanos(nanos)));
+        }
+    }
+
+    void registrarLinhaLida() {
+        linhas++;
+    }
+
+    public int getConsultas() {
+        return consultas;
+    }
+
+    public long getLinhas() {
+        return linhas;
+    }
+
+    public Duration getTempoJdbc() {
+        return Duration.ofNanos(tempoJdbcNanos);
+    }
+
+    public List<ConsultaCapturada> getCapturadas() {
+        return Collections.unmodifiableList(capturadas);
+    }
+
+    /**
+     * Consultas contadas mas sem SQL guardado (além de erp.sql.monitoramento.maximo-capturadas).
+     */
+    public int getOmitidas() {
+        return consultas - capturadas.size();
+    }
+
+    /**
+     * SQL capturado, uma consulta por linha, para mensagens de log e de falha de teste.
+     */
+    public String descreverCapturadas() {
+        StringBuilder descricao = new StringBuilder();
+        for (ConsultaCapturada consulta : capturadas) {
+            descricao.append(String.format("%n  %8.2f ms  %s", consulta.duracao().toNanos() / 1e6, consulta.sql()));
+            if (consulta.lote() > 0) {
+                descricao.append(" [lote de ").append(consulta.lote()).append(']');
+            }
+        }
+        if (getOmitidas() > 0) {
+            descricao.append(String.format("%n  ... mais %d consultas", getOmitidas()));
+        }
+        return descricao.toString();
+    }
+
+    public record ConsultaCapturada(String sql, int lote, Duration duracao) {
+    }
+}
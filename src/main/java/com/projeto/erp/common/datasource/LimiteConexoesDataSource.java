@@ -0,0 +1,114 @@
+package com.projeto.erp.common.datasource;
+
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limita as conexões em uso ao tamanho do pool, com espera em fila justa (FIFO).
+ *
+ * Com virtual threads o Tomcat deixa de ter o teto de threads que segurava a concorrência: milhares de
+ * requisições podem pedir conexão ao mesmo tempo, e o Hikari não foi feito para filas desse tamanho.
+ * Aqui quem excede o pool estaciona no semáforo (barato para virtual threads) e a permissão volta
+ * no close da conexão. Passada a espera, falha como o próprio Hikari falharia no connectionTimeout.
+ */
+public class LimiteConexoesDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final Semaphore permissoes;
+    private final Duration espera;
+
+    public LimiteConexoesDataSource(DataSource alvo, int maximo, Duration espera) {
+        super(alvo);
+        this.permissoes = new Semaphore(maximo, true);
+        this.espera = espera;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirir();
+        try {
+            return devolverAoFechar(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        adquirir();
+        try {
+            return devolverAoFechar(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Threads aguardando uma conexão livre.
+     */
+    public int getAguardando() {
+        return permissoes.getQueueLength();
+    }
+
+    /**
+     * O pool embrulhado continua sendo fechado no encerramento do contexto.
+     */
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable alvo) {
+            alvo.close();
+        }
+    }
+
+    private void adquirir() throws SQLException {
+        try {
+            if (!permissoes.tryAcquire(espera.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException("Nenhuma conexão livre em " + espera
+                        + " (" + permissoes.getQueueLength() + " aguardando)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrompido aguardando conexão", e);
+        }
+    }
+
+    private Connection devolverAoFechar(Connection conexao) {
+        AtomicBoolean devolvida = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                new Class<?>[]{ConnectionProxy.class},
+                (proxy, metodo, argumentos) -> switch (metodo.getName()) {
+                    case "equals" -> proxy == argumentos[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "getTargetConnection" -> conexao;
+                    case "close" -> {
+                        try {
+                            conexao.close();
+                        } finally {
+                            if (devolvida.compareAndSet(false, true)) {
+                                permissoes.release();
+                            }
+                        }
+                        yield null;
+                    }
+                    default -> {
+                        try {
+                            yield metodo.invoke(conexao, argumentos);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    }
+                });
+    }
+}
@@ -0,0 +1,58 @@
+package com.projeto.erp.common.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Mede periodicamente o atraso de replicação. Acima do limite (ou se a réplica não responder)
+ * as leituras voltam para o primário até a próxima verificação dentro do limite.
+ */
+@Slf4j
+public class MonitorAtrasoReplica {
+
+    private final JdbcTemplate jdbcReplica;
+    private final String consulta;
+    private final Duration atrasoMaximo;
+
+    // Até a primeira verificação (um intervalo depois da subida) a réplica não é usada;
+    // as cargas iniciais (índices, contadores) leem do primário
+    private volatile boolean replicaDisponivel;
+
+    public MonitorAtrasoReplica(DataSource replica, String consulta, Duration atrasoMaximo) {
+        this.jdbcReplica = new JdbcTemplate(replica);
+        this.consulta = consulta;
+        this.atrasoMaximo = atrasoMaximo;
+    }
+
+    @Scheduled(fixedDelayString = "${erp.datasource.replica.verificacao-atraso:PT1S}",
+               initialDelayString = "${erp.datasource.replica.verificacao-atraso:PT1S}")
+    public void verificar() {
+        boolean disponivel;
+        try {
+            // Nulo: o banco não é uma réplica em recuperação (ex.: ambiente local), não há atraso
+            Double atrasoSegundos = jdbcReplica.queryForObject(consulta, Double.class);
+            disponivel = atrasoSegundos == null || atrasoSegundos * 1000 <= atrasoMaximo.toMillis();
+            if (!disponivel && replicaDisponivel) {
+                log.warn("Réplica com {}s de atraso (limite {}); leituras direcionadas ao primário", atrasoSegundos, atrasoMaximo);
+            }
+        } catch (DataAccessException e) {
+            disponivel = false;
+            if (replicaDisponivel) {
+                log.warn("Falha ao consultar o atraso da réplica; leituras direcionadas ao primário", e);
+            }
+        }
+        if (disponivel && !replicaDisponivel) {
+            log.info("Réplica dentro do limite de atraso; leituras readOnly direcionadas à réplica");
+        }
+        replicaDisponivel = disponivel;
+    }
+
+    public boolean isReplicaDisponivel() {
+        return replicaDisponivel;
+    }
+}
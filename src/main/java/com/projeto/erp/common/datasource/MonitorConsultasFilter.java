@@ -0,0 +1,54 @@
+package com.projeto.erp.common.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Conta as consultas de cada requisição e registra no log, com o SQL capturado, as que passam do limite
+ * de consultas ou de tempo em JDBC: um N+1 aparece aqui como uma requisição com dezenas de SELECTs iguais.
+ *
+ * Exportações em streaming escrevem a resposta em outra thread depois que o filtro termina; as consultas
+ * feitas ali não entram na conta da requisição.
+ */
+@Slf4j
+public class MonitorConsultasFilter extends OncePerRequestFilter {
+
+    private final int limiteConsultas;
+    private final Duration limiteTempo;
+    private final int maximoCapturadas;
+
+    public MonitorConsultasFilter(int limiteConsultas, Duration limiteTempo, int maximoCapturadas) {
+        this.limiteConsultas = limiteConsultas;
+        this.limiteTempo = limiteTempo;
+        this.maximoCapturadas = maximoCapturadas;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long inicio = System.nanoTime();
+        EstatisticasConsultas estatisticas = ContextoConsultas.iniciar(maximoCapturadas);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ContextoConsultas.encerrar();
+            avaliar(request, estatisticas, System.nanoTime() - inicio);
+        }
+    }
+
+    private void avaliar(HttpServletRequest request, EstatisticasConsultas estatisticas, long nanosRequisicao) {
+        if (estatisticas.getConsultas() <= limiteConsultas && estatisticas.getTempoJdbc().compareTo(limiteTempo) <= 0) {
+            return;
+        }
+        log.warn("{} {}: {} consultas, {} linhas, {} ms em JDBC ({} ms na requisição){}",
+                request.getMethod(), request.getRequestURI(), estatisticas.getConsultas(), estatisticas.getLinhas(),
+                estatisticas.getTempoJdbc().toMillis(), nanosRequisicao / 1_000_000, estatisticas.descreverCapturadas());
+    }
+}
@@ -0,0 +1,82 @@
+package com.projeto.erp.common.datasource;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Ouvinte do datasource-proxy: cada execução de Statement vira uma consulta nas estatísticas da thread,
+ * com o tempo em JDBC e as linhas alteradas, e cada ResultSet.next() bem-sucedido soma uma linha lida.
+ * Sem {@link ContextoConsultas} ativo as chamadas passam direto.
+ */
+public class MonitorConsultasListener implements QueryExecutionListener, MethodExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execucao, List<QueryInfo> consultas) {
+        EstatisticasConsultas estatisticas = ContextoConsultas.atual();
+        if (estatisticas != null) {
+            estatisticas.iniciarConsulta();
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execucao, List<QueryInfo> consultas) {
+        EstatisticasConsultas estatisticas = ContextoConsultas.atual();
+        if (estatisticas == null) {
+            return;
+        }
+        // PreparedStatement em lote traz um único SQL; Statement em lote, um por addBatch
+        String sql = consultas.size() == 1
+                ? consultas.get(0).getQuery()
+                : consultas.stream().map(QueryInfo::getQuery).distinct().collect(Collectors.joining("; "));
+        estatisticas.registrarConsulta(sql, execucao.isBatch() ? execucao.getBatchSize() : 0,
+                linhasAlteradas(execucao.getResult()));
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext contexto) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext contexto) {
+        if (contexto.getTarget() instanceof ResultSet
+                && "next".equals(contexto.getMethod().getName())
+                && Boolean.TRUE.equals(contexto.getResult())) {
+            EstatisticasConsultas estatisticas = ContextoConsultas.atual();
+            if (estatisticas != null) {
+                estatisticas.registrarLinhaLida();
+            }
+        }
+    }
+
+    /**
+     * executeUpdate devolve as linhas afetadas e executeBatch uma contagem por comando; execute e executeQuery
+     * não dizem nada aqui (as linhas lidas são contadas no ResultSet). Contagens negativas
+     * (SUCCESS_NO_INFO do driver) são ignoradas.
+     */
+    private static long linhasAlteradas(Object resultado) {
+        if (resultado instanceof Integer contagem) {
+            return Math.max(contagem, 0);
+        }
+        if (resultado instanceof Long contagem) {
+            return Math.max(contagem, 0);
+        }
+        long total = 0;
+        if (resultado instanceof int[] contagens) {
+            for (int contagem : contagens) {
+                total += Math.max(contagem, 0);
+            }
+        } else if (resultado instanceof long[] contagens) {
+            for (long contagem : contagens) {
+                total += Math.max(contagem, 0);
+            }
+        }
+        return total;
+    }
+}
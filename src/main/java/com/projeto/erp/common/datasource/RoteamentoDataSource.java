@@ -0,0 +1,47 @@
+package com.projeto.erp.common.datasource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Transações readOnly vão para a réplica; todo o resto vai para o primário.
+ * A leitura fica no primário quando a réplica está atrasada além do limite ou quando
+ * o cliente escreveu há pouco (ver AderenciaPrimarioFilter).
+ *
+ * Fica atrás de um LazyConnectionDataSourceProxy: a conexão só é escolhida no primeiro
+ * comando SQL, quando o flag readOnly da transação já está disponível.
+ */
+public class RoteamentoDataSource extends AbstractRoutingDataSource {
+
+    private final MonitorAtrasoReplica monitorAtrasoReplica;
+
+    private RoteamentoDataSource(MonitorAtrasoReplica monitorAtrasoReplica) {
+        this.monitorAtrasoReplica = monitorAtrasoReplica;
+    }
+
+    public static DataSource criar(DataSource primario, DataSource replica, MonitorAtrasoReplica monitorAtrasoReplica) {
+        RoteamentoDataSource roteamento = new RoteamentoDataSource(monitorAtrasoReplica);
+        roteamento.setTargetDataSources(Map.of(DestinoDataSource.PRIMARIO, primario, DestinoDataSource.REPLICA, replica));
+        roteamento.setDefaultTargetDataSource(primario);
+        roteamento.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(roteamento);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                ContextoRoteamento.registrarEscrita();
+            }
+            return DestinoDataSource.PRIMARIO;
+        }
+        if (ContextoRoteamento.aderidoAoPrimario() || !monitorAtrasoReplica.isReplicaDisponivel()) {
+            return DestinoDataSource.PRIMARIO;
+        }
+        return DestinoDataSource.REPLICA;
+    }
+}
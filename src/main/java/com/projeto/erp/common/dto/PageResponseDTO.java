@@ -6,13 +6,16 @@ public class PageResponseDTO<T> {
     private List<T> content;
     private int pageNumber;
     private int pageSize;
-    private long totalElements;
-    private int totalPages;
+    // Nulos quando o cliente dispensa o total (total=false)
+    private Long totalElements;
+    private Integer totalPages;
+    // true quando os totais vêm da contagem em cache (total=aproximado)
+    private boolean totalAproximado;
     private boolean first;
     private boolean last;
 
     public PageResponseDTO(List<T> content, int pageNumber, int pageSize,
-                           long totalElements, int totalPages, boolean first, boolean last) {
+                           Long totalElements, Integer totalPages, boolean first, boolean last) {
         this.content = content;
         this.pageNumber = pageNumber;
         this.pageSize = pageSize;
@@ -31,15 +34,18 @@ public class PageResponseDTO<T> {
     public int getPageSize() { return pageSize; }
     public void setPageSize(int pageSize) { this.pageSize = pageSize; }
 
-    public long getTotalElements() { return totalElements; }
-    public void setTotalElements(long totalElements) { this.totalElements = totalElements; }
+    public Long getTotalElements() { return totalElements; }
+    public void setTotalElements(Long totalElements) { this.totalElements = totalElements; }
 
-    public int getTotalPages() { return totalPages; }
-    public void setTotalPages(int totalPages) { this.totalPages = totalPages; }
+    public Integer getTotalPages() { return totalPages; }
+    public void setTotalPages(Integer totalPages) { this.totalPages = totalPages; }
+
+    public boolean isTotalAproximado() { return totalAproximado; }
+    public void setTotalAproximado(boolean totalAproximado) { this.totalAproximado = totalAproximado; }
 
     public boolean isFirst() { return first; }
     public void setFirst(boolean first) { this.first = first; }
 
     public boolean isLast() { return last; }
     public void setLast(boolean last) { this.last = last; }
-}
\ No newline at end of file
+}
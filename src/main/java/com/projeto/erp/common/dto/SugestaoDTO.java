@@ -0,0 +1,18 @@
+package com.projeto.erp.common.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SugestaoDTO {
+
+    @Schema(example = "1")
+    private Long id;
+
+    @Schema(example = "João Silva")
+    private String nome;
+}
@@ -0,0 +1,47 @@
+package com.projeto.erp.common.metricas;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Contadores de negócio expostos em /actuator/prometheus, ao lado dos timers de serviço (erp.servico),
+ * de repositório (spring.data.repository.invocations) e de endpoint (http.server.requests).
+ */
+@Component
+public class MetricasNegocio {
+
+    public static final String PEDIDOS_CRIADOS = "erp.pedidos.criados";
+    public static final String REJEICOES_ESTOQUE = "erp.estoque.rejeicoes";
+
+    private final MeterRegistry meterRegistry;
+
+    public MetricasNegocio(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param origem unitario (POST /pedidos/criar, também usado pelo lote quando um bloco é desfeito)
+     *               ou lote (blocos gravados por POST /pedidos/lote)
+     */
+    public void pedidosCriados(String origem, int quantidade) {
+        Counter.builder(PEDIDOS_CRIADOS)
+                .description("Pedidos gravados")
+                .tag("origem", origem)
+                .register(meterRegistry)
+                .increment(quantidade);
+    }
+
+    /**
+     * Operação recusada por falta de saldo.
+     *
+     * @param operacao criacao-pedido, conclusao-pedido, lote-pedidos, saida ou movimentos
+     */
+    public void estoqueInsuficiente(String operacao) {
+        Counter.builder(REJEICOES_ESTOQUE)
+                .description("Operações recusadas por estoque insuficiente")
+                .tag("operacao", operacao)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,62 @@
+package com.projeto.erp.common.pagination;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.projeto.erp.common.config.PaginacaoConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.LongSupplier;
+
+/**
+ * Totais aproximados para a paginação com total=aproximado.
+ *
+ * Nenhuma requisição espera pelo count(*): o primeiro acesso a uma tabela só dispara a contagem em segundo plano
+ * e responde sem total, como total=false; os seguintes recebem o valor em cache. Depois do intervalo de
+ * atualização o próximo acesso dispara a recontagem e continua recebendo o valor anterior até ela terminar.
+ */
+@Component
+public class ContagemAproximada {
+
+    private final Map<String, LongSupplier> contagens = new ConcurrentHashMap<>();
+
+    private final LoadingCache<String, Long> totais;
+
+    /**
+     * @param executor onde rodam as contagens; na aplicação, o executor limitado de {@link PaginacaoConfig}
+     */
+    @Autowired
+    public ContagemAproximada(@Value("${erp.paginacao.contagem-aproximada.atualizacao:PT5M}") Duration atualizacao,
+                              @Qualifier(PaginacaoConfig.EXECUTOR_CONTAGEM_APROXIMADA) Executor executor) {
+        this.totais = Caffeine.newBuilder()
+                .executor(executor)
+                .refreshAfterWrite(atualizacao)
+                .build(chave -> contagens.get(chave).getAsLong());
+    }
+
+    /**
+     * @param chave    identifica a contagem (normalmente o nome da tabela)
+     * @param contagem count exato, executado sempre em segundo plano: na primeira vez e nas atualizações
+     * @return o total em cache, ou null enquanto a primeira contagem da chave não terminou
+     */
+    public Long contar(String chave, LongSupplier contagem) {
+        contagens.putIfAbsent(chave, contagem);
+        Long total = totais.getIfPresent(chave);
+        if (total == null) {
+            // Chamadas seguidas enquanto a contagem roda aproveitam a mesma execução
+            try {
+                totais.refresh(chave);
+            } catch (RejectedExecutionException e) {
+                // Fila do executor cheia: responde sem total e tenta de novo no próximo acesso
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,57 @@
+package com.projeto.erp.common.pagination;
+
+import com.projeto.erp.common.exception.BusinessException;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posição do último registro entregue na paginação por chave (keyset):
+ * valor da chave de ordenação mais o ID como desempate.
+ * Trafega para o cliente como texto opaco em Base64 URL-safe.
+ */
+public record Cursor(String chave, Long id) {
+
+    private static final String SEPARADOR = "|";
+
+    public static Cursor porId(Long id) {
+        return new Cursor("", id);
+    }
+
+    public static Cursor porDataHora(LocalDateTime dataHora, Long id) {
+        return new Cursor(dataHora.toString(), id);
+    }
+
+    public String codificar() {
+        String valor = chave + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decodificar(String cursor) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = valor.lastIndexOf(SEPARADOR);
+            if (separador < 0) {
+                throw cursorInvalido();
+            }
+            return new Cursor(valor.substring(0, separador), Long.parseLong(valor.substring(separador + 1)));
+        } catch (IllegalArgumentException e) {
+            throw cursorInvalido();
+        }
+    }
+
+    public LocalDateTime chaveComoDataHora() {
+        try {
+            return LocalDateTime.parse(chave);
+        } catch (DateTimeParseException e) {
+            throw cursorInvalido();
+        }
+    }
+
+    private static BusinessException cursorInvalido() {
+        return new BusinessException("Cursor inválido", HttpStatus.BAD_REQUEST);
+    }
+}
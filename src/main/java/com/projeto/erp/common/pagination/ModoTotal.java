@@ -0,0 +1,36 @@
+package com.projeto.erp.common.pagination;
+
+import com.projeto.erp.common.exception.BusinessException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Como a paginação por página/tamanho preenche o total de registros (parâmetro total da requisição).
+ */
+public enum ModoTotal {
+
+    // count(*) exato a cada página (comportamento padrão)
+    EXATO("true"),
+    // sem count: busca um registro além da página só para saber se existe a próxima
+    NENHUM("false"),
+    // sem count na requisição: total mantido em cache e atualizado em segundo plano
+    APROXIMADO("aproximado");
+
+    private final String parametro;
+
+    ModoTotal(String parametro) {
+        this.parametro = parametro;
+    }
+
+    public String getParametro() {
+        return parametro;
+    }
+
+    public static ModoTotal de(String parametro) {
+        for (ModoTotal modo : values()) {
+            if (modo.parametro.equalsIgnoreCase(parametro)) {
+                return modo;
+            }
+        }
+        throw new BusinessException("Parâmetro total inválido: use true, false ou aproximado", HttpStatus.BAD_REQUEST);
+    }
+}
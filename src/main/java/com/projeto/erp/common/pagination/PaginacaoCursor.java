@@ -0,0 +1,49 @@
+package com.projeto.erp.common.pagination;
+
+import com.projeto.erp.common.dto.CursorPageResponseDTO;
+import com.projeto.erp.common.exception.BusinessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Apoio à paginação por cursor: as consultas buscam um registro além do tamanho
+ * da página para saber se existe próxima página sem precisar de count.
+ */
+public final class PaginacaoCursor {
+
+    public static final int TAMANHO_MAXIMO = 100;
+
+    private PaginacaoCursor() {
+    }
+
+    public static Pageable limite(Integer size) {
+        if (size == null || size < 1 || size > TAMANHO_MAXIMO) {
+            throw new BusinessException("Tamanho da página deve estar entre 1 e " + TAMANHO_MAXIMO, HttpStatus.BAD_REQUEST);
+        }
+        return PageRequest.of(0, size + 1);
+    }
+
+    public static <E, T> CursorPageResponseDTO<T> montarPagina(List<E> registros, int size,
+                                                               Function<E, T> conversor,
+                                                               Function<E, Cursor> cursorDe,
+                                                               Long total) {
+        boolean temProxima = registros.size() > size;
+        List<E> pagina = temProxima ? registros.subList(0, size) : registros;
+        return montarPagina(pagina, temProxima, size, conversor, cursorDe, total);
+    }
+
+    public static <E, T> CursorPageResponseDTO<T> montarPagina(List<E> pagina, boolean temProxima, int size,
+                                                               Function<E, T> conversor,
+                                                               Function<E, Cursor> cursorDe,
+                                                               Long total) {
+        String proximoCursor = temProxima && !pagina.isEmpty()
+                ? cursorDe.apply(pagina.get(pagina.size() - 1)).codificar()
+                : null;
+        List<T> conteudo = pagina.stream().map(conversor).toList();
+        return new CursorPageResponseDTO<>(conteudo, size, proximoCursor, temProxima, total);
+    }
+}
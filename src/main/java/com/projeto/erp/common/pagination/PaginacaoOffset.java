@@ -0,0 +1,54 @@
+package com.projeto.erp.common.pagination;
+
+import com.projeto.erp.common.dto.PageResponseDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Monta o PageResponseDTO da paginação por página/tamanho a partir de um Page (total exato)
+ * ou de um Slice (sem count; last vem do registro extra buscado além da página).
+ */
+public final class PaginacaoOffset {
+
+    private PaginacaoOffset() {
+    }
+
+    /**
+     * @param totalAproximado total a informar quando a fatia não é um Page; null deixa o total em branco
+     */
+    public static <E, T> PageResponseDTO<T> montarPagina(Slice<E> fatia, Function<E, T> conversor, Long totalAproximado) {
+        return montarPagina(fatia, fatia.getContent().stream().map(conversor).toList(), totalAproximado);
+    }
+
+    public static <T> PageResponseDTO<T> montarPagina(Slice<?> fatia, List<T> conteudo, Long totalAproximado) {
+        Long totalElements = null;
+        Integer totalPages = null;
+        boolean aproximado = false;
+
+        if (fatia instanceof Page<?> pagina) {
+            totalElements = pagina.getTotalElements();
+            totalPages = pagina.getTotalPages();
+        } else if (totalAproximado != null) {
+            // A página atual é exata; o total não pode ser menor do que o que já foi percorrido
+            long percorridos = (long) fatia.getNumber() * fatia.getSize() + fatia.getNumberOfElements();
+            totalElements = fatia.hasNext() ? Math.max(totalAproximado, percorridos + 1) : percorridos;
+            totalPages = (int) Math.ceil((double) totalElements / fatia.getSize());
+            aproximado = true;
+        }
+
+        PageResponseDTO<T> resposta = new PageResponseDTO<>(
+                conteudo,
+                fatia.getNumber(),
+                fatia.getSize(),
+                totalElements,
+                totalPages,
+                fatia.isFirst(),
+                fatia.isLast()
+        );
+        resposta.setTotalAproximado(aproximado);
+        return resposta;
+    }
+}
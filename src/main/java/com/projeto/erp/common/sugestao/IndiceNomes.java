@@ -0,0 +1,58 @@
+package com.projeto.erp.common.sugestao;
+
+import com.projeto.erp.common.dto.SugestaoDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * IndicePrefixo de uma entidade, carregado na subida da aplicação a partir de uma leitura em streaming
+ * e mantido pelo service da entidade a cada criação, alteração e exclusão.
+ */
+@Slf4j
+public abstract class IndiceNomes {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final IndicePrefixo indice = new IndicePrefixo();
+
+    /**
+     * (ID, nome) de todos os registros; consumido dentro de uma transação somente leitura.
+     */
+    protected abstract Stream<SugestaoDTO> lerNomes();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        long inicio = System.currentTimeMillis();
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        Long quantidade = transactionTemplate.execute(status -> {
+            try (Stream<SugestaoDTO> nomes = lerNomes()) {
+                return indice.carregar(nomes);
+            }
+        });
+
+        log.info("{} carregado: {} nomes em {} ms",
+                getClass().getSimpleName(), quantidade, System.currentTimeMillis() - inicio);
+    }
+
+    public void registrar(Long id, String nome) {
+        indice.registrar(id, nome);
+    }
+
+    public void remover(Long id) {
+        indice.remover(id);
+    }
+
+    public List<SugestaoDTO> sugerir(String prefixo, int limite) {
+        return indice.sugerir(prefixo, limite);
+    }
+}
@@ -0,0 +1,137 @@
+package com.projeto.erp.common.sugestao;
+
+import com.projeto.erp.common.dto.SugestaoDTO;
+import com.projeto.erp.common.exception.BusinessException;
+import org.springframework.http.HttpStatus;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Índice em memória de nomes para autocompletar: nome normalizado (minúsculo, sem acentos)
+ * -> ID, em um mapa ordenado. Cada palavra do nome é indexada a partir do seu início,
+ * então "sil" encontra "João da Silva". A consulta percorre só o intervalo do prefixo.
+ * Leituras não bloqueiam; escritas (raras) são serializadas.
+ */
+public class IndicePrefixo {
+
+    public static final int LIMITE_MAXIMO = 50;
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+    // Separa o texto indexado do ID na chave; menor que qualquer caractere de nome
+    private static final char SEPARADOR = '\u0000';
+
+    private final ConcurrentSkipListMap<String, SugestaoDTO> entradas = new ConcurrentSkipListMap<>();
+    private final Map<Long, String> nomePorId = new ConcurrentHashMap<>();
+    // IDs já no índice ou alterados (registrados ou removidos) depois do início da carga em andamento; null fora dela
+    private Set<Long> alteradosNaCarga;
+
+    /**
+     * Carga inicial. A leitura é uma foto do início da carga: registros já no índice ou alterados durante a carga,
+     * inclusive os removidos, prevalecem sobre a foto e não são trazidos de volta.
+     */
+    public long carregar(Stream<SugestaoDTO> registros) {
+        synchronized (this) {
+            alteradosNaCarga = new HashSet<>(nomePorId.keySet());
+        }
+        long[] quantidade = {0};
+        try {
+            registros.forEach(registro -> {
+                synchronized (this) {
+                    if (!alteradosNaCarga.contains(registro.getId())) {
+                        adicionar(registro.getId(), registro.getNome());
+                    }
+                }
+                quantidade[0]++;
+            });
+        } finally {
+            synchronized (this) {
+                alteradosNaCarga = null;
+            }
+        }
+        return quantidade[0];
+    }
+
+    public synchronized void registrar(Long id, String nome) {
+        if (id == null) {
+            return;
+        }
+        remover(id);
+        adicionar(id, nome);
+    }
+
+    public synchronized void remover(Long id) {
+        if (alteradosNaCarga != null) {
+            alteradosNaCarga.add(id);
+        }
+        String nomeAnterior = nomePorId.remove(id);
+        if (nomeAnterior != null) {
+            chaves(id, nomeAnterior).forEach(entradas::remove);
+        }
+    }
+
+    /**
+     * Até limite nomes que tenham uma palavra começando pelo prefixo, em ordem alfabética da palavra encontrada.
+     */
+    public List<SugestaoDTO> sugerir(String prefixo, int limite) {
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new BusinessException("Limite de sugestões deve estar entre 1 e " + LIMITE_MAXIMO, HttpStatus.BAD_REQUEST);
+        }
+        String inicio = normalizar(prefixo);
+        if (inicio.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, SugestaoDTO> encontrados = new LinkedHashMap<>();
+        for (SugestaoDTO sugestao : entradas.subMap(inicio, inicio + Character.MAX_VALUE).values()) {
+            encontrados.putIfAbsent(sugestao.getId(), sugestao);
+            if (encontrados.size() == limite) {
+                break;
+            }
+        }
+        return new ArrayList<>(encontrados.values());
+    }
+
+    public int tamanho() {
+        return nomePorId.size();
+    }
+
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String semAcentos = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return ESPACOS.matcher(semAcentos.toLowerCase(Locale.ROOT)).replaceAll(" ").strip();
+    }
+
+    private void adicionar(Long id, String nome) {
+        if (nome == null) {
+            return;
+        }
+        nomePorId.put(id, nome);
+        SugestaoDTO sugestao = new SugestaoDTO(id, nome);
+        chaves(id, nome).forEach(chave -> entradas.put(chave, sugestao));
+    }
+
+    private static List<String> chaves(Long id, String nome) {
+        String normalizado = normalizar(nome);
+        List<String> chaves = new ArrayList<>();
+        for (int i = 0; i < normalizado.length(); i++) {
+            if (i == 0 || normalizado.charAt(i - 1) == ' ') {
+                chaves.add(normalizado.substring(i) + SEPARADOR + id);
+            }
+        }
+        return chaves;
+    }
+}
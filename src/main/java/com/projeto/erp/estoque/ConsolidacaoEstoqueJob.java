@@ -0,0 +1,36 @@
+package com.projeto.erp.estoque;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ConsolidacaoEstoqueJob {
+
+    @Autowired
+    private ConsolidacaoEstoqueService consolidacaoEstoqueService;
+
+    @Value("${erp.estoque.consolidacao.tamanho-lote:1000}")
+    private int tamanhoLote;
+
+    // Id do último movimento do diário já lido; só avança depois que o lote foi confirmado
+    private Long cursor;
+
+    /**
+     * Consolida o diário em lotes, cada lote em sua própria transação, até alcançar o último movimento.
+     */
+    @Scheduled(fixedDelayString = "${erp.estoque.consolidacao.intervalo:PT10S}",
+               initialDelayString = "${erp.estoque.consolidacao.intervalo:PT10S}")
+    public void consolidarMovimentosPendentes() {
+        if (cursor == null) {
+            cursor = consolidacaoEstoqueService.inicioCauda();
+        }
+
+        long anterior;
+        do {
+            anterior = cursor;
+            cursor = consolidacaoEstoqueService.consolidarApos(anterior, tamanhoLote);
+        } while (cursor != anterior);
+    }
+}
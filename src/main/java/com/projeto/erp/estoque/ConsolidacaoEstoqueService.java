@@ -0,0 +1,66 @@
+package com.projeto.erp.estoque;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Leva a cauda do diário (movimentos com id acima de estoque.ultimo_movimento_id) para o snapshot em
+ * estoque.quantidade. As linhas do diário não são alteradas: só a quantidade e a marca d'água do estoque,
+ * em um único UPDATE, com as linhas de estoque travadas para nenhum movimento entrar no meio.
+ */
+@Service
+@Timed("erp.servico")
+public class ConsolidacaoEstoqueService {
+
+    @Autowired
+    private MovimentoEstoqueRepository movimentoEstoqueRepository;
+
+    @Autowired
+    private EstoqueRepository estoqueRepository;
+
+    /**
+     * Lê até tamanhoLote movimentos depois de aposId e consolida a cauda inteira de cada produto encontrado.
+     * Retorna o id do último movimento lido (o próximo cursor), ou aposId quando não havia movimento.
+     * Um movimento confirmado depois, com id abaixo do cursor, continua somado no saldo pela cauda e é
+     * consolidado junto com o próximo movimento do mesmo produto.
+     */
+    @Transactional
+    public long consolidarApos(long aposId, int tamanhoLote) {
+        List<MovimentoEstoque> movimentos = movimentoEstoqueRepository.findByIdGreaterThanOrderByIdAsc(
+                aposId, PageRequest.of(0, tamanhoLote));
+        if (movimentos.isEmpty()) {
+            return aposId;
+        }
+
+        Set<Long> produtoIds = movimentos.stream()
+                .map(MovimentoEstoque::getProdutoId)
+                .collect(Collectors.toCollection(TreeSet::new));
+
+        estoqueRepository.travarPorProdutoIds(produtoIds);
+        estoqueRepository.consolidar(produtoIds);
+
+        return movimentos.get(movimentos.size() - 1).getId();
+    }
+
+    /**
+     * Cursor inicial: a menor marca entre os produtos com cauda ou, sem nenhuma cauda, o último movimento do diário.
+     * Transação de escrita só para ler do primário: a réplica pode estar atrasada em relação ao diário.
+     */
+    @Transactional
+    public long inicioCauda() {
+        Long marca = estoqueRepository.findMenorMarcaComCauda();
+        if (marca != null) {
+            return marca;
+        }
+        Long ultimo = movimentoEstoqueRepository.findUltimoId();
+        return ultimo != null ? ultimo : 0L;
+    }
+}
@@ -0,0 +1,51 @@
+package com.projeto.erp.estoque;
+
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+
+/**
+ * Tudo o que consome ou devolve disponível: baixas, entradas e movimentos em lote (EstoqueService e conclusão
+ * de pedidos) e reservas (ReservaEstoqueService). Passando tudo por aqui, no modo memoria o contador é a única
+ * autoridade sobre o disponível e uma reserva não consome unidades já vendidas por uma baixa ainda não gravada.
+ * A implementação é escolhida por erp.estoque.contador.modo: jpa (padrão, cada operação vai ao banco)
+ * ou memoria (contadores em memória com gravação periódica no banco, para SKUs muito disputados).
+ */
+public interface ContadorEstoque {
+
+    /**
+     * Baixa condicional: retorna false quando o produto não tem estoque ou o disponível não cobre a quantidade.
+     */
+    boolean baixar(Long produtoId, int quantidade);
+
+    /**
+     * Entrada de quantidade. O registro de estoque do produto já deve existir.
+     */
+    void adicionar(Long produtoId, int quantidade);
+
+    /**
+     * Aplica de uma vez os movimentos de vários produtos (ex.: recebimento de nota do fornecedor). Por produto vale
+     * a soma dos movimentos: soma negativa é uma baixa condicional, como em baixar. O registro de estoque dos produtos
+     * já deve existir. Retorna os produtos recusados (sem estoque ou sem disponível); os movimentos dos demais foram aplicados.
+     */
+    Set<Long> movimentar(List<MovimentoEstoque> movimentos);
+
+    /**
+     * Reserva condicional de vários produtos, de todos ou de nenhum: soma as quantidades ao reservado no banco,
+     * na transação do chamador, e retorna false (sem reservar nada) se algum produto não tiver estoque
+     * ou disponível suficiente.
+     */
+    boolean reservar(Map<Long, Integer> quantidadesPorProduto);
+
+    /**
+     * Devolve ao disponível a quantidade de uma reserva liberada ou expirada.
+     */
+    void liberar(Long produtoId, int quantidade);
+
+    /**
+     * Disponível segundo o contador, quando ele diverge do banco (variações ainda não gravadas).
+     * Vazio quando o banco é a fonte da verdade para o produto.
+     */
+    OptionalInt disponivel(Long produtoId);
+}
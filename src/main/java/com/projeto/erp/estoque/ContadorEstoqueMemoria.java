@@ -0,0 +1,386 @@
+package com.projeto.erp.estoque;
+
+import com.projeto.erp.common.exception.BusinessException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Contadores de estoque em memória para SKUs com milhares de baixas por segundo (ex.: promoções relâmpago).
+ *
+ * O disponível de cada produto é carregado do banco no primeiro uso e passa a ser decidido aqui, com CAS,
+ * sem travar a linha de estoque: baixas, entradas e também reservas, para que uma reserva nunca consuma
+ * unidades já vendidas por uma baixa ainda não gravada. Cada variação aceita é registrada no WAL local antes
+ * de ser confirmada ao chamador; a cada intervalo as variações acumuladas viram um movimento por produto
+ * no diário e o disponível é ressincronizado com o banco (liberações e expirações de reservas).
+ *
+ * Pressupõe uma única instância da aplicação usando este modo sobre o mesmo banco.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "erp.estoque.contador.modo", havingValue = "memoria")
+public class ContadorEstoqueMemoria implements ContadorEstoque {
+
+    @Autowired
+    private EstoqueRepository estoqueRepository;
+
+    @Autowired
+    private GravacaoContadorEstoqueService gravacaoContadorEstoqueService;
+
+    @Value("${erp.estoque.contador.wal.diretorio:./data/wal-estoque}")
+    private Path diretorioWal;
+
+    @Value("${erp.estoque.contador.wal.sincronizar:true}")
+    private boolean sincronizarWal;
+
+    private final Map<Long, Saldo> saldos = new ConcurrentHashMap<>();
+
+    // Operações usam a leitura (compartilhada); a troca de segmento do WAL usa a escrita,
+    // para que cada segmento contenha exatamente as variações drenadas junto com ele
+    private final ReentrantReadWriteLock travaSegmento = new ReentrantReadWriteLock();
+
+    // Uma gravação por vez (agendada ou no encerramento); ReentrantLock porque a gravação faz I/O no banco,
+    // e sob synchronized a virtual thread do agendador ficaria presa ao carrier
+    private final ReentrantLock travaGravacao = new ReentrantLock();
+
+    // Segmentos fechados cujas variações ainda não foram gravadas no banco (acesso só em gravarVariacoes)
+    private final TreeMap<Long, Map<Long, Integer>> segmentosNaoGravados = new TreeMap<>();
+
+    private WalEstoque wal;
+
+    @PostConstruct
+    void iniciar() throws IOException {
+        wal = new WalEstoque(diretorioWal, sincronizarWal);
+
+        // Segmentos que sobraram de uma execução interrompida: gravar() ignora os que já chegaram ao banco
+        List<Long> pendentes = wal.segmentos();
+        for (Long segmento : pendentes) {
+            gravacaoContadorEstoqueService.gravar(segmento, wal.ler(segmento));
+            wal.descartar(segmento);
+        }
+
+        long ultimo = Math.max(gravacaoContadorEstoqueService.ultimoSegmentoGravado(),
+                pendentes.isEmpty() ? 0L : pendentes.get(pendentes.size() - 1));
+        wal.abrir(Math.max(System.currentTimeMillis(), ultimo + 1));
+    }
+
+    @PreDestroy
+    void encerrar() throws IOException {
+        gravarVariacoes();
+        wal.close();
+    }
+
+    @Override
+    public boolean baixar(Long produtoId, int quantidade) {
+        travaSegmento.readLock().lock();
+        try {
+            Saldo saldo = saldo(produtoId);
+            if (saldo == null || !saldo.baixar(quantidade)) {
+                return false;
+            }
+            registrar(produtoId, saldo, -quantidade);
+            return true;
+        } finally {
+            travaSegmento.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void adicionar(Long produtoId, int quantidade) {
+        travaSegmento.readLock().lock();
+        try {
+            Saldo saldo = saldo(produtoId);
+            if (saldo == null) {
+                throw new BusinessException("Estoque não encontrado", HttpStatus.NOT_FOUND);
+            }
+            saldo.disponivel.addAndGet(quantidade);
+            registrar(produtoId, saldo, quantidade);
+        } finally {
+            travaSegmento.readLock().unlock();
+        }
+    }
+
+    /**
+     * Mesma regra do modo jpa, aplicada nos contadores: a soma de cada produto é uma baixa (CAS) ou uma entrada,
+     * registrada no WAL e gravada no diário com as demais variações do segmento. Os saldos ainda não carregados
+     * vêm do banco em uma única consulta.
+     */
+    @Override
+    public Set<Long> movimentar(List<MovimentoEstoque> movimentos) {
+        Map<Long, Integer> variacaoPorProduto = new TreeMap<>();
+        movimentos.forEach(movimento ->
+                variacaoPorProduto.merge(movimento.getProdutoId(), movimento.getQuantidade(), Integer::sum));
+        carregarSaldos(variacaoPorProduto.keySet());
+
+        Set<Long> recusados = new HashSet<>();
+        travaSegmento.readLock().lock();
+        try {
+            variacaoPorProduto.forEach((produtoId, variacao) -> {
+                Saldo saldo = saldos.get(produtoId);
+                if (saldo == null || (variacao < 0 && !saldo.baixar(-variacao))) {
+                    recusados.add(produtoId);
+                    return;
+                }
+                if (variacao > 0) {
+                    saldo.disponivel.addAndGet(variacao);
+                }
+                if (variacao != 0) {
+                    registrar(produtoId, saldo, variacao);
+                }
+            });
+        } finally {
+            travaSegmento.readLock().unlock();
+        }
+        return recusados;
+    }
+
+    /**
+     * A reserva é decidida nos contadores (CAS, de todos os produtos ou de nenhum) e só então somada ao reservado
+     * no banco, sem nova conferência. Até a transação do chamador terminar ela conta como reserva em andamento,
+     * que a ressincronização desconta do banco; se a transação for desfeita, as unidades voltam ao disponível.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean reservar(Map<Long, Integer> quantidadesPorProduto) {
+        Map<Long, Integer> quantidades = new TreeMap<>(quantidadesPorProduto);
+        carregarSaldos(quantidades.keySet());
+
+        Map<Saldo, Integer> reservadas = new HashMap<>();
+        travaSegmento.readLock().lock();
+        try {
+            for (Map.Entry<Long, Integer> item : quantidades.entrySet()) {
+                Saldo saldo = saldos.get(item.getKey());
+                if (saldo == null || !saldo.baixar(item.getValue())) {
+                    reservadas.forEach((reservado, quantidade) -> {
+                        reservado.reservando.addAndGet(-quantidade);
+                        reservado.disponivel.addAndGet(quantidade);
+                    });
+                    return false;
+                }
+                saldo.reservando.addAndGet(item.getValue());
+                reservadas.put(saldo, item.getValue());
+            }
+        } finally {
+            travaSegmento.readLock().unlock();
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                concluirReserva(reservadas, status == STATUS_COMMITTED);
+            }
+        });
+        estoqueRepository.registrarReservas(quantidades);
+        return true;
+    }
+
+    /**
+     * Só no banco: o disponível em memória recebe a devolução na próxima ressincronização. Até lá o contador
+     * vende a menos, nunca a mais.
+     */
+    @Override
+    @Transactional
+    public void liberar(Long produtoId, int quantidade) {
+        estoqueRepository.liberarReserva(produtoId, quantidade);
+    }
+
+    @Override
+    public OptionalInt disponivel(Long produtoId) {
+        Saldo saldo = saldos.get(produtoId);
+        return saldo != null ? OptionalInt.of(saldo.disponivel.get()) : OptionalInt.empty();
+    }
+
+    /**
+     * Fecha o segmento atual do WAL, grava no banco as variações de todos os segmentos fechados
+     * (um por transação, do mais antigo ao mais novo) e ressincroniza o disponível com o banco.
+     * Se o banco falhar, os segmentos ficam no disco e na memória para a próxima execução.
+     */
+    @Scheduled(fixedDelayString = "${erp.estoque.contador.intervalo-gravacao:PT1S}",
+               initialDelayString = "${erp.estoque.contador.intervalo-gravacao:PT1S}")
+    public void gravarVariacoes() {
+        travaGravacao.lock();
+        try {
+            fecharSegmento();
+
+            Iterator<Map.Entry<Long, Map<Long, Integer>>> iterator = segmentosNaoGravados.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Long, Map<Long, Integer>> segmento = iterator.next();
+                try {
+                    gravacaoContadorEstoqueService.gravar(segmento.getKey(), segmento.getValue());
+                    wal.descartar(segmento.getKey());
+                } catch (RuntimeException | IOException e) {
+                    log.warn("Falha ao gravar o segmento {} do contador de estoque; nova tentativa no próximo intervalo",
+                            segmento.getKey(), e);
+                    return;
+                }
+                iterator.remove();
+            }
+
+            ressincronizar();
+        } finally {
+            travaGravacao.unlock();
+        }
+    }
+
+    private void fecharSegmento() {
+        travaSegmento.writeLock().lock();
+        try {
+            Map<Long, Integer> variacoes = new HashMap<>();
+            saldos.forEach((produtoId, saldo) -> {
+                int variacao = saldo.naoGravado.getAndSet(0);
+                if (variacao != 0) {
+                    variacoes.put(produtoId, variacao);
+                }
+            });
+
+            long fechado = wal.rotacionar(Math.max(System.currentTimeMillis(), wal.segmentoAtual() + 1));
+            if (variacoes.isEmpty()) {
+                wal.descartar(fechado);
+            } else {
+                segmentosNaoGravados.put(fechado, variacoes);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao trocar o segmento do WAL de estoque", e);
+        } finally {
+            travaSegmento.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Depois de cada gravação o disponível em memória volta a ser o do banco, mais o que ainda não foi gravado,
+     * menos as reservas cujas transações ainda não terminaram; assim entram as liberações e expirações de reservas.
+     * Um produto com reserva concluída entre a leitura do banco e este ajuste fica para a próxima vez: a leitura
+     * pode ou não ter visto essa reserva.
+     */
+    private void ressincronizar() {
+        Map<Long, Long> geracoes = new HashMap<>();
+        saldos.forEach((produtoId, saldo) -> geracoes.put(produtoId, saldo.geracao.get()));
+        if (geracoes.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> disponivelNoBanco = gravacaoContadorEstoqueService.disponivelNoBanco(geracoes.keySet());
+
+        travaSegmento.writeLock().lock();
+        try {
+            for (Map.Entry<Long, Long> geracao : geracoes.entrySet()) {
+                Long produtoId = geracao.getKey();
+                Saldo saldo = saldos.get(produtoId);
+                if (saldo == null || saldo.geracao.get() != geracao.getValue()) {
+                    continue;
+                }
+                Integer noBanco = disponivelNoBanco.get(produtoId);
+                if (noBanco != null) {
+                    saldo.disponivel.set(noBanco + saldo.naoGravado.get() - saldo.reservando.get());
+                } else if (saldo.naoGravado.get() == 0 && saldo.reservando.get() == 0) {
+                    // Estoque removido no banco
+                    saldos.remove(produtoId);
+                }
+            }
+        } finally {
+            travaSegmento.writeLock().unlock();
+        }
+    }
+
+    private void concluirReserva(Map<Saldo, Integer> reservadas, boolean confirmada) {
+        // Sob a leitura: a ressincronização, que usa a escrita, vê a conclusão antes ou depois, nunca no meio
+        travaSegmento.readLock().lock();
+        try {
+            reservadas.forEach((saldo, quantidade) -> {
+                saldo.reservando.addAndGet(-quantidade);
+                if (!confirmada) {
+                    saldo.disponivel.addAndGet(quantidade);
+                }
+                saldo.geracao.incrementAndGet();
+            });
+        } finally {
+            travaSegmento.readLock().unlock();
+        }
+    }
+
+    private Saldo saldo(Long produtoId) {
+        Saldo saldo = saldos.get(produtoId);
+        if (saldo != null) {
+            return saldo;
+        }
+        return estoqueRepository.findByProdutoId(produtoId)
+                .map(estoque -> saldos.computeIfAbsent(produtoId, id -> new Saldo(estoque.getQuantidadeDisponivel())))
+                .orElse(null);
+    }
+
+    private void carregarSaldos(Set<Long> produtoIds) {
+        Set<Long> ausentes = new HashSet<>(produtoIds);
+        ausentes.removeAll(saldos.keySet());
+        if (ausentes.isEmpty()) {
+            return;
+        }
+        gravacaoContadorEstoqueService.disponivelNoBanco(ausentes).forEach((produtoId, disponivel) ->
+                saldos.computeIfAbsent(produtoId, id -> new Saldo(disponivel)));
+    }
+
+    private void registrar(Long produtoId, Saldo saldo, int variacao) {
+        try {
+            wal.registrar(produtoId, variacao);
+        } catch (IOException e) {
+            // Sem registro durável a operação não pode ser confirmada
+            saldo.disponivel.addAndGet(-variacao);
+            throw new BusinessException("Falha ao registrar movimento de estoque", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        saldo.naoGravado.addAndGet(variacao);
+    }
+
+    private static final class Saldo {
+
+        private final AtomicInteger disponivel;
+
+        // Variação desde o último fechamento de segmento
+        private final AtomicInteger naoGravado = new AtomicInteger();
+
+        // Reservado em memória por transações ainda não concluídas (o banco ainda não tem)
+        private final AtomicInteger reservando = new AtomicInteger();
+
+        // Incrementada a cada reserva concluída, para a ressincronização saber se a leitura do banco ficou velha
+        private final AtomicLong geracao = new AtomicLong();
+
+        private Saldo(int disponivel) {
+            this.disponivel = new AtomicInteger(disponivel);
+        }
+
+        private boolean baixar(int quantidade) {
+            int atual;
+            do {
+                atual = disponivel.get();
+                if (atual < quantidade) {
+                    return false;
+                }
+            } while (!disponivel.compareAndSet(atual, atual - quantidade));
+            return true;
+        }
+    }
+}
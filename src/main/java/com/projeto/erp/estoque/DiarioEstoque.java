@@ -0,0 +1,82 @@
+package com.projeto.erp.estoque;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Gravação no diário de estoque. O id de cada movimento vem da sequência no próprio INSERT, então quem grava
+ * precisa estar segurando o lock da linha de estoque do produto: exclusivo ({@link EstoqueRepository#travarPorProdutoIds})
+ * quando confere o saldo antes, compartilhado ({@link EstoqueRepository#travarParaRegistro}) quando só registra.
+ * Com isso a consolidação, que trava em modo exclusivo, nunca avança a marca d'água por cima de um movimento
+ * ainda não confirmado.
+ */
+@Component
+public class DiarioEstoque {
+
+    // 4 parâmetros por linha, bem abaixo do limite de parâmetros de um comando JDBC
+    private static final int LINHAS_POR_INSERT = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Grava os movimentos com um INSERT de várias linhas (um comando a cada {@value #LINHAS_POR_INSERT} movimentos).
+     * Com ids IDENTITY o Hibernate não agrupa INSERTs em lote JDBC; os ids gerados não são lidos de volta.
+     */
+    public void registrar(List<MovimentoEstoque> movimentos) {
+        for (int inicio = 0; inicio < movimentos.size(); inicio += LINHAS_POR_INSERT) {
+            inserir(movimentos.subList(inicio, Math.min(inicio + LINHAS_POR_INSERT, movimentos.size())));
+        }
+    }
+
+    /**
+     * Registra a saída só se o disponível (snapshot + cauda do diário - reservado) cobrir a quantidade: um único
+     * INSERT ... SELECT condicional sobre a linha de estoque, sem ler o saldo para o Java. Retorna false quando
+     * não há estoque ou disponível. A linha já deve estar travada em modo exclusivo, em um comando anterior:
+     * no PostgreSQL (READ COMMITTED) a soma da cauda usa o snapshot do comando, e só um comando iniciado depois
+     * do lock enxerga as saídas de quem travou a linha antes.
+     */
+    public boolean registrarSaida(Long produtoId, int quantidade) {
+        MovimentoEstoque saida = MovimentoEstoque.saida(produtoId, quantidade);
+        Query insert = entityManager.createNativeQuery(
+                "INSERT INTO movimentos_estoque (produto_id, tipo, quantidade, criado_em) " +
+                "SELECT e.produto_id, ?, ?, ? FROM estoque e WHERE e.produto_id = ? " +
+                "AND e.quantidade + (SELECT COALESCE(SUM(m.quantidade), 0) FROM movimentos_estoque m " +
+                "WHERE m.produto_id = e.produto_id AND m.id > e.ultimo_movimento_id) - e.quantidade_reservada >= ?");
+        insert.setParameter(1, saida.getTipo().name());
+        insert.setParameter(2, saida.getQuantidade());
+        insert.setParameter(3, saida.getCriadoEm());
+        insert.setParameter(4, produtoId);
+        insert.setParameter(5, quantidade);
+        // Lê o estoque: alterações pendentes da entidade vão para o banco antes do comando
+        insert.unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(MovimentoEstoque.class)
+                .addSynchronizedEntityClass(Estoque.class);
+        return insert.executeUpdate() == 1;
+    }
+
+    private void inserir(List<MovimentoEstoque> movimentos) {
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO movimentos_estoque (produto_id, tipo, quantidade, criado_em) VALUES ");
+        for (int linha = 0; linha < movimentos.size(); linha++) {
+            sql.append(linha == 0 ? "" : ", ").append("(?, ?, ?, ?)");
+        }
+
+        Query insert = entityManager.createNativeQuery(sql.toString());
+        int parametro = 1;
+        for (MovimentoEstoque movimento : movimentos) {
+            insert.setParameter(parametro++, movimento.getProdutoId());
+            insert.setParameter(parametro++, movimento.getTipo().name());
+            insert.setParameter(parametro++, movimento.getQuantidade());
+            insert.setParameter(parametro++, movimento.getCriadoEm());
+        }
+        // Sem declarar a tabela afetada, o Hibernate invalidaria todas as regiões do cache de segundo nível
+        insert.unwrap(NativeQuery.class).addSynchronizedEntityClass(MovimentoEstoque.class);
+        insert.executeUpdate();
+    }
+}
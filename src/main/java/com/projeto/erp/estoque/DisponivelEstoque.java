@@ -0,0 +1,7 @@
+package com.projeto.erp.estoque;
+
+/**
+ * Par produto / disponível (snapshot + cauda do diário - reservado) lido para conferir saldo sem carregar o estoque.
+ */
+public record DisponivelEstoque(Long produtoId, Integer disponivel) {
+}
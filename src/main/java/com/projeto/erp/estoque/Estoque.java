@@ -8,6 +8,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Formula;
 
 @Entity
 @Table(name = "estoque")
@@ -17,7 +18,8 @@ import lombok.NoArgsConstructor;
 @Builder
 public class Estoque {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "estoque_id_seq")
+    @SequenceGenerator(name = "estoque_id_seq", sequenceName = "estoque_id_seq", allocationSize = 50)
     private Long id;
 
     @OneToOne
@@ -28,14 +30,30 @@ public class Estoque {
     @Min(0)
     private Integer quantidade = 0;
 
-    public void reduzirQuantidade(Integer quantidade) {
-        if (this.quantidade < quantidade) {
-            throw new IllegalArgumentException("Quantidade insuficiente em estoque");
-        }
-        this.quantidade -= quantidade;
+    @Builder.Default
+    @Min(0)
+    @Column(name = "quantidade_reservada", nullable = false)
+    private Integer quantidadeReservada = 0;
+
+    // Id do último movimento do diário já somado em quantidade; só a consolidação avança a marca
+    @Builder.Default
+    @Column(name = "ultimo_movimento_id", nullable = false)
+    private Long ultimoMovimentoId = 0L;
+
+    // Movimentos do diário depois da marca (a cauda); lidos no mesmo SELECT do estoque
+    @Builder.Default
+    @Formula("(SELECT COALESCE(SUM(m.quantidade), 0) FROM movimentos_estoque m " +
+             "WHERE m.produto_id = produto_id AND m.id > ultimo_movimento_id)")
+    private Integer quantidadePendente = 0;
+
+    /**
+     * Saldo físico: snapshot (quantidade) + movimentos do diário ainda não consolidados.
+     */
+    public Integer getSaldo() {
+        return quantidade + quantidadePendente;
     }
 
-    public void aumentarQuantidade(Integer quantidade) {
-        this.quantidade += quantidade;
+    public Integer getQuantidadeDisponivel() {
+        return getSaldo() - quantidadeReservada;
     }
 }
\ No newline at end of file
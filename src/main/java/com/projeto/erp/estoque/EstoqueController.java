@@ -2,6 +2,8 @@ package com.projeto.erp.estoque;
 
 import com.projeto.erp.estoque.dto.EstoqueRequestDTO;
 import com.projeto.erp.estoque.dto.EstoqueResponseDTO;
+import com.projeto.erp.estoque.dto.MovimentoEstoqueRequestDTO;
+import com.projeto.erp.estoque.dto.MovimentosEstoqueResponseDTO;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -12,6 +14,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import java.util.List;
+
 
 @RestController
 @RequestMapping("/estoque")
@@ -41,6 +45,18 @@ public class EstoqueController {
         return ResponseEntity.ok(estoqueService.saidaEstoque(dto));
     }
 
+    @PostMapping("/movimentos")
+    @Operation(summary = "Registrar movimentos de estoque em lote",
+            description = "Aplica entradas e saídas de vários produtos em uma única transação. " +
+                    "Linhas do mesmo produto são somadas antes de aplicar; o resultado é informado por linha")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Movimentos processados; linhas rejeitadas trazem o motivo"),
+        @ApiResponse(responseCode = "400", description = "Lista vazia ou acima do limite", content = @Content)
+    })
+    public ResponseEntity<MovimentosEstoqueResponseDTO> movimentos(@RequestBody List<MovimentoEstoqueRequestDTO> movimentos) {
+        return ResponseEntity.ok(estoqueService.registrarMovimentos(movimentos));
+    }
+
     @GetMapping("/saldo/{produtoId}")
     @Operation(summary = "Consultar saldo de estoque", description = "Retorna o saldo atual do estoque para um produto")
     @ApiResponses(value = {
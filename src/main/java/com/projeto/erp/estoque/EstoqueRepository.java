@@ -1,11 +1,92 @@
 package com.projeto.erp.estoque;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface EstoqueRepository extends JpaRepository<Estoque, Long> {
+public interface EstoqueRepository extends JpaRepository<Estoque, Long>, EstoqueRepositoryEmLote {
 
     Optional<Estoque> findByProdutoId(Long produtoId);
     Boolean existsByProdutoId(Long produtoId);
+
+    /**
+     * Saldo físico (snapshot + cauda do diário) sem carregar a entidade, o produto e o fornecedor.
+     */
+    @Query("SELECT e.quantidade + e.quantidadePendente FROM Estoque e WHERE e.produto.id = :produtoId")
+    Optional<Integer> buscarSaldoPorProdutoId(@Param("produtoId") Long produtoId);
+
+    @Query("SELECT e FROM Estoque e JOIN FETCH e.produto p JOIN FETCH p.fornecedor WHERE p.id IN :produtoIds")
+    List<Estoque> findAllByProdutoIdIn(@Param("produtoIds") Collection<Long> produtoIds);
+
+    @Query("SELECT e.produto.id FROM Estoque e WHERE e.produto.id IN :produtoIds")
+    List<Long> findProdutoIdsComEstoque(@Param("produtoIds") Collection<Long> produtoIds);
+
+    /**
+     * Trava as linhas de estoque dos produtos, sempre em ordem de produto, até o fim da transação.
+     * Exclusivo: usado pela consolidação e por quem confere o saldo antes de registrar uma saída.
+     * Consulta nativa para não carregar o produto (e o fornecedor) de cada linha só para obter o lock.
+     */
+    @Query(value = "SELECT id FROM estoque WHERE produto_id IN (:produtoIds) ORDER BY produto_id FOR UPDATE",
+           nativeQuery = true)
+    List<Long> travarPorProdutoIds(@Param("produtoIds") Collection<Long> produtoIds);
+
+    /**
+     * Trava as linhas de estoque em modo compartilhado, para registrar movimentos no diário sem conferir saldo
+     * (entradas). Não bloqueia outros registros, só a consolidação e quem confere saldo. Sem lock compartilhado
+     * no dialeto (H2), vira FOR UPDATE.
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT e.id FROM Estoque e WHERE e.produto.id IN :produtoIds ORDER BY e.produto.id")
+    List<Long> travarParaRegistro(@Param("produtoIds") Collection<Long> produtoIds);
+
+    /**
+     * Disponível (snapshot + cauda do diário - reservado) por produto. Usado depois de travarPorProdutoIds
+     * para conferir o saldo antes de registrar uma saída.
+     */
+    @Query("SELECT new com.projeto.erp.estoque.DisponivelEstoque(e.produto.id, " +
+           "e.quantidade + e.quantidadePendente - e.quantidadeReservada) FROM Estoque e WHERE e.produto.id IN :produtoIds")
+    List<DisponivelEstoque> buscarDisponiveis(@Param("produtoIds") Collection<Long> produtoIds);
+
+    /**
+     * Menor marca d'água entre os produtos que ainda têm cauda no diário (null se nenhum tem):
+     * a partir dela a consolidação encontra todos os movimentos fora do snapshot.
+     */
+    @Query("SELECT MIN(e.ultimoMovimentoId) FROM Estoque e WHERE EXISTS (SELECT 1 FROM MovimentoEstoque m " +
+           "WHERE m.produtoId = e.produto.id AND m.id > e.ultimoMovimentoId)")
+    Long findMenorMarcaComCauda();
+
+    /**
+     * Leva a cauda do diário de cada produto para o snapshot e avança a marca até o último movimento somado.
+     * As duas subconsultas usam a marca anterior (o SET enxerga a linha antes da atualização).
+     * Deve rodar com as linhas travadas por travarPorProdutoIds, para nenhum movimento entrar no meio.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Estoque e SET " +
+           "e.quantidade = e.quantidade + (SELECT COALESCE(SUM(m.quantidade), 0) FROM MovimentoEstoque m " +
+           "WHERE m.produtoId = e.produto.id AND m.id > e.ultimoMovimentoId), " +
+           "e.ultimoMovimentoId = (SELECT COALESCE(MAX(m.id), e.ultimoMovimentoId) FROM MovimentoEstoque m " +
+           "WHERE m.produtoId = e.produto.id AND m.id > e.ultimoMovimentoId) " +
+           "WHERE e.produto.id IN :produtoIds")
+    int consolidar(@Param("produtoIds") Collection<Long> produtoIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Estoque e SET e.quantidadeReservada = e.quantidadeReservada - :quantidade " +
+           "WHERE e.produto.id = :produtoId AND e.quantidadeReservada >= :quantidade")
+    int liberarReserva(@Param("produtoId") Long produtoId, @Param("quantidade") Integer quantidade);
+
+    /**
+     * Converte uma reserva em saída: baixa a quantidade reservada; a saída física é registrada no diário
+     * pelo chamador, ainda com a linha travada por este UPDATE.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Estoque e SET e.quantidadeReservada = e.quantidadeReservada - :quantidade " +
+           "WHERE e.produto.id = :produtoId AND e.quantidadeReservada >= :quantidade")
+    int confirmarReserva(@Param("produtoId") Long produtoId, @Param("quantidade") Integer quantidade);
 }
@@ -0,0 +1,25 @@
+package com.projeto.erp.estoque;
+
+import java.util.Map;
+
+/**
+ * Atualizações de estoque de vários produtos em um único comando, montadas em tempo de execução
+ * (a quantidade de produtos varia a cada chamada). Implementada por {@link EstoqueRepositoryEmLoteImpl}.
+ */
+public interface EstoqueRepositoryEmLote {
+
+    /**
+     * Reserva condicional de vários produtos em um único UPDATE: cada linha só é atualizada se o disponível
+     * (snapshot + cauda do diário - reservado) cobrir a quantidade do produto. Retorna as linhas atualizadas;
+     * menos que o número de produtos significa que algum não tinha saldo (ou estoque).
+     * As linhas devem estar travadas antes (EstoqueRepository.travarPorProdutoIds): no PostgreSQL a subconsulta
+     * da cauda usa o snapshot do comando e não enxergaria um movimento confirmado durante a espera pelo lock.
+     */
+    int reservarQuantidades(Map<Long, Integer> quantidadesPorProduto);
+
+    /**
+     * Soma as quantidades ao reservado de vários produtos em um único UPDATE, sem conferir o disponível no banco.
+     * Para o contador em memória, que já decidiu a reserva: o banco pode ainda não ter as variações do contador.
+     */
+    int registrarReservas(Map<Long, Integer> quantidadesPorProduto);
+}
@@ -0,0 +1,68 @@
+package com.projeto.erp.estoque;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.query.NativeQuery;
+
+import java.util.Collections;
+import java.util.Map;
+
+class EstoqueRepositoryEmLoteImpl implements EstoqueRepositoryEmLote {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int reservarQuantidades(Map<Long, Integer> quantidadesPorProduto) {
+        return somarReservadas(quantidadesPorProduto, true);
+    }
+
+    @Override
+    public int registrarReservas(Map<Long, Integer> quantidadesPorProduto) {
+        return somarReservadas(quantidadesPorProduto, false);
+    }
+
+    /**
+     * A quantidade de cada produto entra como CASE sobre produto_id, no SET e na condição. Mesmo efeito de
+     * UPDATE ... FROM (VALUES ...), mas também aceito pelo H2 usado nos testes.
+     */
+    private int somarReservadas(Map<Long, Integer> quantidadesPorProduto, boolean conferirDisponivel) {
+        if (quantidadesPorProduto.isEmpty()) {
+            return 0;
+        }
+
+        String quantidade = "CASE e.produto_id" + " WHEN ? THEN ?".repeat(quantidadesPorProduto.size()) + " END";
+        String produtoIds = String.join(", ", Collections.nCopies(quantidadesPorProduto.size(), "?"));
+        String sql = "UPDATE estoque e SET quantidade_reservada = e.quantidade_reservada + " + quantidade +
+                " WHERE e.produto_id IN (" + produtoIds + ")";
+        if (conferirDisponivel) {
+            sql += " AND e.quantidade + (SELECT COALESCE(SUM(m.quantidade), 0) FROM movimentos_estoque m" +
+                   " WHERE m.produto_id = e.produto_id AND m.id > e.ultimo_movimento_id)" +
+                   " - e.quantidade_reservada >= " + quantidade;
+        }
+        Query update = entityManager.createNativeQuery(sql);
+
+        int parametro = 1;
+        for (Map.Entry<Long, Integer> item : quantidadesPorProduto.entrySet()) {
+            update.setParameter(parametro++, item.getKey());
+            update.setParameter(parametro++, item.getValue());
+        }
+        for (Long produtoId : quantidadesPorProduto.keySet()) {
+            update.setParameter(parametro++, produtoId);
+        }
+        if (conferirDisponivel) {
+            for (Map.Entry<Long, Integer> item : quantidadesPorProduto.entrySet()) {
+                update.setParameter(parametro++, item.getKey());
+                update.setParameter(parametro++, item.getValue());
+            }
+        }
+
+        // Mesmo efeito de @Modifying(flushAutomatically = true, clearAutomatically = true) das demais atualizações
+        entityManager.flush();
+        update.unwrap(NativeQuery.class).addSynchronizedEntityClass(Estoque.class);
+        int atualizadas = update.executeUpdate();
+        entityManager.clear();
+        return atualizadas;
+    }
+}
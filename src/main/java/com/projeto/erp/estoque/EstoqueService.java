@@ -1,18 +1,40 @@
 package com.projeto.erp.estoque;
 
 import com.projeto.erp.common.exception.BusinessException;
+import com.projeto.erp.common.metricas.MetricasNegocio;
 import com.projeto.erp.estoque.dto.EstoqueRequestDTO;
 import com.projeto.erp.estoque.dto.EstoqueResponseDTO;
+import com.projeto.erp.estoque.dto.MovimentoEstoqueRequestDTO;
+import com.projeto.erp.estoque.dto.MovimentosEstoqueResponseDTO;
+import com.projeto.erp.estoque.dto.ResultadoMovimentoEstoqueDTO;
 import com.projeto.erp.estoque.mapper.EstoqueMapper;
 import com.projeto.erp.produto.Produto;
+import com.projeto.erp.produto.ProdutoRepository;
 import com.projeto.erp.produto.ProdutoService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Service
+@Timed("erp.servico")
 public class EstoqueService {
 
     @Autowired
@@ -21,38 +43,232 @@ public class EstoqueService {
     @Autowired
     private ProdutoService produtoService;
 
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private ContadorEstoque contadorEstoque;
+
     @Autowired
     EstoqueMapper estoqueMapper;
 
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private MetricasNegocio metricasNegocio;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${erp.estoque.movimentos.maximo-linhas:5000}")
+    private int maximoLinhasMovimento;
+
+    /**
+     * A entrada é registrada pelo ContadorEstoque: no modo jpa vai só para o diário (INSERT), com lock compartilhado
+     * na linha de estoque, e entra no snapshot na próxima consolidação; até lá faz parte do saldo pela cauda.
+     */
     @Transactional
     public EstoqueResponseDTO entradaEstoque(EstoqueRequestDTO requestDTO) {
 
-        Produto produto = produtoService.buscaProdutoByIdOrThrow(requestDTO.getIdProduto());
+        Long produtoId = requestDTO.getIdProduto();
 
-        Estoque estoque = estoqueRepository.findByProdutoId(produto.getId())
+        // O produto só precisa ser buscado quando o estoque ainda não existe
+        Estoque estoque = estoqueRepository.findByProdutoId(produtoId)
                 .orElseGet(() ->  estoqueRepository.save(
                                                           Estoque.builder().
-                                                                  produto(produto).
+                                                                  produto(produtoService.buscaProdutoByIdOrThrow(produtoId)).
                                                                   quantidade(0).build()));
-        estoque.setQuantidade(estoque.getQuantidade() + requestDTO.getQuantidade());
-        return estoqueMapper.toDTO(estoqueRepository.save(estoque));
+        contadorEstoque.adicionar(produtoId, requestDTO.getQuantidade());
+
+        // quantidadePendente é somente leitura (@Formula); ajustada aqui apenas para a resposta refletir a entrada
+        estoque.setQuantidadePendente(estoque.getQuantidadePendente() + requestDTO.getQuantidade());
+        return paraResposta(estoque);
     }
 
+    /**
+     * A verificação de saldo e a baixa são uma única operação atômica do ContadorEstoque
+     * (lock da linha de estoque + saída no diário no modo jpa, CAS no modo memoria).
+     */
     @Transactional
     public EstoqueResponseDTO saidaEstoque(EstoqueRequestDTO requestDTO) {
-        Estoque estoque = estoqueRepository.findByProdutoId(requestDTO.getIdProduto())
-                .orElseThrow(() -> new BusinessException("Estoque não encontrado", HttpStatus.NOT_FOUND));
-
-        if (estoque.getQuantidade() < requestDTO.getQuantidade()) {
+        if (!contadorEstoque.baixar(requestDTO.getIdProduto(), requestDTO.getQuantidade())) {
+            if (!Boolean.TRUE.equals(estoqueRepository.existsByProdutoId(requestDTO.getIdProduto()))) {
+                throw new BusinessException("Estoque não encontrado", HttpStatus.NOT_FOUND);
+            }
+            metricasNegocio.estoqueInsuficiente("saida");
             throw new BusinessException("Saldo insuficiente no estoque", HttpStatus.UNPROCESSABLE_ENTITY);
         }
-        estoque.setQuantidade(estoque.getQuantidade() - requestDTO.getQuantidade());
-        return estoqueMapper.toDTO(estoqueRepository.save(estoque));
+
+        Estoque estoque = estoqueRepository.findByProdutoId(requestDTO.getIdProduto())
+                .orElseThrow(() -> new BusinessException("Estoque não encontrado", HttpStatus.NOT_FOUND));
+        return paraResposta(estoque);
     }
 
+    /**
+     * Saldo = snapshot + cauda do diário, lidos no mesmo SELECT (ver Estoque.quantidadePendente).
+     */
+    @Transactional(readOnly = true)
     public EstoqueResponseDTO consultarSaldo(Long produtoId) {
         Estoque estoque = estoqueRepository.findByProdutoId(produtoId)
                 .orElseThrow(() -> new BusinessException("Estoque não encontrado", HttpStatus.NOT_FOUND));
-        return estoqueMapper.toDTO(estoque);
+        return paraResposta(estoque);
+    }
+
+    /**
+     * Aplica uma lista de entradas e saídas (ex.: recebimento de nota do fornecedor) em uma única transação.
+     * Linhas do mesmo produto são somadas em um saldo líquido, e o saldo negativo precisa caber no disponível.
+     * A aplicação é do ContadorEstoque, como nas operações unitárias: no modo jpa um lock, uma leitura dos disponíveis
+     * e um único INSERT no diário; no modo memoria, os contadores.
+     * Se o produto não puder ser movimentado, todas as suas linhas são rejeitadas e as demais seguem.
+     */
+    @Transactional
+    public MovimentosEstoqueResponseDTO registrarMovimentos(List<MovimentoEstoqueRequestDTO> movimentos) {
+        if (movimentos == null || movimentos.isEmpty()) {
+            throw new BusinessException("Lista de movimentos vazia", HttpStatus.BAD_REQUEST);
+        }
+        if (movimentos.size() > maximoLinhasMovimento) {
+            throw new BusinessException("Lista excede o limite de " + maximoLinhasMovimento + " movimentos",
+                    HttpStatus.BAD_REQUEST);
+        }
+
+        ResultadoMovimentoEstoqueDTO[] resultados = new ResultadoMovimentoEstoqueDTO[movimentos.size()];
+        Map<Long, Integer> variacaoPorProduto = new HashMap<>();
+
+        for (int indice = 0; indice < movimentos.size(); indice++) {
+            MovimentoEstoqueRequestDTO movimento = movimentos.get(indice);
+            String erro = validarMovimento(movimento);
+            if (erro != null) {
+                resultados[indice] = ResultadoMovimentoEstoqueDTO.rejeitado(indice,
+                        movimento != null ? movimento.getIdProduto() : null, erro);
+                continue;
+            }
+            variacaoPorProduto.merge(movimento.getIdProduto(), variacao(movimento), Integer::sum);
+        }
+
+        Map<Long, String> errosPorProduto = criarEstoquesFaltantes(variacaoPorProduto);
+
+        List<MovimentoEstoque> diario = new ArrayList<>();
+        for (int indice = 0; indice < movimentos.size(); indice++) {
+            MovimentoEstoqueRequestDTO movimento = movimentos.get(indice);
+            if (resultados[indice] != null || errosPorProduto.containsKey(movimento.getIdProduto())) {
+                continue;
+            }
+            diario.add(MovimentoEstoque.builder()
+                    .produtoId(movimento.getIdProduto())
+                    .tipo(movimento.getTipo())
+                    .quantidade(variacao(movimento))
+                    .build());
+        }
+
+        for (Long produtoId : contadorEstoque.movimentar(diario)) {
+            metricasNegocio.estoqueInsuficiente("movimentos");
+            errosPorProduto.put(produtoId, "Saldo insuficiente no estoque");
+        }
+        // A soma da cauda é uma @Formula: descarta do contexto os estoques criados acima, que ainda têm
+        // a quantidade pendente zerada, antes de reler os saldos
+        entityManager.flush();
+        entityManager.clear();
+
+        Set<Long> aplicados = new HashSet<>(variacaoPorProduto.keySet());
+        aplicados.removeAll(errosPorProduto.keySet());
+        Map<Long, Integer> saldos = aplicados.isEmpty()
+                ? Map.of()
+                : estoqueRepository.findAllByProdutoIdIn(aplicados).stream()
+                        .collect(Collectors.toMap(estoque -> estoque.getProduto().getId(), this::saldo));
+
+        int quantidadeAplicados = 0;
+        for (int indice = 0; indice < movimentos.size(); indice++) {
+            if (resultados[indice] != null) {
+                continue;
+            }
+            Long produtoId = movimentos.get(indice).getIdProduto();
+            String erro = errosPorProduto.get(produtoId);
+            if (erro != null) {
+                resultados[indice] = ResultadoMovimentoEstoqueDTO.rejeitado(indice, produtoId, erro);
+            } else {
+                resultados[indice] = ResultadoMovimentoEstoqueDTO.aplicado(indice, produtoId, saldos.get(produtoId));
+                quantidadeAplicados++;
+            }
+        }
+
+        return new MovimentosEstoqueResponseDTO(movimentos.size(), quantidadeAplicados,
+                movimentos.size() - quantidadeAplicados, List.of(resultados));
+    }
+
+    /**
+     * Cria o estoque (zerado) dos produtos que ainda não têm, como em entradaEstoque,
+     * e retorna produto -> motivo da rejeição dos que não podem ser movimentados.
+     */
+    private Map<Long, String> criarEstoquesFaltantes(Map<Long, Integer> variacaoPorProduto) {
+        Map<Long, String> erros = new HashMap<>();
+        if (variacaoPorProduto.isEmpty()) {
+            return erros;
+        }
+
+        Set<Long> semEstoque = new HashSet<>(variacaoPorProduto.keySet());
+        semEstoque.removeAll(estoqueRepository.findProdutoIdsComEstoque(variacaoPorProduto.keySet()));
+        if (semEstoque.isEmpty()) {
+            return erros;
+        }
+
+        Map<Long, Produto> produtos = produtoRepository.findAllById(semEstoque).stream()
+                .collect(Collectors.toMap(Produto::getId, Function.identity()));
+        List<Estoque> novos = new ArrayList<>();
+        for (Long produtoId : semEstoque) {
+            Produto produto = produtos.get(produtoId);
+            if (produto == null) {
+                erros.put(produtoId, "Produto com ID " + produtoId + " não encontrado");
+            } else if (variacaoPorProduto.get(produtoId) < 0) {
+                erros.put(produtoId, "Estoque não encontrado");
+            } else {
+                novos.add(Estoque.builder().produto(produto).quantidade(0).build());
+            }
+        }
+
+        if (!novos.isEmpty()) {
+            estoqueRepository.saveAll(novos);
+        }
+        return erros;
+    }
+
+    /**
+     * Com o contador em memória, o disponível dele prevalece sobre o do banco enquanto houver variações não gravadas.
+     */
+    private EstoqueResponseDTO paraResposta(Estoque estoque) {
+        EstoqueResponseDTO dto = estoqueMapper.toDTO(estoque);
+        contadorEstoque.disponivel(estoque.getProduto().getId()).ifPresent(disponivel -> {
+            dto.setQuantidadeDisponivel(disponivel);
+            dto.setQuantidade(disponivel + estoque.getQuantidadeReservada());
+        });
+        return dto;
+    }
+
+    // Mesma regra de paraResposta para o saldo de cada produto movimentado em lote
+    private int saldo(Estoque estoque) {
+        OptionalInt disponivel = contadorEstoque.disponivel(estoque.getProduto().getId());
+        return disponivel.isPresent() ? disponivel.getAsInt() + estoque.getQuantidadeReservada() : estoque.getSaldo();
+    }
+
+    private static int variacao(MovimentoEstoqueRequestDTO movimento) {
+        return movimento.getTipo() == MovimentoEstoque.TipoMovimento.ENTRADA
+                ? movimento.getQuantidade()
+                : -movimento.getQuantidade();
+    }
+
+    private String validarMovimento(MovimentoEstoqueRequestDTO movimento) {
+        if (movimento == null) {
+            return "Movimento não informado";
+        }
+
+        Set<ConstraintViolation<MovimentoEstoqueRequestDTO>> violacoes = validator.validate(movimento);
+        if (violacoes.isEmpty()) {
+            return null;
+        }
+
+        return violacoes.stream()
+                .map(violacao -> violacao.getPropertyPath() + ": " + violacao.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,79 @@
+package com.projeto.erp.estoque;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Lado banco do contador em memória: aplica as variações acumuladas de um segmento do WAL.
+ */
+@Service
+@Timed("erp.servico")
+public class GravacaoContadorEstoqueService {
+
+    @Autowired
+    private EstoqueRepository estoqueRepository;
+
+    @Autowired
+    private DiarioEstoque diarioEstoque;
+
+    @Autowired
+    private SegmentoWalEstoqueRepository segmentoWalEstoqueRepository;
+
+    /**
+     * Registra no diário a variação líquida de cada produto do segmento (um único INSERT) e registra o segmento.
+     * Retorna false, sem alterar nada, se o segmento já tinha sido gravado.
+     */
+    @Transactional
+    public boolean gravar(long segmento, Map<Long, Integer> variacoes) {
+        if (segmentoWalEstoqueRepository.existsById(segmento)) {
+            return false;
+        }
+
+        List<MovimentoEstoque> diario = new ArrayList<>();
+        new TreeMap<>(variacoes).forEach((produtoId, variacao) -> {
+            if (variacao == 0) {
+                return;
+            }
+            // O limite de saldo já foi garantido pelo contador, que também decide as reservas; aqui a variação é registrada como veio
+            diario.add(MovimentoEstoque.builder()
+                    .produtoId(produtoId)
+                    .tipo(variacao > 0 ? MovimentoEstoque.TipoMovimento.ENTRADA : MovimentoEstoque.TipoMovimento.SAIDA)
+                    .quantidade(variacao)
+                    .build());
+        });
+
+        if (!diario.isEmpty()) {
+            estoqueRepository.travarParaRegistro(diario.stream().map(MovimentoEstoque::getProdutoId).toList());
+            diarioEstoque.registrar(diario);
+        }
+        segmentoWalEstoqueRepository.save(new SegmentoWalEstoque(segmento, LocalDateTime.now()));
+        return true;
+    }
+
+    // Transação de escrita só para ler do primário: com réplica, uma transação readOnly poderia ver dados atrasados
+    @Transactional
+    public long ultimoSegmentoGravado() {
+        Long ultimo = segmentoWalEstoqueRepository.findUltimoSegmento();
+        return ultimo != null ? ultimo : 0L;
+    }
+
+    /**
+     * Disponível no banco (snapshot + cauda do diário - reservado) dos produtos que têm estoque.
+     * Lido do primário (transação de escrita), logo depois da gravação: a réplica pode ainda não ter os movimentos.
+     */
+    @Transactional
+    public Map<Long, Integer> disponivelNoBanco(Collection<Long> produtoIds) {
+        return estoqueRepository.findAllByProdutoIdIn(produtoIds).stream()
+                .collect(Collectors.toMap(estoque -> estoque.getProduto().getId(), Estoque::getQuantidadeDisponivel));
+    }
+}
@@ -0,0 +1,63 @@
+package com.projeto.erp.estoque;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Linha do diário de estoque, nunca alterada. Passa a fazer parte de {@link Estoque#getQuantidade()}
+ * quando a consolidação avança {@link Estoque#getUltimoMovimentoId()} para além do seu id.
+ */
+@Entity
+@Table(name = "movimentos_estoque")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MovimentoEstoque {
+
+    // Atribuído pelo banco no INSERT, depois do lock do estoque: ids crescentes na ordem em que os
+    // movimentos de um produto são gravados, o que a marca d'água da consolidação exige
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "produto_id", nullable = false)
+    private Long produtoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TipoMovimento tipo;
+
+    // Variação com sinal: positiva para entrada, negativa para saída
+    @Column(nullable = false)
+    private Integer quantidade;
+
+    @Builder.Default
+    @Column(name = "criado_em", nullable = false)
+    private LocalDateTime criadoEm = LocalDateTime.now();
+
+    public static MovimentoEstoque entrada(Long produtoId, int quantidade) {
+        return MovimentoEstoque.builder()
+                .produtoId(produtoId)
+                .tipo(TipoMovimento.ENTRADA)
+                .quantidade(quantidade)
+                .build();
+    }
+
+    public static MovimentoEstoque saida(Long produtoId, int quantidade) {
+        return MovimentoEstoque.builder()
+                .produtoId(produtoId)
+                .tipo(TipoMovimento.SAIDA)
+                .quantidade(-quantidade)
+                .build();
+    }
+
+    public enum TipoMovimento {
+        ENTRADA, SAIDA
+    }
+}
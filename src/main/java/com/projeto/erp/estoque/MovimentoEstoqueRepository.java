@@ -0,0 +1,18 @@
+package com.projeto.erp.estoque;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface MovimentoEstoqueRepository extends JpaRepository<MovimentoEstoque, Long> {
+
+    /**
+     * Próximos movimentos do diário depois de um id, em ordem de id: faixa da chave primária.
+     */
+    List<MovimentoEstoque> findByIdGreaterThanOrderByIdAsc(Long id, Pageable limite);
+
+    @Query("SELECT MAX(m.id) FROM MovimentoEstoque m")
+    Long findUltimoId();
+}
@@ -0,0 +1,29 @@
+package com.projeto.erp.estoque;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Segmento do WAL do contador em memória já aplicado ao estoque. Gravado na mesma transação
+ * das variações, torna a reaplicação de um segmento (recuperação após falha) idempotente.
+ */
+@Entity
+@Table(name = "segmentos_wal_estoque")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SegmentoWalEstoque {
+
+    @Id
+    private Long segmento;
+
+    @Column(name = "gravado_em", nullable = false)
+    private LocalDateTime gravadoEm;
+}
@@ -0,0 +1,10 @@
+package com.projeto.erp.estoque;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+public interface SegmentoWalEstoqueRepository extends JpaRepository<SegmentoWalEstoque, Long> {
+
+    @Query("SELECT MAX(s.segmento) FROM SegmentoWalEstoque s")
+    Long findUltimoSegmento();
+}
@@ -0,0 +1,137 @@
+package com.projeto.erp.estoque;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Log local, somente append, das variações aceitas pelo contador em memória.
+ * Dividido em segmentos numerados (um arquivo por intervalo de gravação); um segmento só é apagado
+ * depois que suas variações foram gravadas no banco. Registro: "produtoId;variacao\n".
+ */
+class WalEstoque implements Closeable {
+
+    private static final String PREFIXO = "segmento-";
+    private static final String SUFIXO = ".wal";
+
+    private final Path diretorio;
+    private final boolean sincronizar;
+
+    // ReentrantLock em vez de synchronized: o fsync sob synchronized prenderia a virtual thread ao carrier
+    private final ReentrantLock trava = new ReentrantLock();
+
+    private FileChannel canal;
+    private long segmentoAtual;
+
+    /**
+     * @param sincronizar força o fsync a cada registro; sem ele, uma queda do sistema operacional
+     *                    (não só do processo) pode perder as últimas variações
+     */
+    WalEstoque(Path diretorio, boolean sincronizar) throws IOException {
+        this.diretorio = diretorio;
+        this.sincronizar = sincronizar;
+        Files.createDirectories(diretorio);
+    }
+
+    /**
+     * Segmentos existentes no diretório, do mais antigo para o mais novo.
+     */
+    List<Long> segmentos() throws IOException {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos
+                    .map(arquivo -> arquivo.getFileName().toString())
+                    .filter(nome -> nome.startsWith(PREFIXO) && nome.endsWith(SUFIXO))
+                    .map(nome -> Long.parseLong(nome.substring(PREFIXO.length(), nome.length() - SUFIXO.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Soma das variações por produto de um segmento. Um registro incompleto no fim do arquivo
+     * (queda no meio da escrita) é descartado: a operação correspondente não chegou a ser confirmada.
+     */
+    Map<Long, Integer> ler(long segmento) throws IOException {
+        String conteudo = Files.readString(caminho(segmento), StandardCharsets.US_ASCII);
+        int fimUltimoRegistro = conteudo.lastIndexOf('\n');
+
+        Map<Long, Integer> variacoes = new HashMap<>();
+        if (fimUltimoRegistro < 0) {
+            return variacoes;
+        }
+        for (String registro : conteudo.substring(0, fimUltimoRegistro).split("\n")) {
+            int separador = registro.indexOf(';');
+            variacoes.merge(Long.parseLong(registro.substring(0, separador)),
+                    Integer.parseInt(registro.substring(separador + 1)), Integer::sum);
+        }
+        return variacoes;
+    }
+
+    void abrir(long segmento) throws IOException {
+        canal = FileChannel.open(caminho(segmento),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segmentoAtual = segmento;
+    }
+
+    void registrar(long produtoId, int variacao) throws IOException {
+        ByteBuffer registro = ByteBuffer.wrap((produtoId + ";" + variacao + "\n").getBytes(StandardCharsets.US_ASCII));
+        trava.lock();
+        try {
+            canal.write(registro);
+            if (sincronizar) {
+                canal.force(false);
+            }
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Fecha o segmento atual e abre o próximo. Retorna o número do segmento fechado.
+     */
+    long rotacionar(long proximoSegmento) throws IOException {
+        trava.lock();
+        try {
+            long fechado = segmentoAtual;
+            canal.close();
+            abrir(proximoSegmento);
+            return fechado;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    long segmentoAtual() {
+        return segmentoAtual;
+    }
+
+    void descartar(long segmento) throws IOException {
+        Files.deleteIfExists(caminho(segmento));
+    }
+
+    @Override
+    public void close() throws IOException {
+        trava.lock();
+        try {
+            if (canal != null) {
+                canal.close();
+            }
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private Path caminho(long segmento) {
+        return diretorio.resolve(PREFIXO + segmento + SUFIXO);
+    }
+}
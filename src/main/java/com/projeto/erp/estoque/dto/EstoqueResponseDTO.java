@@ -13,5 +13,11 @@ public class EstoqueResponseDTO {
     @Schema(example = "100")
     private Integer quantidade;
 
+    @Schema(example = "10")
+    private Integer quantidadeReservada;
+
+    @Schema(example = "90")
+    private Integer quantidadeDisponivel;
+
     private ProdutoResponseSemQtdDTO produto;
 }
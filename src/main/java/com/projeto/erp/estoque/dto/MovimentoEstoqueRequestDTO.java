@@ -0,0 +1,24 @@
+package com.projeto.erp.estoque.dto;
+
+import com.projeto.erp.estoque.MovimentoEstoque.TipoMovimento;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+@Data
+public class MovimentoEstoqueRequestDTO {
+
+    @NotNull(message = "ID do produto não pode ser nulo")
+    @Schema(example = "1")
+    private Long idProduto;
+
+    @NotNull(message = "Quantidade não pode ser nula")
+    @Positive(message = "Quantidade deve ser positiva")
+    @Schema(example = "10")
+    private Integer quantidade;
+
+    @NotNull(message = "Tipo do movimento não pode ser nulo")
+    @Schema(example = "ENTRADA")
+    private TipoMovimento tipo;
+}
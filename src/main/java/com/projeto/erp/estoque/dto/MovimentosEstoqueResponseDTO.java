@@ -0,0 +1,18 @@
+package com.projeto.erp.estoque.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovimentosEstoqueResponseDTO {
+
+    private int recebidos;
+    private int aplicados;
+    private int rejeitados;
+    private List<ResultadoMovimentoEstoqueDTO> resultados;
+}
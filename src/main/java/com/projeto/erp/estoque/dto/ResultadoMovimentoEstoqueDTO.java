@@ -0,0 +1,26 @@
+package com.projeto.erp.estoque.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoMovimentoEstoqueDTO {
+
+    // Posição do movimento na lista recebida, a partir de 0
+    private int indice;
+    private Long idProduto;
+    // Quantidade em estoque após todos os movimentos do produto no lote
+    private Integer saldo;
+    private String erro;
+
+    public static ResultadoMovimentoEstoqueDTO aplicado(int indice, Long idProduto, Integer saldo) {
+        return new ResultadoMovimentoEstoqueDTO(indice, idProduto, saldo, null);
+    }
+
+    public static ResultadoMovimentoEstoqueDTO rejeitado(int indice, Long idProduto, String erro) {
+        return new ResultadoMovimentoEstoqueDTO(indice, idProduto, null, erro);
+    }
+}
@@ -10,6 +10,7 @@ import org.mapstruct.Mapping;
 public interface EstoqueMapper {
 
     @Mapping(source = "produto", target = "produto", qualifiedByName = "toDTOSemQuantidade")
+    @Mapping(source = "saldo", target = "quantidade")
     EstoqueResponseDTO toDTO(Estoque estoque);
 
 }
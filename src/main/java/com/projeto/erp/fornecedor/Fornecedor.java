@@ -1,13 +1,18 @@
 package com.projeto.erp.fornecedor;
 
+import com.projeto.erp.common.config.CacheSegundoNivelConfig;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "fornecedores")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheSegundoNivelConfig.REGIAO_FORNECEDORES)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -15,7 +20,8 @@ import lombok.NoArgsConstructor;
 public class Fornecedor {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "fornecedores_id_seq")
+    @SequenceGenerator(name = "fornecedores_id_seq", sequenceName = "fornecedores_id_seq", allocationSize = 50)
     private Long id;
 
     @Column
@@ -1,6 +1,9 @@
 package com.projeto.erp.fornecedor;
 
+import com.projeto.erp.common.dto.CursorPageResponseDTO;
 import com.projeto.erp.common.dto.PageResponseDTO;
+import com.projeto.erp.common.dto.SugestaoDTO;
+import com.projeto.erp.common.pagination.ModoTotal;
 import com.projeto.erp.fornecedor.dto.FornecedorRequestDTO;
 import com.projeto.erp.fornecedor.dto.FornecedorResponseDTO;
 import io.swagger.v3.oas.annotations.Operation;
@@ -33,13 +36,39 @@ public class FornecedorControle {
     }
 
     @GetMapping(value = "/listar")
-    @Operation(summary = "Lista todos os fornecedors", description = "Retorna uma lista de todos os fornecedors cadastrados")
+    @Operation(summary = "Lista todos os fornecedors", description = "Retorna uma lista de todos os fornecedors cadastrados. total=true (padrão) conta o total exato; total=false dispensa o count e informa apenas se há próxima página; total=aproximado usa um total mantido em cache")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Lista de fornecedors retornada com sucesso")
+        @ApiResponse(responseCode = "200", description = "Lista de fornecedors retornada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Valor inválido para total", content = @Content)
     })
     public PageResponseDTO<FornecedorResponseDTO> listFornecedor( @RequestParam(defaultValue = "0") Integer page,
-                                                                  @RequestParam(defaultValue = "10") Integer size) {
-        return fornecedorService.buscaTodosFornecedores(page , size );
+                                                                  @RequestParam(defaultValue = "10") Integer size,
+                                                                  @RequestParam(defaultValue = "true") String total) {
+        return fornecedorService.buscaTodosFornecedores(page , size , ModoTotal.de(total));
+    }
+
+    @GetMapping(value = "/listar/cursor")
+    @Operation(summary = "Lista fornecedores por cursor", description = "Retorna fornecedores em ordem de ID a partir do cursor da página anterior. Sem OFFSET: o custo de cada página independe da profundidade. O total só é contado com total=true")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página de fornecedores retornada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Cursor ou tamanho de página inválido", content = @Content)
+    })
+    public CursorPageResponseDTO<FornecedorResponseDTO> listFornecedorPorCursor(@RequestParam(required = false) String cursor,
+                                                                               @RequestParam(defaultValue = "10") Integer size,
+                                                                               @RequestParam(defaultValue = "false") boolean total) {
+        return fornecedorService.buscaFornecedoresPorCursor(cursor, size, total);
+    }
+
+    @GetMapping(value = "/sugestoes")
+    @Operation(summary = "Sugestões de fornecedores por nome", description = "Autocompletar: fornecedores com alguma palavra do nome iniciando pelo prefixo, sem diferenciar acentos e maiúsculas")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sugestões retornadas com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Limite inválido", content = @Content)
+    })
+    public List<SugestaoDTO> sugerirFornecedores(
+            @RequestParam String prefixo,
+            @RequestParam(defaultValue = "10") Integer limite) {
+        return fornecedorService.sugerirPorNome(prefixo, limite);
     }
 
     @PostMapping("/criar")
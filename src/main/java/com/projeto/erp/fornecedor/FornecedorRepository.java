@@ -1,8 +1,39 @@
 package com.projeto.erp.fornecedor;
 
+import com.projeto.erp.common.dto.SugestaoDTO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface FornecedorRepository extends JpaRepository<Fornecedor, Long> {
 
+    // Cache de consultas: invalidado a cada inclusão, alteração ou exclusão na tabela
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     boolean existsByEmail(String email);
+
+    @Query("SELECT f.nome FROM Fornecedor f WHERE f.id = :id")
+    Optional<String> findNomeById(@Param("id") Long id);
+
+    // Paginação por cursor: registros após o último ID entregue, sem OFFSET nem count
+    List<Fornecedor> findByIdGreaterThanOrderByIdAsc(Long id, Pageable limite);
+
+    // Paginação por página sem count (total=false/aproximado): busca um registro além da página para preencher last
+    Slice<Fornecedor> findAllBy(Pageable pageable);
+
+    // Carga do índice de sugestões por nome; precisa de transação aberta enquanto o Stream é consumido
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.projeto.erp.common.dto.SugestaoDTO(f.id, f.nome) FROM Fornecedor f")
+    Stream<SugestaoDTO> streamSugestoes();
 }
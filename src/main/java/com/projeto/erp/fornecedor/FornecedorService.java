@@ -1,20 +1,33 @@
 package com.projeto.erp.fornecedor;
 
+import com.projeto.erp.common.config.CacheConfig;
+import com.projeto.erp.common.dto.CursorPageResponseDTO;
 import com.projeto.erp.common.dto.PageResponseDTO;
+import com.projeto.erp.common.dto.SugestaoDTO;
 import com.projeto.erp.common.exception.BusinessException;
+import com.projeto.erp.common.pagination.ContagemAproximada;
+import com.projeto.erp.common.pagination.Cursor;
+import com.projeto.erp.common.pagination.ModoTotal;
+import com.projeto.erp.common.pagination.PaginacaoCursor;
+import com.projeto.erp.common.pagination.PaginacaoOffset;
 import com.projeto.erp.fornecedor.dto.FornecedorRequestDTO;
 import com.projeto.erp.fornecedor.dto.FornecedorResponseDTO;
 import com.projeto.erp.fornecedor.mapper.FornecedorMapper;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Service
+@Timed("erp.servico")
 public class FornecedorService {
 
     @Autowired
@@ -23,37 +36,74 @@ public class FornecedorService {
     @Autowired
     FornecedorMapper mapper;
 
-    public PageResponseDTO<FornecedorResponseDTO> buscaTodosFornecedores(Integer page, Integer size ) {
+    @Autowired
+    IndiceNomesFornecedores indiceNomesFornecedores;
+
+    @Autowired
+    ContagemAproximada contagemAproximada;
+
+    @Transactional(readOnly = true)
+    public PageResponseDTO<FornecedorResponseDTO> buscaTodosFornecedores(Integer page, Integer size, ModoTotal modoTotal) {
         Pageable pageable = PageRequest.of( page, size );
-        Page<Fornecedor> fornecedoresPage = fornecedorRepository.findAll(pageable);
+        Slice<Fornecedor> fornecedoresPage = modoTotal == ModoTotal.EXATO
+                ? fornecedorRepository.findAll(pageable)
+                : fornecedorRepository.findAllBy(pageable);
         if (fornecedoresPage.isEmpty()) {
             throw new BusinessException("Nenhum Fornecedor encontrado" , HttpStatus.NOT_FOUND);
         }
-        List<FornecedorResponseDTO> fonecedoresDto = fornecedoresPage.getContent().stream().map(mapper::toDTO).toList();
-
-        return new PageResponseDTO<> (
-                fonecedoresDto,
-                fornecedoresPage.getNumber(),
-                fornecedoresPage.getSize(),
-                fornecedoresPage.getTotalElements(),
-                fornecedoresPage.getTotalPages(),
-                fornecedoresPage.isFirst(),
-                fornecedoresPage.isLast()
+
+        return PaginacaoOffset.montarPagina(
+                fornecedoresPage,
+                mapper::toDTO,
+                modoTotal == ModoTotal.APROXIMADO ? contagemAproximada.contar("fornecedores", fornecedorRepository::count) : null
         );
      }
 
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<FornecedorResponseDTO> buscaFornecedoresPorCursor(String cursor, Integer size, boolean total) {
+        Pageable limite = PaginacaoCursor.limite(size);
+        Long ultimoId = cursor == null ? 0L : Cursor.decodificar(cursor).id();
+        List<Fornecedor> registros = fornecedorRepository.findByIdGreaterThanOrderByIdAsc(ultimoId, limite);
+
+        return PaginacaoCursor.montarPagina(
+                registros,
+                size,
+                mapper::toDTO,
+                registro -> Cursor.porId(registro.getId()),
+                total ? fornecedorRepository.count() : null
+        );
+    }
+
+    @Transactional(readOnly = true)
     public FornecedorResponseDTO getFornecedor( Long id ) {
         Fornecedor fornecedor = buscaFornecedorByIdOrThrow(id);
         return mapper.toDTO(fornecedor);
     }
 
+    /**
+     * Nome exibido nas respostas de produto; em cache, invalidado quando o fornecedor muda.
+     */
+    @Cacheable(cacheNames = CacheConfig.NOMES_FORNECEDOR, key = "#id")
+    public String buscarNome(Long id) {
+        return fornecedorRepository.findNomeById(id).orElse(null);
+    }
+
+    /**
+     * Autocompletar por início de palavra do nome, sem acentos e sem diferenciar maiúsculas; servido do índice em memória.
+     */
+    public List<SugestaoDTO> sugerirPorNome(String prefixo, int limite) {
+        return indiceNomesFornecedores.sugerir(prefixo, limite);
+    }
+
     public FornecedorResponseDTO criarFornecedor(FornecedorRequestDTO fornecedor) {
         Fornecedor newFornecedor = mapper.toEntity(fornecedor);
         validarEmailUnico(newFornecedor.getEmail());
         Fornecedor savedFornecedor = fornecedorRepository.save(newFornecedor);
+        indiceNomesFornecedores.registrar(savedFornecedor.getId(), savedFornecedor.getNome());
         return mapper.toDTO(savedFornecedor);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.NOMES_FORNECEDOR, key = "#id")
     public FornecedorResponseDTO atualizarFornecedor(Long id, FornecedorRequestDTO fornecedor) {
         Fornecedor existingFornecedor = buscaFornecedorByIdOrThrow(id);
         existingFornecedor.setNome(fornecedor.getNome());
@@ -66,12 +116,15 @@ public class FornecedorService {
         existingFornecedor.setAtivo(fornecedor.getAtivo());
 
         Fornecedor updatedFornecedor = fornecedorRepository.save(existingFornecedor);
+        indiceNomesFornecedores.registrar(updatedFornecedor.getId(), updatedFornecedor.getNome());
         return mapper.toDTO(updatedFornecedor);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.NOMES_FORNECEDOR, key = "#id")
     public void deleteFornecedor(Long id) {
         Fornecedor fornecedor = buscaFornecedorByIdOrThrow(id);
         fornecedorRepository.delete(fornecedor);
+        indiceNomesFornecedores.remover(id);
     }
 
     private void validarEmailUnico(String email) {
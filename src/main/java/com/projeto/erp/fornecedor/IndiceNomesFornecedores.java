@@ -0,0 +1,20 @@
+package com.projeto.erp.fornecedor;
+
+import com.projeto.erp.common.dto.SugestaoDTO;
+import com.projeto.erp.common.sugestao.IndiceNomes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Stream;
+
+@Component
+public class IndiceNomesFornecedores extends IndiceNomes {
+
+    @Autowired
+    private FornecedorRepository fornecedorRepository;
+
+    @Override
+    protected Stream<SugestaoDTO> lerNomes() {
+        return fornecedorRepository.streamSugestoes();
+    }
+}
@@ -14,7 +14,8 @@ import java.math.BigDecimal;
 public class ItemPedido {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "itens_pedido_id_seq")
+    @SequenceGenerator(name = "itens_pedido_id_seq", sequenceName = "itens_pedido_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(optional = false)
@@ -11,12 +11,30 @@ import java.util.List;
 
 @Entity
 @Table(name = "pedidos")
+@NamedEntityGraph(
+        name = Pedido.GRAFO_DETALHES,
+        attributeNodes = {
+                @NamedAttributeNode("cliente"),
+                @NamedAttributeNode(value = "itens", subgraph = "itens")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "itens", attributeNodes = @NamedAttributeNode(value = "produto", subgraph = "produto")),
+                @NamedSubgraph(name = "produto", attributeNodes = {
+                        @NamedAttributeNode("fornecedor"),
+                        @NamedAttributeNode("estoque")
+                })
+        }
+)
 @Data
 @NoArgsConstructor
 public class Pedido {
 
+    // Cliente, itens e produtos (com fornecedor e estoque) usados pelo PedidoMapper
+    public static final String GRAFO_DETALHES = "Pedido.detalhes";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pedidos_id_seq")
+    @SequenceGenerator(name = "pedidos_id_seq", sequenceName = "pedidos_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(optional = false)
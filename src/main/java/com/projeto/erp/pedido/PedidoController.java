@@ -1,7 +1,10 @@
 package com.projeto.erp.pedido;
 
+import com.projeto.erp.common.dto.CursorPageResponseDTO;
 import com.projeto.erp.common.dto.PageResponseDTO;
 import com.projeto.erp.common.exception.BusinessException;
+import com.projeto.erp.common.pagination.ModoTotal;
+import com.projeto.erp.pedido.dto.PedidoLoteResponseDTO;
 import com.projeto.erp.pedido.dto.PedidoRequestDTO;
 import com.projeto.erp.pedido.dto.PedidoResponseDTO;
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,9 +15,13 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Arrays;
 import java.util.List;
 
@@ -26,6 +33,9 @@ public class PedidoController {
     @Autowired
     private PedidoService pedidoService;
 
+    @Autowired
+    private PedidoLoteService pedidoLoteService;
+
     @PostMapping("/criar")
     @Operation(summary = "Criar novo pedido", description = "Cria um novo pedido relacionando cliente e itens")
     @ApiResponses(value = {
@@ -38,6 +48,26 @@ public class PedidoController {
         return ResponseEntity.status(HttpStatus.CREATED).body(pedido);
     }
 
+    @PostMapping(value = "/lote", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Criar pedidos em lote", description = "Cria vários pedidos de uma vez (array JSON) e retorna o resultado de cada um: ID criado ou motivo da rejeição")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote processado; ver o resultado de cada pedido"),
+            @ApiResponse(responseCode = "400", description = "Lote vazio ou acima do limite", content = @Content)
+    })
+    public ResponseEntity<PedidoLoteResponseDTO> criarLote(@RequestBody List<PedidoRequestDTO> pedidos) {
+        return ResponseEntity.ok(pedidoLoteService.criarLote(pedidos));
+    }
+
+    @PostMapping(value = "/lote", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Criar pedidos em lote (NDJSON)", description = "Mesmo que o lote em array, recebendo um pedido por linha")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote processado; ver o resultado de cada pedido"),
+            @ApiResponse(responseCode = "400", description = "Linha com JSON inválido, lote vazio ou acima do limite", content = @Content)
+    })
+    public ResponseEntity<PedidoLoteResponseDTO> criarLoteNdjson(InputStream corpo) throws IOException {
+        return ResponseEntity.ok(pedidoLoteService.criarLoteNdjson(corpo));
+    }
+
     @PutMapping("/{id}/processar")
     @Operation(summary = "Processar pedido", description = "Muda o status do pedido de ABERTO para PROCESSANDO")
     @ApiResponses(value = {
@@ -86,14 +116,30 @@ public class PedidoController {
     }
 
     @GetMapping("/listar")
-    @Operation(summary = "Listar todos os pedidos", description = "Retorna uma lista paginada de todos os pedidos")
+    @Operation(summary = "Listar todos os pedidos", description = "Retorna uma lista paginada de todos os pedidos. total=true (padrão) conta o total exato; total=false dispensa o count e informa apenas se há próxima página; total=aproximado usa um total mantido em cache")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lista de pedidos retornada com sucesso")
+            @ApiResponse(responseCode = "200", description = "Lista de pedidos retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Valor inválido para total")
     })
     public ResponseEntity<PageResponseDTO<PedidoResponseDTO>> listarTodos(
             @RequestParam(defaultValue = "0") Integer page,
-            @RequestParam(defaultValue = "10") Integer size) {
-        PageResponseDTO<PedidoResponseDTO> pedidos = pedidoService.listarTodos(page, size);
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(defaultValue = "true") String total) {
+        PageResponseDTO<PedidoResponseDTO> pedidos = pedidoService.listarTodos(page, size, ModoTotal.de(total));
+        return ResponseEntity.ok(pedidos);
+    }
+
+    @GetMapping("/listar/cursor")
+    @Operation(summary = "Listar pedidos por cursor", description = "Retorna pedidos do mais recente para o mais antigo a partir do cursor da página anterior. Sem OFFSET: o custo de cada página independe da profundidade. O total só é contado com total=true")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de pedidos retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Cursor ou tamanho de página inválido", content = @Content)
+    })
+    public ResponseEntity<CursorPageResponseDTO<PedidoResponseDTO>> listarPorCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(defaultValue = "false") boolean total) {
+        CursorPageResponseDTO<PedidoResponseDTO> pedidos = pedidoService.listarPorCursor(cursor, size, total);
         return ResponseEntity.ok(pedidos);
     }
 
@@ -114,10 +160,36 @@ public class PedidoController {
             @ApiResponse(responseCode = "400", description = "Status inválido", content = @Content)
     })
     public ResponseEntity<List<PedidoResponseDTO>> listarPorStatus(@PathVariable String status) {
+        Pedido.StatusPedido statusEnum = converterStatus(status);
+        List<PedidoResponseDTO> pedidos = pedidoService.listarPorStatus(statusEnum);
+        return ResponseEntity.ok(pedidos);
+    }
+
+    @GetMapping(value = "/status/{status}/exportar", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Exportar pedidos por status", description = "Transmite os pedidos do status em NDJSON (um pedido por linha), sem carregar todo o resultado em memória")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Exportação iniciada"),
+            @ApiResponse(responseCode = "400", description = "Status inválido", content = @Content)
+    })
+    public ResponseEntity<StreamingResponseBody> exportarPorStatus(@PathVariable String status) {
+        Pedido.StatusPedido statusEnum = converterStatus(status);
+        StreamingResponseBody corpo = saida -> pedidoService.exportarPorStatus(statusEnum, saida);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(corpo);
+    }
+
+    @GetMapping(value = "/cliente/{clienteId}/exportar", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Exportar pedidos por cliente", description = "Transmite os pedidos do cliente em NDJSON (um pedido por linha), do mais recente para o mais antigo")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Exportação iniciada")
+    })
+    public ResponseEntity<StreamingResponseBody> exportarPorCliente(@PathVariable Long clienteId) {
+        StreamingResponseBody corpo = saida -> pedidoService.exportarPorCliente(clienteId, saida);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(corpo);
+    }
+
+    private Pedido.StatusPedido converterStatus(String status) {
         try {
-            Pedido.StatusPedido statusEnum = Pedido.StatusPedido.valueOf(status.toUpperCase());
-            List<PedidoResponseDTO> pedidos = pedidoService.listarPorStatus(statusEnum);
-            return ResponseEntity.ok(pedidos);
+            return Pedido.StatusPedido.valueOf(status.toUpperCase());
         } catch (IllegalArgumentException e) {
             throw new BusinessException("Status inválido: " + status + ". Status válidos: " +
                 Arrays.toString(Pedido.StatusPedido.values()), HttpStatus.BAD_REQUEST);
@@ -0,0 +1,314 @@
+package com.projeto.erp.pedido;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projeto.erp.cliente.Cliente;
+import com.projeto.erp.cliente.ClienteRepository;
+import com.projeto.erp.common.exception.BusinessException;
+import com.projeto.erp.common.metricas.MetricasNegocio;
+import com.projeto.erp.estoque.Estoque;
+import com.projeto.erp.estoque.EstoqueRepository;
+import com.projeto.erp.pedido.dto.PedidoLoteResponseDTO;
+import com.projeto.erp.pedido.dto.PedidoRequestDTO;
+import com.projeto.erp.pedido.dto.ResultadoPedidoLoteDTO;
+import com.projeto.erp.produto.Produto;
+import com.projeto.erp.produto.ProdutoRepository;
+import com.projeto.erp.reserva.ReservaEstoqueService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Criação de pedidos em lote (ex.: carga de marketplace).
+ * O lote é dividido em blocos; cada bloco carrega clientes, produtos e estoques em poucas consultas,
+ * valida tudo em memória e grava em uma transação, com INSERTs em lote e a reserva de todos os produtos em um UPDATE.
+ * Se a transação de um bloco falhar, os pedidos dele ainda pendentes e os recusados por saldo são refeitos um a um
+ * pelo caminho unitário; só as rejeições de formato e de referência (cliente, produto, estoque) ficam.
+ */
+@Slf4j
+@Service
+@Timed("erp.servico")
+public class PedidoLoteService {
+
+    private static final String SALDO_INSUFICIENTE = "Quantidade insuficiente em estoque para o produto";
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private EstoqueRepository estoqueRepository;
+
+    @Autowired
+    private ReservaEstoqueService reservaEstoqueService;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MetricasNegocio metricasNegocio;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${erp.pedido.lote.tamanho-bloco:500}")
+    private int tamanhoBloco;
+
+    @Value("${erp.pedido.lote.maximo-pedidos:10000}")
+    private int maximoPedidos;
+
+    public PedidoLoteResponseDTO criarLote(List<PedidoRequestDTO> pedidos) {
+        if (pedidos == null || pedidos.isEmpty()) {
+            throw new BusinessException("Lote de pedidos vazio", HttpStatus.BAD_REQUEST);
+        }
+        if (pedidos.size() > maximoPedidos) {
+            throw new BusinessException("Lote excede o limite de " + maximoPedidos + " pedidos", HttpStatus.BAD_REQUEST);
+        }
+
+        ResultadoPedidoLoteDTO[] resultados = new ResultadoPedidoLoteDTO[pedidos.size()];
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        for (int inicio = 0; inicio < pedidos.size(); inicio += tamanhoBloco) {
+            int fim = Math.min(inicio + tamanhoBloco, pedidos.size());
+            processarBloco(pedidos, inicio, fim, resultados, transactionTemplate);
+        }
+
+        List<ResultadoPedidoLoteDTO> lista = Arrays.asList(resultados);
+        int criados = (int) lista.stream().filter(resultado -> resultado.getPedidoId() != null).count();
+        return new PedidoLoteResponseDTO(pedidos.size(), criados, pedidos.size() - criados, lista);
+    }
+
+    /**
+     * Variante NDJSON: um PedidoRequestDTO por linha. Linhas em branco são ignoradas;
+     * uma linha que não é JSON válido rejeita a requisição inteira antes de gravar qualquer pedido.
+     */
+    public PedidoLoteResponseDTO criarLoteNdjson(InputStream corpo) throws IOException {
+        List<PedidoRequestDTO> pedidos = new ArrayList<>();
+        BufferedReader leitor = new BufferedReader(new InputStreamReader(corpo, StandardCharsets.UTF_8));
+
+        String linha;
+        int numeroLinha = 0;
+        while ((linha = leitor.readLine()) != null) {
+            numeroLinha++;
+            if (linha.isBlank()) {
+                continue;
+            }
+            if (pedidos.size() == maximoPedidos) {
+                throw new BusinessException("Lote excede o limite de " + maximoPedidos + " pedidos", HttpStatus.BAD_REQUEST);
+            }
+            try {
+                pedidos.add(objectMapper.readValue(linha, PedidoRequestDTO.class));
+            } catch (JsonProcessingException e) {
+                throw new BusinessException("JSON inválido na linha " + numeroLinha, HttpStatus.BAD_REQUEST);
+            }
+        }
+
+        return criarLote(pedidos);
+    }
+
+    private void processarBloco(List<PedidoRequestDTO> pedidos, int inicio, int fim,
+                                ResultadoPedidoLoteDTO[] resultados, TransactionTemplate transactionTemplate) {
+        Set<Integer> semSaldo = new HashSet<>();
+        try {
+            Map<Integer, Long> criados = transactionTemplate.execute(status ->
+                    gravarBloco(pedidos, inicio, fim, resultados, semSaldo));
+            criados.forEach((indice, pedidoId) -> resultados[indice] = ResultadoPedidoLoteDTO.criado(indice, pedidoId));
+            metricasNegocio.pedidosCriados("lote", criados.size());
+            // Rejeições por saldo só valem com o bloco gravado: o saldo corrido descontou os pedidos aceitos
+            semSaldo.forEach(indice -> metricasNegocio.estoqueInsuficiente("lote-pedidos"));
+        } catch (RuntimeException e) {
+            // BusinessException: o saldo mudou entre a leitura e a reserva (pedidos concorrentes). Qualquer outra falha
+            // também desfaz só este bloco; os blocos já gravados e o resultado por pedido do lote são mantidos
+            if (!(e instanceof BusinessException)) {
+                log.warn("Falha ao gravar o bloco de pedidos {}-{} do lote; refazendo pedido a pedido", inicio, fim - 1, e);
+            }
+            // O saldo corrido contou pedidos que foram desfeitos: as recusas por saldo são refeitas junto com os pendentes
+            // (e, se recusadas de novo, contadas na métrica pelo caminho unitário)
+            semSaldo.forEach(indice -> resultados[indice] = null);
+            for (int indice = inicio; indice < fim; indice++) {
+                if (resultados[indice] == null) {
+                    resultados[indice] = criarIndividualmente(indice, pedidos.get(indice));
+                }
+            }
+        }
+    }
+
+    private ResultadoPedidoLoteDTO criarIndividualmente(int indice, PedidoRequestDTO pedido) {
+        // O bloco pode ter falhado antes de validar este pedido
+        String erro = validarFormato(pedido);
+        if (erro != null) {
+            return ResultadoPedidoLoteDTO.rejeitado(indice, erro);
+        }
+        try {
+            return ResultadoPedidoLoteDTO.criado(indice, pedidoService.criarPedido(pedido).getId());
+        } catch (BusinessException e) {
+            return ResultadoPedidoLoteDTO.rejeitado(indice, e.getMessage());
+        } catch (RuntimeException e) {
+            log.warn("Falha ao criar o pedido {} do lote", indice, e);
+            return ResultadoPedidoLoteDTO.rejeitado(indice, "Falha ao gravar o pedido");
+        }
+    }
+
+    /**
+     * Valida e grava um bloco. Pedidos rejeitados são registrados em resultados (e em semSaldo, os rejeitados
+     * por saldo); retorna índice -> ID dos pedidos gravados.
+     */
+    private Map<Integer, Long> gravarBloco(List<PedidoRequestDTO> pedidos, int inicio, int fim,
+                                           ResultadoPedidoLoteDTO[] resultados, Set<Integer> semSaldo) {
+        Set<Long> clienteIds = new HashSet<>();
+        Set<Long> produtoIds = new HashSet<>();
+
+        for (int indice = inicio; indice < fim; indice++) {
+            PedidoRequestDTO pedido = pedidos.get(indice);
+            String erro = validarFormato(pedido);
+            if (erro != null) {
+                resultados[indice] = ResultadoPedidoLoteDTO.rejeitado(indice, erro);
+                continue;
+            }
+            clienteIds.add(pedido.getClienteId());
+            pedido.getItens().forEach(item -> produtoIds.add(item.getProdutoId()));
+        }
+
+        // Referências do bloco inteiro em poucas consultas
+        Map<Long, Cliente> clientes = clienteRepository.findAllById(clienteIds).stream()
+                .collect(Collectors.toMap(Cliente::getId, Function.identity()));
+        Map<Long, Estoque> estoques = estoqueRepository.findAllByProdutoIdIn(produtoIds).stream()
+                .collect(Collectors.toMap(estoque -> estoque.getProduto().getId(), Function.identity()));
+        Set<Long> produtosSemEstoque = produtoIds.stream()
+                .filter(produtoId -> !estoques.containsKey(produtoId))
+                .collect(Collectors.toSet());
+        Set<Long> produtosExistentesSemEstoque = produtosSemEstoque.isEmpty()
+                ? Set.of()
+                : produtoRepository.findAllById(produtosSemEstoque).stream().map(Produto::getId).collect(Collectors.toSet());
+
+        // Saldo disponível consumido à medida que os pedidos do bloco são aceitos
+        Map<Long, Integer> disponivel = new HashMap<>();
+        estoques.forEach((produtoId, estoque) -> disponivel.put(produtoId, estoque.getQuantidadeDisponivel()));
+
+        Map<Integer, Pedido> aceitos = new LinkedHashMap<>();
+        Map<Integer, Map<Long, Integer>> quantidadesAceitas = new HashMap<>();
+
+        for (int indice = inicio; indice < fim; indice++) {
+            if (resultados[indice] != null) {
+                continue;
+            }
+            PedidoRequestDTO pedido = pedidos.get(indice);
+
+            Cliente cliente = clientes.get(pedido.getClienteId());
+            if (cliente == null) {
+                resultados[indice] = ResultadoPedidoLoteDTO.rejeitado(indice, "Cliente não encontrado");
+                continue;
+            }
+
+            Map<Long, Integer> quantidades = new TreeMap<>();
+            pedido.getItens().forEach(item -> quantidades.merge(item.getProdutoId(), item.getQuantidade(), Integer::sum));
+
+            String erro = validarEstoque(quantidades, estoques, produtosExistentesSemEstoque, disponivel);
+            if (erro != null) {
+                resultados[indice] = ResultadoPedidoLoteDTO.rejeitado(indice, erro);
+                if (erro.equals(SALDO_INSUFICIENTE)) {
+                    semSaldo.add(indice);
+                }
+                continue;
+            }
+
+            quantidades.forEach((produtoId, quantidade) -> disponivel.merge(produtoId, -quantidade, Integer::sum));
+            aceitos.put(indice, PedidoService.montarPedido(cliente, pedido.getItens(), estoques));
+            quantidadesAceitas.put(indice, quantidades);
+        }
+
+        if (aceitos.isEmpty()) {
+            return Map.of();
+        }
+
+        pedidoRepository.saveAll(aceitos.values());
+
+        Map<Integer, Long> criados = new LinkedHashMap<>();
+        Map<Long, Map<Long, Integer>> quantidadesPorPedido = new LinkedHashMap<>();
+        aceitos.forEach((indice, pedido) -> {
+            criados.put(indice, pedido.getId());
+            quantidadesPorPedido.put(pedido.getId(), quantidadesAceitas.get(indice));
+        });
+
+        reservaEstoqueService.reservarLote(quantidadesPorPedido);
+
+        // Com open-in-view o contexto de persistência dura a requisição inteira; não acumula entre blocos
+        entityManager.flush();
+        entityManager.clear();
+
+        return criados;
+    }
+
+    private String validarFormato(PedidoRequestDTO pedido) {
+        if (pedido == null) {
+            return "Pedido não informado";
+        }
+
+        Set<ConstraintViolation<PedidoRequestDTO>> violacoes = validator.validate(pedido);
+        if (violacoes.isEmpty()) {
+            return pedido.getItens().contains(null) ? "itens: item não informado" : null;
+        }
+
+        return violacoes.stream()
+                .map(violacao -> violacao.getPropertyPath() + ": " + violacao.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private String validarEstoque(Map<Long, Integer> quantidades, Map<Long, Estoque> estoques,
+                                  Set<Long> produtosExistentesSemEstoque, Map<Long, Integer> disponivel) {
+        for (Map.Entry<Long, Integer> entrada : quantidades.entrySet()) {
+            Long produtoId = entrada.getKey();
+
+            if (!estoques.containsKey(produtoId)) {
+                return produtosExistentesSemEstoque.contains(produtoId)
+                        ? "Estoque não encontrado para o produto"
+                        : "Produto com ID " + produtoId + " não encontrado";
+            }
+            if (disponivel.get(produtoId) < entrada.getValue()) {
+                return SALDO_INSUFICIENTE;
+            }
+        }
+        return null;
+    }
+}
@@ -1,19 +1,90 @@
 package com.projeto.erp.pedido;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface PedidoRepository extends JpaRepository<Pedido, Long> {
 
     List<Pedido> findByClienteId(Long clienteId);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(Pedido.GRAFO_DETALHES)
     @Query("SELECT p FROM Pedido p WHERE p.cliente.id = :clienteId ORDER BY p.dataPedido DESC")
     List<Pedido> findByClienteIdOrderByDataPedidoDesc(@Param("clienteId") Long clienteId);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(Pedido.GRAFO_DETALHES)
     List<Pedido> findByStatus(Pedido.StatusPedido status);
+
+    /**
+     * Primeira fase da paginação: pagina apenas os IDs, sem join com coleções,
+     * para que LIMIT/OFFSET sejam aplicados no banco.
+     */
+    @Query(value = "SELECT p.id FROM Pedido p", countQuery = "SELECT count(p) FROM Pedido p")
+    Page<Long> findPaginaIds(Pageable pageable);
+
+    /**
+     * Mesma primeira fase sem o count: busca um ID além da página só para saber se existe a próxima.
+     */
+    @Query("SELECT p.id FROM Pedido p")
+    Slice<Long> findFatiaIds(Pageable pageable);
+
+    /**
+     * Paginação por cursor, primeira página: IDs dos pedidos mais recentes.
+     * Usa o índice idx_pedidos_data_pedido_id.
+     */
+    @Query("SELECT p.id FROM Pedido p ORDER BY p.dataPedido DESC, p.id DESC")
+    List<Long> findIdsMaisRecentes(Pageable limite);
+
+    /**
+     * Paginação por cursor, páginas seguintes: IDs dos pedidos posicionados depois de
+     * (dataPedido, id) na ordenação, sem OFFSET; o custo não cresce com a profundidade.
+     */
+    @Query("SELECT p.id FROM Pedido p WHERE (p.dataPedido, p.id) < (:dataPedido, :id) ORDER BY p.dataPedido DESC, p.id DESC")
+    List<Long> findIdsAnterioresA(@Param("dataPedido") LocalDateTime dataPedido,
+                                  @Param("id") Long id,
+                                  Pageable limite);
+
+    /**
+     * Segunda fase: carrega os pedidos da página com cliente, itens e produtos em uma consulta.
+     * A ordem do resultado não é garantida; quem chama reordena pelos IDs da página.
+     * Usada só em leituras: as entidades vêm sem snapshot para dirty checking.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(Pedido.GRAFO_DETALHES)
+    @Query("SELECT p FROM Pedido p WHERE p.id IN :ids")
+    List<Pedido> findComDetalhesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * IDs para exportação em streaming: lidos com cursor do JDBC (fetch size) em vez de
+     * carregar o resultado inteiro. Precisa de transação aberta enquanto o Stream é consumido.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p.id FROM Pedido p WHERE p.status = :status ORDER BY p.id")
+    Stream<Long> streamIdsByStatus(@Param("status") Pedido.StatusPedido status);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p.id FROM Pedido p WHERE p.cliente.id = :clienteId ORDER BY p.dataPedido DESC, p.id DESC")
+    Stream<Long> streamIdsByClienteId(@Param("clienteId") Long clienteId);
 }
@@ -1,9 +1,18 @@
 package com.projeto.erp.pedido;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.projeto.erp.cliente.Cliente;
 import com.projeto.erp.cliente.ClienteRepository;
+import com.projeto.erp.common.dto.CursorPageResponseDTO;
 import com.projeto.erp.common.dto.PageResponseDTO;
 import com.projeto.erp.common.exception.BusinessException;
+import com.projeto.erp.common.metricas.MetricasNegocio;
+import com.projeto.erp.common.pagination.ContagemAproximada;
+import com.projeto.erp.common.pagination.Cursor;
+import com.projeto.erp.common.pagination.ModoTotal;
+import com.projeto.erp.common.pagination.PaginacaoCursor;
+import com.projeto.erp.common.pagination.PaginacaoOffset;
+import com.projeto.erp.estoque.ContadorEstoque;
 import com.projeto.erp.estoque.Estoque;
 import com.projeto.erp.estoque.EstoqueRepository;
 import com.projeto.erp.pedido.dto.ItemPedidoRequestDTO;
@@ -12,22 +21,41 @@ import com.projeto.erp.pedido.dto.PedidoResponseDTO;
 import com.projeto.erp.pedido.mapper.PedidoMapper;
 import com.projeto.erp.produto.Produto;
 import com.projeto.erp.produto.ProdutoRepository;
+import com.projeto.erp.reserva.ReservaEstoqueService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed("erp.servico")
 public class PedidoService {
 
+    // Pedidos carregados e serializados por vez na exportação em streaming
+    private static final int TAMANHO_LOTE_EXPORTACAO = 200;
+
     @Autowired
     private PedidoRepository pedidoRepository;
 
@@ -40,44 +68,44 @@ public class PedidoService {
     @Autowired
     private EstoqueRepository estoqueRepository;
 
+    @Autowired
+    private ReservaEstoqueService reservaEstoqueService;
+
+    @Autowired
+    private ContadorEstoque contadorEstoque;
+
+    @Autowired
+    private ContagemAproximada contagemAproximada;
+
     @Autowired
     private PedidoMapper pedidoMapper;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MetricasNegocio metricasNegocio;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Transactional
     public PedidoResponseDTO criarPedido(PedidoRequestDTO pedidoRequestDTO) {
         // Validar cliente
         Cliente cliente = clienteRepository.findById(pedidoRequestDTO.getClienteId())
                 .orElseThrow(() -> new BusinessException("Cliente não encontrado", HttpStatus.NOT_FOUND));
 
-        // Validar produtos e estoque
-        validarItens(pedidoRequestDTO.getItens());
+        // Carregar produtos e estoque de todos os itens de uma vez e validar em memória
+        Map<Long, Estoque> estoques = carregarEstoques(pedidoRequestDTO.getItens());
+        Map<Long, Integer> quantidadesPorProduto = validarItens(pedidoRequestDTO.getItens(), estoques);
 
-        // Criar pedido
-        Pedido pedido = new Pedido();
-        pedido.setCliente(cliente);
-
-        // Criar itens do pedido
-        List<ItemPedido> itens = new ArrayList<>();
-        BigDecimal total = BigDecimal.ZERO;
-
-        for (ItemPedidoRequestDTO itemDto : pedidoRequestDTO.getItens()) {
-            Produto produto = produtoRepository.findById(itemDto.getProdutoId())
-                    .orElseThrow(() -> new BusinessException("Produto não encontrado", HttpStatus.NOT_FOUND));
-
-            ItemPedido item = new ItemPedido();
-            item.setPedido(pedido);
-            item.setProduto(produto);
-            item.setQuantidade(itemDto.getQuantidade());
-            item.setPrecoUnitario(itemDto.getPrecoUnitario());
-
-            itens.add(item);
-            total = total.add(item.getSubtotal());
-        }
+        Pedido pedido = montarPedido(cliente, pedidoRequestDTO.getItens(), estoques);
+        Pedido pedidoSalvo = pedidoRepository.save(pedido);
 
-        pedido.setItens(itens);
-        pedido.setTotal(total);
+        // Reserva o estoque enquanto o pedido estiver em aberto; sem saldo disponível a criação inteira é desfeita
+        reservaEstoqueService.reservar(pedidoSalvo.getId(), quantidadesPorProduto);
 
-        Pedido pedidoSalvo = pedidoRepository.save(pedido);
+        metricasNegocio.pedidosCriados("unitario", 1);
         return pedidoMapper.toDTO(pedidoSalvo);
     }
 
@@ -104,49 +132,89 @@ public class PedidoService {
             throw new BusinessException("Apenas pedidos em processamento podem ser concluídos", HttpStatus.BAD_REQUEST);
         }
 
-        // Atualizar estoque
-        for (ItemPedido item : pedido.getItens()) {
-            Estoque estoque = estoqueRepository.findByProdutoId(item.getProduto().getId())
-                    .orElseThrow(() -> new BusinessException("Estoque não encontrado para o produto: " + item.getProduto().getNome(), HttpStatus.NOT_FOUND));
+        pedido.setStatus(Pedido.StatusPedido.CONCLUIDO);
+        Pedido pedidoAtualizado = pedidoRepository.save(pedido);
+
+        // Agrupa os itens por produto antes de mexer no estoque (as atualizações em lote limpam o contexto de persistência)
+        Map<Long, Integer> quantidadesPorProduto = new TreeMap<>();
+        Map<Long, Produto> produtos = new HashMap<>();
+        for (ItemPedido item : pedidoAtualizado.getItens()) {
+            quantidadesPorProduto.merge(item.getProduto().getId(), item.getQuantidade(), Integer::sum);
+            produtos.put(item.getProduto().getId(), item.getProduto());
+        }
 
-            try {
-                estoque.reduzirQuantidade(item.getQuantidade());
-                estoqueRepository.save(estoque);
-            } catch (IllegalArgumentException e) {
-                throw new BusinessException("Estoque insuficiente para o produto: " + item.getProduto().getNome(), HttpStatus.BAD_REQUEST);
+        // Converte as reservas ativas em saída; o que não estiver reservado (ex.: reserva expirada) é baixado do disponível
+        Map<Long, Integer> confirmadas = reservaEstoqueService.confirmar(pedidoAtualizado.getId());
+
+        for (Map.Entry<Long, Integer> entrada : quantidadesPorProduto.entrySet()) {
+            int quantidadePendente = entrada.getValue() - confirmadas.getOrDefault(entrada.getKey(), 0);
+            if (quantidadePendente <= 0) {
+                continue;
+            }
+
+            Produto produto = produtos.get(entrada.getKey());
+            if (!contadorEstoque.baixar(produto.getId(), quantidadePendente)) {
+                if (!Boolean.TRUE.equals(estoqueRepository.existsByProdutoId(produto.getId()))) {
+                    throw new BusinessException("Estoque não encontrado para o produto: " + produto.getNome(), HttpStatus.NOT_FOUND);
+                }
+                metricasNegocio.estoqueInsuficiente("conclusao-pedido");
+                throw new BusinessException("Estoque insuficiente para o produto: " + produto.getNome(), HttpStatus.BAD_REQUEST);
             }
         }
 
-        pedido.setStatus(Pedido.StatusPedido.CONCLUIDO);
-        Pedido pedidoAtualizado = pedidoRepository.save(pedido);
         return pedidoMapper.toDTO(pedidoAtualizado);
     }
 
+    @Transactional(readOnly = true)
     public PedidoResponseDTO buscarPorId(Long id) {
         Pedido pedido = pedidoRepository.findById(id)
                 .orElseThrow(() -> new BusinessException("Pedido não encontrado", HttpStatus.NOT_FOUND));
         return pedidoMapper.toDTO(pedido);
     }
 
-    public PageResponseDTO<PedidoResponseDTO> listarTodos(Integer page, Integer size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("dataPedido").descending());
-        Page<Pedido> pedidosPage = pedidoRepository.findAll(pageable);
+    @Transactional(readOnly = true)
+    public PageResponseDTO<PedidoResponseDTO> listarTodos(Integer page, Integer size, ModoTotal modoTotal) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by("dataPedido").descending().and(Sort.by("id").descending()));
+        Slice<Long> idsPage = modoTotal == ModoTotal.EXATO
+                ? pedidoRepository.findPaginaIds(pageable)
+                : pedidoRepository.findFatiaIds(pageable);
 
-        List<PedidoResponseDTO> pedidos = pedidosPage.getContent().stream()
+        List<PedidoResponseDTO> pedidos = carregarComDetalhes(idsPage.getContent()).stream()
                 .map(pedidoMapper::toDTO)
                 .toList();
 
-        return new PageResponseDTO<>(
+        return PaginacaoOffset.montarPagina(
+                idsPage,
+                pedidos,
+                modoTotal == ModoTotal.APROXIMADO ? contagemAproximada.contar("pedidos", pedidoRepository::count) : null
+        );
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<PedidoResponseDTO> listarPorCursor(String cursor, Integer size, boolean total) {
+        Pageable limite = PaginacaoCursor.limite(size);
+        List<Long> ids;
+        if (cursor == null) {
+            ids = pedidoRepository.findIdsMaisRecentes(limite);
+        } else {
+            Cursor posicao = Cursor.decodificar(cursor);
+            ids = pedidoRepository.findIdsAnterioresA(posicao.chaveComoDataHora(), posicao.id(), limite);
+        }
+
+        boolean temProxima = ids.size() > size;
+        List<Pedido> pedidos = carregarComDetalhes(temProxima ? ids.subList(0, size) : ids);
+
+        return PaginacaoCursor.montarPagina(
                 pedidos,
-                pedidosPage.getNumber(),
-                pedidosPage.getSize(),
-                pedidosPage.getTotalElements(),
-                pedidosPage.getTotalPages(),
-                pedidosPage.isFirst(),
-                pedidosPage.isLast()
+                temProxima,
+                size,
+                pedidoMapper::toDTO,
+                pedido -> Cursor.porDataHora(pedido.getDataPedido(), pedido.getId()),
+                total ? pedidoRepository.count() : null
         );
     }
 
+    @Transactional(readOnly = true)
     public List<PedidoResponseDTO> listarPorCliente(Long clienteId) {
         List<Pedido> pedidos = pedidoRepository.findByClienteIdOrderByDataPedidoDesc(clienteId);
         return pedidos.stream()
@@ -154,6 +222,7 @@ public class PedidoService {
                 .toList();
     }
 
+    @Transactional(readOnly = true)
     public List<PedidoResponseDTO> listarPorStatus(Pedido.StatusPedido status) {
         List<Pedido> pedidos = pedidoRepository.findByStatus(status);
         return pedidos.stream()
@@ -161,6 +230,24 @@ public class PedidoService {
                 .toList();
     }
 
+    /**
+     * Escreve os pedidos do status em NDJSON (um JSON por linha) diretamente na saída.
+     * A transação somente leitura mantém o cursor do JDBC aberto durante toda a escrita.
+     */
+    @Transactional(readOnly = true)
+    public void exportarPorStatus(Pedido.StatusPedido status, OutputStream saida) throws IOException {
+        try (Stream<Long> ids = pedidoRepository.streamIdsByStatus(status)) {
+            exportar(ids, saida);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportarPorCliente(Long clienteId, OutputStream saida) throws IOException {
+        try (Stream<Long> ids = pedidoRepository.streamIdsByClienteId(clienteId)) {
+            exportar(ids, saida);
+        }
+    }
+
     @Transactional
     public PedidoResponseDTO cancelarPedido(Long pedidoId) {
         Pedido pedido = pedidoRepository.findById(pedidoId)
@@ -172,23 +259,107 @@ public class PedidoService {
 
         pedido.setStatus(Pedido.StatusPedido.CANCELADO);
         Pedido pedidoAtualizado = pedidoRepository.save(pedido);
-        return pedidoMapper.toDTO(pedidoAtualizado);
+        PedidoResponseDTO resposta = pedidoMapper.toDTO(pedidoAtualizado);
+
+        // Devolve ao disponível o que o pedido ainda tinha reservado
+        reservaEstoqueService.liberar(pedidoAtualizado.getId());
+
+        return resposta;
     }
 
-    private void validarItens(List<ItemPedidoRequestDTO> itens) {
-        for (ItemPedidoRequestDTO item : itens) {
-            // Verificar se produto existe
-            if (!produtoRepository.existsById(item.getProdutoId())) {
-                throw new BusinessException("Produto com ID " + item.getProdutoId() + " não encontrado", HttpStatus.NOT_FOUND);
+    private void exportar(Stream<Long> ids, OutputStream saida) throws IOException {
+        Iterator<Long> iterator = ids.iterator();
+        List<Long> lote = new ArrayList<>(TAMANHO_LOTE_EXPORTACAO);
+
+        while (iterator.hasNext()) {
+            lote.add(iterator.next());
+            if (lote.size() == TAMANHO_LOTE_EXPORTACAO || !iterator.hasNext()) {
+                for (Pedido pedido : carregarComDetalhes(lote)) {
+                    saida.write(objectMapper.writeValueAsBytes(pedidoMapper.toDTO(pedido)));
+                    saida.write('\n');
+                }
+                // Descarta as entidades do lote: a memória não cresce com o total exportado
+                entityManager.clear();
+                saida.flush();
+                lote.clear();
             }
+        }
+    }
+
+    private List<Pedido> carregarComDetalhes(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Pedido> pedidosPorId = pedidoRepository.findComDetalhesByIdIn(ids).stream()
+                .collect(Collectors.toMap(Pedido::getId, Function.identity()));
+
+        // Mantém a ordem da página de IDs
+        return ids.stream()
+                .map(pedidosPorId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Monta o pedido com seus itens e total a partir de produtos já carregados (mapa produtoId -> estoque).
+     */
+    static Pedido montarPedido(Cliente cliente, List<ItemPedidoRequestDTO> itensDto, Map<Long, Estoque> estoques) {
+        Pedido pedido = new Pedido();
+        pedido.setCliente(cliente);
 
-            // Verificar se existe estoque para o produto
-            Estoque estoque = estoqueRepository.findByProdutoId(item.getProdutoId())
-                    .orElseThrow(() -> new BusinessException("Estoque não encontrado para o produto", HttpStatus.NOT_FOUND));
+        List<ItemPedido> itens = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
 
-            if (estoque.getQuantidade() < item.getQuantidade()) {
+        for (ItemPedidoRequestDTO itemDto : itensDto) {
+            Produto produto = estoques.get(itemDto.getProdutoId()).getProduto();
+
+            ItemPedido item = new ItemPedido();
+            item.setPedido(pedido);
+            item.setProduto(produto);
+            item.setQuantidade(itemDto.getQuantidade());
+            item.setPrecoUnitario(itemDto.getPrecoUnitario());
+
+            itens.add(item);
+            total = total.add(item.getSubtotal());
+        }
+
+        pedido.setItens(itens);
+        pedido.setTotal(total);
+        return pedido;
+    }
+
+    private Map<Long, Estoque> carregarEstoques(List<ItemPedidoRequestDTO> itens) {
+        Set<Long> produtoIds = itens.stream()
+                .map(ItemPedidoRequestDTO::getProdutoId)
+                .collect(Collectors.toSet());
+
+        return estoqueRepository.findAllByProdutoIdIn(produtoIds).stream()
+                .collect(Collectors.toMap(estoque -> estoque.getProduto().getId(), Function.identity()));
+    }
+
+    private Map<Long, Integer> validarItens(List<ItemPedidoRequestDTO> itens, Map<Long, Estoque> estoques) {
+        Map<Long, Integer> quantidadesPorProduto = new TreeMap<>();
+
+        for (ItemPedidoRequestDTO item : itens) {
+            Estoque estoque = estoques.get(item.getProdutoId());
+
+            if (estoque == null) {
+                // Só vai ao banco no caminho de erro, para diferenciar produto inexistente de produto sem estoque
+                if (!produtoRepository.existsById(item.getProdutoId())) {
+                    throw new BusinessException("Produto com ID " + item.getProdutoId() + " não encontrado", HttpStatus.NOT_FOUND);
+                }
+                throw new BusinessException("Estoque não encontrado para o produto", HttpStatus.NOT_FOUND);
+            }
+
+            // Itens repetidos do mesmo produto somam a quantidade solicitada
+            int quantidadeSolicitada = quantidadesPorProduto.merge(item.getProdutoId(), item.getQuantidade(), Integer::sum);
+            if (estoque.getQuantidadeDisponivel() < quantidadeSolicitada) {
+                metricasNegocio.estoqueInsuficiente("criacao-pedido");
                 throw new BusinessException("Quantidade insuficiente em estoque para o produto", HttpStatus.BAD_REQUEST);
             }
         }
+
+        return quantidadesPorProduto;
     }
 }
@@ -0,0 +1,18 @@
+package com.projeto.erp.pedido.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PedidoLoteResponseDTO {
+
+    private int recebidos;
+    private int criados;
+    private int rejeitados;
+    private List<ResultadoPedidoLoteDTO> resultados;
+}
@@ -0,0 +1,24 @@
+package com.projeto.erp.pedido.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoPedidoLoteDTO {
+
+    // Posição do pedido no lote recebido, a partir de 0
+    private int indice;
+    private Long pedidoId;
+    private String erro;
+
+    public static ResultadoPedidoLoteDTO criado(int indice, Long pedidoId) {
+        return new ResultadoPedidoLoteDTO(indice, pedidoId, null);
+    }
+
+    public static ResultadoPedidoLoteDTO rejeitado(int indice, String erro) {
+        return new ResultadoPedidoLoteDTO(indice, null, erro);
+    }
+}
@@ -0,0 +1,27 @@
+package com.projeto.erp.produto;
+
+import com.projeto.erp.common.config.CacheConfig;
+import com.projeto.erp.common.exception.BusinessException;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+/**
+ * Leitura do cadastro de produtos através do cache. Fica fora do ProdutoService para que
+ * as chamadas passem pelo proxy de cache; a invalidação é feita em ProdutoService.atualizarProduto/deletarProduto.
+ */
+@Service
+@Timed("erp.servico")
+public class CatalogoProdutoService {
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Cacheable(cacheNames = CacheConfig.PRODUTOS, key = "#id")
+    public ProdutoCatalogo buscar(Long id) {
+        return produtoRepository.buscarCatalogo(id)
+                .orElseThrow(() -> new BusinessException("Produto não encontrado com o ID: " + id, HttpStatus.NOT_FOUND));
+    }
+}
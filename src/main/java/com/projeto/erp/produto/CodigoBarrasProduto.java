@@ -0,0 +1,7 @@
+package com.projeto.erp.produto;
+
+/**
+ * Par código de barras / ID lido na carga do índice de códigos de barras.
+ */
+public record CodigoBarrasProduto(String codigoBarras, Long produtoId) {
+}
@@ -0,0 +1,66 @@
+package com.projeto.erp.produto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom para strings, seguro para uso concorrente (bits gravados com CAS).
+ * Responde "com certeza não contém" ou "talvez contenha"; itens não podem ser removidos.
+ */
+final class FiltroBloom {
+
+    private final AtomicLongArray bits;
+    private final long quantidadeBits;
+    private final int quantidadeHashes;
+
+    FiltroBloom(long capacidade, double taxaFalsosPositivos) {
+        long capacidadeMinima = Math.max(1, capacidade);
+        long bitsNecessarios = (long) Math.ceil(-capacidadeMinima * Math.log(taxaFalsosPositivos) / (Math.log(2) * Math.log(2)));
+        int palavras = (int) Math.max(1, (bitsNecessarios + 63) / 64);
+
+        this.bits = new AtomicLongArray(palavras);
+        this.quantidadeBits = (long) palavras * 64;
+        this.quantidadeHashes = (int) Math.max(1, Math.round((double) quantidadeBits / capacidadeMinima * Math.log(2)));
+    }
+
+    void adicionar(String valor) {
+        long hash = hash(valor);
+        long h1 = misturar(hash);
+        long h2 = misturar(hash ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < quantidadeHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, quantidadeBits);
+            long mascara = 1L << (bit & 63);
+            bits.getAndAccumulate((int) (bit >>> 6), mascara, (atual, novo) -> atual | novo);
+        }
+    }
+
+    boolean podeConter(String valor) {
+        long hash = hash(valor);
+        long h1 = misturar(hash);
+        long h2 = misturar(hash ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < quantidadeHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, quantidadeBits);
+            if ((bits.get((int) (bit >>> 6)) & (1L << (bit & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a de 64 bits sobre os bytes UTF-8
+    private static long hash(String valor) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : valor.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // Finalizador do SplitMix64: espalha os bits para as duas funções de hash serem independentes
+    private static long misturar(long valor) {
+        valor = (valor ^ (valor >>> 30)) * 0xbf58476d1ce4e5b9L;
+        valor = (valor ^ (valor >>> 27)) * 0x94d049bb133111ebL;
+        return valor ^ (valor >>> 31);
+    }
+}
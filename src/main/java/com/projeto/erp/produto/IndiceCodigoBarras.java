@@ -0,0 +1,97 @@
+package com.projeto.erp.produto;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Índice em memória código de barras -> ID do produto, carregado na subida da aplicação
+ * e mantido pelo ProdutoService a cada criação, alteração e exclusão.
+ * O filtro de Bloom responde às verificações de unicidade negativas sem ir ao banco;
+ * como não aceita remoção, códigos excluídos viram falsos positivos e caem na consulta ao banco.
+ * Enquanto a carga não termina o índice não é usado e tudo vai ao banco.
+ */
+@Slf4j
+@Component
+public class IndiceCodigoBarras {
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<String, Long> produtoPorCodigo = new ConcurrentHashMap<>();
+
+    private final FiltroBloom filtro;
+
+    private volatile boolean carregado;
+
+    public IndiceCodigoBarras(@Value("${erp.produto.codigo-barras.capacidade:1000000}") long capacidade,
+                              @Value("${erp.produto.codigo-barras.taxa-falsos-positivos:0.01}") double taxaFalsosPositivos) {
+        this.filtro = new FiltroBloom(capacidade, taxaFalsosPositivos);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        long inicio = System.currentTimeMillis();
+        AtomicLong quantidade = new AtomicLong();
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<CodigoBarrasProduto> codigos = produtoRepository.streamCodigosBarras()) {
+                codigos.forEach(codigo -> {
+                    // Escritas feitas durante a carga já estão no índice e prevalecem
+                    produtoPorCodigo.putIfAbsent(codigo.codigoBarras(), codigo.produtoId());
+                    filtro.adicionar(codigo.codigoBarras());
+                    quantidade.incrementAndGet();
+                });
+            }
+        });
+
+        carregado = true;
+        log.info("Índice de códigos de barras carregado: {} produtos em {} ms",
+                quantidade.get(), System.currentTimeMillis() - inicio);
+    }
+
+    /**
+     * false somente quando o código com certeza não está cadastrado.
+     */
+    public boolean podeExistir(String codigoBarras) {
+        return !carregado || codigoBarras == null || filtro.podeConter(codigoBarras);
+    }
+
+    /**
+     * ID do produto pelo índice. Vazio não significa inexistente: quem chama decide,
+     * com podeExistir, se ainda precisa consultar o banco.
+     */
+    public Optional<Long> buscarProdutoId(String codigoBarras) {
+        return Optional.ofNullable(produtoPorCodigo.get(codigoBarras));
+    }
+
+    public void registrar(String codigoBarras, Long produtoId) {
+        if (codigoBarras == null) {
+            return;
+        }
+        filtro.adicionar(codigoBarras);
+        produtoPorCodigo.put(codigoBarras, produtoId);
+    }
+
+    public void remover(String codigoBarras, Long produtoId) {
+        if (codigoBarras != null) {
+            produtoPorCodigo.remove(codigoBarras, produtoId);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.projeto.erp.produto;
+
+import java.math.BigDecimal;
+
+/**
+ * Dados cadastrais do produto guardados em cache. Não inclui o nome do fornecedor
+ * (cache próprio) nem a quantidade em estoque (sempre lida do banco).
+ */
+public record ProdutoCatalogo(Long id,
+                              String nome,
+                              String descricao,
+                              String codigoBarras,
+                              BigDecimal preco,
+                              Long fornecedorId) {
+}
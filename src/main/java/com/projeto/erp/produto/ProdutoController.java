@@ -1,8 +1,11 @@
 package com.projeto.erp.produto;
 
+import com.projeto.erp.common.dto.CursorPageResponseDTO;
 import com.projeto.erp.common.dto.PageResponseDTO;
+import com.projeto.erp.common.pagination.ModoTotal;
 import com.projeto.erp.produto.dto.ProdutoRequestDTO;
 import com.projeto.erp.produto.dto.ProdutoResponseDTO;
+import com.projeto.erp.produto.dto.ProdutoResponseSemQtdDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -46,14 +49,50 @@ public class ProdutoController {
         return ResponseEntity.ok(produtoService.buscarPorId(id));
     }
 
+    @GetMapping("/barcode/{codigo}")
+    @Operation(summary = "Buscar produto por código de barras", description = "Para PDV: responde pelo índice em memória, sem a quantidade em estoque")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Produto encontrado"),
+        @ApiResponse(responseCode = "404", description = "Produto não encontrado", content = @Content)
+    })
+    public ResponseEntity<ProdutoResponseSemQtdDTO> buscarPorCodigoBarras(@PathVariable String codigo) {
+        return ResponseEntity.ok(produtoService.buscarPorCodigoBarras(codigo));
+    }
+
     @GetMapping
-    @Operation(summary = "Listar todos os produtos")
+    @Operation(summary = "Listar todos os produtos", description = "Total=true (padrão) conta o total exato; total=false dispensa o count e informa apenas se há próxima página; total=aproximado usa um total mantido em cache")
     @ApiResponses({
-        @ApiResponse(responseCode = "200", description = "Lista de produtos retornada com sucesso")
+        @ApiResponse(responseCode = "200", description = "Lista de produtos retornada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Valor inválido para total")
     })
     public ResponseEntity<PageResponseDTO<ProdutoResponseDTO>> listarTodos(@RequestParam(defaultValue = "0") Integer page,
-                                                                           @RequestParam(defaultValue = "10") Integer size) {
-        return ResponseEntity.ok(produtoService.listarTodos(page , size));
+                                                                           @RequestParam(defaultValue = "10") Integer size,
+                                                                           @RequestParam(defaultValue = "true") String total) {
+        return ResponseEntity.ok(produtoService.listarTodos(page , size, ModoTotal.de(total)));
+    }
+
+    @GetMapping("/cursor")
+    @Operation(summary = "Listar produtos por cursor", description = "Sem OFFSET: o custo de cada página independe da profundidade. O total só é contado com total=true")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Página de produtos retornada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Cursor ou tamanho de página inválido", content = @Content)
+    })
+    public ResponseEntity<CursorPageResponseDTO<ProdutoResponseDTO>> listarPorCursor(@RequestParam(required = false) String cursor,
+                                                                                     @RequestParam(defaultValue = "10") Integer size,
+                                                                                     @RequestParam(defaultValue = "false") boolean total) {
+        return ResponseEntity.ok(produtoService.listarPorCursor(cursor, size, total));
+    }
+
+    @GetMapping("/busca")
+    @Operation(summary = "Buscar produtos por texto", description = "Busca em nome e descrição com tolerância a prefixo e erros de digitação, ordenada por relevância e paginada por cursor")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Página de resultados retornada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Termo de busca, cursor ou tamanho de página inválido", content = @Content)
+    })
+    public ResponseEntity<CursorPageResponseDTO<ProdutoResponseDTO>> buscarPorTexto(@RequestParam String q,
+                                                                                    @RequestParam(required = false) String cursor,
+                                                                                    @RequestParam(defaultValue = "10") Integer size) {
+        return ResponseEntity.ok(produtoService.buscarPorTexto(q, cursor, size));
     }
 
     @PutMapping("/{id}")
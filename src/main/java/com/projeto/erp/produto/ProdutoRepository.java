@@ -1,8 +1,99 @@
 package com.projeto.erp.produto;
 
+import com.projeto.erp.produto.dto.ProdutoResponseDTO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ProdutoRepository extends JpaRepository<Produto, Long> {
     boolean existsByCodigoBarras(String codigoBarras);
-}
 
+    @Query("SELECT p.id FROM Produto p WHERE p.codigoBarras = :codigoBarras")
+    Optional<Long> findIdByCodigoBarras(@Param("codigoBarras") String codigoBarras);
+
+    /**
+     * Todos os códigos de barras para a carga do IndiceCodigoBarras, lidos com cursor do JDBC.
+     * Precisa de transação aberta enquanto o Stream é consumido.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.projeto.erp.produto.CodigoBarrasProduto(p.codigoBarras, p.id) " +
+           "FROM Produto p WHERE p.codigoBarras IS NOT NULL")
+    Stream<CodigoBarrasProduto> streamCodigosBarras();
+
+    /**
+     * Projeção das listagens: as colunas de ProdutoResponseDTO em uma consulta com fornecedor e estoque,
+     * sem carregar entidades (nem o estoque @OneToOne, que o Hibernate buscaria linha a linha).
+     */
+    String RESUMO =
+            "SELECT new com.projeto.erp.produto.dto.ProdutoResponseDTO(" +
+            "p.id, p.nome, p.descricao, p.codigoBarras, p.preco, f.id, f.nome, e.quantidade + e.quantidadePendente) " +
+            "FROM Produto p JOIN p.fornecedor f LEFT JOIN p.estoque e ";
+
+    @Query(value = RESUMO + "ORDER BY p.id", countQuery = "SELECT count(p) FROM Produto p")
+    Page<ProdutoResponseDTO> listarResumos(Pageable pageable);
+
+    // Paginação por página sem count (total=false/aproximado): busca um registro além da página para preencher last
+    @Query(RESUMO + "ORDER BY p.id")
+    Slice<ProdutoResponseDTO> listarFatiaResumos(Pageable pageable);
+
+    // Paginação por cursor: registros após o último ID entregue, sem OFFSET nem count
+    @Query(RESUMO + "WHERE p.id > :id ORDER BY p.id")
+    List<ProdutoResponseDTO> listarResumosApos(@Param("id") Long id, Pageable limite);
+
+    @Query(RESUMO + "WHERE p.id IN :ids")
+    List<ProdutoResponseDTO> listarResumosPorIds(@Param("ids") Collection<Long> ids);
+
+    // Dados cadastrais para o cache do catálogo; o ID do fornecedor vem da chave estrangeira, sem join
+    @Query("SELECT new com.projeto.erp.produto.ProdutoCatalogo(p.id, p.nome, p.descricao, p.codigoBarras, p.preco, p.fornecedor.id) " +
+           "FROM Produto p WHERE p.id = :id")
+    Optional<ProdutoCatalogo> buscarCatalogo(@Param("id") Long id);
+
+    // Subconsulta comum às duas páginas da busca textual; os filtros do cursor são aplicados sobre a relevância já calculada.
+    // Relevância em NUMERIC com 6 casas: o valor volta no cursor como texto decimal e é comparado sem perda
+    String BUSCA_TEXTUAL =
+            "SELECT r.id, r.relevancia FROM (" +
+            "  SELECT CAST(p.id AS BIGINT) AS id, " +
+            "         ROUND(CAST(ts_rank(p.busca, consulta) + similarity(p.nome, :termo) AS NUMERIC), 6) AS relevancia " +
+            "  FROM produtos p, websearch_to_tsquery('portuguese', :termo) consulta " +
+            "  WHERE p.busca @@ consulta OR p.nome ILIKE :prefixo OR p.nome % :termo" +
+            ") r ";
+
+    /**
+     * Busca textual ranqueada (somente PostgreSQL, ver V007). Casa pelo tsvector de nome/descrição,
+     * pelo prefixo do nome ou por similaridade de trigramas (erros de digitação); as três condições usam índices GIN.
+     * Ordenação por relevância decrescente e ID, que formam a chave da paginação.
+     */
+    @Query(value = BUSCA_TEXTUAL +
+                   "ORDER BY r.relevancia DESC, r.id " +
+                   "LIMIT :limite",
+           nativeQuery = true)
+    List<ResultadoBuscaProduto> buscarPorTexto(@Param("termo") String termo,
+                                               @Param("prefixo") String prefixo,
+                                               @Param("limite") int limite);
+
+    @Query(value = BUSCA_TEXTUAL +
+                   "WHERE r.relevancia < :relevancia OR (r.relevancia = :relevancia AND r.id > :ultimoId) " +
+                   "ORDER BY r.relevancia DESC, r.id " +
+                   "LIMIT :limite",
+           nativeQuery = true)
+    List<ResultadoBuscaProduto> buscarPorTextoApos(@Param("termo") String termo,
+                                                   @Param("prefixo") String prefixo,
+                                                   @Param("relevancia") BigDecimal relevancia,
+                                                   @Param("ultimoId") Long ultimoId,
+                                                   @Param("limite") int limite);
+}
@@ -1,35 +1,72 @@
 package com.projeto.erp.produto;
 
+import com.projeto.erp.common.dto.CursorPageResponseDTO;
 import com.projeto.erp.common.dto.PageResponseDTO;
 import com.projeto.erp.common.exception.BusinessException;
+import com.projeto.erp.common.pagination.ContagemAproximada;
+import com.projeto.erp.common.pagination.Cursor;
+import com.projeto.erp.common.config.CacheConfig;
+import com.projeto.erp.common.pagination.ModoTotal;
+import com.projeto.erp.common.pagination.PaginacaoCursor;
+import com.projeto.erp.common.pagination.PaginacaoOffset;
+import com.projeto.erp.estoque.EstoqueRepository;
 import com.projeto.erp.fornecedor.Fornecedor;
 import com.projeto.erp.fornecedor.FornecedorService;
 import com.projeto.erp.produto.dto.ProdutoRequestDTO;
 import com.projeto.erp.produto.dto.ProdutoResponseDTO;
+import com.projeto.erp.produto.dto.ProdutoResponseSemQtdDTO;
 import com.projeto.erp.produto.mapper.ProdutoMapper;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
+@Timed("erp.servico")
 public class ProdutoService {
 
+    private static final int TAMANHO_MINIMO_BUSCA = 2;
+
     @Autowired
     private ProdutoRepository produtoRepository;
 
     @Autowired
     private FornecedorService fornecedorService;
 
+    @Autowired
+    private CatalogoProdutoService catalogoProdutoService;
+
+    @Autowired
+    private EstoqueRepository estoqueRepository;
+
+    @Autowired
+    private IndiceCodigoBarras indiceCodigoBarras;
+
+    @Autowired
+    private ContagemAproximada contagemAproximada;
+
     @Autowired
     ProdutoMapper mapper;
 
 
+    @Transactional
     public ProdutoResponseDTO criarProduto(ProdutoRequestDTO dto) {
         validarCodigoBarraUnico(dto.getCodigoBarras());
 
@@ -38,38 +75,115 @@ public class ProdutoService {
         Produto produto = mapper.toEntity(dto);
         produto.setFornecedor(fornecedor);
 
-        produto = produtoRepository.save(produto);
-        return  mapper.toDTO(produto);
+        Produto salvo = salvarComCodigoBarrasUnico(produto);
+        aposCommit(() -> indiceCodigoBarras.registrar(salvo.getCodigoBarras(), salvo.getId()));
+        return  mapper.toDTO(salvo);
     }
 
+    /**
+     * Cadastro e nome do fornecedor vêm do cache; o saldo em estoque muda a todo momento
+     * e é sempre lido do banco.
+     */
+    @Transactional(readOnly = true)
     public ProdutoResponseDTO buscarPorId(Long id) {
-        Produto produto = buscaProdutoByIdOrThrow(id);
-        return mapper.toDTO(produto);
+        ProdutoCatalogo catalogo = catalogoProdutoService.buscar(id);
+        return mapper.toDTO(
+                catalogo,
+                fornecedorService.buscarNome(catalogo.fornecedorId()),
+                estoqueRepository.buscarSaldoPorProdutoId(id).orElse(null)
+        );
     }
 
-    public PageResponseDTO<ProdutoResponseDTO> listarTodos(Integer page, Integer size) {
+    /**
+     * Leitura de PDV: o ID vem do índice em memória e o cadastro dos caches, sem ir ao banco.
+     * O banco só é consultado quando o código não está no índice e o filtro de Bloom não o descarta.
+     */
+    @Transactional(readOnly = true)
+    public ProdutoResponseSemQtdDTO buscarPorCodigoBarras(String codigoBarras) {
+        Long produtoId = indiceCodigoBarras.buscarProdutoId(codigoBarras)
+                .or(() -> indiceCodigoBarras.podeExistir(codigoBarras)
+                        ? produtoRepository.findIdByCodigoBarras(codigoBarras)
+                        : Optional.empty())
+                .orElseThrow(() -> new BusinessException("Produto não encontrado com o código de barras: " + codigoBarras, HttpStatus.NOT_FOUND));
+
+        ProdutoCatalogo catalogo = catalogoProdutoService.buscar(produtoId);
+        return mapper.toDTOSemQuantidade(catalogo, fornecedorService.buscarNome(catalogo.fornecedorId()));
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponseDTO<ProdutoResponseDTO> listarTodos(Integer page, Integer size, ModoTotal modoTotal) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<Produto> produtoPage = produtoRepository.findAll(pageable);
+        Slice<ProdutoResponseDTO> produtoPage = modoTotal == ModoTotal.EXATO
+                ? produtoRepository.listarResumos(pageable)
+                : produtoRepository.listarFatiaResumos(pageable);
 
         if (produtoPage.isEmpty()) {
             throw new BusinessException("Nenhum produto encontrado", HttpStatus.NOT_FOUND);
         }
 
-        List<ProdutoResponseDTO> produtosDTO = produtoPage.getContent().stream()
-                .map(mapper::toDTO)
-                .toList();
-
-        return new PageResponseDTO<> (
-                produtosDTO,
-                produtoPage.getNumber(),
-                produtoPage.getSize(),
-                produtoPage.getTotalElements(),
-                produtoPage.getTotalPages(),
-                produtoPage.isFirst(),
-                produtoPage.isLast()
+        return PaginacaoOffset.montarPagina(
+                produtoPage,
+                Function.identity(),
+                modoTotal == ModoTotal.APROXIMADO ? contagemAproximada.contar("produtos", produtoRepository::count) : null
+        );
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<ProdutoResponseDTO> listarPorCursor(String cursor, Integer size, boolean total) {
+        Pageable limite = PaginacaoCursor.limite(size);
+        Long ultimoId = cursor == null ? 0L : Cursor.decodificar(cursor).id();
+        List<ProdutoResponseDTO> registros = produtoRepository.listarResumosApos(ultimoId, limite);
+
+        return PaginacaoCursor.montarPagina(
+                registros,
+                size,
+                Function.identity(),
+                registro -> Cursor.porId(registro.getId()),
+                total ? produtoRepository.count() : null
+        );
+    }
+
+    /**
+     * Busca textual em nome e descrição, ordenada por relevância e paginada por cursor
+     * (relevância + ID do último item entregue).
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<ProdutoResponseDTO> buscarPorTexto(String q, String cursor, Integer size) {
+        String termo = q == null ? "" : q.strip();
+        if (termo.length() < TAMANHO_MINIMO_BUSCA) {
+            throw new BusinessException("Termo de busca deve ter ao menos " + TAMANHO_MINIMO_BUSCA + " caracteres", HttpStatus.BAD_REQUEST);
+        }
+        int limite = PaginacaoCursor.limite(size).getPageSize();
+        String prefixo = escaparLike(termo) + "%";
+
+        List<ResultadoBuscaProduto> resultados;
+        if (cursor == null) {
+            resultados = produtoRepository.buscarPorTexto(termo, prefixo, limite);
+        } else {
+            Cursor posicao = Cursor.decodificar(cursor);
+            resultados = produtoRepository.buscarPorTextoApos(termo, prefixo, relevanciaDoCursor(posicao), posicao.id(), limite);
+        }
+
+        boolean temProxima = resultados.size() > size;
+        List<ResultadoBuscaProduto> pagina = temProxima ? resultados.subList(0, size) : resultados;
+
+        // Produtos da página em uma consulta; a ordem vem da busca
+        Map<Long, ProdutoResponseDTO> produtos = produtoRepository.listarResumosPorIds(pagina.stream().map(ResultadoBuscaProduto::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(ProdutoResponseDTO::getId, Function.identity()));
+
+        return PaginacaoCursor.montarPagina(
+                pagina,
+                temProxima,
+                size,
+                resultado -> produtos.get(resultado.getId()),
+                resultado -> new Cursor(resultado.getRelevancia().toPlainString(), resultado.getId()),
+                null
         );
     }
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PRODUTOS, key = "#id")
     public ProdutoResponseDTO atualizarProduto(Long id, ProdutoRequestDTO dto) {
         Produto existingProduto = buscaProdutoByIdOrThrow(id);
 
@@ -79,23 +193,78 @@ public class ProdutoService {
 
         Fornecedor fornecedor = fornecedorService.buscaFornecedorByIdOrThrow(dto.getFornecedorId());
 
+        String codigoBarrasAnterior = existingProduto.getCodigoBarras();
         existingProduto.setNome(dto.getNome());
         existingProduto.setDescricao(dto.getDescricao());
         existingProduto.setCodigoBarras(dto.getCodigoBarras());
         existingProduto.setPreco(dto.getPreco());
         existingProduto.setFornecedor(fornecedor);
 
-        existingProduto = produtoRepository.save(existingProduto);
+        existingProduto = salvarComCodigoBarrasUnico(existingProduto);
+        String codigoBarrasNovo = existingProduto.getCodigoBarras();
+        if (!Objects.equals(codigoBarrasNovo, codigoBarrasAnterior)) {
+            aposCommit(() -> {
+                indiceCodigoBarras.remover(codigoBarrasAnterior, id);
+                indiceCodigoBarras.registrar(codigoBarrasNovo, id);
+            });
+        }
         return mapper.toDTO(existingProduto);
     }
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PRODUTOS, key = "#id")
     public void deletarProduto(Long id) {
         Produto produto = buscaProdutoByIdOrThrow(id);
         produtoRepository.delete(produto);
+        aposCommit(() -> indiceCodigoBarras.remover(produto.getCodigoBarras(), id));
+    }
+
+    /**
+     * O índice de códigos de barras (e o filtro de Bloom) só recebe o que o banco confirmou: uma transação
+     * desfeita não deixa código no índice. A invalidação do cache do catálogo também espera o commit
+     * (CacheConfig usa um CacheManager transacional).
+     */
+    private static void aposCommit(Runnable atualizacao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            atualizacao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                atualizacao.run();
+            }
+        });
+    }
+
+    private static BigDecimal relevanciaDoCursor(Cursor cursor) {
+        try {
+            return new BigDecimal(cursor.chave());
+        } catch (NumberFormatException e) {
+            throw new BusinessException("Cursor inválido", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private static String escaparLike(String termo) {
+        return termo.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
 
     private void validarCodigoBarraUnico(String codigoBarras) {
-        if (produtoRepository.existsByCodigoBarras(codigoBarras)) {
+        // Negativo do filtro de Bloom dispensa a consulta; positivo pode ser falso e é confirmado no banco
+        if (indiceCodigoBarras.podeExistir(codigoBarras) && produtoRepository.existsByCodigoBarras(codigoBarras)) {
+            throw new BusinessException("Código de barras já cadastrado", HttpStatus.CONFLICT);
+        }
+    }
+
+    /**
+     * A restrição única do banco continua valendo para o código cadastrado por outra via
+     * (ou outra instância) depois da carga do índice.
+     */
+    private Produto salvarComCodigoBarrasUnico(Produto produto) {
+        try {
+            // Flush aqui: com a transação do serviço, a restrição única só seria conferida no commit
+            return produtoRepository.saveAndFlush(produto);
+        } catch (DataIntegrityViolationException e) {
             throw new BusinessException("Código de barras já cadastrado", HttpStatus.CONFLICT);
         }
     }
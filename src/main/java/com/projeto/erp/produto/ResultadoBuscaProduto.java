@@ -0,0 +1,13 @@
+package com.projeto.erp.produto;
+
+import java.math.BigDecimal;
+
+/**
+ * Linha da busca textual: ID do produto e relevância usada na ordenação e no cursor.
+ */
+public interface ResultadoBuscaProduto {
+
+    Long getId();
+
+    BigDecimal getRelevancia();
+}
@@ -1,11 +1,16 @@
 package com.projeto.erp.produto.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 
 @Data
+@NoArgsConstructor
+// Construtor usado pela projeção ProdutoRepository.RESUMO (mesma ordem dos campos)
+@AllArgsConstructor
 public class ProdutoResponseDTO {
 
     @Schema(example = "1")
@@ -1,6 +1,7 @@
 package com.projeto.erp.produto.mapper;
 
 import com.projeto.erp.produto.Produto;
+import com.projeto.erp.produto.ProdutoCatalogo;
 import com.projeto.erp.produto.dto.ProdutoRequestDTO;
 import com.projeto.erp.produto.dto.ProdutoResponseDTO;
 import com.projeto.erp.produto.dto.ProdutoResponseSemQtdDTO;
@@ -13,9 +14,16 @@ public interface ProdutoMapper {
 
     @Mapping(source = "fornecedor.id", target = "fornecedorId")
     @Mapping(source = "fornecedor.nome", target = "fornecedorNome")
-    @Mapping(source = "estoque.quantidade", target = "quantidadeEstoque")
+    @Mapping(source = "estoque.saldo", target = "quantidadeEstoque")
     ProdutoResponseDTO toDTO(Produto produto);
 
+    @Mapping(source = "fornecedorNome", target = "fornecedorNome")
+    @Mapping(source = "quantidadeEstoque", target = "quantidadeEstoque")
+    ProdutoResponseDTO toDTO(ProdutoCatalogo catalogo, String fornecedorNome, Integer quantidadeEstoque);
+
+    @Mapping(source = "fornecedorNome", target = "fornecedorNome")
+    ProdutoResponseSemQtdDTO toDTOSemQuantidade(ProdutoCatalogo catalogo, String fornecedorNome);
+
     @Named("toDTOSemQuantidade")
     @Mapping(source = "fornecedor.id", target = "fornecedorId")
     @Mapping(source = "fornecedor.nome", target = "fornecedorNome")
@@ -0,0 +1,48 @@
+package com.projeto.erp.reserva;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "reservas_estoque")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservaEstoque {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservas_estoque_id_seq")
+    @SequenceGenerator(name = "reservas_estoque_id_seq", sequenceName = "reservas_estoque_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "pedido_id", nullable = false)
+    private Long pedidoId;
+
+    @Column(name = "produto_id", nullable = false)
+    private Long produtoId;
+
+    @Column(nullable = false)
+    private Integer quantidade;
+
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private StatusReserva status = StatusReserva.ATIVA;
+
+    @Builder.Default
+    @Column(name = "criada_em", nullable = false)
+    private LocalDateTime criadaEm = LocalDateTime.now();
+
+    @Column(name = "expira_em", nullable = false)
+    private LocalDateTime expiraEm;
+
+    public enum StatusReserva {
+        ATIVA, CONFIRMADA, LIBERADA, EXPIRADA
+    }
+}
@@ -0,0 +1,28 @@
+package com.projeto.erp.reserva;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ReservaEstoqueExpiracaoJob {
+
+    @Autowired
+    private ReservaEstoqueService reservaEstoqueService;
+
+    @Value("${erp.estoque.reserva.tamanho-lote:500}")
+    private int tamanhoLote;
+
+    /**
+     * Varre as reservas vencidas em lotes, cada lote em sua própria transação, até esgotar o que estiver vencido.
+     */
+    @Scheduled(fixedDelayString = "${erp.estoque.reserva.intervalo-varredura:PT1M}",
+               initialDelayString = "${erp.estoque.reserva.intervalo-varredura:PT1M}")
+    public void expirarReservasVencidas() {
+        int processadas;
+        do {
+            processadas = reservaEstoqueService.expirarVencidas(tamanhoLote);
+        } while (processadas == tamanhoLote);
+    }
+}
@@ -0,0 +1,29 @@
+package com.projeto.erp.reserva;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ReservaEstoqueRepository extends JpaRepository<ReservaEstoque, Long> {
+
+    List<ReservaEstoque> findByPedidoIdAndStatus(Long pedidoId, ReservaEstoque.StatusReserva status);
+
+    List<ReservaEstoque> findByStatusAndExpiraEmBeforeOrderByIdAsc(ReservaEstoque.StatusReserva status,
+                                                                   LocalDateTime agora,
+                                                                   Pageable pageable);
+
+    /**
+     * Transição de status condicional: só uma das partes concorrentes (conclusão, cancelamento ou expiração)
+     * consegue tirar a reserva de ATIVA.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ReservaEstoque r SET r.status = :novoStatus WHERE r.id = :id AND r.status = :statusAtual")
+    int alterarStatus(@Param("id") Long id,
+                      @Param("statusAtual") ReservaEstoque.StatusReserva statusAtual,
+                      @Param("novoStatus") ReservaEstoque.StatusReserva novoStatus);
+}
@@ -0,0 +1,161 @@
+package com.projeto.erp.reserva;
+
+import com.projeto.erp.common.exception.BusinessException;
+import com.projeto.erp.common.metricas.MetricasNegocio;
+import com.projeto.erp.estoque.ContadorEstoque;
+import com.projeto.erp.estoque.DiarioEstoque;
+import com.projeto.erp.estoque.EstoqueRepository;
+import com.projeto.erp.estoque.MovimentoEstoque;
+import com.projeto.erp.reserva.ReservaEstoque.StatusReserva;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+@Timed("erp.servico")
+public class ReservaEstoqueService {
+
+    @Autowired
+    private ReservaEstoqueRepository reservaEstoqueRepository;
+
+    @Autowired
+    private EstoqueRepository estoqueRepository;
+
+    @Autowired
+    private ContadorEstoque contadorEstoque;
+
+    @Autowired
+    private DiarioEstoque diarioEstoque;
+
+    @Autowired
+    private MetricasNegocio metricasNegocio;
+
+    @Value("${erp.estoque.reserva.validade-minutos:30}")
+    private long validadeMinutos;
+
+    /**
+     * Reserva o estoque de um pedido pelo contador de estoque, que decide o disponível de todos os produtos de uma vez
+     * (no modo jpa, lock das linhas em ordem de ID e um único UPDATE condicional; no modo memoria, os contadores).
+     * Se algum produto não tiver saldo, a exceção desfaz a transação e nada fica reservado.
+     */
+    @Transactional
+    public void reservar(Long pedidoId, Map<Long, Integer> quantidadesPorProduto) {
+        LocalDateTime expiraEm = LocalDateTime.now().plusMinutes(validadeMinutos);
+        List<ReservaEstoque> reservas = new ArrayList<>();
+
+        if (!contadorEstoque.reservar(quantidadesPorProduto)) {
+            metricasNegocio.estoqueInsuficiente("criacao-pedido");
+            throw new BusinessException("Quantidade insuficiente em estoque para o produto", HttpStatus.BAD_REQUEST);
+        }
+
+        new TreeMap<>(quantidadesPorProduto).forEach((produtoId, quantidade) -> reservas.add(ReservaEstoque.builder()
+                .pedidoId(pedidoId)
+                .produtoId(produtoId)
+                .quantidade(quantidade)
+                .expiraEm(expiraEm)
+                .build()));
+
+        reservaEstoqueRepository.saveAll(reservas);
+    }
+
+    /**
+     * Reserva o estoque de vários pedidos de uma vez: a mesma reserva única de reservar, com a soma das quantidades
+     * de todos os pedidos por produto. Se algum produto não tiver saldo para o total, nada é reservado.
+     */
+    @Transactional
+    public void reservarLote(Map<Long, Map<Long, Integer>> quantidadesPorPedido) {
+        Map<Long, Integer> totaisPorProduto = new TreeMap<>();
+        quantidadesPorPedido.values().forEach(quantidades ->
+                quantidades.forEach((produtoId, quantidade) -> totaisPorProduto.merge(produtoId, quantidade, Integer::sum)));
+
+        if (!contadorEstoque.reservar(totaisPorProduto)) {
+            throw new BusinessException("Quantidade insuficiente em estoque para os produtos do lote", HttpStatus.BAD_REQUEST);
+        }
+
+        LocalDateTime expiraEm = LocalDateTime.now().plusMinutes(validadeMinutos);
+        List<ReservaEstoque> reservas = new ArrayList<>();
+        quantidadesPorPedido.forEach((pedidoId, quantidades) -> quantidades.forEach((produtoId, quantidade) ->
+                reservas.add(ReservaEstoque.builder()
+                        .pedidoId(pedidoId)
+                        .produtoId(produtoId)
+                        .quantidade(quantidade)
+                        .expiraEm(expiraEm)
+                        .build())));
+
+        reservaEstoqueRepository.saveAll(reservas);
+    }
+
+    @Transactional
+    public void liberar(Long pedidoId) {
+        for (ReservaEstoque reserva : buscarAtivasOrdenadas(pedidoId)) {
+            if (reservaEstoqueRepository.alterarStatus(reserva.getId(), StatusReserva.ATIVA, StatusReserva.LIBERADA) == 1) {
+                contadorEstoque.liberar(reserva.getProdutoId(), reserva.getQuantidade());
+            }
+        }
+    }
+
+    /**
+     * Converte as reservas ativas do pedido em baixa de estoque: a quantidade sai do reservado
+     * e a saída física vai para o diário, com as linhas de estoque ainda travadas pelos UPDATEs.
+     * O disponível não muda (sai do reservado e do saldo ao mesmo tempo), por isso não passa pelo contador.
+     * Retorna a quantidade efetivamente baixada por produto; itens sem reserva ativa (ex.: reserva expirada)
+     * ficam de fora e devem ser baixados pelo chamador.
+     */
+    @Transactional
+    public Map<Long, Integer> confirmar(Long pedidoId) {
+        Map<Long, Integer> confirmadas = new TreeMap<>();
+
+        for (ReservaEstoque reserva : buscarAtivasOrdenadas(pedidoId)) {
+            if (reservaEstoqueRepository.alterarStatus(reserva.getId(), StatusReserva.ATIVA, StatusReserva.CONFIRMADA) == 0) {
+                continue;
+            }
+            if (estoqueRepository.confirmarReserva(reserva.getProdutoId(), reserva.getQuantidade()) == 0) {
+                throw new BusinessException("Reserva de estoque inconsistente para o produto " + reserva.getProdutoId(), HttpStatus.CONFLICT);
+            }
+            confirmadas.merge(reserva.getProdutoId(), reserva.getQuantidade(), Integer::sum);
+        }
+
+        if (!confirmadas.isEmpty()) {
+            List<MovimentoEstoque> saidas = new ArrayList<>();
+            confirmadas.forEach((produtoId, quantidade) -> saidas.add(MovimentoEstoque.saida(produtoId, quantidade)));
+            diarioEstoque.registrar(saidas);
+        }
+        return confirmadas;
+    }
+
+    /**
+     * Expira um lote de reservas vencidas, devolvendo a quantidade ao disponível.
+     * Retorna quantas reservas foram lidas no lote, para o chamador decidir se continua.
+     */
+    @Transactional
+    public int expirarVencidas(int tamanhoLote) {
+        List<ReservaEstoque> vencidas = new ArrayList<>(reservaEstoqueRepository.findByStatusAndExpiraEmBeforeOrderByIdAsc(
+                StatusReserva.ATIVA, LocalDateTime.now(), PageRequest.of(0, tamanhoLote)));
+        vencidas.sort(Comparator.comparing(ReservaEstoque::getProdutoId));
+
+        for (ReservaEstoque reserva : vencidas) {
+            if (reservaEstoqueRepository.alterarStatus(reserva.getId(), StatusReserva.ATIVA, StatusReserva.EXPIRADA) == 1) {
+                contadorEstoque.liberar(reserva.getProdutoId(), reserva.getQuantidade());
+            }
+        }
+
+        return vencidas.size();
+    }
+
+    private List<ReservaEstoque> buscarAtivasOrdenadas(Long pedidoId) {
+        List<ReservaEstoque> ativas = new ArrayList<>(reservaEstoqueRepository.findByPedidoIdAndStatus(pedidoId, StatusReserva.ATIVA));
+        ativas.sort(Comparator.comparing(ReservaEstoque::getProdutoId));
+        return ativas;
+    }
+}
@@ -0,0 +1,23 @@
+--liquibase formatted sql
+
+--changeset erp:002-reserva-estoque
+-- Quantidade reservada por pedidos em aberto (disponível = quantidade - quantidade_reservada)
+ALTER TABLE estoque ADD COLUMN quantidade_reservada INTEGER NOT NULL DEFAULT 0;
+
+-- Tabela: reservas_estoque
+CREATE TABLE reservas_estoque (
+    id SERIAL PRIMARY KEY,
+    pedido_id INTEGER NOT NULL,
+    produto_id INTEGER NOT NULL,
+    quantidade INTEGER NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'ATIVA' CHECK (status IN ('ATIVA', 'CONFIRMADA', 'LIBERADA', 'EXPIRADA')),
+    criada_em TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expira_em TIMESTAMP NOT NULL,
+    FOREIGN KEY (pedido_id) REFERENCES pedidos(id) ON DELETE CASCADE,
+    FOREIGN KEY (produto_id) REFERENCES produtos(id)
+);
+
+CREATE INDEX idx_reservas_estoque_pedido ON reservas_estoque (pedido_id, status);
+
+-- Usado pela varredura de expiração: apenas reservas ativas, em ordem de vencimento
+CREATE INDEX idx_reservas_estoque_ativas_expira_em ON reservas_estoque (expira_em) WHERE status = 'ATIVA';
@@ -0,0 +1,5 @@
+--liquibase formatted sql
+
+--changeset erp:003-indice-paginacao-pedidos
+-- Paginação por cursor de pedidos: ordena por data_pedido DESC, id DESC
+CREATE INDEX idx_pedidos_data_pedido_id ON pedidos (data_pedido DESC, id DESC);
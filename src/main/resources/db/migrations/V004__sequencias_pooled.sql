@@ -0,0 +1,14 @@
+--liquibase formatted sql
+
+--changeset erp:004-sequencias-pooled
+-- IDs passam a ser gerados pelo Hibernate com sequences em blocos de 50 (otimizador pooled-lo),
+-- o que permite agrupar os INSERTs em lotes JDBC. O incremento precisa ser igual ao
+-- allocationSize das entidades. O próximo valor salta para além do último ID já usado,
+-- e o DEFAULT nextval(...) das colunas continua válido para INSERTs manuais.
+ALTER SEQUENCE clientes_id_seq INCREMENT BY 50;
+ALTER SEQUENCE fornecedores_id_seq INCREMENT BY 50;
+ALTER SEQUENCE produtos_id_seq INCREMENT BY 50;
+ALTER SEQUENCE estoque_id_seq INCREMENT BY 50;
+ALTER SEQUENCE pedidos_id_seq INCREMENT BY 50;
+ALTER SEQUENCE itens_pedido_id_seq INCREMENT BY 50;
+ALTER SEQUENCE reservas_estoque_id_seq INCREMENT BY 50;
@@ -0,0 +1,27 @@
+--liquibase formatted sql
+
+--changeset erp:005-movimentos-estoque
+-- Diário de movimentos de estoque, apenas INSERT. O saldo de um produto é
+-- estoque.quantidade (snapshot) + soma dos movimentos ainda não consolidados.
+-- Entradas são gravadas pendentes (consolidado = false) e levadas ao snapshot pelo
+-- job de consolidação; saídas baixam o snapshot na hora e entram já consolidadas.
+CREATE SEQUENCE movimentos_estoque_id_seq INCREMENT BY 50;
+
+CREATE TABLE movimentos_estoque (
+    id BIGINT PRIMARY KEY DEFAULT nextval('movimentos_estoque_id_seq'),
+    produto_id INTEGER NOT NULL,
+    tipo VARCHAR(10) NOT NULL CHECK (tipo IN ('ENTRADA', 'SAIDA')),
+    -- Variação com sinal: positiva para entrada, negativa para saída
+    quantidade INTEGER NOT NULL,
+    consolidado BOOLEAN NOT NULL DEFAULT FALSE,
+    criado_em TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (produto_id) REFERENCES produtos(id)
+);
+
+ALTER SEQUENCE movimentos_estoque_id_seq OWNED BY movimentos_estoque.id;
+
+-- Histórico por produto e cauda pendente (snapshot + movimentos após ele)
+CREATE INDEX idx_movimentos_estoque_produto_id ON movimentos_estoque (produto_id, id);
+
+-- Usado pela consolidação e pela soma dos pendentes: só as linhas ainda fora do snapshot
+CREATE INDEX idx_movimentos_estoque_pendentes ON movimentos_estoque (produto_id, id) WHERE consolidado = FALSE;
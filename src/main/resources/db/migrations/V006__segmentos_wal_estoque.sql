@@ -0,0 +1,9 @@
+--liquibase formatted sql
+
+--changeset erp:006-segmentos-wal-estoque
+-- Segmentos do WAL do contador de estoque em memória (erp.estoque.contador.modo = memoria)
+-- já aplicados ao estoque. Permite reaplicar o WAL após uma queda sem contar nada duas vezes.
+CREATE TABLE segmentos_wal_estoque (
+    segmento BIGINT PRIMARY KEY,
+    gravado_em TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
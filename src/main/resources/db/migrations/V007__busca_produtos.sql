@@ -0,0 +1,17 @@
+--liquibase formatted sql
+
+--changeset erp:007-busca-produtos
+-- Busca textual de produtos (GET /produtos/busca). O documento de busca é uma coluna gerada:
+-- nome com peso A, descrição com peso B, dicionário português (radicais e stopwords).
+ALTER TABLE produtos ADD COLUMN busca tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('portuguese', coalesce(nome, '')), 'A') ||
+    setweight(to_tsvector('portuguese', coalesce(descricao, '')), 'B')
+) STORED;
+
+CREATE INDEX idx_produtos_busca ON produtos USING GIN (busca);
+
+--changeset erp:007-busca-produtos-trigramas
+-- Trigramas do nome: prefixo (ILIKE 'termo%') e tolerância a erros de digitação (operador %)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_produtos_nome_trgm ON produtos USING GIN (nome gin_trgm_ops);
@@ -0,0 +1,29 @@
+--liquibase formatted sql
+
+--changeset erp:008-marca-consolidacao-estoque
+-- Troca a marcação de consolidado (UPDATE em cada linha do diário) por uma marca d'água no estoque:
+-- o saldo passa a ser estoque.quantidade + soma dos movimentos do produto com id > ultimo_movimento_id,
+-- uma faixa do índice (produto_id, id). O diário volta a ser apenas INSERT.
+ALTER TABLE estoque ADD COLUMN ultimo_movimento_id BIGINT NOT NULL DEFAULT 0;
+
+-- Leva os pendentes ao snapshot e posiciona a marca no último movimento de cada produto
+UPDATE estoque e SET
+    quantidade = e.quantidade + COALESCE((SELECT SUM(m.quantidade) FROM movimentos_estoque m
+                                           WHERE m.produto_id = e.produto_id AND NOT m.consolidado), 0),
+    ultimo_movimento_id = COALESCE((SELECT MAX(m.id) FROM movimentos_estoque m
+                                     WHERE m.produto_id = e.produto_id), 0);
+
+DROP INDEX idx_movimentos_estoque_pendentes;
+
+ALTER TABLE movimentos_estoque DROP COLUMN consolidado;
+
+-- Ids atribuídos pelo banco um a um, no INSERT: um bloco pooled por instância não é crescente entre
+-- instâncias, e um movimento gravado depois da consolidação precisa ficar acima da marca
+ALTER SEQUENCE movimentos_estoque_id_seq INCREMENT BY 1;
+
+--changeset erp:008-marca-consolidacao-estoque-sequencia
+-- Com pooled-lo, cada valor da sequência era o início de um bloco de 50 ids: uma instância ainda rodando pode
+-- gravar ids até last_value + 49. O próximo id de um em um começa acima do maior id usado e do último bloco.
+SELECT setval('movimentos_estoque_id_seq',
+              GREATEST((SELECT COALESCE(MAX(id), 0) FROM movimentos_estoque),
+                       (SELECT last_value FROM movimentos_estoque_id_seq)) + 50);
@@ -0,0 +1,168 @@
+package com.projeto.erp.carga;
+
+import com.projeto.erp.ErpApplication;
+import com.projeto.erp.estoque.Estoque;
+import com.projeto.erp.estoque.EstoqueRepository;
+import com.projeto.erp.fornecedor.Fornecedor;
+import com.projeto.erp.fornecedor.FornecedorRepository;
+import com.projeto.erp.produto.Produto;
+import com.projeto.erp.produto.ProdutoRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Mesma carga contra a aplicação em cada modo de execução, com mais clientes simultâneos que threads do Tomcat:
+ * no modo plataforma o excesso espera na fila de conexões do Tomcat; no modo virtual todos são atendidos
+ * e esperam pela conexão com o banco no limite do pool. Imprime p50/p99 e vazão de cada modo.
+ *
+ * Roda só com ./gradlew testCarga. Com H2 em memória as consultas são rápidas; a diferença entre os modos
+ * cresce com a latência do banco (ver o harness de carga contra PostgreSQL).
+ */
+@Tag("carga")
+class ThreadsVirtuaisCargaTest {
+
+    private static final int CLIENTES_SIMULTANEOS = 400;
+    private static final int REQUISICOES_POR_CLIENTE = 25;
+    private static final int THREADS_TOMCAT = 50;
+    private static final int CONEXOES_POOL = 10;
+    private static final int PRODUTOS = 200;
+
+    @Test
+    @DisplayName("Comparativo de latência e vazão: threads de plataforma x virtual threads")
+    void testComparativoModos() throws Exception {
+        Resultado plataforma = medir(false);
+        Resultado virtuais = medir(true);
+
+        System.out.printf("%n%-12s %10s %10s %12s %8s%n", "modo", "p50 (ms)", "p99 (ms)", "req/s", "erros");
+        for (Resultado resultado : List.of(plataforma, virtuais)) {
+            System.out.printf("%-12s %10.1f %10.1f %12.0f %8d%n", resultado.modo(), resultado.p50Ms(),
+                    resultado.p99Ms(), resultado.vazao(), resultado.erros());
+        }
+
+        assertEquals(0, plataforma.erros());
+        assertEquals(0, virtuais.erros());
+    }
+
+    private Resultado medir(boolean threadsVirtuais) throws Exception {
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(ErpApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + threadsVirtuais,
+                        "server.tomcat.threads.max=" + THREADS_TOMCAT,
+                        "spring.datasource.hikari.maximum-pool-size=" + CONEXOES_POOL,
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN")
+                .run()) {
+            int porta = contexto.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            List<URI> urls = montarUrls(porta, semear(contexto));
+
+            disparar(urls, CLIENTES_SIMULTANEOS / 4, 5);
+            return disparar(urls, CLIENTES_SIMULTANEOS, REQUISICOES_POR_CLIENTE)
+                    .comModo(threadsVirtuais ? "virtual" : "plataforma");
+        }
+    }
+
+    private List<Long> semear(ConfigurableApplicationContext contexto) {
+        Fornecedor fornecedor = contexto.getBean(FornecedorRepository.class).save(Fornecedor.builder()
+                .nome("Fornecedor Carga").email("carga@teste.com").documento("12345678000100").ativo(true).build());
+
+        List<Produto> produtos = new ArrayList<>();
+        for (int i = 0; i < PRODUTOS; i++) {
+            Produto produto = new Produto();
+            produto.setNome("Produto " + i);
+            produto.setCodigoBarras(String.valueOf(7890000000000L + i));
+            produto.setPreco(BigDecimal.TEN);
+            produto.setFornecedor(fornecedor);
+            produtos.add(produto);
+        }
+        produtos = contexto.getBean(ProdutoRepository.class).saveAll(produtos);
+        contexto.getBean(EstoqueRepository.class).saveAll(produtos.stream()
+                .map(produto -> Estoque.builder().produto(produto).quantidade(100).build())
+                .toList());
+        return produtos.stream().map(Produto::getId).toList();
+    }
+
+    /**
+     * Mistura de leituras: detalhe de produto (saldo sempre do banco) e listagens paginadas.
+     */
+    private static List<URI> montarUrls(int porta, List<Long> produtoIds) {
+        String base = "http://localhost:" + porta;
+        List<URI> urls = new ArrayList<>();
+        for (Long id : produtoIds) {
+            urls.add(URI.create(base + "/produtos/" + id));
+        }
+        for (int pagina = 0; pagina < 10; pagina++) {
+            urls.add(URI.create(base + "/produtos?total=false&size=20&page=" + pagina));
+        }
+        return urls;
+    }
+
+    private static Resultado disparar(List<URI> urls, int clientes, int requisicoesPorCliente) throws Exception {
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        long[][] latencias = new long[clientes][requisicoesPorCliente];
+        AtomicInteger erros = new AtomicInteger();
+
+        long inicio = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int cliente = 0; cliente < clientes; cliente++) {
+                int indice = cliente;
+                tarefas.add(executor.submit(() -> {
+                    for (int i = 0; i < requisicoesPorCliente; i++) {
+                        URI url = urls.get((indice * requisicoesPorCliente + i) % urls.size());
+                        long antes = System.nanoTime();
+                        try {
+                            HttpResponse<Void> resposta = http.send(HttpRequest.newBuilder(url).GET().build(),
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (resposta.statusCode() != 200) {
+                                erros.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            erros.incrementAndGet();
+                        }
+                        latencias[indice][i] = System.nanoTime() - antes;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        long[] todas = Arrays.stream(latencias).flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Resultado(null, percentil(todas, 0.50), percentil(todas, 0.99), todas.length / segundos, erros.get());
+    }
+
+    private static double percentil(long[] ordenadas, double percentil) {
+        int indice = (int) Math.ceil(percentil * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, indice)] / 1e6;
+    }
+
+    private record Resultado(String modo, double p50Ms, double p99Ms, double vazao, int erros) {
+
+        Resultado comModo(String modo) {
+            return new Resultado(modo, p50Ms, p99Ms, vazao, erros);
+        }
+    }
+}
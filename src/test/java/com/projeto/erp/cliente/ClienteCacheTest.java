@@ -0,0 +1,110 @@
+package com.projeto.erp.cliente;
+
+import com.projeto.erp.cliente.dto.ClienteRequestDTO;
+import com.projeto.erp.common.config.CacheSegundoNivelConfig;
+import com.projeto.erp.common.exception.BusinessException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class ClienteCacheTest {
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        cliente = clienteRepository.save(novoCliente("joao@email.com", "12345678901"));
+    }
+
+    @Test
+    @DisplayName("Segunda leitura do cliente vem do cache de segundo nível, sem consulta")
+    void testGetCliente_SegundaLeituraSemConsulta() {
+        entityManagerFactory.getCache().evictAll();
+        Statistics estatisticas = estatisticas();
+        estatisticas.clear();
+
+        clienteService.getCliente(cliente.getId());
+        assertEquals("João Silva", clienteService.getCliente(cliente.getId()).getNome());
+
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+        assertEquals(1, estatisticas.getDomainDataRegionStatistics(CacheSegundoNivelConfig.REGIAO_CLIENTES).getHitCount());
+        assertTrue(meterRegistry.get("cache.gets").tag("cache", CacheSegundoNivelConfig.REGIAO_CLIENTES).tag("result", "hit")
+                .functionCounter().count() >= 1);
+    }
+
+    @Test
+    @DisplayName("Alteração e exclusão do cliente atualizam o cache de segundo nível")
+    void testAtualizarEExcluir_AtualizamCache() {
+        clienteService.getCliente(cliente.getId());
+
+        ClienteRequestDTO request = new ClienteRequestDTO();
+        request.setNome("João Renomeado");
+        request.setEmail(cliente.getEmail());
+        request.setDocumento(cliente.getDocumento());
+        request.setTelefone(cliente.getTelefone());
+        request.setAtivo(true);
+        clienteService.atualizarCliente(cliente.getId(), request);
+
+        assertEquals("João Renomeado", clienteService.getCliente(cliente.getId()).getNome());
+
+        clienteService.deleteCliente(cliente.getId());
+
+        BusinessException excluido = assertThrows(BusinessException.class, () -> clienteService.getCliente(cliente.getId()));
+        assertEquals(HttpStatus.NOT_FOUND, excluido.getStatus());
+    }
+
+    @Test
+    @DisplayName("Verificação de e-mail usa o cache de consultas e enxerga cadastros novos")
+    void testExistsByEmail_CacheDeConsultasInvalidadoNaInclusao() {
+        Statistics estatisticas = estatisticas();
+        estatisticas.clear();
+
+        assertFalse(clienteRepository.existsByEmail("maria@email.com"));
+        assertFalse(clienteRepository.existsByEmail("maria@email.com"));
+        assertEquals(1, estatisticas.getQueryCacheHitCount());
+
+        clienteRepository.save(novoCliente("maria@email.com", "98765432100"));
+
+        assertTrue(clienteRepository.existsByEmail("maria@email.com"));
+    }
+
+    private Cliente novoCliente(String email, String documento) {
+        Cliente novo = new Cliente();
+        novo.setNome("João Silva");
+        novo.setEmail(email);
+        novo.setDocumento(documento);
+        novo.setTelefone("11999999999");
+        novo.setAtivo(true);
+        return novo;
+    }
+
+    private Statistics estatisticas() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
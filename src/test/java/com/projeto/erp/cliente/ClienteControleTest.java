@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.projeto.erp.cliente.dto.ClienteRequestDTO;
 import com.projeto.erp.cliente.dto.ClienteResponseDTO;
 import com.projeto.erp.common.dto.PageResponseDTO;
+import com.projeto.erp.common.pagination.ModoTotal;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -73,8 +74,8 @@ class ClienteControleTest {
         ClienteResponseDTO c2 = new ClienteResponseDTO();
         c2.setId(2L);
         c2.setNome("Cliente 2");
-        PageResponseDTO<ClienteResponseDTO> lista = new PageResponseDTO<>(Arrays.asList(c1, c2), 0, 10, 2, 1, true, false);
-        when(clienteService.buscaTodosClientes(0,10)).thenReturn(lista);
+        PageResponseDTO<ClienteResponseDTO> lista = new PageResponseDTO<>(Arrays.asList(c1, c2), 0, 10, 2L, 1, true, false);
+        when(clienteService.buscaTodosClientes(0,10, ModoTotal.EXATO)).thenReturn(lista);
 
         mockMvc.perform(get("/clientes/listar"))
                 .andExpect(status().isOk())
@@ -4,7 +4,10 @@ import com.projeto.erp.cliente.dto.ClienteRequestDTO;
 import com.projeto.erp.cliente.dto.ClienteResponseDTO;
 import com.projeto.erp.cliente.mapper.ClienteMapper;
 import com.projeto.erp.common.dto.PageResponseDTO;
+import com.projeto.erp.common.dto.SugestaoDTO;
 import com.projeto.erp.common.exception.BusinessException;
+import com.projeto.erp.common.pagination.ContagemAproximada;
+import com.projeto.erp.common.pagination.ModoTotal;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -14,6 +17,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpStatus;
 
 import java.util.Arrays;
@@ -31,6 +36,12 @@ class ClienteServiceTest {
     @Mock
     private ClienteMapper clienteMapper;
 
+    @Mock
+    private IndiceNomesClientes indiceNomesClientes;
+
+    @Mock
+    private ContagemAproximada contagemAproximada;
+
     @InjectMocks
     private ClienteService clienteService;
 
@@ -57,6 +68,7 @@ class ClienteServiceTest {
         // Assert
         assertNotNull(result);
         verify(clienteRepository, times(1)).save(cliente);
+        verify(indiceNomesClientes).registrar(savedCliente.getId(), savedCliente.getNome());
     }
 
     @Test
@@ -89,13 +101,53 @@ class ClienteServiceTest {
         when(clienteMapper.toDTO(clientes.getContent().get(1))).thenReturn(responseDTOs.get(1));
 
         // Act
-        PageResponseDTO<ClienteResponseDTO> result = clienteService.buscaTodosClientes(0,10);
+        PageResponseDTO<ClienteResponseDTO> result = clienteService.buscaTodosClientes(0,10, ModoTotal.EXATO);
 
         // Assert
         assertEquals(2, result.getTotalElements());
         verify(clienteRepository, times(1)).findAll(pageable);
     }
 
+    @Test
+    void testListarTodos_SemTotalNaoConta() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 2);
+        Slice<Cliente> clientes = new SliceImpl<>(Arrays.asList(new Cliente(), new Cliente()), pageable, true);
+        when(clienteRepository.findAllBy(pageable)).thenReturn(clientes);
+        when(clienteMapper.toDTO(any(Cliente.class))).thenReturn(new ClienteResponseDTO());
+
+        // Act
+        PageResponseDTO<ClienteResponseDTO> result = clienteService.buscaTodosClientes(0, 2, ModoTotal.NENHUM);
+
+        // Assert
+        assertEquals(2, result.getContent().size());
+        assertNull(result.getTotalElements());
+        assertNull(result.getTotalPages());
+        assertFalse(result.isLast());
+        verify(clienteRepository, never()).findAll(any(Pageable.class));
+        verify(clienteRepository, never()).count();
+        verifyNoInteractions(contagemAproximada);
+    }
+
+    @Test
+    void testListarTodos_TotalAproximado() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 2);
+        Slice<Cliente> clientes = new SliceImpl<>(Arrays.asList(new Cliente(), new Cliente()), pageable, true);
+        when(clienteRepository.findAllBy(pageable)).thenReturn(clientes);
+        when(clienteMapper.toDTO(any(Cliente.class))).thenReturn(new ClienteResponseDTO());
+        when(contagemAproximada.contar(eq("clientes"), any())).thenReturn(9L);
+
+        // Act
+        PageResponseDTO<ClienteResponseDTO> result = clienteService.buscaTodosClientes(0, 2, ModoTotal.APROXIMADO);
+
+        // Assert
+        assertEquals(9L, result.getTotalElements());
+        assertEquals(5, result.getTotalPages());
+        assertTrue(result.isTotalAproximado());
+        verify(clienteRepository, never()).findAll(any(Pageable.class));
+    }
+
     @Test
     void testAtualizarCliente_QuandoClienteExiste() {
         // Arrange
@@ -175,6 +227,7 @@ class ClienteServiceTest {
         // Assert
         verify(clienteRepository).findById(clienteId);
         verify(clienteRepository).delete(cliente);
+        verify(indiceNomesClientes).remover(clienteId);
     }
 
     @Test
@@ -248,7 +301,7 @@ class ClienteServiceTest {
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            clienteService.buscaTodosClientes(0,10);
+            clienteService.buscaTodosClientes(0,10, ModoTotal.EXATO);
         });
 
         assertEquals("Nenhum cliente encontrado", exception.getMessage());
@@ -269,4 +322,18 @@ class ClienteServiceTest {
         assertEquals("Cliente não encontrado com o ID: " + clienteId, exception.getMessage());
         verify(clienteRepository).findById(clienteId);
     }
+
+    @Test
+    void testSugerirPorNome_ServidoPeloIndice() {
+        // Arrange
+        List<SugestaoDTO> sugestoes = List.of(new SugestaoDTO(1L, "João Silva"));
+        when(indiceNomesClientes.sugerir("jo", 10)).thenReturn(sugestoes);
+
+        // Act
+        List<SugestaoDTO> result = clienteService.sugerirPorNome("jo", 10);
+
+        // Assert
+        assertEquals(sugestoes, result);
+        verifyNoInteractions(clienteRepository);
+    }
 }
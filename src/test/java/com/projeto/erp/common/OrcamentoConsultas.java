@@ -0,0 +1,38 @@
+package com.projeto.erp.common;
+
+import com.projeto.erp.common.datasource.ContextoConsultas;
+import com.projeto.erp.common.datasource.EstatisticasConsultas;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Mede as consultas de um trecho de código com a mesma contagem das requisições (MonitorConsultasFilter):
+ * idas ao banco, lotes JDBC contando como uma, e linhas lidas ou alteradas.
+ */
+public final class OrcamentoConsultas {
+
+    private static final int MAXIMO_CAPTURADAS = 200;
+
+    private OrcamentoConsultas() {
+    }
+
+    public static EstatisticasConsultas medir(Runnable operacao) {
+        EstatisticasConsultas estatisticas = ContextoConsultas.iniciar(MAXIMO_CAPTURADAS);
+        try {
+            operacao.run();
+        } finally {
+            ContextoConsultas.encerrar();
+        }
+        return estatisticas;
+    }
+
+    /**
+     * Executa a operação e falha, listando o SQL executado, se ela passar de {@code maximo} consultas.
+     */
+    public static EstatisticasConsultas assertMaximo(int maximo, Runnable operacao) {
+        EstatisticasConsultas estatisticas = medir(operacao);
+        assertTrue(estatisticas.getConsultas() <= maximo, () -> "Orçamento de " + maximo + " consultas excedido: "
+                + estatisticas.getConsultas() + estatisticas.descreverCapturadas());
+        return estatisticas;
+    }
+}
@@ -0,0 +1,40 @@
+package com.projeto.erp.common.config;
+
+import com.projeto.erp.common.datasource.LimiteConexoesDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.threads.virtual.enabled=true")
+@ActiveProfiles("test")
+class ThreadsVirtuaisConfigTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    @DisplayName("Com virtual threads o pool ganha o limite de conexões por baixo do monitor de consultas")
+    void testDataSource_LimiteConexoesPorBaixoDoMonitor() throws SQLException {
+        // Sem réplica o bean "dataSource" é o próprio pool: os dois post-processors embrulham o mesmo bean
+        assertInstanceOf(ProxyDataSource.class, dataSource);
+        assertTrue(dataSource.isWrapperFor(LimiteConexoesDataSource.class));
+
+        LimiteConexoesDataSource limite = dataSource.unwrap(LimiteConexoesDataSource.class);
+        assertInstanceOf(HikariDataSource.class, limite.getTargetDataSource());
+
+        try (Connection conexao = dataSource.getConnection()) {
+            assertTrue(conexao.isValid(1));
+        }
+        assertEquals(0, limite.getAguardando());
+    }
+}
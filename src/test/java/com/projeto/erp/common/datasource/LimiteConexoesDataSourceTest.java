@@ -0,0 +1,79 @@
+package com.projeto.erp.common.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LimiteConexoesDataSourceTest {
+
+    @Mock
+    private DataSource alvo;
+
+    @Mock
+    private Connection conexao;
+
+    private LimiteConexoesDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        MockitoAnnotations.openMocks(this);
+        when(alvo.getConnection()).thenReturn(conexao);
+        dataSource = new LimiteConexoesDataSource(alvo, 1, Duration.ofMillis(50));
+    }
+
+    @Test
+    @DisplayName("Acima do limite, espera e falha como o timeout do pool")
+    void testGetConnection_AcimaDoLimite() throws SQLException {
+        dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        verify(alvo, times(1)).getConnection();
+    }
+
+    @Test
+    @DisplayName("Fechar a conexão devolve a permissão uma única vez")
+    void testClose_DevolvePermissao() throws SQLException {
+        Connection primeira = dataSource.getConnection();
+        primeira.close();
+        primeira.close();
+
+        Connection segunda = dataSource.getConnection();
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+
+        verify(conexao, times(2)).close();
+        assertSame(conexao, ((ConnectionProxy) segunda).getTargetConnection());
+    }
+
+    @Test
+    @DisplayName("Falha do pool devolve a permissão")
+    void testGetConnection_FalhaDoPoolDevolvePermissao() throws SQLException {
+        when(alvo.getConnection()).thenThrow(new SQLException("pool indisponível")).thenReturn(conexao);
+
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+        assertNotNull(dataSource.getConnection());
+    }
+
+    @Test
+    @DisplayName("Chamadas comuns chegam à conexão do pool")
+    void testConexao_DelegaChamadas() throws SQLException {
+        when(conexao.getAutoCommit()).thenReturn(false);
+
+        Connection limitada = dataSource.getConnection();
+
+        assertFalse(limitada.getAutoCommit());
+        assertEquals(limitada, limitada);
+        assertEquals(0, dataSource.getAguardando());
+    }
+}
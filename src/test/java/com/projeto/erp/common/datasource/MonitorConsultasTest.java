@@ -0,0 +1,82 @@
+package com.projeto.erp.common.datasource;
+
+import com.projeto.erp.estoque.Estoque;
+import com.projeto.erp.estoque.EstoqueRepository;
+import com.projeto.erp.fornecedor.Fornecedor;
+import com.projeto.erp.fornecedor.FornecedorRepository;
+import com.projeto.erp.produto.Produto;
+import com.projeto.erp.produto.ProdutoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "erp.sql.monitoramento.cabecalhos=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class MonitorConsultasTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private FornecedorRepository fornecedorRepository;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private EstoqueRepository estoqueRepository;
+
+    @BeforeEach
+    void setUp() {
+        Fornecedor fornecedor = fornecedorRepository.save(Fornecedor.builder()
+                .nome("Fornecedor Teste").email("fornecedor@teste.com").documento("12345678000100").ativo(true).build());
+
+        for (int i = 1; i <= 3; i++) {
+            Produto produto = new Produto();
+            produto.setNome("Produto " + i);
+            produto.setCodigoBarras("78900000000" + String.format("%02d", i));
+            produto.setPreco(BigDecimal.TEN);
+            produto.setFornecedor(fornecedor);
+            produto = produtoRepository.save(produto);
+            estoqueRepository.save(Estoque.builder().produto(produto).quantidade(i).build());
+        }
+    }
+
+    @Test
+    @DisplayName("Resposta traz a contagem de consultas da requisição em X-Query-Count e Server-Timing")
+    void testListagem_CabecalhosDeConsultas() throws Exception {
+        MvcResult resultado = mockMvc.perform(get("/produtos").param("page", "0").param("size", "2"))
+                .andExpect(status().isOk())
+                // Página + count (com a página cheia o Spring Data não dispensa o count)
+                .andExpect(header().string(CabecalhosConsultasAdvice.CABECALHO_CONSULTAS, "2"))
+                .andReturn();
+
+        String tempos = resultado.getResponse().getHeader(CabecalhosConsultasAdvice.CABECALHO_TEMPOS);
+        assertNotNull(tempos);
+        assertTrue(tempos.matches("db;dur=\\d+\\.\\d;desc=\"2 consultas, 3 linhas\""), tempos);
+    }
+
+    @Test
+    @DisplayName("O contexto é encerrado com a requisição; consultas depois dela não são contadas")
+    void testFimDaRequisicao_EncerraContexto() throws Exception {
+        mockMvc.perform(get("/produtos")).andExpect(status().isOk());
+
+        assertNull(ContextoConsultas.atual());
+    }
+}
@@ -0,0 +1,189 @@
+package com.projeto.erp.common.datasource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projeto.erp.cliente.Cliente;
+import com.projeto.erp.cliente.ClienteRepository;
+import com.projeto.erp.cliente.ClienteService;
+import com.projeto.erp.common.exception.BusinessException;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Primário e réplica são dois bancos H2 independentes; a "replicação" é feita sob demanda
+ * copiando o primário com SCRIPT, de modo que o que ainda não foi replicado só existe no primário.
+ */
+@SpringBootTest(properties = {
+        "erp.datasource.replica.habilitada=true",
+        "erp.datasource.replica.pool.jdbc-url=" + RoteamentoDataSourceTest.URL_REPLICA,
+        "erp.datasource.replica.pool.username=sa",
+        "erp.datasource.replica.pool.password=",
+        "erp.datasource.replica.consulta-atraso=SELECT 0",
+        // Sem verificação automática: o teste chama verificar() quando a réplica está pronta
+        "erp.datasource.replica.verificacao-atraso=PT1H"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class RoteamentoDataSourceTest {
+
+    static final String URL_REPLICA = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1;MODE=PostgreSQL";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("dataSourcePrimario")
+    private DataSource dataSourcePrimario;
+
+    @Autowired
+    private MonitorAtrasoReplica monitorAtrasoReplica;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        replicar();
+        monitorAtrasoReplica.verificar();
+    }
+
+    @Test
+    @DisplayName("Transações readOnly leem da réplica; o que não foi replicado não aparece")
+    void testLeituraSomenteLeitura_VaiParaReplica() {
+        assertTrue(monitorAtrasoReplica.isReplicaDisponivel());
+        Long id = clienteRepository.save(novoCliente()).getId();
+        limparCacheSegundoNivel();
+
+        assertThrows(BusinessException.class, () -> clienteService.getCliente(id));
+
+        replicar();
+
+        assertEquals("João Silva", clienteService.getCliente(id).getNome());
+    }
+
+    @Test
+    @DisplayName("Depois de escrever, o cliente lê do primário enquanto o cookie estiver na janela")
+    void testEscrita_AderePrimarioPeloCookie() throws Exception {
+        String json = """
+                {"nome": "Maria Souza", "email": "maria@email.com", "documento": "98765432100",
+                 "telefone": "11988887777", "ativo": true}
+                """;
+
+        MvcResult criacao = mockMvc.perform(post("/clientes/criar")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().exists(AderenciaPrimarioFilter.COOKIE_ESCRITA))
+                .andExpect(cookie().httpOnly(AderenciaPrimarioFilter.COOKIE_ESCRITA, true))
+                .andReturn();
+        long id = objectMapper.readTree(criacao.getResponse().getContentAsString()).get("id").asLong();
+        Cookie escrita = criacao.getResponse().getCookie(AderenciaPrimarioFilter.COOKIE_ESCRITA);
+        assertNotNull(escrita);
+        limparCacheSegundoNivel();
+
+        mockMvc.perform(get("/clientes/{id}", id).cookie(escrita))
+                .andExpect(status().isOk());
+
+        // Sem o cookie a leitura vai para a réplica, que ainda não recebeu o cliente
+        mockMvc.perform(get("/clientes/{id}", id))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Leituras não gravam o cookie de escrita")
+    void testLeitura_NaoMarcaEscrita() throws Exception {
+        mockMvc.perform(get("/clientes/listar"))
+                .andExpect(status().isOk())
+                .andExpect(cookie().doesNotExist(AderenciaPrimarioFilter.COOKIE_ESCRITA));
+    }
+
+    @Test
+    @DisplayName("Réplica acima do atraso máximo: leituras voltam para o primário")
+    void testReplicaAtrasada_LeituraVaiParaPrimario() {
+        Long id = clienteRepository.save(novoCliente()).getId();
+
+        ReflectionTestUtils.setField(monitorAtrasoReplica, "consulta", "SELECT 60");
+        monitorAtrasoReplica.verificar();
+
+        assertFalse(monitorAtrasoReplica.isReplicaDisponivel());
+        assertEquals("João Silva", clienteService.getCliente(id).getNome());
+    }
+
+    @Test
+    @DisplayName("Réplica inacessível: leituras voltam para o primário")
+    void testReplicaComFalha_LeituraVaiParaPrimario() {
+        Long id = clienteRepository.save(novoCliente()).getId();
+
+        ReflectionTestUtils.setField(monitorAtrasoReplica, "consulta", "SELECT * FROM tabela_inexistente");
+        monitorAtrasoReplica.verificar();
+
+        assertFalse(monitorAtrasoReplica.isReplicaDisponivel());
+        assertEquals("João Silva", clienteService.getCliente(id).getNome());
+    }
+
+    /**
+     * Recria a réplica com o esquema e os dados atuais do primário.
+     */
+    private void replicar() {
+        List<String> script = new JdbcTemplate(dataSourcePrimario).queryForList("SCRIPT", String.class);
+        JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(URL_REPLICA, "sa", ""));
+        replica.execute("DROP ALL OBJECTS");
+        script.stream()
+                .filter(comando -> !comando.startsWith("--"))
+                .forEach(replica::execute);
+    }
+
+    /**
+     * O cliente gravado entra no cache de segundo nível e seria lido dali, sem consultar banco algum.
+     */
+    private void limparCacheSegundoNivel() {
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    private Cliente novoCliente() {
+        Cliente cliente = new Cliente();
+        cliente.setNome("João Silva");
+        cliente.setEmail("joao@email.com");
+        cliente.setDocumento("12345678901");
+        cliente.setTelefone("11999999999");
+        cliente.setAtivo(true);
+        return cliente;
+    }
+}
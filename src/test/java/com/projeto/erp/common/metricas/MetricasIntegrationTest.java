@@ -0,0 +1,150 @@
+package com.projeto.erp.common.metricas;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projeto.erp.cliente.Cliente;
+import com.projeto.erp.cliente.ClienteRepository;
+import com.projeto.erp.estoque.Estoque;
+import com.projeto.erp.estoque.EstoqueRepository;
+import com.projeto.erp.estoque.dto.EstoqueRequestDTO;
+import com.projeto.erp.fornecedor.Fornecedor;
+import com.projeto.erp.fornecedor.FornecedorRepository;
+import com.projeto.erp.pedido.dto.ItemPedidoRequestDTO;
+import com.projeto.erp.pedido.dto.PedidoRequestDTO;
+import com.projeto.erp.produto.Produto;
+import com.projeto.erp.produto.ProdutoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class MetricasIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private FornecedorRepository fornecedorRepository;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private EstoqueRepository estoqueRepository;
+
+    private Cliente cliente;
+    private Produto produto;
+
+    @BeforeEach
+    void setUp() {
+        Fornecedor fornecedor = fornecedorRepository.save(Fornecedor.builder()
+                .nome("Fornecedor Teste").email("fornecedor@teste.com").documento("12345678000100").ativo(true).build());
+
+        cliente = new Cliente();
+        cliente.setNome("João Silva");
+        cliente.setEmail("joao@email.com");
+        cliente.setDocumento("12345678901");
+        cliente.setTelefone("11999999999");
+        cliente.setAtivo(true);
+        cliente = clienteRepository.save(cliente);
+
+        produto = new Produto();
+        produto.setNome("Produto A");
+        produto.setCodigoBarras("1234567890123");
+        produto.setPreco(BigDecimal.TEN);
+        produto.setFornecedor(fornecedor);
+        produto = produtoRepository.save(produto);
+        estoqueRepository.save(Estoque.builder().produto(produto).quantidade(5).build());
+    }
+
+    @Test
+    @DisplayName("Criar pedido registra o contador de negócio e os timers de endpoint, serviço e repositório")
+    void testCriarPedido_RegistraContadorETimers() throws Exception {
+        criarPedido();
+
+        assertEquals(1, meterRegistry.get(MetricasNegocio.PEDIDOS_CRIADOS).tag("origem", "unitario").counter().count());
+        assertEquals(1, meterRegistry.get("erp.servico").tag("method", "criarPedido").timer().count());
+        assertEquals(1, meterRegistry.get("http.server.requests")
+                .tag("uri", "/pedidos/criar").tag("outcome", "SUCCESS").timer().count());
+        assertTrue(meterRegistry.get("spring.data.repository.invocations")
+                .tag("repository", "PedidoRepository").tag("method", "save").timer().count() >= 1);
+    }
+
+    @Test
+    @DisplayName("Saída sem saldo conta uma rejeição de estoque e sai como CLIENT_ERROR no timer do endpoint")
+    void testSaidaSemSaldo_ContaRejeicao() throws Exception {
+        EstoqueRequestDTO saida = new EstoqueRequestDTO();
+        saida.setIdProduto(produto.getId());
+        saida.setQuantidade(10);
+
+        mockMvc.perform(post("/estoque/saida")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(saida)))
+                .andExpect(status().isUnprocessableEntity());
+
+        assertEquals(1, meterRegistry.get(MetricasNegocio.REJEICOES_ESTOQUE).tag("operacao", "saida").counter().count());
+        assertEquals(1, meterRegistry.get("http.server.requests")
+                .tag("uri", "/estoque/saida").tag("outcome", "CLIENT_ERROR").timer().count());
+    }
+
+    @Test
+    @DisplayName("/actuator/prometheus expõe histogramas, pool de conexões e contadores de negócio")
+    void testPrometheus_ExpoeMetricas() throws Exception {
+        criarPedido();
+
+        String coleta = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(coleta.contains("http_server_requests_seconds_bucket"));
+        assertTrue(coleta.contains("erp_servico_seconds_bucket"));
+        assertTrue(coleta.contains("spring_data_repository_invocations_seconds_bucket"));
+        assertTrue(coleta.contains("hikaricp_connections_active"));
+        assertTrue(coleta.contains("erp_pedidos_criados_total"));
+    }
+
+    private void criarPedido() throws Exception {
+        ItemPedidoRequestDTO item = new ItemPedidoRequestDTO();
+        item.setProdutoId(produto.getId());
+        item.setQuantidade(2);
+        item.setPrecoUnitario(BigDecimal.TEN);
+
+        PedidoRequestDTO pedido = new PedidoRequestDTO();
+        pedido.setClienteId(cliente.getId());
+        pedido.setItens(List.of(item));
+
+        mockMvc.perform(post("/pedidos/criar")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(pedido)))
+                .andExpect(status().isCreated());
+    }
+}
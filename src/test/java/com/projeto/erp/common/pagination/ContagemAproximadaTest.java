@@ -0,0 +1,80 @@
+package com.projeto.erp.common.pagination;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContagemAproximadaTest {
+
+    @Test
+    void testContar_PrimeiroAcessoNaoEsperaPelaContagem() {
+        List<Runnable> emSegundoPlano = new ArrayList<>();
+        ContagemAproximada contagemAproximada = new ContagemAproximada(Duration.ofMinutes(5), emSegundoPlano::add);
+        AtomicInteger execucoes = new AtomicInteger();
+
+        Long primeira = contagemAproximada.contar("clientes", () -> {
+            execucoes.incrementAndGet();
+            return 42L;
+        });
+
+        // Sem total e sem count na requisição; a contagem ficou agendada
+        assertNull(primeira);
+        assertEquals(0, execucoes.get());
+
+        emSegundoPlano.forEach(Runnable::run);
+        assertEquals(42L, contagemAproximada.contar("clientes", () -> 99L));
+        assertEquals(1, execucoes.get());
+    }
+
+    @Test
+    void testContar_ReaproveitaContagemDentroDoIntervalo() {
+        ContagemAproximada contagemAproximada = new ContagemAproximada(Duration.ofMinutes(5), Runnable::run);
+        AtomicInteger execucoes = new AtomicInteger();
+
+        contagemAproximada.contar("clientes", () -> {
+            execucoes.incrementAndGet();
+            return 42L;
+        });
+        Long segunda = contagemAproximada.contar("clientes", () -> {
+            execucoes.incrementAndGet();
+            return 99L;
+        });
+        Long terceira = contagemAproximada.contar("clientes", () -> 99L);
+
+        assertEquals(42L, segunda);
+        assertEquals(42L, terceira);
+        assertEquals(1, execucoes.get());
+    }
+
+    @Test
+    void testContar_ChavesIndependentes() {
+        ContagemAproximada contagemAproximada = new ContagemAproximada(Duration.ofMinutes(5), Runnable::run);
+
+        contagemAproximada.contar("clientes", () -> 3L);
+        contagemAproximada.contar("pedidos", () -> 7L);
+
+        assertEquals(3L, contagemAproximada.contar("clientes", () -> 0L));
+        assertEquals(7L, contagemAproximada.contar("pedidos", () -> 0L));
+    }
+
+    @Test
+    void testContar_ExecutorCheioRespondeSemTotal() {
+        ContagemAproximada contagemAproximada = new ContagemAproximada(Duration.ofMinutes(5), tarefa -> {
+            throw new RejectedExecutionException("fila cheia");
+        });
+        AtomicInteger execucoes = new AtomicInteger();
+
+        // A contagem nunca roda na thread da requisição, nem quando o executor recusa
+        assertNull(contagemAproximada.contar("clientes", () -> {
+            execucoes.incrementAndGet();
+            return 42L;
+        }));
+        assertEquals(0, execucoes.get());
+    }
+}
@@ -0,0 +1,79 @@
+package com.projeto.erp.common.pagination;
+
+import com.projeto.erp.common.dto.CursorPageResponseDTO;
+import com.projeto.erp.common.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaginacaoCursorTest {
+
+    @Test
+    void testCursor_CodificaEDecodificaDataHoraEId() {
+        LocalDateTime dataPedido = LocalDateTime.of(2024, 3, 15, 10, 30, 45, 123456000);
+
+        String codificado = Cursor.porDataHora(dataPedido, 42L).codificar();
+        Cursor decodificado = Cursor.decodificar(codificado);
+
+        assertEquals(dataPedido, decodificado.chaveComoDataHora());
+        assertEquals(42L, decodificado.id());
+    }
+
+    @Test
+    void testCursor_Invalido() {
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> Cursor.decodificar("%%%"));
+
+        assertEquals("Cursor inválido", exception.getMessage());
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+    }
+
+    @Test
+    void testCursor_ChaveNaoEhDataHora() {
+        Cursor cursor = Cursor.decodificar(Cursor.porId(7L).codificar());
+
+        assertEquals(7L, cursor.id());
+        assertThrows(BusinessException.class, cursor::chaveComoDataHora);
+    }
+
+    @Test
+    void testLimite_BuscaUmRegistroAlemDaPagina() {
+        Pageable limite = PaginacaoCursor.limite(10);
+
+        assertEquals(0, limite.getPageNumber());
+        assertEquals(11, limite.getPageSize());
+    }
+
+    @Test
+    void testLimite_TamanhoInvalido() {
+        assertThrows(BusinessException.class, () -> PaginacaoCursor.limite(0));
+        assertThrows(BusinessException.class, () -> PaginacaoCursor.limite(PaginacaoCursor.TAMANHO_MAXIMO + 1));
+    }
+
+    @Test
+    void testMontarPagina_ComProximaPagina() {
+        CursorPageResponseDTO<String> pagina = PaginacaoCursor.montarPagina(
+                List.of(1L, 2L, 3L), 2, String::valueOf, Cursor::porId, null);
+
+        assertEquals(List.of("1", "2"), pagina.getContent());
+        assertTrue(pagina.isHasNext());
+        assertEquals(2L, Cursor.decodificar(pagina.getNextCursor()).id());
+        assertNull(pagina.getTotalElements());
+    }
+
+    @Test
+    void testMontarPagina_UltimaPagina() {
+        CursorPageResponseDTO<String> pagina = PaginacaoCursor.montarPagina(
+                List.of(1L, 2L), 2, String::valueOf, Cursor::porId, 2L);
+
+        assertEquals(2, pagina.getContent().size());
+        assertFalse(pagina.isHasNext());
+        assertNull(pagina.getNextCursor());
+        assertEquals(2L, pagina.getTotalElements());
+    }
+}
@@ -0,0 +1,79 @@
+package com.projeto.erp.common.pagination;
+
+import com.projeto.erp.common.dto.PageResponseDTO;
+import com.projeto.erp.common.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaginacaoOffsetTest {
+
+    @Test
+    void testModoTotal_AceitaValoresDoParametro() {
+        assertEquals(ModoTotal.EXATO, ModoTotal.de("true"));
+        assertEquals(ModoTotal.NENHUM, ModoTotal.de("FALSE"));
+        assertEquals(ModoTotal.APROXIMADO, ModoTotal.de("aproximado"));
+    }
+
+    @Test
+    void testModoTotal_Invalido() {
+        BusinessException exception = assertThrows(BusinessException.class, () -> ModoTotal.de("sim"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+    }
+
+    @Test
+    void testMontarPagina_PageTemTotalExato() {
+        PageImpl<Integer> pagina = new PageImpl<>(List.of(1, 2), PageRequest.of(0, 2), 5);
+
+        PageResponseDTO<Integer> resposta = PaginacaoOffset.montarPagina(pagina, Function.identity(), null);
+
+        assertEquals(5L, resposta.getTotalElements());
+        assertEquals(3, resposta.getTotalPages());
+        assertFalse(resposta.isTotalAproximado());
+        assertFalse(resposta.isLast());
+    }
+
+    @Test
+    void testMontarPagina_SliceSemTotal() {
+        SliceImpl<Integer> fatia = new SliceImpl<>(List.of(1, 2), PageRequest.of(0, 2), true);
+
+        PageResponseDTO<String> resposta = PaginacaoOffset.montarPagina(fatia, String::valueOf, null);
+
+        assertEquals(List.of("1", "2"), resposta.getContent());
+        assertNull(resposta.getTotalElements());
+        assertNull(resposta.getTotalPages());
+        assertTrue(resposta.isFirst());
+        assertFalse(resposta.isLast());
+    }
+
+    @Test
+    void testMontarPagina_SliceComTotalAproximado() {
+        SliceImpl<Integer> fatia = new SliceImpl<>(List.of(1, 2), PageRequest.of(1, 2), true);
+
+        PageResponseDTO<Integer> resposta = PaginacaoOffset.montarPagina(fatia, Function.identity(), 101L);
+
+        assertEquals(101L, resposta.getTotalElements());
+        assertEquals(51, resposta.getTotalPages());
+        assertTrue(resposta.isTotalAproximado());
+    }
+
+    @Test
+    void testMontarPagina_UltimaPaginaCorrigeTotalAproximado() {
+        // Na última página o total é conhecido: páginas anteriores + registros desta
+        SliceImpl<Integer> fatia = new SliceImpl<>(List.of(1), PageRequest.of(2, 2), false);
+
+        PageResponseDTO<Integer> resposta = PaginacaoOffset.montarPagina(fatia, Function.identity(), 101L);
+
+        assertEquals(5L, resposta.getTotalElements());
+        assertEquals(3, resposta.getTotalPages());
+        assertTrue(resposta.isLast());
+    }
+}
@@ -0,0 +1,127 @@
+package com.projeto.erp.common.sugestao;
+
+import com.projeto.erp.common.dto.SugestaoDTO;
+import com.projeto.erp.common.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndicePrefixoTest {
+
+    @Test
+    void testSugerir_SemAcentosEPorInicioDePalavra() {
+        IndicePrefixo indice = new IndicePrefixo();
+        indice.carregar(Stream.of(
+                new SugestaoDTO(1L, "João da Silva"),
+                new SugestaoDTO(2L, "Joana Souza"),
+                new SugestaoDTO(3L, "Silvana Joaquina"),
+                new SugestaoDTO(4L, "Mário Rossi")));
+
+        assertEquals(List.of(1L, 2L), ids(indice.sugerir("JOA", 10)));
+        assertEquals(List.of(1L, 3L), ids(indice.sugerir("silv", 10)));
+        assertEquals(List.of(4L), ids(indice.sugerir("mario", 10)));
+        assertEquals(List.of(3L), ids(indice.sugerir("  joaq ", 10)));
+        assertTrue(indice.sugerir("ilva", 10).isEmpty());
+        assertTrue(indice.sugerir("  ", 10).isEmpty());
+    }
+
+    @Test
+    void testSugerir_RespeitaLimiteSemRepetirRegistro() {
+        IndicePrefixo indice = new IndicePrefixo();
+        indice.registrar(1L, "Ana Ana Ana");
+        indice.registrar(2L, "Ana Maria");
+        indice.registrar(3L, "Anabela");
+
+        assertEquals(List.of(1L, 2L), ids(indice.sugerir("ana", 2)));
+        assertEquals(3, indice.sugerir("ana", 10).size());
+        assertThrows(BusinessException.class, () -> indice.sugerir("ana", IndicePrefixo.LIMITE_MAXIMO + 1));
+    }
+
+    @Test
+    void testRegistrarERemover_AtualizamChaves() {
+        IndicePrefixo indice = new IndicePrefixo();
+        indice.registrar(1L, "Fornecedor Antigo");
+
+        indice.registrar(1L, "Distribuidora Nova");
+        assertTrue(indice.sugerir("antigo", 10).isEmpty());
+        assertEquals("Distribuidora Nova", indice.sugerir("nova", 10).get(0).getNome());
+
+        indice.remover(1L);
+        assertTrue(indice.sugerir("dist", 10).isEmpty());
+        assertEquals(0, indice.tamanho());
+    }
+
+    @Test
+    void testCarregar_NaoSobrescreveRegistroAtualizadoDuranteACarga() {
+        IndicePrefixo indice = new IndicePrefixo();
+        indice.registrar(1L, "Nome Novo");
+
+        indice.carregar(Stream.of(new SugestaoDTO(1L, "Nome Antigo")));
+
+        assertTrue(indice.sugerir("antigo", 10).isEmpty());
+        assertEquals(1, indice.sugerir("novo", 10).size());
+    }
+
+    @Test
+    void testCarregar_NaoRessuscitaRegistroRemovidoDuranteACarga() {
+        IndicePrefixo indice = new IndicePrefixo();
+
+        // Foto lida antes da exclusão do registro 2, que acontece enquanto o registro 1 é carregado
+        indice.carregar(Stream.of(new SugestaoDTO(1L, "Ana Lima"), new SugestaoDTO(2L, "Ana Costa"))
+                .peek(registro -> {
+                    if (registro.getId() == 1L) {
+                        indice.remover(2L);
+                    }
+                }));
+
+        assertEquals(List.of(1L), ids(indice.sugerir("ana", 10)));
+        assertEquals(1, indice.tamanho());
+
+        // Terminada a carga, registros voltam a entrar normalmente
+        indice.registrar(2L, "Ana Costa");
+        assertEquals(2, indice.tamanho());
+    }
+
+    @Test
+    void testCarregar_NaoVoltaNomeAntigoRenomeadoDuranteACarga() {
+        IndicePrefixo indice = new IndicePrefixo();
+
+        indice.carregar(Stream.of(new SugestaoDTO(1L, "Ana Lima"), new SugestaoDTO(2L, "Nome Antigo"))
+                .peek(registro -> {
+                    if (registro.getId() == 1L) {
+                        indice.registrar(2L, "Nome Novo");
+                    }
+                }));
+
+        assertTrue(indice.sugerir("antigo", 10).isEmpty());
+        assertEquals("Nome Novo", indice.sugerir("novo", 10).get(0).getNome());
+    }
+
+    @Test
+    void testSugerir_RapidoComMuitosNomes() {
+        IndicePrefixo indice = new IndicePrefixo();
+        String[] nomes = {"Silva", "Souza", "Oliveira", "Santos", "Pereira", "Lima", "Costa", "Ferreira"};
+        indice.carregar(LongStream.range(0, 200_000)
+                .mapToObj(i -> new SugestaoDTO(i, nomes[(int) (i % 8)] + " " + nomes[(int) (i / 8 % 8)] + " " + i)));
+
+        // Aquecimento
+        for (int i = 0; i < 1_000; i++) {
+            indice.sugerir("sou", 10);
+        }
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(10, indice.sugerir(nomes[i % 8].substring(0, 3), 10).size());
+        }
+        long mediaMicros = (System.nanoTime() - inicio) / 1_000 / 1_000;
+        assertTrue(mediaMicros < 1_000, "Tempo médio por consulta: " + mediaMicros + " µs");
+    }
+
+    private List<Long> ids(List<SugestaoDTO> sugestoes) {
+        return sugestoes.stream().map(SugestaoDTO::getId).toList();
+    }
+}
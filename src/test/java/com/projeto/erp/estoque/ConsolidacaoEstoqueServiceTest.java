@@ -0,0 +1,85 @@
+package com.projeto.erp.estoque;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ConsolidacaoEstoqueServiceTest {
+
+    @Mock
+    private MovimentoEstoqueRepository movimentoEstoqueRepository;
+
+    @Mock
+    private EstoqueRepository estoqueRepository;
+
+    @InjectMocks
+    private ConsolidacaoEstoqueService consolidacaoEstoqueService;
+
+    AutoCloseable mocksCloseable;
+
+    @BeforeEach
+    void setUp() {
+        mocksCloseable = MockitoAnnotations.openMocks(this);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (mocksCloseable != null) {
+            mocksCloseable.close();
+        }
+    }
+
+    @Test
+    void testConsolidarApos_TravaEConsolidaOsProdutosDoLote() {
+        when(movimentoEstoqueRepository.findByIdGreaterThanOrderByIdAsc(eq(40L), any(Pageable.class))).thenReturn(List.of(
+                movimento(41L, 5L, 10),
+                movimento(42L, 2L, 3),
+                movimento(45L, 5L, -4)));
+
+        assertEquals(45L, consolidacaoEstoqueService.consolidarApos(40L, 100));
+
+        InOrder ordem = inOrder(estoqueRepository);
+        ordem.verify(estoqueRepository).travarPorProdutoIds(argThat(ids -> List.copyOf(ids).equals(List.of(2L, 5L))));
+        ordem.verify(estoqueRepository).consolidar(argThat(ids -> List.copyOf(ids).equals(List.of(2L, 5L))));
+    }
+
+    @Test
+    void testConsolidarApos_SemMovimentosMantemCursor() {
+        when(movimentoEstoqueRepository.findByIdGreaterThanOrderByIdAsc(eq(40L), any(Pageable.class))).thenReturn(List.of());
+
+        assertEquals(40L, consolidacaoEstoqueService.consolidarApos(40L, 100));
+        verify(estoqueRepository, never()).travarPorProdutoIds(anyCollection());
+        verify(estoqueRepository, never()).consolidar(anyCollection());
+    }
+
+    @Test
+    void testInicioCauda() {
+        when(estoqueRepository.findMenorMarcaComCauda()).thenReturn(12L);
+        assertEquals(12L, consolidacaoEstoqueService.inicioCauda());
+
+        // Nenhum produto com cauda: começa depois do último movimento
+        when(estoqueRepository.findMenorMarcaComCauda()).thenReturn(null);
+        when(movimentoEstoqueRepository.findUltimoId()).thenReturn(90L);
+        assertEquals(90L, consolidacaoEstoqueService.inicioCauda());
+    }
+
+    private MovimentoEstoque movimento(Long id, Long produtoId, int quantidade) {
+        return MovimentoEstoque.builder()
+                .id(id)
+                .produtoId(produtoId)
+                .tipo(quantidade > 0 ? MovimentoEstoque.TipoMovimento.ENTRADA : MovimentoEstoque.TipoMovimento.SAIDA)
+                .quantidade(quantidade)
+                .build();
+    }
+}
@@ -0,0 +1,131 @@
+package com.projeto.erp.estoque;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ContadorEstoqueJpaTest {
+
+    @Mock
+    private EstoqueRepository estoqueRepository;
+
+    @Mock
+    private DiarioEstoque diarioEstoque;
+
+    @InjectMocks
+    private ContadorEstoqueJpa contadorEstoqueJpa;
+
+    AutoCloseable mocksCloseable;
+
+    @BeforeEach
+    void setUp() {
+        mocksCloseable = MockitoAnnotations.openMocks(this);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (mocksCloseable != null) {
+            mocksCloseable.close();
+        }
+    }
+
+    @Test
+    void testBaixar_TravaERegistraSaidaCondicionalNoDiario() {
+        when(estoqueRepository.travarPorProdutoIds(List.of(1L))).thenReturn(List.of(10L));
+        when(diarioEstoque.registrarSaida(1L, 2)).thenReturn(true);
+
+        assertTrue(contadorEstoqueJpa.baixar(1L, 2));
+
+        InOrder ordem = inOrder(estoqueRepository, diarioEstoque);
+        ordem.verify(estoqueRepository).travarPorProdutoIds(List.of(1L));
+        ordem.verify(diarioEstoque).registrarSaida(1L, 2);
+        verify(estoqueRepository, never()).buscarDisponiveis(anyCollection());
+    }
+
+    @Test
+    void testBaixar_DisponivelInsuficiente() {
+        // O INSERT condicional não grava linha
+        when(estoqueRepository.travarPorProdutoIds(List.of(1L))).thenReturn(List.of(10L));
+        when(diarioEstoque.registrarSaida(1L, 10)).thenReturn(false);
+
+        assertFalse(contadorEstoqueJpa.baixar(1L, 10));
+    }
+
+    @Test
+    void testBaixar_SemEstoque() {
+        when(estoqueRepository.travarPorProdutoIds(List.of(1L))).thenReturn(List.of());
+
+        assertFalse(contadorEstoqueJpa.baixar(1L, 1));
+        verify(diarioEstoque, never()).registrarSaida(anyLong(), anyInt());
+    }
+
+    @Test
+    void testReservar_TravaEReservaEmUmUpdate() {
+        Map<Long, Integer> quantidades = Map.of(1L, 2, 2L, 1);
+        when(estoqueRepository.reservarQuantidades(quantidades)).thenReturn(2);
+
+        assertTrue(contadorEstoqueJpa.reservar(quantidades));
+
+        InOrder ordem = inOrder(estoqueRepository);
+        ordem.verify(estoqueRepository).travarPorProdutoIds(quantidades.keySet());
+        ordem.verify(estoqueRepository).reservarQuantidades(quantidades);
+    }
+
+    @Test
+    void testReservar_ProdutoSemDisponivel() {
+        // O UPDATE condicional atualiza só uma das duas linhas
+        when(estoqueRepository.reservarQuantidades(anyMap())).thenReturn(1);
+
+        assertFalse(contadorEstoqueJpa.reservar(Map.of(1L, 2, 2L, 1)));
+    }
+
+    @Test
+    void testLiberar_DevolveAoReservadoNoBanco() {
+        contadorEstoqueJpa.liberar(1L, 3);
+
+        verify(estoqueRepository).liberarReserva(1L, 3);
+    }
+
+    @Test
+    void testAdicionar_EntradaNoDiarioComLockCompartilhado() {
+        contadorEstoqueJpa.adicionar(1L, 5);
+
+        InOrder ordem = inOrder(estoqueRepository, diarioEstoque);
+        ordem.verify(estoqueRepository).travarParaRegistro(List.of(1L));
+        ordem.verify(diarioEstoque).registrar(argThat(diario -> diario.size() == 1
+                && diario.get(0).getQuantidade() == 5
+                && diario.get(0).getTipo() == MovimentoEstoque.TipoMovimento.ENTRADA));
+        verify(estoqueRepository, never()).travarPorProdutoIds(anyCollection());
+        assertTrue(contadorEstoqueJpa.disponivel(1L).isEmpty());
+    }
+
+    @Test
+    void testMovimentar_UmLockUmaLeituraUmInsert() {
+        when(estoqueRepository.buscarDisponiveis(anyCollection()))
+                .thenReturn(List.of(new DisponivelEstoque(1L, 5), new DisponivelEstoque(2L, 3)));
+
+        Set<Long> recusados = contadorEstoqueJpa.movimentar(List.of(
+                MovimentoEstoque.saida(1L, 8),
+                MovimentoEstoque.entrada(1L, 4),   // soma -4: cabe no disponível 5
+                MovimentoEstoque.saida(2L, 4),     // soma -4: acima do disponível 3
+                MovimentoEstoque.entrada(3L, 1))); // sem estoque
+
+        assertEquals(Set.of(2L, 3L), recusados);
+        verify(estoqueRepository, times(1)).travarPorProdutoIds(argThat(ids -> List.copyOf(ids).equals(List.of(1L, 2L, 3L))));
+        verify(estoqueRepository, times(1)).buscarDisponiveis(anyCollection());
+        verify(diarioEstoque, times(1)).registrar(argThat(diario -> diario.size() == 2
+                && diario.stream().allMatch(movimento -> movimento.getProdutoId() == 1L)));
+    }
+}
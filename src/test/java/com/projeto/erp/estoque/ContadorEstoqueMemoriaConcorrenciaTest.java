@@ -0,0 +1,145 @@
+package com.projeto.erp.estoque;
+
+import com.projeto.erp.common.exception.BusinessException;
+import com.projeto.erp.estoque.dto.EstoqueRequestDTO;
+import com.projeto.erp.fornecedor.Fornecedor;
+import com.projeto.erp.fornecedor.FornecedorRepository;
+import com.projeto.erp.produto.Produto;
+import com.projeto.erp.produto.ProdutoRepository;
+import com.projeto.erp.reserva.ReservaEstoqueService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "erp.estoque.contador.modo=memoria",
+        "erp.estoque.contador.intervalo-gravacao=PT0.05S",
+        "erp.estoque.contador.wal.sincronizar=false"
+})
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class ContadorEstoqueMemoriaConcorrenciaTest {
+
+    private static final int THREADS = 16;
+
+    @DynamicPropertySource
+    static void diretorioWal(DynamicPropertyRegistry registry) throws IOException {
+        String diretorio = Files.createTempDirectory("wal-estoque").toString();
+        registry.add("erp.estoque.contador.wal.diretorio", () -> diretorio);
+    }
+
+    @Autowired
+    private EstoqueService estoqueService;
+
+    @Autowired
+    private ReservaEstoqueService reservaEstoqueService;
+
+    @Autowired
+    private ContadorEstoqueMemoria contadorEstoqueMemoria;
+
+    @Autowired
+    private EstoqueRepository estoqueRepository;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private FornecedorRepository fornecedorRepository;
+
+    private Produto produto;
+
+    @BeforeEach
+    void setUp() {
+        Fornecedor fornecedor = new Fornecedor();
+        fornecedor.setNome("Fornecedor Teste");
+        fornecedor.setDocumento("12345678000100");
+        fornecedor.setAtivo(true);
+        fornecedor = fornecedorRepository.save(fornecedor);
+
+        produto = new Produto();
+        produto.setNome("Produto Concorrido");
+        produto.setCodigoBarras("7890000000001");
+        produto.setPreco(BigDecimal.TEN);
+        produto.setFornecedor(fornecedor);
+        produto = produtoRepository.save(produto);
+
+        estoqueRepository.save(Estoque.builder().produto(produto).quantidade(100).build());
+    }
+
+    @Test
+    @DisplayName("Reservas e baixas do contador em memória no mesmo produto não vendem além do estoque")
+    void testReservasEBaixasParalelas_SemVendaAcimaDoSaldo() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        AtomicInteger baixas = new AtomicInteger();
+        AtomicInteger reservas = new AtomicInteger();
+        AtomicInteger erros = new AtomicInteger();
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                long pedidoId = i;
+                boolean reserva = i % 2 == 0;
+                futures.add(executor.submit(() -> {
+                    try {
+                        largada.await();
+                        if (reserva) {
+                            reservaEstoqueService.reservar(pedidoId, Map.of(produto.getId(), 1));
+                            reservas.incrementAndGet();
+                        } else {
+                            EstoqueRequestDTO request = new EstoqueRequestDTO();
+                            request.setIdProduto(produto.getId());
+                            request.setQuantidade(1);
+                            estoqueService.saidaEstoque(request);
+                            baixas.incrementAndGet();
+                        }
+                    } catch (BusinessException e) {
+                        // Sem disponível: recusa esperada
+                    } catch (Exception e) {
+                        erros.incrementAndGet();
+                    }
+                }));
+            }
+
+            largada.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0, erros.get());
+        assertEquals(100, baixas.get() + reservas.get());
+        assertEquals(0, contadorEstoqueMemoria.disponivel(produto.getId()).getAsInt());
+
+        // Depois da gravação o banco fecha com o contador: nada vendido duas vezes
+        contadorEstoqueMemoria.gravarVariacoes();
+        Estoque estoque = estoqueRepository.findByProdutoId(produto.getId()).orElseThrow();
+        assertEquals(100 - baixas.get(), estoque.getSaldo());
+        assertEquals(reservas.get(), estoque.getQuantidadeReservada());
+        assertEquals(0, estoque.getQuantidadeDisponivel());
+        assertEquals(0, contadorEstoqueMemoria.disponivel(produto.getId()).getAsInt());
+    }
+}
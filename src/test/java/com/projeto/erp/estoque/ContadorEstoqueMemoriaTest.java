@@ -0,0 +1,290 @@
+package com.projeto.erp.estoque;
+
+import com.projeto.erp.produto.Produto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ContadorEstoqueMemoriaTest {
+
+    @Mock
+    private EstoqueRepository estoqueRepository;
+
+    @Mock
+    private GravacaoContadorEstoqueService gravacaoContadorEstoqueService;
+
+    @InjectMocks
+    private ContadorEstoqueMemoria contadorEstoqueMemoria;
+
+    @TempDir
+    Path diretorioWal;
+
+    AutoCloseable mocksCloseable;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        mocksCloseable = MockitoAnnotations.openMocks(this);
+        when(estoqueRepository.findByProdutoId(1L)).thenReturn(Optional.of(estoque(1L, 300)));
+        when(estoqueRepository.findByProdutoId(2L)).thenReturn(Optional.of(estoque(2L, 10)));
+        when(gravacaoContadorEstoqueService.gravar(anyLong(), anyMap())).thenReturn(true);
+        iniciar(contadorEstoqueMemoria);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (mocksCloseable != null) {
+            mocksCloseable.close();
+        }
+    }
+
+    @Test
+    void testBaixasParalelas_NaoVendeAlemDoDisponivel() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch largada = new CountDownLatch(1);
+        AtomicInteger sucessos = new AtomicInteger();
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                futures.add(executor.submit(() -> {
+                    largada.await();
+                    if (contadorEstoqueMemoria.baixar(1L, 1)) {
+                        sucessos.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(300, sucessos.get());
+        assertEquals(0, contadorEstoqueMemoria.disponivel(1L).getAsInt());
+        // Produto carregado do banco uma única vez
+        verify(estoqueRepository, times(1)).findByProdutoId(1L);
+    }
+
+    @Test
+    void testGravarVariacoes_UmaVariacaoLiquidaPorProduto() {
+        contadorEstoqueMemoria.baixar(1L, 5);
+        contadorEstoqueMemoria.baixar(1L, 3);
+        contadorEstoqueMemoria.adicionar(2L, 4);
+        when(gravacaoContadorEstoqueService.disponivelNoBanco(anyCollection())).thenReturn(Map.of(1L, 292, 2L, 14));
+
+        contadorEstoqueMemoria.gravarVariacoes();
+
+        verify(gravacaoContadorEstoqueService).gravar(anyLong(), eq(Map.of(1L, -8, 2L, 4)));
+        assertEquals(292, contadorEstoqueMemoria.disponivel(1L).getAsInt());
+        assertEquals(14, contadorEstoqueMemoria.disponivel(2L).getAsInt());
+    }
+
+    @Test
+    void testGravarVariacoes_RessincronizaComMudancasDoBanco() {
+        contadorEstoqueMemoria.baixar(1L, 10);
+        // Um ajuste feito direto no banco consumiu 50 do disponível
+        when(gravacaoContadorEstoqueService.disponivelNoBanco(anyCollection())).thenReturn(Map.of(1L, 240));
+
+        contadorEstoqueMemoria.gravarVariacoes();
+
+        assertEquals(240, contadorEstoqueMemoria.disponivel(1L).getAsInt());
+        assertFalse(contadorEstoqueMemoria.baixar(1L, 241));
+    }
+
+    @Test
+    void testGravarVariacoes_FalhaNoBancoMantemSegmentoParaNovaTentativa() throws Exception {
+        contadorEstoqueMemoria.baixar(1L, 7);
+        when(gravacaoContadorEstoqueService.gravar(anyLong(), anyMap()))
+                .thenThrow(new IllegalStateException("banco indisponível"))
+                .thenReturn(true);
+        when(gravacaoContadorEstoqueService.disponivelNoBanco(anyCollection())).thenReturn(Map.of(1L, 291));
+
+        contadorEstoqueMemoria.gravarVariacoes();
+        // Segmento fechado continua no disco, além do segmento aberto
+        assertEquals(2, arquivosWal());
+
+        contadorEstoqueMemoria.baixar(1L, 2);
+        contadorEstoqueMemoria.gravarVariacoes();
+
+        // Cada segmento gravado separadamente, do mais antigo para o mais novo
+        verify(gravacaoContadorEstoqueService, times(2)).gravar(anyLong(), eq(Map.of(1L, -7)));
+        verify(gravacaoContadorEstoqueService).gravar(anyLong(), eq(Map.of(1L, -2)));
+        assertEquals(1, arquivosWal());
+    }
+
+    @Test
+    void testRecuperacao_ReaplicaWalDeExecucaoInterrompida() throws Exception {
+        contadorEstoqueMemoria.baixar(1L, 5);
+        contadorEstoqueMemoria.adicionar(2L, 3);
+        contadorEstoqueMemoria.baixar(1L, 1);
+        // Queda do processo: nada foi gravado no banco
+
+        ContadorEstoqueMemoria reiniciado = new ContadorEstoqueMemoria();
+        ReflectionTestUtils.setField(reiniciado, "estoqueRepository", estoqueRepository);
+        ReflectionTestUtils.setField(reiniciado, "gravacaoContadorEstoqueService", gravacaoContadorEstoqueService);
+        iniciar(reiniciado);
+
+        verify(gravacaoContadorEstoqueService).gravar(anyLong(), eq(Map.of(1L, -6, 2L, 3)));
+        // Só o segmento novo, vazio, permanece
+        assertEquals(1, arquivosWal());
+    }
+
+    @Test
+    void testBaixar_ProdutoSemEstoque() {
+        when(estoqueRepository.findByProdutoId(9L)).thenReturn(Optional.empty());
+
+        assertFalse(contadorEstoqueMemoria.baixar(9L, 1));
+        assertTrue(contadorEstoqueMemoria.disponivel(9L).isEmpty());
+    }
+
+    @Test
+    void testMovimentar_AplicaNosContadoresECarregaSaldosEmUmaConsulta() {
+        when(gravacaoContadorEstoqueService.disponivelNoBanco(Set.of(1L, 2L, 9L))).thenReturn(Map.of(1L, 300, 2L, 10));
+
+        Set<Long> recusados = contadorEstoqueMemoria.movimentar(List.of(
+                MovimentoEstoque.saida(1L, 20),
+                MovimentoEstoque.entrada(1L, 5),
+                MovimentoEstoque.saida(2L, 11),    // acima do disponível
+                MovimentoEstoque.entrada(9L, 1))); // sem estoque
+
+        assertEquals(Set.of(2L, 9L), recusados);
+        assertEquals(285, contadorEstoqueMemoria.disponivel(1L).getAsInt());
+        assertEquals(10, contadorEstoqueMemoria.disponivel(2L).getAsInt());
+        verify(estoqueRepository, never()).findByProdutoId(anyLong());
+
+        // A variação aceita segue para o diário com as demais do segmento
+        when(gravacaoContadorEstoqueService.disponivelNoBanco(anyCollection())).thenReturn(Map.of(1L, 285, 2L, 10));
+        contadorEstoqueMemoria.gravarVariacoes();
+        verify(gravacaoContadorEstoqueService).gravar(anyLong(), eq(Map.of(1L, -15)));
+    }
+
+    @Test
+    void testReservar_DecideNoContadorERegistraNoBanco() {
+        when(gravacaoContadorEstoqueService.disponivelNoBanco(Set.of(1L, 2L))).thenReturn(Map.of(1L, 300, 2L, 10));
+        contadorEstoqueMemoria.baixar(1L, 295);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertTrue(contadorEstoqueMemoria.reservar(Map.of(1L, 5, 2L, 4)));
+            // Sem conferência no banco: as baixas do contador ainda não foram gravadas
+            verify(estoqueRepository).registrarReservas(Map.of(1L, 5, 2L, 4));
+            verify(estoqueRepository, never()).reservarQuantidades(anyMap());
+            assertEquals(0, contadorEstoqueMemoria.disponivel(1L).getAsInt());
+            assertEquals(6, contadorEstoqueMemoria.disponivel(2L).getAsInt());
+            assertFalse(contadorEstoqueMemoria.baixar(1L, 1));
+
+            concluirTransacao(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(0, contadorEstoqueMemoria.disponivel(1L).getAsInt());
+    }
+
+    @Test
+    void testReservar_ProdutoSemDisponivelNaoReservaNenhum() {
+        when(gravacaoContadorEstoqueService.disponivelNoBanco(Set.of(1L, 2L))).thenReturn(Map.of(1L, 300, 2L, 10));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertFalse(contadorEstoqueMemoria.reservar(Map.of(1L, 5, 2L, 11)));
+            assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(300, contadorEstoqueMemoria.disponivel(1L).getAsInt());
+        assertEquals(10, contadorEstoqueMemoria.disponivel(2L).getAsInt());
+        verify(estoqueRepository, never()).registrarReservas(anyMap());
+    }
+
+    @Test
+    void testReservar_TransacaoDesfeitaDevolveAoDisponivel() {
+        when(gravacaoContadorEstoqueService.disponivelNoBanco(Set.of(2L))).thenReturn(Map.of(2L, 10));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertTrue(contadorEstoqueMemoria.reservar(Map.of(2L, 7)));
+            assertEquals(3, contadorEstoqueMemoria.disponivel(2L).getAsInt());
+
+            concluirTransacao(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(10, contadorEstoqueMemoria.disponivel(2L).getAsInt());
+    }
+
+    @Test
+    void testGravarVariacoes_DescontaReservaAindaNaoConcluidaDoBanco() {
+        when(gravacaoContadorEstoqueService.disponivelNoBanco(Set.of(2L))).thenReturn(Map.of(2L, 10));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertTrue(contadorEstoqueMemoria.reservar(Map.of(2L, 4)));
+            // O banco ainda não vê a reserva, cuja transação não terminou
+            when(gravacaoContadorEstoqueService.disponivelNoBanco(anyCollection())).thenReturn(Map.of(2L, 10));
+            contadorEstoqueMemoria.gravarVariacoes();
+            assertEquals(6, contadorEstoqueMemoria.disponivel(2L).getAsInt());
+
+            concluirTransacao(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Liberada no banco depois: o contador recebe a devolução na ressincronização
+        when(gravacaoContadorEstoqueService.disponivelNoBanco(anyCollection())).thenReturn(Map.of(2L, 10));
+        contadorEstoqueMemoria.liberar(2L, 4);
+        verify(estoqueRepository).liberarReserva(2L, 4);
+        contadorEstoqueMemoria.gravarVariacoes();
+        assertEquals(10, contadorEstoqueMemoria.disponivel(2L).getAsInt());
+    }
+
+    private void concluirTransacao(int status) {
+        TransactionSynchronizationManager.getSynchronizations().forEach(sincronizacao -> sincronizacao.afterCompletion(status));
+    }
+
+    private void iniciar(ContadorEstoqueMemoria contador) throws Exception {
+        ReflectionTestUtils.setField(contador, "diretorioWal", diretorioWal);
+        ReflectionTestUtils.setField(contador, "sincronizarWal", false);
+        ReflectionTestUtils.invokeMethod(contador, "iniciar");
+    }
+
+    private long arquivosWal() throws Exception {
+        try (var arquivos = Files.list(diretorioWal)) {
+            return arquivos.count();
+        }
+    }
+
+    private Estoque estoque(Long produtoId, int quantidade) {
+        Produto produto = new Produto();
+        produto.setId(produtoId);
+        return Estoque.builder().produto(produto).quantidade(quantidade).build();
+    }
+}
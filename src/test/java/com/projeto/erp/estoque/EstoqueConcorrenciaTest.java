@@ -0,0 +1,235 @@
+package com.projeto.erp.estoque;
+
+import com.projeto.erp.common.exception.BusinessException;
+import com.projeto.erp.estoque.dto.EstoqueRequestDTO;
+import com.projeto.erp.fornecedor.Fornecedor;
+import com.projeto.erp.fornecedor.FornecedorRepository;
+import com.projeto.erp.produto.Produto;
+import com.projeto.erp.produto.ProdutoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class EstoqueConcorrenciaTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private EstoqueService estoqueService;
+
+    @Autowired
+    private EstoqueRepository estoqueRepository;
+
+    @Autowired
+    private ConsolidacaoEstoqueService consolidacaoEstoqueService;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private FornecedorRepository fornecedorRepository;
+
+    private Produto produto;
+
+    @BeforeEach
+    void setUp() {
+        Fornecedor fornecedor = new Fornecedor();
+        fornecedor.setNome("Fornecedor Teste");
+        fornecedor.setDocumento("12345678000100");
+        fornecedor.setAtivo(true);
+        fornecedor = fornecedorRepository.save(fornecedor);
+
+        produto = new Produto();
+        produto.setNome("Produto Concorrido");
+        produto.setCodigoBarras("7890000000001");
+        produto.setPreco(BigDecimal.TEN);
+        produto.setFornecedor(fornecedor);
+        produto = produtoRepository.save(produto);
+    }
+
+    @Test
+    @DisplayName("Saídas paralelas devem resultar em saldo exato, sem perda de atualização")
+    void testSaidasParalelas_SaldoExato() throws Exception {
+        criarEstoque(1000);
+
+        Resultado resultado = executarSaidasParalelas(500, 1);
+
+        assertEquals(500, resultado.sucessos());
+        assertEquals(0, resultado.rejeicoes());
+        assertEquals(0, resultado.erros());
+        assertEquals(500, saldoAtual());
+
+        // As saídas estão na cauda do diário até a consolidação
+        assertEquals(1000, snapshotAtual());
+        consolidarTudo();
+        assertEquals(500, snapshotAtual());
+        assertEquals(500, saldoAtual());
+    }
+
+    @Test
+    @DisplayName("Saídas paralelas acima do saldo não devem vender além do estoque")
+    void testSaidasParalelas_SemVendaAcimaDoSaldo() throws Exception {
+        criarEstoque(300);
+
+        Resultado resultado = executarSaidasParalelas(800, 1);
+
+        assertEquals(0, resultado.erros());
+        assertEquals(300, resultado.sucessos());
+        assertEquals(500, resultado.rejeicoes());
+        assertEquals(0, saldoAtual());
+    }
+
+    @Test
+    @DisplayName("Entradas paralelas vão para o diário e a consolidação leva o total ao snapshot")
+    void testEntradasParalelas_ConsolidadasNoSnapshot() throws Exception {
+        criarEstoque(10);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                futures.add(executor.submit(() -> {
+                    EstoqueRequestDTO request = new EstoqueRequestDTO();
+                    request.setIdProduto(produto.getId());
+                    request.setQuantidade(2);
+                    estoqueService.entradaEstoque(request);
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Snapshot ainda não mudou, mas o saldo já inclui as entradas pendentes
+        assertEquals(10, snapshotAtual());
+        assertEquals(410, estoqueService.consultarSaldo(produto.getId()).getQuantidade());
+
+        consolidarTudo();
+
+        assertEquals(410, snapshotAtual());
+        assertEquals(0, estoqueRepository.findByProdutoId(produto.getId()).orElseThrow().getQuantidadePendente());
+        assertEquals(410, estoqueService.consultarSaldo(produto.getId()).getQuantidade());
+    }
+
+    @Test
+    @DisplayName("Saída acima do snapshot deve usar as entradas ainda pendentes no diário")
+    void testSaida_ConsideraEntradasPendentes() {
+        criarEstoque(1);
+
+        EstoqueRequestDTO entrada = new EstoqueRequestDTO();
+        entrada.setIdProduto(produto.getId());
+        entrada.setQuantidade(9);
+        estoqueService.entradaEstoque(entrada);
+
+        EstoqueRequestDTO saida = new EstoqueRequestDTO();
+        saida.setIdProduto(produto.getId());
+        saida.setQuantidade(8);
+        assertEquals(2, estoqueService.saidaEstoque(saida).getQuantidade());
+        assertEquals(2, saldoAtual());
+    }
+
+    @Test
+    @DisplayName("Saída não deve consumir a quantidade reservada")
+    void testSaida_RespeitaReservado() {
+        estoqueRepository.save(Estoque.builder().produto(produto).quantidade(10).quantidadeReservada(8).build());
+
+        EstoqueRequestDTO saida = new EstoqueRequestDTO();
+        saida.setIdProduto(produto.getId());
+        saida.setQuantidade(3);
+        BusinessException ex = assertThrows(BusinessException.class, () -> estoqueService.saidaEstoque(saida));
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, ex.getStatus());
+        assertEquals(10, saldoAtual());
+
+        saida.setQuantidade(2);
+        estoqueService.saidaEstoque(saida);
+        assertEquals(8, saldoAtual());
+    }
+
+    private void criarEstoque(int quantidade) {
+        estoqueRepository.save(Estoque.builder().produto(produto).quantidade(quantidade).build());
+    }
+
+    private int saldoAtual() {
+        return estoqueRepository.findByProdutoId(produto.getId()).orElseThrow().getSaldo();
+    }
+
+    private int snapshotAtual() {
+        return estoqueRepository.findByProdutoId(produto.getId()).orElseThrow().getQuantidade();
+    }
+
+    // Mesmo laço do ConsolidacaoEstoqueJob, a partir do início do diário
+    private void consolidarTudo() {
+        long cursor = 0L;
+        long anterior;
+        do {
+            anterior = cursor;
+            cursor = consolidacaoEstoqueService.consolidarApos(anterior, 50);
+        } while (cursor != anterior);
+    }
+
+    private Resultado executarSaidasParalelas(int quantidadeSaidas, int quantidadePorSaida) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        AtomicInteger sucessos = new AtomicInteger();
+        AtomicInteger rejeicoes = new AtomicInteger();
+        AtomicInteger erros = new AtomicInteger();
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < quantidadeSaidas; i++) {
+                futures.add(executor.submit(() -> {
+                    EstoqueRequestDTO request = new EstoqueRequestDTO();
+                    request.setIdProduto(produto.getId());
+                    request.setQuantidade(quantidadePorSaida);
+                    try {
+                        largada.await();
+                        estoqueService.saidaEstoque(request);
+                        sucessos.incrementAndGet();
+                    } catch (BusinessException e) {
+                        if (e.getStatus() == HttpStatus.UNPROCESSABLE_ENTITY) {
+                            rejeicoes.incrementAndGet();
+                        } else {
+                            erros.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        erros.incrementAndGet();
+                    }
+                }));
+            }
+
+            largada.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return new Resultado(sucessos.get(), rejeicoes.get(), erros.get());
+    }
+
+    private record Resultado(int sucessos, int rejeicoes, int erros) {
+    }
+}
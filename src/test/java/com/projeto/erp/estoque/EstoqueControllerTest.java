@@ -3,6 +3,8 @@ package com.projeto.erp.estoque;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.projeto.erp.estoque.dto.EstoqueRequestDTO;
 import com.projeto.erp.estoque.dto.EstoqueResponseDTO;
+import com.projeto.erp.estoque.dto.MovimentosEstoqueResponseDTO;
+import com.projeto.erp.estoque.dto.ResultadoMovimentoEstoqueDTO;
 import com.projeto.erp.produto.dto.ProdutoResponseSemQtdDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,7 +16,10 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.util.List;
+
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -99,4 +104,24 @@ class EstoqueControllerTest {
                 .andExpect(jsonPath("$.produto.id").value(2))
                 .andExpect(jsonPath("$.quantidade").value(7));
     }
+
+    @Test
+    void testRegistrarMovimentos() throws Exception {
+        MovimentosEstoqueResponseDTO response = new MovimentosEstoqueResponseDTO(2, 1, 1, List.of(
+                ResultadoMovimentoEstoqueDTO.aplicado(0, 1L, 15),
+                ResultadoMovimentoEstoqueDTO.rejeitado(1, 2L, "Saldo insuficiente no estoque")));
+
+        when(estoqueService.registrarMovimentos(anyList())).thenReturn(response);
+
+        mockMvc.perform(post("/estoque/movimentos")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        [{"idProduto":1,"quantidade":5,"tipo":"ENTRADA"},
+                         {"idProduto":2,"quantidade":9,"tipo":"SAIDA"}]
+                        """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.aplicados").value(1))
+                .andExpect(jsonPath("$.resultados[0].saldo").value(15))
+                .andExpect(jsonPath("$.resultados[1].erro").value("Saldo insuficiente no estoque"));
+    }
 }
@@ -7,9 +7,12 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.dao.DataIntegrityViolationException;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -23,6 +26,12 @@ class EstoqueRepositoryTest {
     @Autowired
     ProdutoRepository produtoRepository;
 
+    @Autowired
+    MovimentoEstoqueRepository movimentoEstoqueRepository;
+
+    @Autowired
+    TestEntityManager entityManager;
+
     @Test
     @DisplayName("Deve salvar e buscar estoque por produto_id e verificar existsByProdutoId")
     void testSaveAndFindByProdutoId() {
@@ -69,4 +78,72 @@ class EstoqueRepositoryTest {
             estoqueRepository.saveAndFlush(segundo);
         });
     }
+
+    @Test
+    @DisplayName("Consolidação leva a cauda do diário ao snapshot e avança a marca; movimentos depois dela seguem na cauda")
+    void testConsolidar_MarcaDagua() {
+        Produto produto = new Produto();
+        produto.setNome("Produto Diario");
+        produto.setDescricao("Descrição");
+        produto.setPreco(BigDecimal.valueOf(10));
+        produto.setFornecedor(Fornecedor.builder().id(1L).build());
+        produto.setCodigoBarras("555444333222");
+        produto = produtoRepository.save(produto);
+        Long produtoId = produto.getId();
+
+        estoqueRepository.save(Estoque.builder().produto(produto).quantidade(10).build());
+        movimentoEstoqueRepository.saveAndFlush(MovimentoEstoque.entrada(produtoId, 5));
+        MovimentoEstoque ultimo = movimentoEstoqueRepository.saveAndFlush(MovimentoEstoque.saida(produtoId, 3));
+        entityManager.clear();
+
+        assertEquals(12, estoqueRepository.buscarSaldoPorProdutoId(produtoId).orElseThrow());
+        assertEquals(List.of(new DisponivelEstoque(produtoId, 12)), estoqueRepository.buscarDisponiveis(List.of(produtoId)));
+
+        estoqueRepository.travarPorProdutoIds(List.of(produtoId));
+        assertEquals(1, estoqueRepository.consolidar(List.of(produtoId)));
+
+        Estoque consolidado = estoqueRepository.findByProdutoId(produtoId).orElseThrow();
+        assertEquals(12, consolidado.getQuantidade());
+        assertEquals(0, consolidado.getQuantidadePendente());
+        assertEquals(ultimo.getId(), consolidado.getUltimoMovimentoId());
+
+        // Nova entrada depois da marca: fora do snapshot, mas conta para a reserva
+        movimentoEstoqueRepository.saveAndFlush(MovimentoEstoque.entrada(produtoId, 2));
+        entityManager.clear();
+
+        assertEquals(0, estoqueRepository.reservarQuantidades(Map.of(produtoId, 15)));
+        assertEquals(1, estoqueRepository.reservarQuantidades(Map.of(produtoId, 14)));
+        Estoque reservado = estoqueRepository.findByProdutoId(produtoId).orElseThrow();
+        assertEquals(12, reservado.getQuantidade());
+        assertEquals(14, reservado.getSaldo());
+        assertEquals(14, reservado.getQuantidadeReservada());
+        assertEquals(2, reservado.getQuantidadePendente());
+    }
+
+    @Test
+    @DisplayName("Reserva em um único UPDATE atualiza só os produtos com saldo e informa quantos foram reservados")
+    void testReservarQuantidades_VariosProdutos() {
+        Long comSaldo = criarEstoque("101010101010", 10);
+        Long semSaldo = criarEstoque("202020202020", 3);
+
+        estoqueRepository.travarPorProdutoIds(List.of(comSaldo, semSaldo));
+        assertEquals(1, estoqueRepository.reservarQuantidades(Map.of(comSaldo, 4, semSaldo, 5)));
+
+        assertEquals(4, estoqueRepository.findByProdutoId(comSaldo).orElseThrow().getQuantidadeReservada());
+        assertEquals(0, estoqueRepository.findByProdutoId(semSaldo).orElseThrow().getQuantidadeReservada());
+        assertEquals(2, estoqueRepository.reservarQuantidades(Map.of(comSaldo, 6, semSaldo, 3)));
+    }
+
+    private Long criarEstoque(String codigoBarras, int quantidade) {
+        Produto produto = new Produto();
+        produto.setNome("Produto " + codigoBarras);
+        produto.setDescricao("Descrição");
+        produto.setPreco(BigDecimal.valueOf(10));
+        produto.setFornecedor(Fornecedor.builder().id(1L).build());
+        produto.setCodigoBarras(codigoBarras);
+        produto = produtoRepository.save(produto);
+
+        estoqueRepository.save(Estoque.builder().produto(produto).quantidade(quantidade).build());
+        return produto.getId();
+    }
 }
@@ -1,23 +1,42 @@
 package com.projeto.erp.estoque;
 
 import com.projeto.erp.common.exception.BusinessException;
+import com.projeto.erp.common.metricas.MetricasNegocio;
+import com.projeto.erp.estoque.MovimentoEstoque.TipoMovimento;
 import com.projeto.erp.estoque.dto.EstoqueRequestDTO;
 import com.projeto.erp.estoque.dto.EstoqueResponseDTO;
+import com.projeto.erp.estoque.dto.MovimentoEstoqueRequestDTO;
+import com.projeto.erp.estoque.dto.MovimentosEstoqueResponseDTO;
 import com.projeto.erp.estoque.mapper.EstoqueMapper;
 import com.projeto.erp.produto.Produto;
+import com.projeto.erp.produto.ProdutoRepository;
 import com.projeto.erp.produto.ProdutoService;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 class EstoqueServiceTest {
@@ -31,6 +50,21 @@ class EstoqueServiceTest {
     @Mock
     private ProdutoService produtoService;
 
+    @Mock
+    private ProdutoRepository produtoRepository;
+
+    @Mock
+    private ContadorEstoque contadorEstoque;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Mock
+    private MetricasNegocio metricasNegocio;
+
     @InjectMocks
     private EstoqueService estoqueService;
 
@@ -39,6 +73,7 @@ class EstoqueServiceTest {
     @BeforeEach
     void setUp() {
         mocksCloseable = MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(estoqueService, "maximoLinhasMovimento", 5);
     }
 
     @AfterEach
@@ -57,7 +92,7 @@ class EstoqueServiceTest {
         Produto produto = new Produto();
         produto.setId(1L);
 
-        Estoque saved = Estoque.builder().id(1L).produto(produto).quantidade(5).build();
+        Estoque saved = Estoque.builder().id(1L).produto(produto).quantidade(0).build();
         EstoqueResponseDTO responseDTO = new EstoqueResponseDTO();
         responseDTO.setId(1L);
         responseDTO.setQuantidade(5);
@@ -71,8 +106,10 @@ class EstoqueServiceTest {
 
         assertNotNull(result);
         assertEquals(5, result.getQuantidade());
+        assertEquals(5, saved.getSaldo());
         verify(estoqueRepository).findByProdutoId(1L);
-        verify(estoqueRepository, times(2)).save(any(Estoque.class));
+        verify(estoqueRepository, times(1)).save(any(Estoque.class));
+        verify(contadorEstoque).adicionar(1L, 5);
     }
 
     @Test
@@ -85,23 +122,26 @@ class EstoqueServiceTest {
         produto.setId(1L);
 
         Estoque existente = Estoque.builder().id(2L).produto(produto).quantidade(4).build();
-        Estoque updated = Estoque.builder().id(2L).produto(produto).quantidade(7).build();
 
         EstoqueResponseDTO responseDTO = new EstoqueResponseDTO();
         responseDTO.setId(2L);
         responseDTO.setQuantidade(7);
 
-        when(produtoService.buscaProdutoByIdOrThrow(1L)).thenReturn(produto);
         when(estoqueRepository.findByProdutoId(1L)).thenReturn(Optional.of(existente));
-        when(estoqueRepository.save(any(Estoque.class))).thenReturn(updated);
-        when(estoqueMapper.toDTO(updated)).thenReturn(responseDTO);
+        when(estoqueMapper.toDTO(existente)).thenReturn(responseDTO);
 
         EstoqueResponseDTO result = estoqueService.entradaEstoque(request);
 
         assertNotNull(result);
         assertEquals(7, result.getQuantidade());
+        // Snapshot intacto: a entrada fica pendente no diário até a consolidação
+        assertEquals(4, existente.getQuantidade());
+        assertEquals(7, existente.getSaldo());
         verify(estoqueRepository).findByProdutoId(1L);
-        verify(estoqueRepository).save(any(Estoque.class));
+        verify(estoqueRepository, never()).save(any(Estoque.class));
+        // Estoque já existente: o produto não é buscado
+        verify(produtoService, never()).buscaProdutoByIdOrThrow(anyLong());
+        verify(contadorEstoque).adicionar(1L, 3);
     }
 
     @Test
@@ -113,23 +153,22 @@ class EstoqueServiceTest {
         Produto produto = new Produto();
         produto.setId(1L);
 
-        Estoque existente = Estoque.builder().id(3L).produto(produto).quantidade(5).build();
         Estoque updated = Estoque.builder().id(3L).produto(produto).quantidade(3).build();
 
         EstoqueResponseDTO responseDTO = new EstoqueResponseDTO();
         responseDTO.setId(3L);
         responseDTO.setQuantidade(3);
 
-        when(estoqueRepository.findByProdutoId(1L)).thenReturn(Optional.of(existente));
-        when(estoqueRepository.save(any(Estoque.class))).thenReturn(updated);
+        when(contadorEstoque.baixar(1L, 2)).thenReturn(true);
+        when(estoqueRepository.findByProdutoId(1L)).thenReturn(Optional.of(updated));
         when(estoqueMapper.toDTO(updated)).thenReturn(responseDTO);
 
         EstoqueResponseDTO result = estoqueService.saidaEstoque(request);
 
         assertNotNull(result);
         assertEquals(3, result.getQuantidade());
-        verify(estoqueRepository).findByProdutoId(1L);
-        verify(estoqueRepository).save(any(Estoque.class));
+        verify(contadorEstoque).baixar(1L, 2);
+        verify(estoqueRepository, never()).save(any(Estoque.class));
     }
 
     @Test
@@ -138,15 +177,41 @@ class EstoqueServiceTest {
         request.setIdProduto(1L);
         request.setQuantidade(10);
 
-        Estoque existente = Estoque.builder().id(4L).quantidade(5).build();
-
-        when(estoqueRepository.findByProdutoId(1L)).thenReturn(Optional.of(existente));
+        when(contadorEstoque.baixar(1L, 10)).thenReturn(false);
+        when(estoqueRepository.existsByProdutoId(1L)).thenReturn(true);
 
         BusinessException ex = assertThrows(BusinessException.class, () -> estoqueService.saidaEstoque(request));
         assertEquals("Saldo insuficiente no estoque", ex.getMessage());
         assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, ex.getStatus());
-        verify(estoqueRepository).findByProdutoId(1L);
+        verify(contadorEstoque).baixar(1L, 10);
         verify(estoqueRepository, never()).save(any(Estoque.class));
+        verify(metricasNegocio).estoqueInsuficiente("saida");
+    }
+
+    @Test
+    void testSaidaEstoque_RespostaUsaDisponivelDoContador() {
+        EstoqueRequestDTO request = new EstoqueRequestDTO();
+        request.setIdProduto(1L);
+        request.setQuantidade(1);
+
+        Produto produto = new Produto();
+        produto.setId(1L);
+        // Banco ainda sem as baixas que estão só no contador em memória
+        Estoque noBanco = Estoque.builder().id(3L).produto(produto).quantidade(50).quantidadeReservada(5).build();
+
+        EstoqueResponseDTO responseDTO = new EstoqueResponseDTO();
+        responseDTO.setQuantidade(50);
+        responseDTO.setQuantidadeDisponivel(45);
+
+        when(contadorEstoque.baixar(1L, 1)).thenReturn(true);
+        when(contadorEstoque.disponivel(1L)).thenReturn(OptionalInt.of(30));
+        when(estoqueRepository.findByProdutoId(1L)).thenReturn(Optional.of(noBanco));
+        when(estoqueMapper.toDTO(noBanco)).thenReturn(responseDTO);
+
+        EstoqueResponseDTO result = estoqueService.saidaEstoque(request);
+
+        assertEquals(30, result.getQuantidadeDisponivel());
+        assertEquals(35, result.getQuantidade());
     }
 
     @Test
@@ -155,12 +220,13 @@ class EstoqueServiceTest {
         request.setIdProduto(99L);
         request.setQuantidade(1);
 
-        when(estoqueRepository.findByProdutoId(99L)).thenReturn(Optional.empty());
+        when(contadorEstoque.baixar(99L, 1)).thenReturn(false);
+        when(estoqueRepository.existsByProdutoId(99L)).thenReturn(false);
 
         BusinessException ex = assertThrows(BusinessException.class, () -> estoqueService.saidaEstoque(request));
         assertEquals("Estoque não encontrado", ex.getMessage());
         assertEquals(HttpStatus.NOT_FOUND, ex.getStatus());
-        verify(estoqueRepository).findByProdutoId(99L);
+        verify(estoqueRepository).existsByProdutoId(99L);
     }
 
     @Test
@@ -192,4 +258,121 @@ class EstoqueServiceTest {
         assertEquals(HttpStatus.NOT_FOUND, ex.getStatus());
         verify(estoqueRepository).findByProdutoId(7L);
     }
+
+    @Test
+    void testRegistrarMovimentos_SomaLinhasDoMesmoProduto() {
+        Produto produto = new Produto();
+        produto.setId(1L);
+        // Snapshot 5 + 12 na cauda do diário
+        Estoque atualizado = Estoque.builder().id(1L).produto(produto).quantidade(5).quantidadePendente(12).build();
+
+        when(estoqueRepository.findProdutoIdsComEstoque(anyCollection())).thenReturn(List.of(1L));
+        when(contadorEstoque.movimentar(anyList())).thenReturn(Set.of());
+        when(estoqueRepository.findAllByProdutoIdIn(anyCollection())).thenReturn(List.of(atualizado));
+
+        MovimentosEstoqueResponseDTO resposta = estoqueService.registrarMovimentos(List.of(
+                movimento(1L, 10, TipoMovimento.ENTRADA),
+                movimento(1L, 3, TipoMovimento.SAIDA),
+                movimento(1L, 5, TipoMovimento.ENTRADA)));
+
+        assertEquals(3, resposta.getRecebidos());
+        assertEquals(3, resposta.getAplicados());
+        assertEquals(0, resposta.getRejeitados());
+        resposta.getResultados().forEach(resultado -> assertEquals(17, resultado.getSaldo()));
+        // As três linhas vão juntas para o ContadorEstoque
+        verify(contadorEstoque).movimentar(argThat(diario -> diario.size() == 3
+                && diario.stream().mapToInt(MovimentoEstoque::getQuantidade).sum() == 12));
+        verify(produtoService, never()).buscaProdutoByIdOrThrow(anyLong());
+    }
+
+    @Test
+    void testRegistrarMovimentos_ResultadoPorLinha() {
+        Produto produtoComSaldo = new Produto();
+        produtoComSaldo.setId(1L);
+        Produto produtoNovo = new Produto();
+        produtoNovo.setId(3L);
+        Estoque estoqueProduto1 = Estoque.builder().id(1L).produto(produtoComSaldo).quantidade(8).quantidadePendente(-2).build();
+        Estoque estoqueProduto3 = Estoque.builder().id(3L).produto(produtoNovo).quantidade(0).quantidadePendente(4).build();
+
+        when(estoqueRepository.findProdutoIdsComEstoque(anyCollection())).thenReturn(List.of(1L, 2L));
+        when(contadorEstoque.movimentar(anyList())).thenReturn(Set.of(2L));
+        when(produtoRepository.findAllById(anyIterable())).thenReturn(List.of(produtoNovo));
+        when(estoqueRepository.findAllByProdutoIdIn(anyCollection())).thenReturn(List.of(estoqueProduto1, estoqueProduto3));
+
+        MovimentosEstoqueResponseDTO resposta = estoqueService.registrarMovimentos(List.of(
+                movimento(1L, 2, TipoMovimento.SAIDA),      // aplicado
+                movimento(2L, 50, TipoMovimento.SAIDA),     // saldo insuficiente
+                movimento(3L, 4, TipoMovimento.ENTRADA),    // cria o estoque do produto
+                movimento(99L, 1, TipoMovimento.ENTRADA),   // produto inexistente
+                movimento(1L, 0, null)));                   // linha inválida
+
+        assertEquals(2, resposta.getAplicados());
+        assertEquals(3, resposta.getRejeitados());
+        assertEquals(6, resposta.getResultados().get(0).getSaldo());
+        assertEquals("Saldo insuficiente no estoque", resposta.getResultados().get(1).getErro());
+        verify(metricasNegocio).estoqueInsuficiente("movimentos");
+        assertEquals(4, resposta.getResultados().get(2).getSaldo());
+        assertEquals("Produto com ID 99 não encontrado", resposta.getResultados().get(3).getErro());
+        assertEquals("quantidade: Quantidade deve ser positiva; tipo: Tipo do movimento não pode ser nulo",
+                resposta.getResultados().get(4).getErro());
+        verify(estoqueRepository).saveAll(anyIterable());
+        // Produto 99 e a linha inválida ficam de fora; o produto 2 é recusado pelo contador
+        verify(contadorEstoque).movimentar(argThat(diario -> diario.size() == 3
+                && diario.get(0).getQuantidade() == -2 && diario.get(1).getQuantidade() == -50
+                && diario.get(2).getQuantidade() == 4));
+    }
+
+    @Test
+    void testRegistrarMovimentos_SaidaSemEstoque() {
+        Produto produto = new Produto();
+        produto.setId(4L);
+
+        when(estoqueRepository.findProdutoIdsComEstoque(anyCollection())).thenReturn(List.of());
+        when(produtoRepository.findAllById(anyIterable())).thenReturn(List.of(produto));
+
+        MovimentosEstoqueResponseDTO resposta = estoqueService.registrarMovimentos(List.of(
+                movimento(4L, 1, TipoMovimento.SAIDA)));
+
+        assertEquals(0, resposta.getAplicados());
+        assertEquals("Estoque não encontrado", resposta.getResultados().get(0).getErro());
+        verify(estoqueRepository, never()).saveAll(anyIterable());
+    }
+
+    @Test
+    void testRegistrarMovimentos_VazioOuAcimaDoLimite() {
+        BusinessException vazio = assertThrows(BusinessException.class,
+                () -> estoqueService.registrarMovimentos(Collections.emptyList()));
+        assertEquals(HttpStatus.BAD_REQUEST, vazio.getStatus());
+
+        List<MovimentoEstoqueRequestDTO> grande = Collections.nCopies(6, movimento(1L, 1, TipoMovimento.ENTRADA));
+        BusinessException excedido = assertThrows(BusinessException.class,
+                () -> estoqueService.registrarMovimentos(grande));
+        assertEquals("Lista excede o limite de 5 movimentos", excedido.getMessage());
+    }
+
+    @Test
+    void testRegistrarMovimentos_SaldoDoContadorEmMemoria() {
+        Produto produto = new Produto();
+        produto.setId(1L);
+        // Banco ainda sem a variação, que está só no contador em memória
+        Estoque noBanco = Estoque.builder().id(1L).produto(produto).quantidade(10).quantidadeReservada(2).build();
+
+        when(estoqueRepository.findProdutoIdsComEstoque(anyCollection())).thenReturn(List.of(1L));
+        when(contadorEstoque.movimentar(anyList())).thenReturn(Set.of());
+        when(contadorEstoque.disponivel(1L)).thenReturn(OptionalInt.of(5));
+        when(estoqueRepository.findAllByProdutoIdIn(anyCollection())).thenReturn(List.of(noBanco));
+
+        MovimentosEstoqueResponseDTO resposta = estoqueService.registrarMovimentos(List.of(
+                movimento(1L, 3, TipoMovimento.SAIDA)));
+
+        assertEquals(7, resposta.getResultados().get(0).getSaldo());
+    }
+
+    private MovimentoEstoqueRequestDTO movimento(Long idProduto, Integer quantidade, TipoMovimento tipo) {
+        MovimentoEstoqueRequestDTO movimento = new MovimentoEstoqueRequestDTO();
+        movimento.setIdProduto(idProduto);
+        movimento.setQuantidade(quantidade);
+        movimento.setTipo(tipo);
+        return movimento;
+    }
 }
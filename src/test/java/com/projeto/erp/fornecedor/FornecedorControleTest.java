@@ -2,6 +2,7 @@ package com.projeto.erp.fornecedor;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.projeto.erp.common.dto.PageResponseDTO;
+import com.projeto.erp.common.pagination.ModoTotal;
 import com.projeto.erp.fornecedor.dto.FornecedorRequestDTO;
 import com.projeto.erp.fornecedor.dto.FornecedorResponseDTO;
 import org.junit.jupiter.api.BeforeEach;
@@ -74,9 +75,9 @@ class FornecedorControleTest {
         FornecedorResponseDTO c2 = new FornecedorResponseDTO();
         c2.setId(2L);
         c2.setNome("Fornecedor 2");
-        PageResponseDTO<FornecedorResponseDTO> lista = new PageResponseDTO<>(Arrays.asList(c1, c2), 0, 10, 2, 1, true, false);
+        PageResponseDTO<FornecedorResponseDTO> lista = new PageResponseDTO<>(Arrays.asList(c1, c2), 0, 10, 2L, 1, true, false);
 
-        when(fornecedorService.buscaTodosFornecedores(0,10)).thenReturn(lista);
+        when(fornecedorService.buscaTodosFornecedores(0,10, ModoTotal.EXATO)).thenReturn(lista);
 
         mockMvc.perform(get("/fornecedores/listar"))
                 .andExpect(status().isOk())
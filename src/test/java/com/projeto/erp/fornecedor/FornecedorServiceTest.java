@@ -5,7 +5,10 @@ import com.projeto.erp.common.dto.PageResponseDTO;
 import com.projeto.erp.fornecedor.dto.FornecedorRequestDTO;
 import com.projeto.erp.fornecedor.dto.FornecedorResponseDTO;
 import com.projeto.erp.fornecedor.mapper.FornecedorMapper;
+import com.projeto.erp.common.dto.SugestaoDTO;
 import com.projeto.erp.common.exception.BusinessException;
+import com.projeto.erp.common.pagination.ContagemAproximada;
+import com.projeto.erp.common.pagination.ModoTotal;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -15,6 +18,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpStatus;
 
 import java.util.Arrays;
@@ -32,6 +37,12 @@ class FornecedorServiceTest {
     @Mock
     private FornecedorMapper fornecedorMapper;
 
+    @Mock
+    private IndiceNomesFornecedores indiceNomesFornecedores;
+
+    @Mock
+    private ContagemAproximada contagemAproximada;
+
     @InjectMocks
     private FornecedorService fornecedorService;
 
@@ -58,6 +69,7 @@ class FornecedorServiceTest {
         // Assert
         assertNotNull(result);
         verify(fornecedorRepository, times(1)).save(fornecedor);
+        verify(indiceNomesFornecedores).registrar(savedFornecedor.getId(), savedFornecedor.getNome());
     }
 
     @Test
@@ -90,13 +102,31 @@ class FornecedorServiceTest {
         when(fornecedorMapper.toDTO(fornecedores.getContent().get(1))).thenReturn(responseDTOs.get(1));
 
         // Act
-        PageResponseDTO<FornecedorResponseDTO> result = fornecedorService.buscaTodosFornecedores(0,10);
+        PageResponseDTO<FornecedorResponseDTO> result = fornecedorService.buscaTodosFornecedores(0,10, ModoTotal.EXATO);
 
         // Assert
         assertEquals(2, result.getTotalElements());
         verify(fornecedorRepository, times(1)).findAll(pageable);
     }
 
+    @Test
+    void testListarTodos_SemTotalUltimaPagina() {
+        // Arrange
+        Pageable pageable = PageRequest.of(1, 10);
+        Slice<Fornecedor> fornecedores = new SliceImpl<>(List.of(new Fornecedor()), pageable, false);
+        when(fornecedorRepository.findAllBy(pageable)).thenReturn(fornecedores);
+        when(fornecedorMapper.toDTO(any(Fornecedor.class))).thenReturn(new FornecedorResponseDTO());
+
+        // Act
+        PageResponseDTO<FornecedorResponseDTO> result = fornecedorService.buscaTodosFornecedores(1, 10, ModoTotal.NENHUM);
+
+        // Assert
+        assertNull(result.getTotalElements());
+        assertTrue(result.isLast());
+        assertFalse(result.isFirst());
+        verify(fornecedorRepository, never()).count();
+    }
+
     @Test
     void testAtualizarFornecedor_QuandoFornecedorExiste() {
         // Arrange
@@ -176,6 +206,7 @@ class FornecedorServiceTest {
         // Assert
         verify(fornecedorRepository).findById(fornecedorId);
         verify(fornecedorRepository).delete(fornecedor);
+        verify(indiceNomesFornecedores).remover(fornecedorId);
     }
 
     @Test
@@ -249,7 +280,7 @@ class FornecedorServiceTest {
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            fornecedorService.buscaTodosFornecedores(0, 10);
+            fornecedorService.buscaTodosFornecedores(0, 10, ModoTotal.EXATO);
         });
 
         assertEquals("Nenhum Fornecedor encontrado", exception.getMessage());
@@ -270,4 +301,18 @@ class FornecedorServiceTest {
         assertEquals("Fornecedor não encontrado com o ID: " + fornecedorId, exception.getMessage());
         verify(fornecedorRepository).findById(fornecedorId);
     }
+
+    @Test
+    void testSugerirPorNome_ServidoPeloIndice() {
+        // Arrange
+        List<SugestaoDTO> sugestoes = List.of(new SugestaoDTO(1L, "João Silva"));
+        when(indiceNomesFornecedores.sugerir("jo", 10)).thenReturn(sugestoes);
+
+        // Act
+        List<SugestaoDTO> result = fornecedorService.sugerirPorNome("jo", 10);
+
+        // Assert
+        assertEquals(sugestoes, result);
+        verifyNoInteractions(fornecedorRepository);
+    }
 }
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.projeto.erp.common.dto.PageResponseDTO;
 import com.projeto.erp.common.exception.BusinessException;
 import com.projeto.erp.common.exception.GlobalExceptionHandler;
+import com.projeto.erp.common.pagination.ModoTotal;
 import com.projeto.erp.pedido.dto.ItemPedidoRequestDTO;
 import com.projeto.erp.pedido.dto.ItemPedidoResponseDTO;
 import com.projeto.erp.pedido.dto.PedidoRequestDTO;
@@ -17,14 +18,18 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -227,7 +232,7 @@ class PedidoControllerTest {
         // Arrange
         PageResponseDTO<PedidoResponseDTO> pageResponse = new PageResponseDTO<>(
             Arrays.asList(pedidoResponseDTO), 0, 10, 1L, 1, true, true);
-        when(pedidoService.listarTodos(0, 10)).thenReturn(pageResponse);
+        when(pedidoService.listarTodos(0, 10, ModoTotal.EXATO)).thenReturn(pageResponse);
 
         // Act & Assert
         mockMvc.perform(get("/pedidos/listar")
@@ -247,7 +252,7 @@ class PedidoControllerTest {
         // Arrange
         PageResponseDTO<PedidoResponseDTO> pageResponse = new PageResponseDTO<>(
             Arrays.asList(pedidoResponseDTO), 0, 10, 1L, 1, true, true);
-        when(pedidoService.listarTodos(0, 10)).thenReturn(pageResponse);
+        when(pedidoService.listarTodos(0, 10, ModoTotal.EXATO)).thenReturn(pageResponse);
 
         // Act & Assert
         mockMvc.perform(get("/pedidos/listar"))
@@ -256,6 +261,31 @@ class PedidoControllerTest {
                 .andExpect(jsonPath("$.content").isArray());
     }
 
+    @Test
+    void testListarTodos_SemTotal() throws Exception {
+        // Arrange
+        PageResponseDTO<PedidoResponseDTO> pageResponse = new PageResponseDTO<>(
+            Arrays.asList(pedidoResponseDTO), 0, 10, null, null, true, false);
+        when(pedidoService.listarTodos(0, 10, ModoTotal.NENHUM)).thenReturn(pageResponse);
+
+        // Act & Assert
+        mockMvc.perform(get("/pedidos/listar")
+                .param("total", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1L))
+                .andExpect(jsonPath("$.totalElements").isEmpty())
+                .andExpect(jsonPath("$.last").value(false));
+    }
+
+    @Test
+    void testListarTodos_TotalInvalido() throws Exception {
+        mockMvc.perform(get("/pedidos/listar")
+                .param("total", "talvez"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(pedidoService);
+    }
+
     @Test
     void testListarPorCliente_Sucesso() throws Exception {
         // Arrange
@@ -292,4 +322,33 @@ class PedidoControllerTest {
         mockMvc.perform(get("/pedidos/status/INVALID_STATUS"))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    void testExportarPorStatus_Ndjson() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            OutputStream saida = invocation.getArgument(1);
+            saida.write("{\"id\":1}\n{\"id\":2}\n".getBytes());
+            return null;
+        }).when(pedidoService).exportarPorStatus(eq(Pedido.StatusPedido.ABERTO), any(OutputStream.class));
+
+        // Act
+        MvcResult resultado = mockMvc.perform(get("/pedidos/status/aberto/exportar"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+    }
+
+    @Test
+    void testExportarPorStatus_StatusInvalido() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/pedidos/status/INVALID_STATUS/exportar"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(pedidoService);
+    }
 }
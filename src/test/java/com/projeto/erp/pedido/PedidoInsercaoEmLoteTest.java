@@ -0,0 +1,126 @@
+package com.projeto.erp.pedido;
+
+import com.projeto.erp.cliente.Cliente;
+import com.projeto.erp.cliente.ClienteRepository;
+import com.projeto.erp.fornecedor.Fornecedor;
+import com.projeto.erp.fornecedor.FornecedorRepository;
+import com.projeto.erp.produto.Produto;
+import com.projeto.erp.produto.ProdutoRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class PedidoInsercaoEmLoteTest {
+
+    private static final int ITENS_POR_PEDIDO = 100;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private FornecedorRepository fornecedorRepository;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Cliente cliente;
+    private final List<Produto> produtos = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Fornecedor fornecedor = new Fornecedor();
+        fornecedor.setNome("Fornecedor Teste");
+        fornecedor.setDocumento("12345678000100");
+        fornecedor.setAtivo(true);
+        fornecedor = fornecedorRepository.save(fornecedor);
+
+        cliente = new Cliente();
+        cliente.setNome("João Silva");
+        cliente.setEmail("joao@email.com");
+        cliente.setAtivo(true);
+        cliente = clienteRepository.save(cliente);
+
+        produtos.clear();
+        List<Produto> novos = new ArrayList<>();
+        for (int i = 0; i < ITENS_POR_PEDIDO; i++) {
+            Produto produto = new Produto();
+            produto.setNome("Produto " + i);
+            produto.setCodigoBarras("7890000" + String.format("%06d", i));
+            produto.setPreco(BigDecimal.TEN);
+            produto.setFornecedor(fornecedor);
+            novos.add(produto);
+        }
+        produtos.addAll(produtoRepository.saveAll(novos));
+    }
+
+    @Test
+    @DisplayName("Salvar pedido com 100 itens deve agrupar os INSERTs em lotes JDBC")
+    void testSalvarPedido_InsertsEmLote() {
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+
+        salvarPedidos(1);
+
+        long statements = estatisticas.getPrepareStatementCount();
+        assertEquals(1, pedidoRepository.count());
+        // Com IDENTITY eram 101 INSERTs; agora: INSERT do pedido, 2 lotes de itens e as sequences
+        assertTrue(statements <= 10, "Statements preparados: " + statements);
+    }
+
+    /**
+     * Grava pedidos de 100 itens, um por transação.
+     */
+    private void salvarPedidos(int quantidade) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        for (int n = 0; n < quantidade; n++) {
+            transactionTemplate.executeWithoutResult(status -> pedidoRepository.save(novoPedido()));
+        }
+    }
+
+    private Pedido novoPedido() {
+        Pedido pedido = new Pedido();
+        pedido.setCliente(cliente);
+
+        List<ItemPedido> itens = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (Produto produto : produtos) {
+            ItemPedido item = new ItemPedido();
+            item.setPedido(pedido);
+            item.setProduto(produto);
+            item.setQuantidade(1);
+            item.setPrecoUnitario(produto.getPreco());
+            itens.add(item);
+            total = total.add(item.getSubtotal());
+        }
+        pedido.setItens(itens);
+        pedido.setTotal(total);
+        return pedido;
+    }
+}
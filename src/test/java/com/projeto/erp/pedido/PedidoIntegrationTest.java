@@ -1,5 +1,6 @@
 package com.projeto.erp.pedido;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.projeto.erp.cliente.Cliente;
 import com.projeto.erp.cliente.ClienteRepository;
@@ -21,14 +22,19 @@ import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -194,9 +200,10 @@ class PedidoIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.status").value("CONCLUIDO"));
 
-        // 4. Verificar se o estoque foi atualizado
+        // 4. Verificar se o estoque foi atualizado e a reserva convertida
         Estoque estoqueAtualizado = estoqueRepository.findByProdutoId(produto1.getId()).orElseThrow();
-        assert estoqueAtualizado.getQuantidade() == 95; // 100 - 5 = 95
+        assert estoqueAtualizado.getSaldo() == 95; // 100 - 5 = 95, saída ainda na cauda do diário
+        assert estoqueAtualizado.getQuantidadeReservada() == 0;
     }
 
     @Test
@@ -219,6 +226,46 @@ class PedidoIntegrationTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @DisplayName("Deve reservar estoque ao criar pedido e liberar ao cancelar")
+    void testReservaEstoque_CriarECancelar() throws Exception {
+        // 1. Criar pedido reservando 60 de 100 unidades
+        ItemPedidoRequestDTO item = new ItemPedidoRequestDTO();
+        item.setProdutoId(produto1.getId());
+        item.setQuantidade(60);
+        item.setPrecoUnitario(BigDecimal.valueOf(10.50));
+
+        PedidoRequestDTO pedidoRequest = new PedidoRequestDTO();
+        pedidoRequest.setClienteId(cliente.getId());
+        pedidoRequest.setItens(Arrays.asList(item));
+
+        String response = mockMvc.perform(post("/pedidos/criar")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(pedidoRequest)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        Long pedidoId = objectMapper.readTree(response).get("id").asLong();
+
+        Estoque estoqueReservado = estoqueRepository.findByProdutoId(produto1.getId()).orElseThrow();
+        assertEquals(100, estoqueReservado.getQuantidade());
+        assertEquals(60, estoqueReservado.getQuantidadeReservada());
+
+        // 2. Segundo pedido não pode usar as unidades reservadas pelo primeiro
+        mockMvc.perform(post("/pedidos/criar")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(pedidoRequest)))
+                .andExpect(status().isBadRequest());
+
+        // 3. Cancelar devolve a reserva ao disponível
+        mockMvc.perform(put("/pedidos/" + pedidoId + "/cancelar"))
+                .andExpect(status().isOk());
+
+        Estoque estoqueLiberado = estoqueRepository.findByProdutoId(produto1.getId()).orElseThrow();
+        assertEquals(100, estoqueLiberado.getQuantidade());
+        assertEquals(0, estoqueLiberado.getQuantidadeReservada());
+    }
+
     @Test
     @DisplayName("Deve falhar ao processar pedido que não está em ABERTO")
     @Transactional
@@ -308,6 +355,152 @@ class PedidoIntegrationTest {
                 .andExpect(jsonPath("$.pageSize").value(2));
     }
 
+    @Test
+    @DisplayName("Deve percorrer todos os pedidos pelo cursor, do mais recente ao mais antigo")
+    void testListarPedidosPorCursor() throws Exception {
+        List<Long> criados = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ItemPedidoRequestDTO item = new ItemPedidoRequestDTO();
+            item.setProdutoId(produto1.getId());
+            item.setQuantidade(1);
+            item.setPrecoUnitario(BigDecimal.valueOf(10.50));
+
+            PedidoRequestDTO pedidoRequest = new PedidoRequestDTO();
+            pedidoRequest.setClienteId(cliente.getId());
+            pedidoRequest.setItens(Arrays.asList(item));
+
+            String response = mockMvc.perform(post("/pedidos/criar")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(pedidoRequest)))
+                    .andReturn().getResponse().getContentAsString();
+            criados.add(objectMapper.readTree(response).get("id").asLong());
+        }
+
+        // Primeira página: sem cursor, total só quando solicitado
+        mockMvc.perform(get("/pedidos/listar/cursor").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        List<Long> percorridos = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            var requisicao = get("/pedidos/listar/cursor").param("size", "2").param("total", "true");
+            if (cursor != null) {
+                requisicao.param("cursor", cursor);
+            }
+            String response = mockMvc.perform(requisicao)
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalElements").value(5))
+                    .andReturn().getResponse().getContentAsString();
+
+            JsonNode pagina = objectMapper.readTree(response);
+            pagina.get("content").forEach(pedido -> percorridos.add(pedido.get("id").asLong()));
+            cursor = pagina.get("hasNext").asBoolean() ? pagina.get("nextCursor").asText() : null;
+            paginas++;
+        } while (cursor != null);
+
+        assertEquals(3, paginas);
+        assertEquals(5, percorridos.size());
+        assertTrue(percorridos.containsAll(criados));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar cursor inválido")
+    void testListarPedidosPorCursor_CursorInvalido() throws Exception {
+        mockMvc.perform(get("/pedidos/listar/cursor").param("cursor", "nao-e-um-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Deve exportar pedidos por status em NDJSON, um pedido por linha")
+    void testExportarPedidosPorStatus() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            ItemPedidoRequestDTO item = new ItemPedidoRequestDTO();
+            item.setProdutoId(produto1.getId());
+            item.setQuantidade(1);
+            item.setPrecoUnitario(BigDecimal.valueOf(10.50));
+
+            PedidoRequestDTO pedidoRequest = new PedidoRequestDTO();
+            pedidoRequest.setClienteId(cliente.getId());
+            pedidoRequest.setItens(Arrays.asList(item));
+
+            mockMvc.perform(post("/pedidos/criar")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(pedidoRequest)))
+                    .andExpect(status().isCreated());
+        }
+
+        MvcResult exportacao = mockMvc.perform(get("/pedidos/status/ABERTO/exportar"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String corpo = mockMvc.perform(asyncDispatch(exportacao))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] linhas = corpo.split("\n");
+        assertEquals(3, linhas.length);
+        for (String linha : linhas) {
+            JsonNode pedido = objectMapper.readTree(linha);
+            assertEquals("João Silva", pedido.get("clienteNome").asText());
+            assertEquals("Produto A", pedido.get("itens").get(0).get("produtoNome").asText());
+        }
+
+        // Outro status não exporta nada
+        MvcResult vazia = mockMvc.perform(get("/pedidos/status/CONCLUIDO/exportar"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(vazia))
+                .andExpect(status().isOk())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("Deve criar pedidos em lote e informar o resultado de cada um")
+    void testCriarPedidosEmLote() throws Exception {
+        List<PedidoRequestDTO> lote = new ArrayList<>();
+        for (int quantidade : new int[]{10, 20, 80}) {
+            ItemPedidoRequestDTO item = new ItemPedidoRequestDTO();
+            item.setProdutoId(produto1.getId());
+            item.setQuantidade(quantidade);
+            item.setPrecoUnitario(BigDecimal.valueOf(10.50));
+
+            PedidoRequestDTO pedidoRequest = new PedidoRequestDTO();
+            pedidoRequest.setClienteId(cliente.getId());
+            pedidoRequest.setItens(Arrays.asList(item));
+            lote.add(pedidoRequest);
+        }
+
+        // O terceiro pedido excede o disponível depois dos dois primeiros (100 - 30 = 70)
+        mockMvc.perform(post("/pedidos/lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(lote)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.recebidos").value(3))
+                .andExpect(jsonPath("$.criados").value(2))
+                .andExpect(jsonPath("$.rejeitados").value(1))
+                .andExpect(jsonPath("$.resultados[0].pedidoId").isNumber())
+                .andExpect(jsonPath("$.resultados[2].erro").value("Quantidade insuficiente em estoque para o produto"));
+
+        assertEquals(2, pedidoRepository.count());
+        Estoque estoqueReservado = estoqueRepository.findByProdutoId(produto1.getId()).orElseThrow();
+        assertEquals(30, estoqueReservado.getQuantidadeReservada());
+
+        // Mesmo lote em NDJSON: um pedido por linha
+        String ndjson = objectMapper.writeValueAsString(lote.get(0)) + "\n" + objectMapper.writeValueAsString(lote.get(1)) + "\n";
+        mockMvc.perform(post("/pedidos/lote")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.criados").value(2));
+
+        assertEquals(60, estoqueRepository.findByProdutoId(produto1.getId()).orElseThrow().getQuantidadeReservada());
+    }
+
     @Test
     @DisplayName("Deve listar pedidos por cliente")
     @Transactional
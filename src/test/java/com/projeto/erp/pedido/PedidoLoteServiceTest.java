@@ -0,0 +1,308 @@
+package com.projeto.erp.pedido;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projeto.erp.cliente.Cliente;
+import com.projeto.erp.cliente.ClienteRepository;
+import com.projeto.erp.common.exception.BusinessException;
+import com.projeto.erp.common.metricas.MetricasNegocio;
+import com.projeto.erp.estoque.Estoque;
+import com.projeto.erp.estoque.EstoqueRepository;
+import com.projeto.erp.pedido.dto.ItemPedidoRequestDTO;
+import com.projeto.erp.pedido.dto.PedidoLoteResponseDTO;
+import com.projeto.erp.pedido.dto.PedidoRequestDTO;
+import com.projeto.erp.pedido.dto.PedidoResponseDTO;
+import com.projeto.erp.produto.Produto;
+import com.projeto.erp.produto.ProdutoRepository;
+import com.projeto.erp.reserva.ReservaEstoqueService;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PedidoLoteServiceTest {
+
+    @Mock
+    private PedidoRepository pedidoRepository;
+
+    @Mock
+    private ClienteRepository clienteRepository;
+
+    @Mock
+    private ProdutoRepository produtoRepository;
+
+    @Mock
+    private EstoqueRepository estoqueRepository;
+
+    @Mock
+    private ReservaEstoqueService reservaEstoqueService;
+
+    @Mock
+    private PedidoService pedidoService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private MetricasNegocio metricasNegocio;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private PedidoLoteService pedidoLoteService;
+
+    AutoCloseable mocksCloseable;
+
+    private Cliente cliente;
+    private Estoque estoque;
+
+    @BeforeEach
+    void setUp() {
+        mocksCloseable = MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(pedidoLoteService, "tamanhoBloco", 500);
+        ReflectionTestUtils.setField(pedidoLoteService, "maximoPedidos", 10);
+
+        cliente = new Cliente();
+        cliente.setId(1L);
+        cliente.setNome("João Silva");
+
+        Produto produto = new Produto();
+        produto.setId(1L);
+        produto.setNome("Produto Teste");
+
+        estoque = new Estoque();
+        estoque.setId(1L);
+        estoque.setProduto(produto);
+        estoque.setQuantidade(10);
+
+        when(clienteRepository.findAllById(anyCollection())).thenReturn(List.of(cliente));
+        when(estoqueRepository.findAllByProdutoIdIn(anyCollection())).thenReturn(List.of(estoque));
+
+        // IDs atribuídos como a sequence faria no flush
+        AtomicLong sequencia = new AtomicLong(100);
+        when(pedidoRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            Iterable<Pedido> pedidos = invocation.getArgument(0);
+            pedidos.forEach(pedido -> pedido.setId(sequencia.incrementAndGet()));
+            return pedidos;
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (mocksCloseable != null) {
+            mocksCloseable.close();
+        }
+    }
+
+    @Test
+    void testCriarLote_ResultadoPorPedido() {
+        List<PedidoRequestDTO> lote = List.of(
+                pedido(1L, 1L, 4),      // criado
+                pedido(99L, 1L, 1),     // cliente inexistente
+                pedido(1L, 1L, 0),      // quantidade inválida
+                pedido(1L, 1L, 7),      // só restam 6 após o primeiro pedido
+                pedido(1L, 1L, 6));     // consome o restante
+
+        PedidoLoteResponseDTO resposta = pedidoLoteService.criarLote(lote);
+
+        assertEquals(5, resposta.getRecebidos());
+        assertEquals(2, resposta.getCriados());
+        assertEquals(3, resposta.getRejeitados());
+        assertEquals(101L, resposta.getResultados().get(0).getPedidoId());
+        assertEquals("Cliente não encontrado", resposta.getResultados().get(1).getErro());
+        assertTrue(resposta.getResultados().get(2).getErro().contains("Quantidade deve ser positiva"));
+        assertEquals("Quantidade insuficiente em estoque para o produto", resposta.getResultados().get(3).getErro());
+        assertEquals(102L, resposta.getResultados().get(4).getPedidoId());
+
+        // Referências carregadas uma vez para o bloco inteiro
+        verify(clienteRepository, times(1)).findAllById(anyCollection());
+        verify(estoqueRepository, times(1)).findAllByProdutoIdIn(anyCollection());
+        verify(reservaEstoqueService, times(1)).reservarLote(Map.of(101L, Map.of(1L, 4), 102L, Map.of(1L, 6)));
+        verify(pedidoService, never()).criarPedido(any());
+        verify(metricasNegocio).pedidosCriados("lote", 2);
+        verify(metricasNegocio).estoqueInsuficiente("lote-pedidos");
+    }
+
+    @Test
+    void testCriarLote_ProdutoInexistenteESemEstoque() {
+        when(produtoRepository.findAllById(anyCollection())).thenAnswer(invocation -> {
+            Produto semEstoque = new Produto();
+            semEstoque.setId(2L);
+            return List.of(semEstoque);
+        });
+
+        PedidoLoteResponseDTO resposta = pedidoLoteService.criarLote(List.of(
+                pedido(1L, 2L, 1),
+                pedido(1L, 3L, 1)));
+
+        assertEquals(0, resposta.getCriados());
+        assertEquals("Estoque não encontrado para o produto", resposta.getResultados().get(0).getErro());
+        assertEquals("Produto com ID 3 não encontrado", resposta.getResultados().get(1).getErro());
+        verify(pedidoRepository, never()).saveAll(anyIterable());
+    }
+
+    @Test
+    void testCriarLote_ReservaFalhaRefazPedidoAPedido() {
+        doThrow(new BusinessException("Quantidade insuficiente em estoque para o produto 1", HttpStatus.BAD_REQUEST))
+                .when(reservaEstoqueService).reservarLote(anyMap());
+
+        PedidoResponseDTO criado = new PedidoResponseDTO();
+        criado.setId(500L);
+        PedidoRequestDTO primeiro = pedido(1L, 1L, 2);
+        PedidoRequestDTO segundo = pedido(1L, 1L, 3);
+        when(pedidoService.criarPedido(primeiro)).thenReturn(criado);
+        when(pedidoService.criarPedido(segundo))
+                .thenThrow(new BusinessException("Quantidade insuficiente em estoque para o produto", HttpStatus.BAD_REQUEST));
+
+        PedidoLoteResponseDTO resposta = pedidoLoteService.criarLote(List.of(primeiro, segundo, pedido(99L, 1L, 1)));
+
+        assertEquals(1, resposta.getCriados());
+        assertEquals(500L, resposta.getResultados().get(0).getPedidoId());
+        assertEquals("Quantidade insuficiente em estoque para o produto", resposta.getResultados().get(1).getErro());
+        // Rejeitado na validação não é reenviado
+        assertEquals("Cliente não encontrado", resposta.getResultados().get(2).getErro());
+        verify(pedidoService, times(2)).criarPedido(any());
+        // Bloco desfeito: os pedidos criados pelo caminho unitário são contados pelo PedidoService
+        verify(metricasNegocio, never()).pedidosCriados(eq("lote"), anyInt());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void testCriarLote_FalhaInesperadaNoBlocoRefazPedidoAPedido() {
+        doThrow(new QueryTimeoutException("timeout")).when(reservaEstoqueService).reservarLote(anyMap());
+
+        PedidoResponseDTO criado = new PedidoResponseDTO();
+        criado.setId(500L);
+        PedidoResponseDTO criadoAposRecusa = new PedidoResponseDTO();
+        criadoAposRecusa.setId(501L);
+        PedidoRequestDTO primeiro = pedido(1L, 1L, 8);
+        PedidoRequestDTO segundo = pedido(1L, 1L, 2);
+        PedidoRequestDTO terceiro = pedido(1L, 1L, 5);
+        when(pedidoService.criarPedido(primeiro)).thenThrow(new QueryTimeoutException("timeout"));
+        when(pedidoService.criarPedido(segundo)).thenReturn(criado);
+        when(pedidoService.criarPedido(terceiro)).thenReturn(criadoAposRecusa);
+
+        PedidoLoteResponseDTO resposta = pedidoLoteService.criarLote(List.of(primeiro, segundo, terceiro));
+
+        // O lote não falha inteiro: cada pedido tem o seu resultado
+        assertEquals(3, resposta.getResultados().size());
+        assertEquals("Falha ao gravar o pedido", resposta.getResultados().get(0).getErro());
+        assertEquals(500L, resposta.getResultados().get(1).getPedidoId());
+        // Recusado pelo saldo corrido do bloco, que contava o primeiro pedido; refeito sem ele, é criado
+        assertEquals(501L, resposta.getResultados().get(2).getPedidoId());
+        verify(pedidoService, times(3)).criarPedido(any());
+        verify(transactionManager).rollback(any());
+        // A recusa do bloco desfeito não vale: a métrica fica para o caminho unitário
+        verify(metricasNegocio, never()).estoqueInsuficiente("lote-pedidos");
+    }
+
+    @Test
+    void testCriarLote_FalhaNoBlocoMantemRejeicaoDeReferencia() {
+        doThrow(new QueryTimeoutException("timeout")).when(reservaEstoqueService).reservarLote(anyMap());
+
+        PedidoResponseDTO criado = new PedidoResponseDTO();
+        criado.setId(500L);
+        PedidoRequestDTO valido = pedido(1L, 1L, 1);
+        when(pedidoService.criarPedido(valido)).thenReturn(criado);
+
+        PedidoLoteResponseDTO resposta = pedidoLoteService.criarLote(List.of(valido, pedido(99L, 1L, 1)));
+
+        assertEquals(500L, resposta.getResultados().get(0).getPedidoId());
+        assertEquals("Cliente não encontrado", resposta.getResultados().get(1).getErro());
+        // Só o pedido pendente é refeito; o cliente inexistente não volta ao caminho unitário
+        verify(pedidoService, times(1)).criarPedido(any());
+    }
+
+    @Test
+    void testCriarLote_DivideEmBlocos() {
+        ReflectionTestUtils.setField(pedidoLoteService, "tamanhoBloco", 2);
+        estoque.setQuantidade(100);
+
+        PedidoLoteResponseDTO resposta = pedidoLoteService.criarLote(List.of(
+                pedido(1L, 1L, 1), pedido(1L, 1L, 1), pedido(1L, 1L, 1), pedido(1L, 1L, 1), pedido(1L, 1L, 1)));
+
+        assertEquals(5, resposta.getCriados());
+        verify(transactionManager, times(3)).commit(any());
+        verify(reservaEstoqueService, times(3)).reservarLote(anyMap());
+        verify(entityManager, times(3)).clear();
+    }
+
+    @Test
+    void testCriarLote_VazioOuAcimaDoLimite() {
+        BusinessException vazio = assertThrows(BusinessException.class,
+                () -> pedidoLoteService.criarLote(Collections.emptyList()));
+        assertEquals(HttpStatus.BAD_REQUEST, vazio.getStatus());
+
+        List<PedidoRequestDTO> grande = new ArrayList<>(Collections.nCopies(11, pedido(1L, 1L, 1)));
+        BusinessException excedido = assertThrows(BusinessException.class,
+                () -> pedidoLoteService.criarLote(grande));
+        assertEquals("Lote excede o limite de 10 pedidos", excedido.getMessage());
+    }
+
+    @Test
+    void testCriarLoteNdjson_UmPedidoPorLinha() throws Exception {
+        String ndjson = """
+                {"clienteId":1,"itens":[{"produtoId":1,"quantidade":1,"precoUnitario":10.50}]}
+
+                {"clienteId":1,"itens":[{"produtoId":1,"quantidade":2,"precoUnitario":10.50}]}
+                """;
+
+        PedidoLoteResponseDTO resposta = pedidoLoteService.criarLoteNdjson(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, resposta.getRecebidos());
+        assertEquals(2, resposta.getCriados());
+    }
+
+    @Test
+    void testCriarLoteNdjson_LinhaInvalida() {
+        String ndjson = "{\"clienteId\":1,\"itens\":[]}\n{nao e json\n";
+
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> pedidoLoteService.criarLoteNdjson(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8))));
+
+        assertEquals("JSON inválido na linha 2", exception.getMessage());
+        verify(pedidoRepository, never()).saveAll(anyIterable());
+    }
+
+    private PedidoRequestDTO pedido(Long clienteId, Long produtoId, int quantidade) {
+        ItemPedidoRequestDTO item = new ItemPedidoRequestDTO();
+        item.setProdutoId(produtoId);
+        item.setQuantidade(quantidade);
+        item.setPrecoUnitario(BigDecimal.valueOf(10.50));
+
+        PedidoRequestDTO pedido = new PedidoRequestDTO();
+        pedido.setClienteId(clienteId);
+        pedido.setItens(List.of(item));
+        return pedido;
+    }
+}
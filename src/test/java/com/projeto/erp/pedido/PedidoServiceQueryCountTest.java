@@ -0,0 +1,232 @@
+package com.projeto.erp.pedido;
+
+import com.projeto.erp.cliente.Cliente;
+import com.projeto.erp.cliente.ClienteRepository;
+import com.projeto.erp.common.datasource.EstatisticasConsultas;
+import com.projeto.erp.common.dto.PageResponseDTO;
+import com.projeto.erp.common.pagination.ModoTotal;
+import com.projeto.erp.estoque.Estoque;
+import com.projeto.erp.estoque.EstoqueRepository;
+import com.projeto.erp.fornecedor.Fornecedor;
+import com.projeto.erp.fornecedor.FornecedorRepository;
+import com.projeto.erp.pedido.dto.ItemPedidoRequestDTO;
+import com.projeto.erp.pedido.dto.PedidoRequestDTO;
+import com.projeto.erp.pedido.dto.PedidoResponseDTO;
+import com.projeto.erp.produto.Produto;
+import com.projeto.erp.produto.ProdutoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.projeto.erp.common.OrcamentoConsultas.assertMaximo;
+import static com.projeto.erp.common.OrcamentoConsultas.medir;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class PedidoServiceQueryCountTest {
+
+    private static final int QUANTIDADE_PRODUTOS = 20;
+    // Cliente fora do cache, produtos com estoque, lock das linhas de estoque, UPDATE de reserva de todos os
+    // produtos, INSERT do pedido, lotes de itens e de reservas e, no pior caso, um bloco novo de cada sequence
+    private static final int ORCAMENTO_CRIAR_PEDIDO = 10;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private FornecedorRepository fornecedorRepository;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private EstoqueRepository estoqueRepository;
+
+    private Cliente cliente;
+    private final List<Produto> produtos = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Fornecedor fornecedor = new Fornecedor();
+        fornecedor.setNome("Fornecedor Teste");
+        fornecedor.setDocumento("12345678000100");
+        fornecedor.setEmail("fornecedor@teste.com");
+        fornecedor.setAtivo(true);
+        fornecedor = fornecedorRepository.save(fornecedor);
+
+        cliente = new Cliente();
+        cliente.setNome("João Silva");
+        cliente.setEmail("joao@email.com");
+        cliente.setDocumento("12345678901");
+        cliente.setTelefone("11999999999");
+        cliente.setAtivo(true);
+        cliente = clienteRepository.save(cliente);
+
+        produtos.clear();
+        for (int i = 0; i < QUANTIDADE_PRODUTOS; i++) {
+            Produto produto = new Produto();
+            produto.setNome("Produto " + i);
+            produto.setCodigoBarras("78900000000" + String.format("%02d", i));
+            produto.setPreco(BigDecimal.valueOf(10.00));
+            produto.setFornecedor(fornecedor);
+            produto = produtoRepository.save(produto);
+
+            Estoque estoque = new Estoque();
+            estoque.setProduto(produto);
+            estoque.setQuantidade(1000);
+            estoqueRepository.save(estoque);
+
+            produtos.add(produto);
+        }
+    }
+
+    @Test
+    @DisplayName("Quantidade de consultas ao criar pedido não deve depender do número de itens")
+    void testCriarPedido_QuantidadeDeConsultasConstante() {
+        // Aquecimento (inicialização de sequences, caches etc.)
+        pedidoService.criarPedido(pedidoComItens(1));
+
+        PedidoResponseDTO[] pedidos = new PedidoResponseDTO[2];
+        // Conta todos os comandos (não só SELECTs) e apenas os desta thread, sem pegar os jobs agendados
+        EstatisticasConsultas umItem = medir(() -> pedidos[0] = pedidoService.criarPedido(pedidoComItens(1)));
+        EstatisticasConsultas vinteItens = medir(() ->
+                pedidos[1] = pedidoService.criarPedido(pedidoComItens(QUANTIDADE_PRODUTOS)));
+
+        assertEquals(1, pedidos[0].getItens().size());
+        assertEquals(QUANTIDADE_PRODUTOS, pedidos[1].getItens().size());
+        assertEquals(umItem.getConsultas(), vinteItens.getConsultas(),
+                "Com 1 item:" + umItem.descreverCapturadas() + "\nCom " + QUANTIDADE_PRODUTOS + " itens:"
+                        + vinteItens.descreverCapturadas());
+    }
+
+    @Test
+    @DisplayName("Criar pedido cabe em um orçamento fixo de consultas, qualquer que seja o número de itens")
+    void testCriarPedido_OrcamentoDeConsultas() {
+        pedidoService.criarPedido(pedidoComItens(1));
+
+        assertMaximo(ORCAMENTO_CRIAR_PEDIDO, () -> pedidoService.criarPedido(pedidoComItens(1)));
+        assertMaximo(ORCAMENTO_CRIAR_PEDIDO, () -> pedidoService.criarPedido(pedidoComItens(QUANTIDADE_PRODUTOS)));
+    }
+
+    @Test
+    @DisplayName("Listagem paginada de pedidos deve usar número fixo de consultas por página")
+    void testListarTodos_QuantidadeDeConsultasPorPagina() {
+        for (int i = 0; i < 15; i++) {
+            pedidoService.criarPedido(pedidoComItens(3));
+        }
+
+        List<PageResponseDTO<PedidoResponseDTO>> paginas = new ArrayList<>();
+        // IDs da página + count + pedidos com cliente/itens/produtos
+        assertMaximo(3, () -> paginas.add(pedidoService.listarTodos(0, 10, ModoTotal.EXATO)));
+        PageResponseDTO<PedidoResponseDTO> pagina = paginas.get(0);
+
+        assertEquals(10, pagina.getContent().size());
+        assertEquals(15, pagina.getTotalElements());
+        pagina.getContent().forEach(pedido -> {
+            assertEquals("João Silva", pedido.getClienteNome());
+            assertEquals(3, pedido.getItens().size());
+            assertNotNull(pedido.getItens().get(0).getProdutoNome());
+        });
+    }
+
+    @Test
+    @DisplayName("Listagem paginada sem total não deve executar count")
+    void testListarTodos_SemTotalNaoExecutaCount() {
+        for (int i = 0; i < 15; i++) {
+            pedidoService.criarPedido(pedidoComItens(1));
+        }
+
+        List<PageResponseDTO<PedidoResponseDTO>> paginas = new ArrayList<>();
+        // IDs da página (um a mais) + pedidos com cliente/itens/produtos
+        assertMaximo(2, () -> paginas.add(pedidoService.listarTodos(0, 10, ModoTotal.NENHUM)));
+        PageResponseDTO<PedidoResponseDTO> primeira = paginas.get(0);
+        PageResponseDTO<PedidoResponseDTO> segunda = pedidoService.listarTodos(1, 10, ModoTotal.NENHUM);
+
+        assertEquals(10, primeira.getContent().size());
+        assertNull(primeira.getTotalElements());
+        assertFalse(primeira.isLast());
+        assertEquals(5, segunda.getContent().size());
+        assertTrue(segunda.isLast());
+    }
+
+    @Test
+    @DisplayName("Listagens por cliente e por status devem carregar pedidos em uma consulta")
+    void testListarPorClienteEStatus_UmaConsulta() {
+        for (int i = 0; i < 10; i++) {
+            pedidoService.criarPedido(pedidoComItens(5));
+        }
+
+        List<List<PedidoResponseDTO>> listas = new ArrayList<>();
+        assertMaximo(1, () -> listas.add(pedidoService.listarPorCliente(cliente.getId())));
+        assertMaximo(1, () -> listas.add(pedidoService.listarPorStatus(Pedido.StatusPedido.ABERTO)));
+
+        assertEquals(10, listas.get(0).size());
+        assertEquals(10, listas.get(1).size());
+        assertEquals(5, listas.get(1).get(0).getItens().size());
+    }
+
+    @Test
+    @DisplayName("Listagem por cliente lê uma linha por item, em uma única ida ao banco")
+    void testListarPorCliente_LinhasLidas() {
+        for (int i = 0; i < 10; i++) {
+            pedidoService.criarPedido(pedidoComItens(5));
+        }
+
+        EstatisticasConsultas estatisticas = assertMaximo(1, () -> pedidoService.listarPorCliente(cliente.getId()));
+
+        // Join com itens: 10 pedidos x 5 itens
+        assertEquals(50, estatisticas.getLinhas());
+    }
+
+    @Test
+    @DisplayName("Leituras de pedidos rodam em transação somente leitura, sem flush")
+    void testLeituras_SemFlush() {
+        PedidoResponseDTO criado = null;
+        for (int i = 0; i < 3; i++) {
+            criado = pedidoService.criarPedido(pedidoComItens(2));
+        }
+        Long pedidoId = criado.getId();
+
+        EstatisticasConsultas estatisticas = medir(() -> {
+            pedidoService.buscarPorId(pedidoId);
+            pedidoService.listarTodos(0, 10, ModoTotal.EXATO);
+            pedidoService.listarPorCursor(null, 10, false);
+            pedidoService.listarPorCliente(cliente.getId());
+            pedidoService.listarPorStatus(Pedido.StatusPedido.ABERTO);
+        });
+
+        // readOnly = true: FlushMode.MANUAL e entidades sem snapshot, então nenhum comando além das leituras
+        estatisticas.getCapturadas().forEach(consulta ->
+                assertTrue(consulta.sql().stripLeading().regionMatches(true, 0, "select", 0, 6),
+                        "Comando fora de leitura:" + estatisticas.descreverCapturadas()));
+    }
+
+    private PedidoRequestDTO pedidoComItens(int quantidadeItens) {
+        List<ItemPedidoRequestDTO> itens = new ArrayList<>();
+        for (int i = 0; i < quantidadeItens; i++) {
+            ItemPedidoRequestDTO item = new ItemPedidoRequestDTO();
+            item.setProdutoId(produtos.get(i).getId());
+            item.setQuantidade(1);
+            item.setPrecoUnitario(BigDecimal.valueOf(10.00));
+            itens.add(item);
+        }
+
+        PedidoRequestDTO pedidoRequest = new PedidoRequestDTO();
+        pedidoRequest.setClienteId(cliente.getId());
+        pedidoRequest.setItens(itens);
+        return pedidoRequest;
+    }
+}
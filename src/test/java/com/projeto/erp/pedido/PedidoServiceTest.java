@@ -1,9 +1,16 @@
 package com.projeto.erp.pedido;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.projeto.erp.cliente.Cliente;
 import com.projeto.erp.cliente.ClienteRepository;
+import com.projeto.erp.common.dto.CursorPageResponseDTO;
 import com.projeto.erp.common.dto.PageResponseDTO;
+import com.projeto.erp.common.metricas.MetricasNegocio;
+import com.projeto.erp.common.pagination.ContagemAproximada;
+import com.projeto.erp.common.pagination.Cursor;
+import com.projeto.erp.common.pagination.ModoTotal;
 import com.projeto.erp.common.exception.BusinessException;
+import com.projeto.erp.estoque.ContadorEstoque;
 import com.projeto.erp.estoque.Estoque;
 import com.projeto.erp.estoque.EstoqueRepository;
 import com.projeto.erp.pedido.dto.ItemPedidoRequestDTO;
@@ -12,22 +19,32 @@ import com.projeto.erp.pedido.dto.PedidoResponseDTO;
 import com.projeto.erp.pedido.mapper.PedidoMapper;
 import com.projeto.erp.produto.Produto;
 import com.projeto.erp.produto.ProdutoRepository;
+import com.projeto.erp.reserva.ReservaEstoqueService;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpStatus;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -47,9 +64,27 @@ class PedidoServiceTest {
     @Mock
     private EstoqueRepository estoqueRepository;
 
+    @Mock
+    private ReservaEstoqueService reservaEstoqueService;
+
+    @Mock
+    private ContadorEstoque contadorEstoque;
+
+    @Mock
+    private ContagemAproximada contagemAproximada;
+
     @Mock
     private PedidoMapper pedidoMapper;
 
+    @Mock
+    private MetricasNegocio metricasNegocio;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
     @InjectMocks
     private PedidoService pedidoService;
 
@@ -124,9 +159,7 @@ class PedidoServiceTest {
     void testCriarPedido_Sucesso() {
         // Arrange
         when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
-        when(produtoRepository.existsById(1L)).thenReturn(true);
-        when(estoqueRepository.findByProdutoId(1L)).thenReturn(Optional.of(estoque));
-        when(produtoRepository.findById(1L)).thenReturn(Optional.of(produto));
+        when(estoqueRepository.findAllByProdutoIdIn(anyCollection())).thenReturn(List.of(estoque));
         when(pedidoRepository.save(any(Pedido.class))).thenReturn(pedido);
         when(pedidoMapper.toDTO(any(Pedido.class))).thenReturn(pedidoResponseDTO);
 
@@ -140,9 +173,53 @@ class PedidoServiceTest {
         assertEquals(Pedido.StatusPedido.ABERTO, resultado.getStatus());
         
         verify(clienteRepository).findById(1L);
-        verify(produtoRepository).existsById(1L);
-        verify(estoqueRepository).findByProdutoId(1L);
+        verify(estoqueRepository).findAllByProdutoIdIn(anyCollection());
+        verify(produtoRepository, never()).existsById(anyLong());
+        verify(produtoRepository, never()).findById(anyLong());
         verify(pedidoRepository).save(any(Pedido.class));
+        verify(reservaEstoqueService).reservar(1L, Map.of(1L, 2));
+        verify(metricasNegocio).pedidosCriados("unitario", 1);
+    }
+
+    @Test
+    void testCriarPedido_CarregaEstoquesEmUmaConsulta() {
+        // Arrange
+        Produto produto2 = new Produto();
+        produto2.setId(2L);
+        produto2.setNome("Produto Teste 2");
+
+        Estoque estoque2 = new Estoque();
+        estoque2.setId(2L);
+        estoque2.setProduto(produto2);
+        estoque2.setQuantidade(50);
+
+        ItemPedidoRequestDTO item2 = new ItemPedidoRequestDTO();
+        item2.setProdutoId(2L);
+        item2.setQuantidade(3);
+        item2.setPrecoUnitario(BigDecimal.valueOf(5.00));
+
+        ItemPedidoRequestDTO item3 = new ItemPedidoRequestDTO();
+        item3.setProdutoId(1L);
+        item3.setQuantidade(1);
+        item3.setPrecoUnitario(BigDecimal.valueOf(10.50));
+
+        pedidoRequestDTO.setItens(Arrays.asList(itemPedidoRequestDTO, item2, item3));
+
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(estoqueRepository.findAllByProdutoIdIn(anyCollection())).thenReturn(List.of(estoque, estoque2));
+        when(pedidoRepository.save(any(Pedido.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(pedidoMapper.toDTO(any(Pedido.class))).thenReturn(pedidoResponseDTO);
+
+        // Act
+        pedidoService.criarPedido(pedidoRequestDTO);
+
+        // Assert
+        verify(estoqueRepository, times(1)).findAllByProdutoIdIn(argThat((Collection<Long> ids) -> ids.size() == 2));
+        verify(estoqueRepository, never()).findByProdutoId(anyLong());
+        verify(produtoRepository, never()).findById(anyLong());
+        verify(pedidoRepository).save(argThat((Pedido p) -> p.getItens().size() == 3
+                && p.getTotal().compareTo(BigDecimal.valueOf(46.50)) == 0));
+        verify(reservaEstoqueService).reservar(any(), eq(Map.of(1L, 3, 2L, 3)));
     }
 
     @Test
@@ -165,6 +242,7 @@ class PedidoServiceTest {
     void testCriarPedido_ProdutoNaoEncontrado() {
         // Arrange
         when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(estoqueRepository.findAllByProdutoIdIn(anyCollection())).thenReturn(List.of());
         when(produtoRepository.existsById(1L)).thenReturn(false);
 
         // Act & Assert
@@ -175,14 +253,29 @@ class PedidoServiceTest {
         assertEquals(HttpStatus.NOT_FOUND, exception.getStatus());
     }
 
+    @Test
+    void testCriarPedido_EstoqueNaoEncontrado() {
+        // Arrange
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(estoqueRepository.findAllByProdutoIdIn(anyCollection())).thenReturn(List.of());
+        when(produtoRepository.existsById(1L)).thenReturn(true);
+
+        // Act & Assert
+        BusinessException exception = assertThrows(BusinessException.class,
+            () -> pedidoService.criarPedido(pedidoRequestDTO));
+
+        assertEquals("Estoque não encontrado para o produto", exception.getMessage());
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatus());
+        verifyNoInteractions(pedidoRepository);
+    }
+
     @Test
     void testCriarPedido_EstoqueInsuficiente() {
         // Arrange
         estoque.setQuantidade(1); // Quantidade menor que a solicitada (2)
         
         when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
-        when(produtoRepository.existsById(1L)).thenReturn(true);
-        when(estoqueRepository.findByProdutoId(1L)).thenReturn(Optional.of(estoque));
+        when(estoqueRepository.findAllByProdutoIdIn(anyCollection())).thenReturn(List.of(estoque));
 
         // Act & Assert
         BusinessException exception = assertThrows(BusinessException.class, 
@@ -190,6 +283,26 @@ class PedidoServiceTest {
         
         assertEquals("Quantidade insuficiente em estoque para o produto", exception.getMessage());
         assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+        verifyNoInteractions(reservaEstoqueService);
+        verify(metricasNegocio).estoqueInsuficiente("criacao-pedido");
+        verify(metricasNegocio, never()).pedidosCriados(anyString(), anyInt());
+    }
+
+    @Test
+    void testCriarPedido_QuantidadeReservadaNaoEstaDisponivel() {
+        // Arrange
+        estoque.setQuantidade(10);
+        estoque.setQuantidadeReservada(9); // Disponível 1, solicitado 2
+
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(estoqueRepository.findAllByProdutoIdIn(anyCollection())).thenReturn(List.of(estoque));
+
+        // Act & Assert
+        BusinessException exception = assertThrows(BusinessException.class,
+            () -> pedidoService.criarPedido(pedidoRequestDTO));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+        verifyNoInteractions(pedidoRepository, reservaEstoqueService);
     }
 
     @Test
@@ -234,8 +347,7 @@ class PedidoServiceTest {
         itemPedido.setPedido(pedido);
         
         when(pedidoRepository.findById(1L)).thenReturn(Optional.of(pedido));
-        when(estoqueRepository.findByProdutoId(1L)).thenReturn(Optional.of(estoque));
-        when(estoqueRepository.save(any(Estoque.class))).thenReturn(estoque);
+        when(contadorEstoque.baixar(1L, 2)).thenReturn(true);
         when(pedidoRepository.save(any(Pedido.class))).thenReturn(pedido);
         when(pedidoMapper.toDTO(any(Pedido.class))).thenReturn(pedidoResponseDTO);
 
@@ -244,10 +356,73 @@ class PedidoServiceTest {
 
         // Assert
         assertNotNull(resultado);
-        verify(estoqueRepository).save(any(Estoque.class));
+        assertEquals(Pedido.StatusPedido.CONCLUIDO, pedido.getStatus());
+        verify(contadorEstoque).baixar(1L, 2);
+        verify(estoqueRepository, never()).findByProdutoId(anyLong());
+        verify(estoqueRepository, never()).save(any(Estoque.class));
         verify(pedidoRepository).save(any(Pedido.class));
     }
 
+    @Test
+    void testConcluirPedido_ConverteReserva() {
+        // Arrange
+        pedido.setStatus(Pedido.StatusPedido.PROCESSANDO);
+        itemPedido.setPedido(pedido);
+
+        when(pedidoRepository.findById(1L)).thenReturn(Optional.of(pedido));
+        when(pedidoRepository.save(any(Pedido.class))).thenReturn(pedido);
+        when(reservaEstoqueService.confirmar(1L)).thenReturn(Map.of(1L, 2));
+        when(pedidoMapper.toDTO(any(Pedido.class))).thenReturn(pedidoResponseDTO);
+
+        // Act
+        PedidoResponseDTO resultado = pedidoService.concluirPedido(1L);
+
+        // Assert
+        assertNotNull(resultado);
+        verify(reservaEstoqueService).confirmar(1L);
+        verify(contadorEstoque, never()).baixar(anyLong(), anyInt());
+    }
+
+    @Test
+    void testConcluirPedido_EstoqueInsuficiente() {
+        // Arrange
+        pedido.setStatus(Pedido.StatusPedido.PROCESSANDO);
+        itemPedido.setPedido(pedido);
+
+        when(pedidoRepository.findById(1L)).thenReturn(Optional.of(pedido));
+        when(pedidoRepository.save(any(Pedido.class))).thenReturn(pedido);
+        when(contadorEstoque.baixar(1L, 2)).thenReturn(false);
+        when(estoqueRepository.existsByProdutoId(1L)).thenReturn(true);
+
+        // Act & Assert
+        BusinessException exception = assertThrows(BusinessException.class,
+            () -> pedidoService.concluirPedido(1L));
+
+        assertEquals("Estoque insuficiente para o produto: Produto Teste", exception.getMessage());
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+        verify(estoqueRepository, never()).save(any(Estoque.class));
+        verify(metricasNegocio).estoqueInsuficiente("conclusao-pedido");
+    }
+
+    @Test
+    void testConcluirPedido_EstoqueNaoEncontrado() {
+        // Arrange
+        pedido.setStatus(Pedido.StatusPedido.PROCESSANDO);
+        itemPedido.setPedido(pedido);
+
+        when(pedidoRepository.findById(1L)).thenReturn(Optional.of(pedido));
+        when(pedidoRepository.save(any(Pedido.class))).thenReturn(pedido);
+        when(contadorEstoque.baixar(1L, 2)).thenReturn(false);
+        when(estoqueRepository.existsByProdutoId(1L)).thenReturn(false);
+
+        // Act & Assert
+        BusinessException exception = assertThrows(BusinessException.class,
+            () -> pedidoService.concluirPedido(1L));
+
+        assertEquals("Estoque não encontrado para o produto: Produto Teste", exception.getMessage());
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatus());
+    }
+
     @Test
     void testConcluirPedido_NaoProcessando() {
         // Arrange
@@ -293,20 +468,154 @@ class PedidoServiceTest {
     @Test
     void testListarTodos_Sucesso() {
         // Arrange
-        Page<Pedido> pagePedidos = new PageImpl<>(Arrays.asList(pedido));
-        Pageable pageable = PageRequest.of(0, 10);
+        Page<Long> pageIds = new PageImpl<>(Arrays.asList(1L));
         
-        when(pedidoRepository.findAll(any(Pageable.class))).thenReturn(pagePedidos);
+        when(pedidoRepository.findPaginaIds(any(Pageable.class))).thenReturn(pageIds);
+        when(pedidoRepository.findComDetalhesByIdIn(List.of(1L))).thenReturn(Arrays.asList(pedido));
         when(pedidoMapper.toDTO(pedido)).thenReturn(pedidoResponseDTO);
 
         // Act
-        PageResponseDTO<PedidoResponseDTO> resultado = pedidoService.listarTodos(0, 10);
+        PageResponseDTO<PedidoResponseDTO> resultado = pedidoService.listarTodos(0, 10, ModoTotal.EXATO);
 
         // Assert
         assertNotNull(resultado);
         assertEquals(1, resultado.getContent().size());
         assertEquals(0, resultado.getPageNumber());
-        verify(pedidoRepository).findAll(any(Pageable.class));
+        verify(pedidoRepository).findPaginaIds(any(Pageable.class));
+        verify(pedidoRepository).findComDetalhesByIdIn(List.of(1L));
+        verify(pedidoRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void testListarTodos_MantemOrdemDaPaginaDeIds() {
+        // Arrange
+        Pedido pedido2 = new Pedido();
+        pedido2.setId(2L);
+        PedidoResponseDTO pedidoResponseDTO2 = new PedidoResponseDTO();
+        pedidoResponseDTO2.setId(2L);
+
+        when(pedidoRepository.findPaginaIds(any(Pageable.class))).thenReturn(new PageImpl<>(Arrays.asList(2L, 1L)));
+        when(pedidoRepository.findComDetalhesByIdIn(List.of(2L, 1L))).thenReturn(Arrays.asList(pedido, pedido2));
+        when(pedidoMapper.toDTO(pedido)).thenReturn(pedidoResponseDTO);
+        when(pedidoMapper.toDTO(pedido2)).thenReturn(pedidoResponseDTO2);
+
+        // Act
+        PageResponseDTO<PedidoResponseDTO> resultado = pedidoService.listarTodos(0, 10, ModoTotal.EXATO);
+
+        // Assert
+        assertEquals(2L, resultado.getContent().get(0).getId());
+        assertEquals(1L, resultado.getContent().get(1).getId());
+    }
+
+    @Test
+    void testListarTodos_PaginaVaziaNaoCarregaDetalhes() {
+        // Arrange
+        when(pedidoRepository.findPaginaIds(any(Pageable.class))).thenReturn(Page.empty());
+
+        // Act
+        PageResponseDTO<PedidoResponseDTO> resultado = pedidoService.listarTodos(0, 10, ModoTotal.EXATO);
+
+        // Assert
+        assertTrue(resultado.getContent().isEmpty());
+        verify(pedidoRepository, never()).findComDetalhesByIdIn(anyCollection());
+    }
+
+    @Test
+    void testListarTodos_SemTotalUsaFatiaDeIds() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 1);
+        when(pedidoRepository.findFatiaIds(any(Pageable.class))).thenReturn(new SliceImpl<>(List.of(1L), pageable, true));
+        when(pedidoRepository.findComDetalhesByIdIn(List.of(1L))).thenReturn(Arrays.asList(pedido));
+        when(pedidoMapper.toDTO(pedido)).thenReturn(pedidoResponseDTO);
+
+        // Act
+        PageResponseDTO<PedidoResponseDTO> resultado = pedidoService.listarTodos(0, 1, ModoTotal.NENHUM);
+
+        // Assert
+        assertEquals(1, resultado.getContent().size());
+        assertNull(resultado.getTotalElements());
+        assertFalse(resultado.isLast());
+        verify(pedidoRepository, never()).findPaginaIds(any(Pageable.class));
+        verify(pedidoRepository, never()).count();
+    }
+
+    @Test
+    void testListarPorCursor_PrimeiraPagina() {
+        // Arrange
+        when(pedidoRepository.findIdsMaisRecentes(any(Pageable.class))).thenReturn(Arrays.asList(1L, 2L));
+        when(pedidoRepository.findComDetalhesByIdIn(List.of(1L))).thenReturn(Arrays.asList(pedido));
+        when(pedidoRepository.count()).thenReturn(2L);
+        when(pedidoMapper.toDTO(pedido)).thenReturn(pedidoResponseDTO);
+
+        // Act
+        CursorPageResponseDTO<PedidoResponseDTO> resultado = pedidoService.listarPorCursor(null, 1, true);
+
+        // Assert
+        assertEquals(1, resultado.getContent().size());
+        assertTrue(resultado.isHasNext());
+        assertEquals(2L, resultado.getTotalElements());
+        Cursor proximo = Cursor.decodificar(resultado.getNextCursor());
+        assertEquals(pedido.getDataPedido(), proximo.chaveComoDataHora());
+        assertEquals(1L, proximo.id());
+    }
+
+    @Test
+    void testListarPorCursor_PaginaSeguinteUsaChaveDoCursor() {
+        // Arrange
+        LocalDateTime dataPedido = LocalDateTime.of(2024, 1, 10, 8, 0);
+        String cursor = Cursor.porDataHora(dataPedido, 5L).codificar();
+        when(pedidoRepository.findIdsAnterioresA(eq(dataPedido), eq(5L), any(Pageable.class))).thenReturn(List.of());
+
+        // Act
+        CursorPageResponseDTO<PedidoResponseDTO> resultado = pedidoService.listarPorCursor(cursor, 10, false);
+
+        // Assert
+        assertTrue(resultado.getContent().isEmpty());
+        assertFalse(resultado.isHasNext());
+        assertNull(resultado.getNextCursor());
+        verify(pedidoRepository, never()).findIdsMaisRecentes(any(Pageable.class));
+        verify(pedidoRepository, never()).count();
+    }
+
+    @Test
+    void testExportarPorStatus_UmaLinhaPorPedidoELimpaContextoPorLote() throws Exception {
+        // Arrange: 450 pedidos = lotes de 200, 200 e 50
+        when(pedidoRepository.streamIdsByStatus(Pedido.StatusPedido.ABERTO))
+            .thenReturn(LongStream.rangeClosed(1, 450).boxed());
+        when(pedidoRepository.findComDetalhesByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> {
+                Pedido p = new Pedido();
+                p.setId(id);
+                return p;
+            }).toList();
+        });
+        when(pedidoMapper.toDTO(any(Pedido.class))).thenReturn(pedidoResponseDTO);
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        // Act
+        pedidoService.exportarPorStatus(Pedido.StatusPedido.ABERTO, saida);
+
+        // Assert
+        String[] linhas = saida.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(450, linhas.length);
+        assertEquals(1L, objectMapper.readTree(linhas[0]).get("id").asLong());
+        verify(pedidoRepository, times(3)).findComDetalhesByIdIn(anyCollection());
+        verify(entityManager, times(3)).clear();
+    }
+
+    @Test
+    void testExportarPorCliente_SemPedidos() throws Exception {
+        // Arrange
+        when(pedidoRepository.streamIdsByClienteId(1L)).thenReturn(Stream.empty());
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        // Act
+        pedidoService.exportarPorCliente(1L, saida);
+
+        // Assert
+        assertEquals(0, saida.size());
+        verify(pedidoRepository, never()).findComDetalhesByIdIn(anyCollection());
     }
 
     @Test
@@ -353,7 +662,9 @@ class PedidoServiceTest {
 
         // Assert
         assertNotNull(resultado);
+        assertEquals(Pedido.StatusPedido.CANCELADO, pedido.getStatus());
         verify(pedidoRepository).save(any(Pedido.class));
+        verify(reservaEstoqueService).liberar(1L);
     }
 
     @Test
@@ -368,5 +679,6 @@ class PedidoServiceTest {
         
         assertEquals("Pedidos concluídos não podem ser cancelados", exception.getMessage());
         assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+        verifyNoInteractions(reservaEstoqueService);
     }
 }
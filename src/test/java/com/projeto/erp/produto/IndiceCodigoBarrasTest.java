@@ -0,0 +1,118 @@
+package com.projeto.erp.produto;
+
+import com.projeto.erp.common.exception.BusinessException;
+import com.projeto.erp.fornecedor.Fornecedor;
+import com.projeto.erp.fornecedor.FornecedorRepository;
+import com.projeto.erp.produto.dto.ProdutoRequestDTO;
+import com.projeto.erp.produto.dto.ProdutoResponseDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class IndiceCodigoBarrasTest {
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private IndiceCodigoBarras indiceCodigoBarras;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private FornecedorRepository fornecedorRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Fornecedor fornecedor;
+
+    @BeforeEach
+    void setUp() {
+        fornecedor = new Fornecedor();
+        fornecedor.setNome("Fornecedor Teste");
+        fornecedor.setDocumento("12345678000100");
+        fornecedor.setEmail("fornecedor@teste.com");
+        fornecedor.setAtivo(true);
+        fornecedor = fornecedorRepository.save(fornecedor);
+    }
+
+    @Test
+    @DisplayName("Carga do índice lê os produtos já cadastrados")
+    void testCarregar_ProdutosExistentes() {
+        Produto produto = new Produto();
+        produto.setNome("Cadastrado antes da carga");
+        produto.setCodigoBarras("7890000000001");
+        produto.setPreco(BigDecimal.TEN);
+        produto.setFornecedor(fornecedor);
+        produto = produtoRepository.save(produto);
+
+        indiceCodigoBarras.carregar();
+
+        assertEquals(produto.getId(), indiceCodigoBarras.buscarProdutoId("7890000000001").orElseThrow());
+        assertTrue(indiceCodigoBarras.podeExistir("7890000000001"));
+    }
+
+    @Test
+    @DisplayName("Leitura por código de barras repetida não consulta o banco")
+    void testBuscarPorCodigoBarras_SemConsultas() {
+        ProdutoResponseDTO criado = produtoService.criarProduto(produto("7890000000002"));
+        produtoService.buscarPorCodigoBarras("7890000000002");
+
+        Statistics estatisticas = estatisticas();
+        estatisticas.clear();
+        assertEquals(criado.getId(), produtoService.buscarPorCodigoBarras("7890000000002").getId());
+        assertEquals(0, estatisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Índice acompanha troca de código e exclusão")
+    void testAlteracoes_MantemIndiceAtualizado() {
+        ProdutoResponseDTO criado = produtoService.criarProduto(produto("7890000000003"));
+
+        produtoService.atualizarProduto(criado.getId(), produto("7890000000004"));
+        assertEquals(criado.getId(), produtoService.buscarPorCodigoBarras("7890000000004").getId());
+        assertThrows(BusinessException.class, () -> produtoService.buscarPorCodigoBarras("7890000000003"));
+
+        // O código liberado pode ser reutilizado
+        produtoService.criarProduto(produto("7890000000003"));
+
+        BusinessException duplicado = assertThrows(BusinessException.class,
+                () -> produtoService.criarProduto(produto("7890000000004")));
+        assertEquals(HttpStatus.CONFLICT, duplicado.getStatus());
+
+        produtoService.deletarProduto(criado.getId());
+        BusinessException excluido = assertThrows(BusinessException.class,
+                () -> produtoService.buscarPorCodigoBarras("7890000000004"));
+        assertEquals(HttpStatus.NOT_FOUND, excluido.getStatus());
+    }
+
+    private ProdutoRequestDTO produto(String codigoBarras) {
+        ProdutoRequestDTO request = new ProdutoRequestDTO();
+        request.setNome("Produto " + codigoBarras);
+        request.setCodigoBarras(codigoBarras);
+        request.setPreco(BigDecimal.TEN);
+        request.setFornecedorId(fornecedor.getId());
+        return request;
+    }
+
+    private Statistics estatisticas() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,121 @@
+package com.projeto.erp.produto;
+
+import com.projeto.erp.common.dto.CursorPageResponseDTO;
+import com.projeto.erp.fornecedor.Fornecedor;
+import com.projeto.erp.fornecedor.FornecedorRepository;
+import com.projeto.erp.produto.dto.ProdutoResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Busca textual no PostgreSQL de verdade: tsvector (V007), pg_trgm e o cursor de relevância não existem no H2.
+ * Esquema criado pelo Liquibase; sem Docker a classe é ignorada.
+ */
+@SpringBootTest(properties = {
+        "spring.liquibase.contexts=test",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class ProdutoBuscaTextualPostgresTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private FornecedorRepository fornecedorRepository;
+
+    private Fornecedor fornecedor;
+
+    @BeforeEach
+    void setUp() {
+        produtoRepository.deleteAll();
+        fornecedorRepository.deleteAll();
+
+        fornecedor = new Fornecedor();
+        fornecedor.setNome("Fornecedor Busca");
+        fornecedor.setDocumento("12345678000100");
+        fornecedor.setAtivo(true);
+        fornecedor = fornecedorRepository.save(fornecedor);
+    }
+
+    @Test
+    @DisplayName("Busca ranqueia pelo nome, acha pela descrição e tolera erro de digitação")
+    void testBuscarPorTexto_RelevanciaEErroDeDigitacao() {
+        Long nome = criarProduto("Notebook Dell Inspiron", "Tela de 15 polegadas", "BUSCA0001");
+        Long descricao = criarProduto("Mochila Executiva", "Compartimento acolchoado para notebook", "BUSCA0002");
+        criarProduto("Cadeira Gamer", "Encosto reclinável", "BUSCA0003");
+        Long impressora = criarProduto("Impressora Epson", "Tanque de tinta", "BUSCA0004");
+
+        List<Long> encontrados = ids(produtoService.buscarPorTexto("notebook", null, 10));
+        // Nome (peso A) antes da descrição (peso B); a cadeira não casa
+        assertEquals(List.of(nome, descricao), encontrados);
+
+        // Trigramas do nome (operador %) e prefixo do nome (ILIKE)
+        assertEquals(List.of(impressora), ids(produtoService.buscarPorTexto("Impresora Epson", null, 10)));
+        assertEquals(List.of(nome), ids(produtoService.buscarPorTexto("Noteb", null, 10)));
+    }
+
+    @Test
+    @DisplayName("Páginas pelo cursor cobrem o resultado inteiro, na mesma ordem, sem repetir nem pular empates")
+    void testBuscarPorTexto_PaginacaoPorCursorComEmpates() {
+        // Nomes iguais: mesma relevância, desempate só pelo ID
+        for (int i = 0; i < 7; i++) {
+            criarProduto("Monitor LG UltraWide", "Monitor de 29 polegadas", "EMPATE" + i);
+        }
+        for (int i = 0; i < 4; i++) {
+            criarProduto("Monitor Samsung Modelo " + i, "Painel " + "curvo ".repeat(i + 1), "VARIADO" + i);
+        }
+
+        List<Long> esperado = ids(produtoService.buscarPorTexto("monitor", null, 100));
+        assertEquals(11, esperado.size());
+
+        List<Long> paginado = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            CursorPageResponseDTO<ProdutoResponseDTO> pagina = produtoService.buscarPorTexto("monitor", cursor, 3);
+            paginado.addAll(ids(pagina));
+            cursor = pagina.isHasNext() ? pagina.getNextCursor() : null;
+            paginas++;
+        } while (cursor != null);
+
+        assertEquals(esperado, paginado);
+        assertEquals(paginado.size(), new HashSet<>(paginado).size());
+        assertEquals(4, paginas);
+    }
+
+    private Long criarProduto(String nome, String descricao, String codigoBarras) {
+        Produto produto = new Produto();
+        produto.setNome(nome);
+        produto.setDescricao(descricao);
+        produto.setCodigoBarras(codigoBarras);
+        produto.setPreco(BigDecimal.TEN);
+        produto.setFornecedor(fornecedor);
+        return produtoRepository.save(produto).getId();
+    }
+
+    private static List<Long> ids(CursorPageResponseDTO<ProdutoResponseDTO> pagina) {
+        return pagina.getContent().stream().map(ProdutoResponseDTO::getId).toList();
+    }
+}
@@ -0,0 +1,161 @@
+package com.projeto.erp.produto;
+
+import com.projeto.erp.common.config.CacheConfig;
+import com.projeto.erp.common.config.CacheSegundoNivelConfig;
+import com.projeto.erp.estoque.Estoque;
+import com.projeto.erp.estoque.EstoqueRepository;
+import com.projeto.erp.estoque.EstoqueService;
+import com.projeto.erp.estoque.dto.EstoqueRequestDTO;
+import com.projeto.erp.fornecedor.Fornecedor;
+import com.projeto.erp.fornecedor.FornecedorRepository;
+import com.projeto.erp.fornecedor.FornecedorService;
+import com.projeto.erp.fornecedor.dto.FornecedorRequestDTO;
+import com.projeto.erp.produto.dto.ProdutoRequestDTO;
+import com.projeto.erp.produto.dto.ProdutoResponseDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class ProdutoCacheTest {
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private FornecedorService fornecedorService;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private FornecedorRepository fornecedorRepository;
+
+    @Autowired
+    private EstoqueRepository estoqueRepository;
+
+    @Autowired
+    private EstoqueService estoqueService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Fornecedor fornecedor;
+    private Produto produto;
+
+    @BeforeEach
+    void setUp() {
+        fornecedor = new Fornecedor();
+        fornecedor.setNome("Fornecedor Teste");
+        fornecedor.setDocumento("12345678000100");
+        fornecedor.setEmail("fornecedor@teste.com");
+        fornecedor.setAtivo(true);
+        fornecedor = fornecedorRepository.save(fornecedor);
+
+        produto = new Produto();
+        produto.setNome("Produto Teste");
+        produto.setCodigoBarras("7890000000001");
+        produto.setPreco(BigDecimal.TEN);
+        produto.setFornecedor(fornecedor);
+        produto = produtoRepository.save(produto);
+
+        estoqueRepository.save(Estoque.builder().produto(produto).quantidade(10).build());
+    }
+
+    @Test
+    @DisplayName("Leituras repetidas do produto usam o cache e só consultam o saldo")
+    void testBuscarPorId_SegundaLeituraSoConsultaSaldo() {
+        produtoService.buscarPorId(produto.getId());
+
+        Statistics estatisticas = estatisticas();
+        estatisticas.clear();
+        ProdutoResponseDTO produtoEmCache = produtoService.buscarPorId(produto.getId());
+
+        assertEquals("Produto Teste", produtoEmCache.getNome());
+        assertEquals("Fornecedor Teste", produtoEmCache.getFornecedorNome());
+        assertEquals(10, produtoEmCache.getQuantidadeEstoque());
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", CacheConfig.PRODUTOS).tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Quantidade em estoque nunca vem do cache")
+    void testBuscarPorId_QuantidadeSempreAtual() {
+        produtoService.buscarPorId(produto.getId());
+
+        EstoqueRequestDTO entrada = new EstoqueRequestDTO();
+        entrada.setIdProduto(produto.getId());
+        entrada.setQuantidade(5);
+        estoqueService.entradaEstoque(entrada);
+
+        assertEquals(15, produtoService.buscarPorId(produto.getId()).getQuantidadeEstoque());
+    }
+
+    @Test
+    @DisplayName("Atualizar produto ou fornecedor invalida a entrada correspondente")
+    void testAtualizacoes_InvalidamCache() {
+        produtoService.buscarPorId(produto.getId());
+
+        ProdutoRequestDTO produtoRequest = new ProdutoRequestDTO();
+        produtoRequest.setNome("Produto Renomeado");
+        produtoRequest.setCodigoBarras(produto.getCodigoBarras());
+        produtoRequest.setPreco(BigDecimal.ONE);
+        produtoRequest.setFornecedorId(fornecedor.getId());
+        produtoService.atualizarProduto(produto.getId(), produtoRequest);
+
+        FornecedorRequestDTO fornecedorRequest = new FornecedorRequestDTO();
+        fornecedorRequest.setNome("Fornecedor Renomeado");
+        fornecedorRequest.setEmail(fornecedor.getEmail());
+        fornecedorRequest.setDocumento(fornecedor.getDocumento());
+        fornecedorRequest.setAtivo(true);
+        fornecedorService.atualizarFornecedor(fornecedor.getId(), fornecedorRequest);
+
+        ProdutoResponseDTO atualizado = produtoService.buscarPorId(produto.getId());
+        assertEquals("Produto Renomeado", atualizado.getNome());
+        assertEquals(0, BigDecimal.ONE.compareTo(atualizado.getPreco()));
+        assertEquals("Fornecedor Renomeado", atualizado.getFornecedorNome());
+    }
+
+    @Test
+    @DisplayName("Cadastro de produtos reaproveita o fornecedor do cache de segundo nível")
+    void testCriarProduto_FornecedorDoCacheSegundoNivel() {
+        Statistics estatisticas = estatisticas();
+        estatisticas.clear();
+
+        for (String codigoBarras : new String[]{"7890000000010", "7890000000011"}) {
+            ProdutoRequestDTO request = new ProdutoRequestDTO();
+            request.setNome("Produto " + codigoBarras);
+            request.setCodigoBarras(codigoBarras);
+            request.setPreco(BigDecimal.TEN);
+            request.setFornecedorId(fornecedor.getId());
+            assertEquals("Fornecedor Teste", produtoService.criarProduto(request).getFornecedorNome());
+        }
+
+        CacheRegionStatistics regiao = estatisticas.getDomainDataRegionStatistics(CacheSegundoNivelConfig.REGIAO_FORNECEDORES);
+        assertEquals(0, regiao.getMissCount());
+        assertTrue(regiao.getHitCount() >= 2, "Acertos: " + regiao.getHitCount());
+    }
+
+    private Statistics estatisticas() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
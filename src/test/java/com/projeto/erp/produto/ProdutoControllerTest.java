@@ -1,11 +1,14 @@
 package com.projeto.erp.produto;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projeto.erp.common.dto.CursorPageResponseDTO;
 import com.projeto.erp.common.dto.PageResponseDTO;
+import com.projeto.erp.common.pagination.ModoTotal;
 import com.projeto.erp.fornecedor.dto.FornecedorRequestDTO;
 import com.projeto.erp.fornecedor.dto.FornecedorResponseDTO;
 import com.projeto.erp.produto.dto.ProdutoRequestDTO;
 import com.projeto.erp.produto.dto.ProdutoResponseDTO;
+import com.projeto.erp.produto.dto.ProdutoResponseSemQtdDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -67,6 +70,38 @@ class ProdutoControllerTest {
                 .andExpect(jsonPath("$.fornecedorId").value(1L));
     }
 
+    @Test
+    void testBuscarPorCodigoBarras() throws Exception {
+        ProdutoResponseSemQtdDTO responseDTO = new ProdutoResponseSemQtdDTO();
+        responseDTO.setId(1L);
+        responseDTO.setNome("Produto Teste");
+        responseDTO.setCodigoBarras("7891234567890");
+        responseDTO.setPreco(BigDecimal.TEN);
+
+        when(produtoService.buscarPorCodigoBarras("7891234567890")).thenReturn(responseDTO);
+
+        mockMvc.perform(get("/produtos/barcode/{codigo}", "7891234567890"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.codigoBarras").value("7891234567890"))
+                .andExpect(jsonPath("$.quantidadeEstoque").doesNotExist());
+    }
+
+    @Test
+    void testBuscarPorTexto() throws Exception {
+        ProdutoResponseDTO produto = new ProdutoResponseDTO();
+        produto.setId(7L);
+        produto.setNome("Notebook Dell Inspiron");
+        CursorPageResponseDTO<ProdutoResponseDTO> pagina = new CursorPageResponseDTO<>(List.of(produto), 10, null, false, null);
+
+        when(produtoService.buscarPorTexto("notebook", null, 10)).thenReturn(pagina);
+
+        mockMvc.perform(get("/produtos/busca").param("q", "notebook"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(7))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
     @Test
     void testListarProdutos() throws Exception {
         // Arrange
@@ -77,10 +112,10 @@ class ProdutoControllerTest {
         p2.setId(2L);
         p2.setNome("Produto 2");
 
-        PageResponseDTO<ProdutoResponseDTO> lista = new PageResponseDTO<>(Arrays.asList(p1, p2), 0, 10, 2, 1, true, false);
+        PageResponseDTO<ProdutoResponseDTO> lista = new PageResponseDTO<>(Arrays.asList(p1, p2), 0, 10, 2L, 1, true, false);
 
         // Act
-        when(produtoService.listarTodos(0,10)).thenReturn(lista);
+        when(produtoService.listarTodos(0,10, ModoTotal.EXATO)).thenReturn(lista);
 
 
         // Assert
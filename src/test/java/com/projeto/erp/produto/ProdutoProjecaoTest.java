@@ -0,0 +1,119 @@
+package com.projeto.erp.produto;
+
+import com.projeto.erp.common.dto.CursorPageResponseDTO;
+import com.projeto.erp.common.dto.PageResponseDTO;
+import com.projeto.erp.common.pagination.ModoTotal;
+import com.projeto.erp.estoque.Estoque;
+import com.projeto.erp.estoque.EstoqueRepository;
+import com.projeto.erp.fornecedor.Fornecedor;
+import com.projeto.erp.fornecedor.FornecedorRepository;
+import com.projeto.erp.produto.dto.ProdutoResponseDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class ProdutoProjecaoTest {
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private FornecedorRepository fornecedorRepository;
+
+    @Autowired
+    private EstoqueRepository estoqueRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Fornecedor fornecedor;
+
+    @BeforeEach
+    void setUp() {
+        fornecedor = new Fornecedor();
+        fornecedor.setNome("Fornecedor Teste");
+        fornecedor.setDocumento("12345678000100");
+        fornecedor.setEmail("fornecedor@teste.com");
+        fornecedor.setAtivo(true);
+        fornecedor = fornecedorRepository.save(fornecedor);
+
+        for (int i = 1; i <= 12; i++) {
+            Produto produto = new Produto();
+            produto.setNome("Produto " + i);
+            produto.setCodigoBarras("78900000000" + String.format("%02d", i));
+            produto.setPreco(BigDecimal.valueOf(i));
+            produto.setFornecedor(fornecedor);
+            produto = produtoRepository.save(produto);
+
+            estoqueRepository.save(Estoque.builder().produto(produto).quantidade(i).quantidadePendente(1).build());
+        }
+    }
+
+    @Test
+    @DisplayName("Listagem paginada monta o DTO por projeção, sem carregar entidades")
+    void testListarTodos_ProjecaoSemEntidades() {
+        Statistics estatisticas = estatisticas();
+        estatisticas.clear();
+
+        PageResponseDTO<ProdutoResponseDTO> pagina = produtoService.listarTodos(0, 10, ModoTotal.EXATO);
+
+        assertEquals(10, pagina.getContent().size());
+        assertEquals(12L, pagina.getTotalElements());
+        ProdutoResponseDTO primeiro = pagina.getContent().get(0);
+        assertEquals("Produto 1", primeiro.getNome());
+        assertEquals(fornecedor.getId(), primeiro.getFornecedorId());
+        assertEquals("Fornecedor Teste", primeiro.getFornecedorNome());
+        assertEquals(2, primeiro.getQuantidadeEstoque());
+        // Página + count, e nenhuma entidade Produto/Fornecedor/Estoque instanciada
+        assertEquals(2, estatisticas.getPrepareStatementCount());
+        assertEquals(0, estatisticas.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Listagem por cursor usa uma única consulta por página")
+    void testListarPorCursor_UmaConsulta() {
+        Statistics estatisticas = estatisticas();
+        estatisticas.clear();
+
+        CursorPageResponseDTO<ProdutoResponseDTO> pagina = produtoService.listarPorCursor(null, 5, false);
+
+        assertEquals(5, pagina.getContent().size());
+        assertTrue(pagina.isHasNext());
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+        assertEquals(0, estatisticas.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Leitura do catálogo não carrega a entidade")
+    void testBuscarPorId_CatalogoPorProjecao() {
+        Long id = produtoRepository.findAll().get(0).getId();
+        Statistics estatisticas = estatisticas();
+        estatisticas.clear();
+
+        ProdutoResponseDTO produto = produtoService.buscarPorId(id);
+
+        assertEquals("Fornecedor Teste", produto.getFornecedorNome());
+        assertEquals(0, estatisticas.getEntityLoadCount());
+    }
+
+    private Statistics estatisticas() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
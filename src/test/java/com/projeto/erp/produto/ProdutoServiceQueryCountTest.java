@@ -0,0 +1,99 @@
+package com.projeto.erp.produto;
+
+import com.projeto.erp.common.datasource.EstatisticasConsultas;
+import com.projeto.erp.common.dto.PageResponseDTO;
+import com.projeto.erp.common.pagination.ModoTotal;
+import com.projeto.erp.estoque.Estoque;
+import com.projeto.erp.estoque.EstoqueRepository;
+import com.projeto.erp.fornecedor.Fornecedor;
+import com.projeto.erp.fornecedor.FornecedorRepository;
+import com.projeto.erp.produto.dto.ProdutoResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.projeto.erp.common.OrcamentoConsultas.assertMaximo;
+import static com.projeto.erp.common.OrcamentoConsultas.medir;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class ProdutoServiceQueryCountTest {
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private FornecedorRepository fornecedorRepository;
+
+    @Autowired
+    private EstoqueRepository estoqueRepository;
+
+    private final List<Produto> produtos = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Fornecedor fornecedor = new Fornecedor();
+        fornecedor.setNome("Fornecedor Teste");
+        fornecedor.setDocumento("12345678000100");
+        fornecedor.setEmail("fornecedor@teste.com");
+        fornecedor.setAtivo(true);
+        fornecedor = fornecedorRepository.save(fornecedor);
+
+        produtos.clear();
+        for (int i = 1; i <= 12; i++) {
+            Produto produto = new Produto();
+            produto.setNome("Produto " + i);
+            produto.setCodigoBarras("78900000000" + String.format("%02d", i));
+            produto.setPreco(BigDecimal.valueOf(i));
+            produto.setFornecedor(fornecedor);
+            produto = produtoRepository.save(produto);
+
+            estoqueRepository.save(Estoque.builder().produto(produto).quantidade(i).build());
+            produtos.add(produto);
+        }
+    }
+
+    @Test
+    @DisplayName("Listagem paginada com total: página e count, lendo só as linhas da página")
+    void testListarTodos_DuasConsultas() {
+        EstatisticasConsultas estatisticas = assertMaximo(2, () -> {
+            PageResponseDTO<ProdutoResponseDTO> pagina = produtoService.listarTodos(0, 10, ModoTotal.EXATO);
+            assertEquals(10, pagina.getContent().size());
+        });
+
+        // 10 linhas da página + 1 do count
+        assertEquals(11, estatisticas.getLinhas());
+    }
+
+    @Test
+    @DisplayName("Listagem por cursor: uma consulta, lendo no máximo uma linha além da página")
+    void testListarPorCursor_UmaConsulta() {
+        EstatisticasConsultas estatisticas = assertMaximo(1, () -> produtoService.listarPorCursor(null, 5, false));
+
+        assertTrue(estatisticas.getLinhas() <= 6, "Linhas lidas: " + estatisticas.getLinhas());
+    }
+
+    @Test
+    @DisplayName("Com cadastro e fornecedor em cache, buscar por ID só consulta o saldo")
+    void testBuscarPorId_SoSaldoComCacheQuente() {
+        Long id = produtos.get(0).getId();
+        EstatisticasConsultas fria = medir(() -> produtoService.buscarPorId(id));
+
+        EstatisticasConsultas quente = assertMaximo(1, () -> produtoService.buscarPorId(id));
+
+        assertTrue(fria.getConsultas() > quente.getConsultas(), "Consultas sem cache: " + fria.getConsultas());
+    }
+}
@@ -1,24 +1,36 @@
 package com.projeto.erp.produto;
 
+import com.projeto.erp.common.dto.CursorPageResponseDTO;
 import com.projeto.erp.common.dto.PageResponseDTO;
+import com.projeto.erp.common.pagination.ContagemAproximada;
+import com.projeto.erp.common.pagination.Cursor;
+import com.projeto.erp.common.pagination.ModoTotal;
 import com.projeto.erp.common.exception.BusinessException;
+import com.projeto.erp.estoque.EstoqueRepository;
 import com.projeto.erp.fornecedor.Fornecedor;
 import com.projeto.erp.fornecedor.FornecedorService;
 import com.projeto.erp.fornecedor.dto.FornecedorResponseDTO;
 import com.projeto.erp.produto.dto.ProdutoRequestDTO;
 import com.projeto.erp.produto.dto.ProdutoResponseDTO;
+import com.projeto.erp.produto.dto.ProdutoResponseSemQtdDTO;
 import com.projeto.erp.produto.mapper.ProdutoMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -38,12 +50,27 @@ class ProdutoServiceTest {
     @Mock
     private FornecedorService fornecedorService;
 
+    @Mock
+    private CatalogoProdutoService catalogoProdutoService;
+
+    @Mock
+    private EstoqueRepository estoqueRepository;
+
+    @Mock
+    private IndiceCodigoBarras indiceCodigoBarras;
+
+    @Mock
+    private ContagemAproximada contagemAproximada;
+
     @InjectMocks
     private ProdutoService produtoService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        // Índice sem informação: toda verificação de unicidade vai ao banco
+        when(indiceCodigoBarras.podeExistir(any())).thenReturn(true);
+        when(indiceCodigoBarras.buscarProdutoId(any())).thenReturn(Optional.empty());
     }
 
     @Test
@@ -55,7 +82,7 @@ class ProdutoServiceTest {
         ProdutoResponseDTO responseDTO = new ProdutoResponseDTO();
 
         when(produtoMapper.toEntity(requestDTO)).thenReturn(produto);
-        when(produtoRepository.save(produto)).thenReturn(savedProduto);
+        when(produtoRepository.saveAndFlush(produto)).thenReturn(savedProduto);
         when(produtoMapper.toDTO(savedProduto)).thenReturn(responseDTO);
 
         // Act
@@ -63,44 +90,94 @@ class ProdutoServiceTest {
 
         // Assert
         assertNotNull(result);
-        verify(produtoRepository, times(1)).save(produto);
+        verify(produtoRepository, times(1)).saveAndFlush(produto);
     }
 
     @Test
     void testBuscarPorId() {
         // Arrange
         Long id = 1L;
-        Produto produto = new Produto();
+        ProdutoCatalogo catalogo = new ProdutoCatalogo(id, "Notebook", null, "7891234567890", BigDecimal.TEN, 2L);
         ProdutoResponseDTO responseDTO = new ProdutoResponseDTO();
 
-        when(produtoRepository.findById(id)).thenReturn(Optional.of(produto));
-        when(produtoMapper.toDTO(produto)).thenReturn(responseDTO);
+        when(catalogoProdutoService.buscar(id)).thenReturn(catalogo);
+        when(fornecedorService.buscarNome(2L)).thenReturn("Dell Computadores");
+        when(estoqueRepository.buscarSaldoPorProdutoId(id)).thenReturn(Optional.of(15));
+        when(produtoMapper.toDTO(catalogo, "Dell Computadores", 15)).thenReturn(responseDTO);
 
         // Act
         ProdutoResponseDTO result = produtoService.buscarPorId(id);
 
         // Assert
-        assertNotNull(result);
-        verify(produtoRepository, times(1)).findById(id);
+        assertSame(responseDTO, result);
+        // Cadastro vem do cache; só o saldo é lido do banco
+        verify(produtoRepository, never()).findById(anyLong());
+        verify(estoqueRepository).buscarSaldoPorProdutoId(id);
     }
 
     @Test
     void testListarTodos() {
         // Arrange
-        Page<Produto> fornecedores = new PageImpl<>(Arrays.asList(new Produto(), new Produto()));
-        List<ProdutoResponseDTO> responseDTOs = Arrays.asList(new ProdutoResponseDTO(), new ProdutoResponseDTO());
+        Page<ProdutoResponseDTO> produtos = new PageImpl<>(Arrays.asList(new ProdutoResponseDTO(), new ProdutoResponseDTO()));
         Pageable pageable = PageRequest.of(0, 10);
 
-        when(produtoRepository.findAll(pageable)).thenReturn(fornecedores);
-        when(produtoMapper.toDTO(fornecedores.getContent().get(0))).thenReturn(responseDTOs.get(0));
-        when(produtoMapper.toDTO(fornecedores.getContent().get(1))).thenReturn(responseDTOs.get(1));
+        when(produtoRepository.listarResumos(pageable)).thenReturn(produtos);
 
         // Act
-        PageResponseDTO<ProdutoResponseDTO> result = produtoService.listarTodos(0,10);
+        PageResponseDTO<ProdutoResponseDTO> result = produtoService.listarTodos(0,10, ModoTotal.EXATO);
 
         // Assert
         assertEquals(2, result.getTotalElements());
-        verify(produtoRepository, times(1)).findAll(pageable);
+        assertSame(produtos.getContent().get(0), result.getContent().get(0));
+        verify(produtoRepository, times(1)).listarResumos(pageable);
+        // A projeção já traz as colunas do DTO: nenhuma entidade é carregada nem mapeada
+        verify(produtoRepository, never()).findAll(any(Pageable.class));
+        verifyNoInteractions(produtoMapper);
+    }
+
+    @Test
+    void testListarTodos_TotalAproximadoNaoMenorQueOPercorrido() {
+        // Arrange: contagem em cache desatualizada (menor que o que já existe até esta página)
+        Pageable pageable = PageRequest.of(3, 2);
+        Slice<ProdutoResponseDTO> produtos = new SliceImpl<>(Arrays.asList(new ProdutoResponseDTO(), new ProdutoResponseDTO()), pageable, true);
+        when(produtoRepository.listarFatiaResumos(pageable)).thenReturn(produtos);
+        when(contagemAproximada.contar(eq("produtos"), any())).thenReturn(5L);
+
+        // Act
+        PageResponseDTO<ProdutoResponseDTO> result = produtoService.listarTodos(3, 2, ModoTotal.APROXIMADO);
+
+        // Assert
+        assertEquals(9L, result.getTotalElements());
+        assertEquals(5, result.getTotalPages());
+        assertTrue(result.isTotalAproximado());
+        assertFalse(result.isLast());
+        verify(produtoRepository, never()).listarResumos(any(Pageable.class));
+    }
+
+    @Test
+    void testListarPorCursor_ContinuaAposUltimoIdSemCount() {
+        // Arrange
+        ProdutoResponseDTO produto11 = new ProdutoResponseDTO();
+        produto11.setId(11L);
+        ProdutoResponseDTO produto12 = new ProdutoResponseDTO();
+        produto12.setId(12L);
+        ProdutoResponseDTO produto13 = new ProdutoResponseDTO();
+        produto13.setId(13L);
+
+        when(produtoRepository.listarResumosApos(eq(10L), any(Pageable.class)))
+                .thenReturn(Arrays.asList(produto11, produto12, produto13));
+
+        // Act
+        CursorPageResponseDTO<ProdutoResponseDTO> result =
+                produtoService.listarPorCursor(Cursor.porId(10L).codificar(), 2, false);
+
+        // Assert
+        assertEquals(2, result.getContent().size());
+        assertTrue(result.isHasNext());
+        assertEquals(12L, Cursor.decodificar(result.getNextCursor()).id());
+        assertNull(result.getTotalElements());
+        verify(produtoRepository).listarResumosApos(10L, PageRequest.of(0, 3));
+        verify(produtoRepository, never()).count();
     }
 
     @Test
@@ -124,7 +201,7 @@ class ProdutoServiceTest {
         responseDTO.setNome(requestDTO.getNome());
 
         when(produtoRepository.findById(produtoId)).thenReturn(Optional.of(produtoExistente));
-        when(produtoRepository.save(any(Produto.class))).thenReturn(produtoAtualizado);
+        when(produtoRepository.saveAndFlush(any(Produto.class))).thenReturn(produtoAtualizado);
         when(produtoMapper.toDTO(produtoAtualizado)).thenReturn(responseDTO);
         when(produtoRepository.existsByCodigoBarras(requestDTO.getCodigoBarras())).thenReturn(false);
 
@@ -137,7 +214,7 @@ class ProdutoServiceTest {
         assertEquals(requestDTO.getNome(), resultado.getNome());
         assertEquals(requestDTO.getCodigoBarras(), resultado.getCodigoBarras());
         verify(produtoRepository).findById(produtoId);
-        verify(produtoRepository).save(any(Produto.class));
+        verify(produtoRepository).saveAndFlush(any(Produto.class));
         verify(produtoRepository).existsByCodigoBarras(requestDTO.getCodigoBarras());
     }
 
@@ -154,7 +231,7 @@ class ProdutoServiceTest {
         });
         assertEquals("Produto não encontrado com o ID: " + produtoId, exception.getMessage());
         verify(produtoRepository).findById(produtoId);
-        verify(produtoRepository, never()).save(any(Produto.class));
+        verify(produtoRepository, never()).saveAndFlush(any(Produto.class));
     }
 
     @Test
@@ -209,7 +286,7 @@ class ProdutoServiceTest {
         assertEquals("Código de barras já cadastrado", exception.getMessage());
         assertEquals(HttpStatus.CONFLICT, exception.getStatus());
         verify(produtoRepository).existsByCodigoBarras(requestDTO.getCodigoBarras());
-        verify(produtoRepository, never()).save(any(Produto.class));
+        verify(produtoRepository, never()).saveAndFlush(any(Produto.class));
     }
 
     @Test
@@ -235,14 +312,15 @@ class ProdutoServiceTest {
         assertEquals(HttpStatus.CONFLICT, exception.getStatus());
         verify(produtoRepository).findById(produtoId);
         verify(produtoRepository).existsByCodigoBarras(requestDTO.getCodigoBarras());
-        verify(produtoRepository, never()).save(any(Produto.class));
+        verify(produtoRepository, never()).saveAndFlush(any(Produto.class));
     }
 
     @Test
     void testGetProduto_QuandoIdNaoExiste() {
         // Arrange
         Long produtoId = 999L;
-        when(produtoRepository.findById(produtoId)).thenReturn(Optional.empty());
+        when(catalogoProdutoService.buscar(produtoId))
+                .thenThrow(new BusinessException("Produto não encontrado com o ID: " + produtoId, HttpStatus.NOT_FOUND));
 
         // Act & Assert
         RuntimeException exception = assertThrows(BusinessException.class, () -> {
@@ -250,6 +328,228 @@ class ProdutoServiceTest {
         });
 
         assertEquals("Produto não encontrado com o ID: " + produtoId, exception.getMessage());
-        verify(produtoRepository).findById(produtoId);
+        verify(estoqueRepository, never()).buscarSaldoPorProdutoId(anyLong());
+    }
+
+    @Test
+    void testCriarProduto_FiltroDeBloomDispensaConsultaDeUnicidade() {
+        // Arrange
+        ProdutoRequestDTO requestDTO = new ProdutoRequestDTO();
+        requestDTO.setCodigoBarras("7891234567890");
+        Produto produto = new Produto();
+        produto.setCodigoBarras("7891234567890");
+        Produto savedProduto = new Produto();
+        savedProduto.setId(5L);
+        savedProduto.setCodigoBarras("7891234567890");
+
+        when(indiceCodigoBarras.podeExistir("7891234567890")).thenReturn(false);
+        when(produtoMapper.toEntity(requestDTO)).thenReturn(produto);
+        when(produtoRepository.saveAndFlush(produto)).thenReturn(savedProduto);
+        when(produtoMapper.toDTO(savedProduto)).thenReturn(new ProdutoResponseDTO());
+
+        // Act
+        produtoService.criarProduto(requestDTO);
+
+        // Assert
+        verify(produtoRepository, never()).existsByCodigoBarras(anyString());
+        verify(indiceCodigoBarras).registrar("7891234567890", 5L);
+    }
+
+    @Test
+    void testCriarProduto_RestricaoUnicaDoBancoViraConflito() {
+        // Arrange
+        ProdutoRequestDTO requestDTO = new ProdutoRequestDTO();
+        requestDTO.setCodigoBarras("7891234567890");
+        Produto produto = new Produto();
+
+        when(indiceCodigoBarras.podeExistir("7891234567890")).thenReturn(false);
+        when(produtoMapper.toEntity(requestDTO)).thenReturn(produto);
+        when(produtoRepository.saveAndFlush(produto)).thenThrow(new DataIntegrityViolationException("codigo_barras"));
+
+        // Act & Assert
+        BusinessException exception = assertThrows(BusinessException.class, () -> produtoService.criarProduto(requestDTO));
+
+        assertEquals(HttpStatus.CONFLICT, exception.getStatus());
+        verify(indiceCodigoBarras, never()).registrar(any(), any());
+    }
+
+    @Test
+    void testAtualizarProduto_TrocaCodigoNoIndice() {
+        // Arrange
+        ProdutoRequestDTO requestDTO = new ProdutoRequestDTO();
+        requestDTO.setCodigoBarras("novo");
+
+        Produto produtoExistente = new Produto();
+        produtoExistente.setId(1L);
+        produtoExistente.setCodigoBarras("antigo");
+
+        when(produtoRepository.findById(1L)).thenReturn(Optional.of(produtoExistente));
+        when(produtoRepository.existsByCodigoBarras("novo")).thenReturn(false);
+        when(produtoRepository.saveAndFlush(produtoExistente)).thenReturn(produtoExistente);
+
+        // Act
+        produtoService.atualizarProduto(1L, requestDTO);
+
+        // Assert
+        verify(indiceCodigoBarras).remover("antigo", 1L);
+        verify(indiceCodigoBarras).registrar("novo", 1L);
+    }
+
+    @Test
+    void testCriarProduto_IndiceSoRecebeCodigoDepoisDoCommit() {
+        // Arrange
+        ProdutoRequestDTO requestDTO = new ProdutoRequestDTO();
+        requestDTO.setCodigoBarras("7891234567890");
+        Produto produto = new Produto();
+        Produto savedProduto = new Produto();
+        savedProduto.setId(5L);
+        savedProduto.setCodigoBarras("7891234567890");
+
+        when(produtoMapper.toEntity(requestDTO)).thenReturn(produto);
+        when(produtoRepository.saveAndFlush(produto)).thenReturn(savedProduto);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            produtoService.criarProduto(requestDTO);
+
+            // Assert: nada no índice enquanto a transação não confirma
+            verify(indiceCodigoBarras, never()).registrar(any(), any());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(indiceCodigoBarras).registrar("7891234567890", 5L);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testDeleteProduto_RollbackMantemCodigoNoIndice() {
+        // Arrange
+        Produto produto = new Produto();
+        produto.setId(1L);
+        produto.setCodigoBarras("7891234567890");
+        when(produtoRepository.findById(1L)).thenReturn(Optional.of(produto));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            produtoService.deletarProduto(1L);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sincronizacao -> sincronizacao.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        verify(indiceCodigoBarras, never()).remover(any(), any());
+    }
+
+    @Test
+    void testBuscarPorCodigoBarras_PeloIndiceSemConsultarBanco() {
+        // Arrange
+        ProdutoCatalogo catalogo = new ProdutoCatalogo(1L, "Notebook", null, "7891234567890", BigDecimal.TEN, 2L);
+        ProdutoResponseSemQtdDTO responseDTO = new ProdutoResponseSemQtdDTO();
+
+        when(indiceCodigoBarras.buscarProdutoId("7891234567890")).thenReturn(Optional.of(1L));
+        when(catalogoProdutoService.buscar(1L)).thenReturn(catalogo);
+        when(fornecedorService.buscarNome(2L)).thenReturn("Dell Computadores");
+        when(produtoMapper.toDTOSemQuantidade(catalogo, "Dell Computadores")).thenReturn(responseDTO);
+
+        // Act
+        ProdutoResponseSemQtdDTO result = produtoService.buscarPorCodigoBarras("7891234567890");
+
+        // Assert
+        assertSame(responseDTO, result);
+        verify(produtoRepository, never()).findIdByCodigoBarras(anyString());
+    }
+
+    @Test
+    void testBuscarPorCodigoBarras_FiltroDeBloomDescarta() {
+        // Arrange
+        when(indiceCodigoBarras.podeExistir("000")).thenReturn(false);
+
+        // Act & Assert
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> produtoService.buscarPorCodigoBarras("000"));
+
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatus());
+        verify(produtoRepository, never()).findIdByCodigoBarras(anyString());
+    }
+
+    @Test
+    void testBuscarPorCodigoBarras_FalsoPositivoVaiAoBanco() {
+        // Arrange
+        when(produtoRepository.findIdByCodigoBarras("999")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> produtoService.buscarPorCodigoBarras("999"));
+
+        assertEquals("Produto não encontrado com o código de barras: 999", exception.getMessage());
+        verify(produtoRepository).findIdByCodigoBarras("999");
+    }
+
+    @Test
+    void testBuscarPorTexto_OrdemDaBuscaECursorDeRelevancia() {
+        // Arrange
+        ProdutoResponseDTO dto3 = new ProdutoResponseDTO();
+        dto3.setId(3L);
+        ProdutoResponseDTO dto8 = new ProdutoResponseDTO();
+        dto8.setId(8L);
+
+        when(produtoRepository.buscarPorTexto("note_book", "note\\_book%", 3))
+                .thenReturn(List.of(resultado(8L, "0.912345"), resultado(3L, "0.500000"), resultado(5L, "0.500000")));
+        // Ordem do banco não importa: a ordem é a da busca
+        when(produtoRepository.listarResumosPorIds(List.of(8L, 3L))).thenReturn(List.of(dto3, dto8));
+
+        // Act
+        CursorPageResponseDTO<ProdutoResponseDTO> result = produtoService.buscarPorTexto(" note_book ", null, 2);
+
+        // Assert
+        assertEquals(List.of(8L, 3L), result.getContent().stream().map(ProdutoResponseDTO::getId).toList());
+        assertTrue(result.isHasNext());
+        Cursor proximo = Cursor.decodificar(result.getNextCursor());
+        assertEquals(3L, proximo.id());
+        // Relevância no cursor como veio do banco, sem arredondar
+        assertEquals("0.500000", proximo.chave());
+    }
+
+    @Test
+    void testBuscarPorTexto_ContinuaAposCursor() {
+        // Arrange
+        when(produtoRepository.buscarPorTextoApos("notebook", "notebook%", new BigDecimal("0.500000"), 3L, 11)).thenReturn(List.of());
+        when(produtoRepository.listarResumosPorIds(List.of())).thenReturn(List.of());
+
+        // Act
+        CursorPageResponseDTO<ProdutoResponseDTO> result =
+                produtoService.buscarPorTexto("notebook", new Cursor("0.500000", 3L).codificar(), 10);
+
+        // Assert
+        assertTrue(result.getContent().isEmpty());
+        assertFalse(result.isHasNext());
+        verify(produtoRepository).buscarPorTextoApos("notebook", "notebook%", new BigDecimal("0.500000"), 3L, 11);
+    }
+
+    @Test
+    void testBuscarPorTexto_TermoCurto() {
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> produtoService.buscarPorTexto(" a ", null, 10));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+        verify(produtoRepository, never()).buscarPorTexto(anyString(), anyString(), anyInt());
+    }
+
+    private ResultadoBuscaProduto resultado(Long id, String relevancia) {
+        return new ResultadoBuscaProduto() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public BigDecimal getRelevancia() {
+                return new BigDecimal(relevancia);
+            }
+        };
     }
 }
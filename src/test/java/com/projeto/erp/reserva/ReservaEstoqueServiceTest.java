@@ -0,0 +1,203 @@
+package com.projeto.erp.reserva;
+
+import com.projeto.erp.common.exception.BusinessException;
+import com.projeto.erp.common.metricas.MetricasNegocio;
+import com.projeto.erp.estoque.ContadorEstoque;
+import com.projeto.erp.estoque.DiarioEstoque;
+import com.projeto.erp.estoque.EstoqueRepository;
+import com.projeto.erp.reserva.ReservaEstoque.StatusReserva;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ReservaEstoqueServiceTest {
+
+    @Mock
+    private ReservaEstoqueRepository reservaEstoqueRepository;
+
+    @Mock
+    private EstoqueRepository estoqueRepository;
+
+    @Mock
+    private ContadorEstoque contadorEstoque;
+
+    @Mock
+    private DiarioEstoque diarioEstoque;
+
+    @Mock
+    private MetricasNegocio metricasNegocio;
+
+    @InjectMocks
+    private ReservaEstoqueService reservaEstoqueService;
+
+    AutoCloseable mocksCloseable;
+
+    @BeforeEach
+    void setUp() {
+        mocksCloseable = MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(reservaEstoqueService, "validadeMinutos", 30L);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (mocksCloseable != null) {
+            mocksCloseable.close();
+        }
+    }
+
+    @Test
+    void testReservar_ReservaTodosOsProdutosPeloContador() {
+        Map<Long, Integer> quantidades = new LinkedHashMap<>();
+        quantidades.put(5L, 1);
+        quantidades.put(2L, 3);
+
+        when(contadorEstoque.reservar(quantidades)).thenReturn(true);
+
+        reservaEstoqueService.reservar(10L, quantidades);
+
+        InOrder ordem = inOrder(contadorEstoque, reservaEstoqueRepository);
+        ordem.verify(contadorEstoque).reservar(quantidades);
+        ordem.verify(reservaEstoqueRepository).saveAll(argThat((List<ReservaEstoque> reservas) -> reservas.size() == 2
+                && reservas.get(0).getProdutoId() == 2L && reservas.get(1).getProdutoId() == 5L
+                && reservas.stream().allMatch(r -> r.getPedidoId() == 10L
+                    && r.getStatus() == StatusReserva.ATIVA
+                    && r.getExpiraEm().isAfter(LocalDateTime.now()))));
+    }
+
+    @Test
+    void testReservar_SaldoDisponivelInsuficiente() {
+        // Um dos dois produtos sem saldo: o contador não reserva nenhum
+        when(contadorEstoque.reservar(anyMap())).thenReturn(false);
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> reservaEstoqueService.reservar(10L, Map.of(1L, 7, 2L, 1)));
+
+        assertEquals("Quantidade insuficiente em estoque para o produto", ex.getMessage());
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatus());
+        verify(reservaEstoqueRepository, never()).saveAll(any());
+        verify(metricasNegocio).estoqueInsuficiente("criacao-pedido");
+    }
+
+    @Test
+    void testReservarLote_SomaPorProdutoEmUmaReserva() {
+        Map<Long, Map<Long, Integer>> quantidadesPorPedido = new LinkedHashMap<>();
+        quantidadesPorPedido.put(10L, Map.of(1L, 2, 2L, 1));
+        quantidadesPorPedido.put(11L, Map.of(1L, 3));
+
+        when(contadorEstoque.reservar(Map.of(1L, 5, 2L, 1))).thenReturn(true);
+
+        reservaEstoqueService.reservarLote(quantidadesPorPedido);
+
+        verify(contadorEstoque, times(1)).reservar(anyMap());
+        verify(reservaEstoqueRepository).saveAll(argThat((List<ReservaEstoque> reservas) -> reservas.size() == 3));
+    }
+
+    @Test
+    void testReservarLote_ProdutoSemSaldoNaoReservaNada() {
+        when(contadorEstoque.reservar(anyMap())).thenReturn(false);
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> reservaEstoqueService.reservarLote(Map.of(10L, Map.of(1L, 2))));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatus());
+        verify(reservaEstoqueRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void testLiberar_DevolveReservasAtivas() {
+        ReservaEstoque reserva = reserva(1L, 3L, 4);
+        when(reservaEstoqueRepository.findByPedidoIdAndStatus(10L, StatusReserva.ATIVA)).thenReturn(List.of(reserva));
+        when(reservaEstoqueRepository.alterarStatus(1L, StatusReserva.ATIVA, StatusReserva.LIBERADA)).thenReturn(1);
+
+        reservaEstoqueService.liberar(10L);
+
+        verify(contadorEstoque).liberar(3L, 4);
+    }
+
+    @Test
+    void testLiberar_IgnoraReservaJaAlteradaPorOutraTransacao() {
+        ReservaEstoque reserva = reserva(1L, 3L, 4);
+        when(reservaEstoqueRepository.findByPedidoIdAndStatus(10L, StatusReserva.ATIVA)).thenReturn(List.of(reserva));
+        when(reservaEstoqueRepository.alterarStatus(1L, StatusReserva.ATIVA, StatusReserva.LIBERADA)).thenReturn(0);
+
+        reservaEstoqueService.liberar(10L);
+
+        verify(contadorEstoque, never()).liberar(anyLong(), anyInt());
+    }
+
+    @Test
+    void testConfirmar_RetornaQuantidadeConvertidaPorProduto() {
+        ReservaEstoque reserva1 = reserva(1L, 3L, 4);
+        ReservaEstoque reserva2 = reserva(2L, 8L, 1);
+        when(reservaEstoqueRepository.findByPedidoIdAndStatus(10L, StatusReserva.ATIVA)).thenReturn(List.of(reserva1, reserva2));
+        when(reservaEstoqueRepository.alterarStatus(anyLong(), eq(StatusReserva.ATIVA), eq(StatusReserva.CONFIRMADA))).thenReturn(1);
+        when(estoqueRepository.confirmarReserva(anyLong(), anyInt())).thenReturn(1);
+
+        Map<Long, Integer> confirmadas = reservaEstoqueService.confirmar(10L);
+
+        assertEquals(Map.of(3L, 4, 8L, 1), confirmadas);
+        verify(estoqueRepository).confirmarReserva(3L, 4);
+        verify(estoqueRepository).confirmarReserva(8L, 1);
+        // A saída física vai para o diário, em um único INSERT
+        verify(diarioEstoque).registrar(argThat(saidas -> saidas.size() == 2
+                && saidas.get(0).getProdutoId() == 3L && saidas.get(0).getQuantidade() == -4
+                && saidas.get(1).getProdutoId() == 8L && saidas.get(1).getQuantidade() == -1));
+    }
+
+    @Test
+    void testConfirmar_ReservaExpiradaNaoEConvertida() {
+        ReservaEstoque reserva = reserva(1L, 3L, 4);
+        when(reservaEstoqueRepository.findByPedidoIdAndStatus(10L, StatusReserva.ATIVA)).thenReturn(List.of(reserva));
+        when(reservaEstoqueRepository.alterarStatus(1L, StatusReserva.ATIVA, StatusReserva.CONFIRMADA)).thenReturn(0);
+
+        Map<Long, Integer> confirmadas = reservaEstoqueService.confirmar(10L);
+
+        assertTrue(confirmadas.isEmpty());
+        verify(estoqueRepository, never()).confirmarReserva(anyLong(), anyInt());
+        verify(diarioEstoque, never()).registrar(any());
+    }
+
+    @Test
+    void testExpirarVencidas_LiberaEmLote() {
+        ReservaEstoque reserva1 = reserva(1L, 9L, 2);
+        ReservaEstoque reserva2 = reserva(2L, 4L, 5);
+        when(reservaEstoqueRepository.findByStatusAndExpiraEmBeforeOrderByIdAsc(eq(StatusReserva.ATIVA), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(reserva1, reserva2));
+        when(reservaEstoqueRepository.alterarStatus(anyLong(), eq(StatusReserva.ATIVA), eq(StatusReserva.EXPIRADA))).thenReturn(1);
+
+        int processadas = reservaEstoqueService.expirarVencidas(100);
+
+        assertEquals(2, processadas);
+        InOrder ordem = inOrder(contadorEstoque);
+        ordem.verify(contadorEstoque).liberar(4L, 5);
+        ordem.verify(contadorEstoque).liberar(9L, 2);
+        verify(reservaEstoqueRepository).findByStatusAndExpiraEmBeforeOrderByIdAsc(eq(StatusReserva.ATIVA), any(LocalDateTime.class),
+                argThat((Pageable pageable) -> pageable.getPageSize() == 100));
+    }
+
+    private ReservaEstoque reserva(Long id, Long produtoId, int quantidade) {
+        return ReservaEstoque.builder()
+                .id(id)
+                .pedidoId(10L)
+                .produtoId(produtoId)
+                .quantidade(quantidade)
+                .expiraEm(LocalDateTime.now().minusMinutes(1))
+                .build();
+    }
+}